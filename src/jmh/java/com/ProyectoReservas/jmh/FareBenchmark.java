@@ -0,0 +1,55 @@
+package com.ProyectoReservas.jmh;
+
+import com.ProyectoReservas.services.fare.DynamicPricingEngine;
+import com.ProyectoReservas.services.fare.FareMatrixCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Consulta de tarifa por par de paradas (matriz en memoria) y cotización dinámica con ocupación.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FareBenchmark {
+
+    private FareMatrixCache fares;
+    private DynamicPricingEngine pricing;
+    private Long routeId;
+    private Long tripId;
+    private OffsetDateTime departureAt;
+    private List<Long> stopIds;
+    private int pair;
+
+    @Setup(Level.Trial)
+    public void setUp(JmhContext context) {
+        fares = context.bean(FareMatrixCache.class);
+        pricing = context.bean(DynamicPricingEngine.class);
+        JmhDataset dataset = context.dataset;
+        routeId = dataset.routeId;
+        tripId = dataset.manifestTripId;
+        departureAt = dataset.firstDay.atTime(6, 0).atZone(JmhDataset.ZONE).toOffsetDateTime();
+        stopIds = dataset.stopIds;
+    }
+
+    @Benchmark
+    public BigDecimal fareLookup() {
+        int from = pair++ % (JmhDataset.STOPS - 1);
+        return fares.price(routeId, stopIds.get(from), stopIds.get(JmhDataset.STOPS - 1));
+    }
+
+    @Benchmark
+    public long dynamicQuote() {
+        int from = pair++ % (JmhDataset.STOPS - 1);
+        return pricing.quoteCents(tripId, routeId, departureAt, from, JmhDataset.STOPS - 1);
+    }
+}
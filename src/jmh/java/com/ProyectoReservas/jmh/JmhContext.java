@@ -0,0 +1,83 @@
+package com.ProyectoReservas.jmh;
+
+import com.ProyectoReservas.ReservasBusesApplication;
+import com.ProyectoReservas.datagen.DatasetGenerator;
+import com.ProyectoReservas.datagen.DatasetSpec;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// Aplicación completa (servicios, motores en memoria y Postgres) compartida por todos los hilos de un
+// benchmark. Por defecto levanta un Postgres con Testcontainers; con -Djmh.jdbcUrl (más jmh.jdbcUser y
+// jmh.jdbcPassword) usa una base local ya creada. El esquema se crea vacío y se llena con JmhDataset;
+// con -Djmh.dataset.scale=0.1 antes se carga el dataset sintético de producción a esa escala, para medir
+// con tablas e índices del tamaño real.
+@State(Scope.Benchmark)
+public class JmhContext {
+
+    public ConfigurableApplicationContext context;
+    public JmhDataset dataset;
+
+    private PostgreSQLContainer<?> postgres;
+
+    @Setup(Level.Trial)
+    public void start() throws SQLException {
+        String url = System.getProperty("jmh.jdbcUrl");
+        String user = System.getProperty("jmh.jdbcUser", "postgres");
+        String password = System.getProperty("jmh.jdbcPassword", "postgres");
+        if (url == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                    .withDatabaseName("reservaciones_jmh")
+                    .withUsername("jmh")
+                    .withPassword("jmh");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            user = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.datasource.username", user);
+        properties.put("spring.datasource.password", password);
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.devtools.restart.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        context = new SpringApplicationBuilder(ReservasBusesApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .run();
+        String scale = System.getProperty("jmh.dataset.scale");
+        if (scale != null) {
+            DatasetSpec spec = DatasetSpec.production(42, LocalDate.now()).scaled(Double.parseDouble(scale));
+            new DatasetGenerator(spec).load(bean(DataSource.class), false);
+        }
+        dataset = JmhDataset.load(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
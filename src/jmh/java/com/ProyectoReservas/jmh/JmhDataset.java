@@ -0,0 +1,133 @@
+package com.ProyectoReservas.jmh;
+
+import com.ProyectoReservas.domain.entities.Bus;
+import com.ProyectoReservas.domain.entities.BusStatus;
+import com.ProyectoReservas.domain.entities.FareRule;
+import com.ProyectoReservas.domain.entities.PaymentMethod;
+import com.ProyectoReservas.domain.entities.Role;
+import com.ProyectoReservas.domain.entities.Route;
+import com.ProyectoReservas.domain.entities.Seat;
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.domain.entities.UserStatus;
+import com.ProyectoReservas.domain.repositories.BusRepository;
+import com.ProyectoReservas.domain.repositories.FareRuleRepository;
+import com.ProyectoReservas.domain.repositories.RouteRepository;
+import com.ProyectoReservas.domain.repositories.SeatRepository;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.services.seat.SeatHoldService;
+import com.ProyectoReservas.services.ticket.TicketCheckoutService;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+// Datos fijos de los benchmarks: una ruta de STOPS paradas con tarifa para cada par, un bus de SEATS
+// asientos y TRIPS viajes seguidos (sin solaparse) desde mañana. El primer viaje tiene vendidos todos
+// los asientos en cada tramo entre paradas consecutivas: es el manifiesto que se exporta.
+public final class JmhDataset {
+
+    public static final int STOPS = 6;
+    public static final int SEATS = 40;
+    public static final int TRIPS = 28;
+    public static final ZoneId ZONE = ZoneId.of("America/Bogota");
+
+    public final Long routeId;
+    public final Long passengerId;
+    public final Long manifestTripId;
+    public final List<Long> tripIds;
+    public final List<Long> stopIds;
+    public final LocalDate firstDay;
+
+    private JmhDataset(Long routeId, Long passengerId, List<Long> tripIds, List<Long> stopIds, LocalDate firstDay) {
+        this.routeId = routeId;
+        this.passengerId = passengerId;
+        this.manifestTripId = tripIds.get(0);
+        this.tripIds = tripIds;
+        this.stopIds = stopIds;
+        this.firstDay = firstDay;
+    }
+
+    static JmhDataset load(ApplicationContext context) {
+        User passenger = context.getBean(UserRepository.class).save(User.builder()
+                .name("Pasajero JMH")
+                .email("jmh@reservas.test")
+                .phone("3000000000")
+                .role(Role.PASSENGER)
+                .status(UserStatus.ACTIVE)
+                .passwordHash("hash")
+                .build());
+
+        Route route = context.getBean(RouteRepository.class).save(Route.builder()
+                .code("JMH-01")
+                .name("Ruta JMH")
+                .origin("Ciudad 0")
+                .destination("Ciudad " + (STOPS - 1))
+                .distanceKm(BigDecimal.valueOf(300))
+                .durationMin(240)
+                .timeZone(ZONE.getId())
+                .build());
+
+        List<Stop> stops = new ArrayList<>();
+        for (int position = 0; position < STOPS; position++) {
+            stops.add(Stop.builder().route(route).name("Ciudad " + position).position(position)
+                    .lat(BigDecimal.valueOf(4.6 + position * 0.1)).lng(BigDecimal.valueOf(-74.0)).build());
+        }
+        stops = context.getBean(StopRepository.class).saveAll(stops);
+
+        List<FareRule> fares = new ArrayList<>();
+        for (int from = 0; from < STOPS; from++) {
+            for (int to = from + 1; to < STOPS; to++) {
+                fares.add(FareRule.builder().route(route).fromStop(stops.get(from)).toStop(stops.get(to))
+                        .basePrice(BigDecimal.valueOf(12_000L * (to - from))).dynamicPricing(true).build());
+            }
+        }
+        context.getBean(FareRuleRepository.class).saveAll(fares);
+
+        Bus bus = context.getBean(BusRepository.class).save(Bus.builder()
+                .plate("JMH-001").capacity(SEATS).status(BusStatus.ACTIVE).build());
+        List<Seat> seats = new ArrayList<>();
+        for (int number = 1; number <= SEATS; number++) {
+            seats.add(Seat.builder().bus(bus).number(number).build());
+        }
+        context.getBean(SeatRepository.class).saveAll(seats);
+
+        LocalDate firstDay = LocalDate.now(ZONE).plusDays(1);
+        OffsetDateTime departure = firstDay.atTime(6, 0).atZone(ZONE).toOffsetDateTime();
+        List<Trip> trips = new ArrayList<>();
+        for (int i = 0; i < TRIPS; i++) {
+            // Cuatro salidas diarias de cuatro horas: el bus nunca queda en dos viajes a la vez
+            trips.add(Trip.builder().route(route).bus(bus)
+                    .departureAt(departure.plusHours(6L * i))
+                    .arrivalAt(departure.plusHours(6L * i + 4))
+                    .status(TripStatus.SCHEDULED).build());
+        }
+        TripRepository tripRepository = context.getBean(TripRepository.class);
+        List<Long> tripIds = tripRepository.saveAll(trips).stream().map(Trip::getId).toList();
+        List<Long> stopIds = stops.stream().map(Stop::getId).toList();
+
+        JmhDataset dataset = new JmhDataset(route.getId(), passenger.getId(), tripIds, stopIds, firstDay);
+        dataset.sellManifest(context);
+        return dataset;
+    }
+
+    private void sellManifest(ApplicationContext context) {
+        SeatHoldService holds = context.getBean(SeatHoldService.class);
+        TicketCheckoutService checkout = context.getBean(TicketCheckoutService.class);
+        for (int seat = 1; seat <= SEATS; seat++) {
+            List<Long> holdIds = new ArrayList<>();
+            for (int stop = 0; stop + 1 < STOPS; stop++) {
+                holdIds.add(holds.hold(manifestTripId, seat, passengerId, stopIds.get(stop), stopIds.get(stop + 1)).getId());
+            }
+            checkout.checkout(holdIds, PaymentMethod.CASH);
+        }
+    }
+}
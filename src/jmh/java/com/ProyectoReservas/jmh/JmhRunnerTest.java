@@ -0,0 +1,48 @@
+package com.ProyectoReservas.jmh;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.stream.Stream;
+
+// Lanza los benchmarks JMH desde Maven y deja los resultados en JSON para comparar entre versiones.
+// Ejecutar con: mvn test -Pjmh
+// Opciones: -Djmh.include=SeatBenchmark (regex), -Djmh.result=ruta.json, -Djmh.threads=4,
+// -Djmh.jdbcUrl=... para una base local en lugar de Testcontainers.
+@Tag("jmh")
+class JmhRunnerTest {
+
+    @Test
+    @DisplayName("Benchmarks JMH de las operaciones principales")
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include("com\\.ProyectoReservas\\.jmh\\.(" + System.getProperty("jmh.include", ".*Benchmark") + ")")
+                .forks(1)
+                .threads(Integer.getInteger("jmh.threads", 1))
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(3))
+                .jvmArgsAppend(jdbcArgs())
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("jmh.result", "target/jmh-result.json"))
+                .shouldFailOnError(true)
+                .build();
+        new Runner(options).run();
+    }
+
+    // El fork no hereda las propiedades del sistema del proceso de Maven
+    private static String[] jdbcArgs() {
+        return Stream.of("jmh.jdbcUrl", "jmh.jdbcUser", "jmh.jdbcPassword")
+                .filter(name -> System.getProperty(name) != null)
+                .map(name -> "-D" + name + "=" + System.getProperty(name))
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ProyectoReservas.jmh;
+
+import com.ProyectoReservas.services.ticket.ManifestExportService;
+import com.ProyectoReservas.services.ticket.ManifestFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Manifiesto de un viaje lleno (SEATS × tramos) en CSV y JSON, escrito a un stream que descarta bytes.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ManifestBenchmark {
+
+    @Param({"CSV", "JSON"})
+    public ManifestFormat format;
+
+    private ManifestExportService manifests;
+    private Long tripId;
+
+    @Setup(Level.Trial)
+    public void setUp(JmhContext context) {
+        manifests = context.bean(ManifestExportService.class);
+        tripId = context.dataset.manifestTripId;
+    }
+
+    @Benchmark
+    public long manifest() {
+        return manifests.exportTrip(tripId, format, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,76 @@
+package com.ProyectoReservas.jmh;
+
+import com.ProyectoReservas.domain.entities.PaymentMethod;
+import com.ProyectoReservas.domain.entities.Ticket;
+import com.ProyectoReservas.services.seat.SeatHoldService;
+import com.ProyectoReservas.services.ticket.TicketCancellationService;
+import com.ProyectoReservas.services.ticket.TicketCheckoutService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Compra completa de un asiento: retención y checkout en su transacción. Cada hilo compra en un viaje
+// distinto; cuando agota sus asientos los libera en bloque y al final de cada iteración cancela el resto.
+// La cancelación en bloque queda dentro de la medición, repartida entre los SEATS compras del bloque.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PurchaseBenchmark {
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    private SeatHoldService holds;
+    private TicketCheckoutService checkout;
+    private TicketCancellationService cancellation;
+    private Long tripId;
+    private Long passengerId;
+    private List<Long> stopIds;
+    private int seat;
+    private final List<Long> sold = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp(JmhContext context) {
+        holds = context.bean(SeatHoldService.class);
+        checkout = context.bean(TicketCheckoutService.class);
+        cancellation = context.bean(TicketCancellationService.class);
+        JmhDataset dataset = context.dataset;
+        // Desde el final, para no compartir viajes con SeatBenchmark si se corren juntos
+        tripId = dataset.tripIds.get(JmhDataset.TRIPS - 1 - THREADS.getAndIncrement() % (JmhDataset.TRIPS - 1));
+        passengerId = dataset.passengerId;
+        stopIds = dataset.stopIds;
+    }
+
+    @Benchmark
+    public List<Ticket> purchase() {
+        if (seat == JmhDataset.SEATS) {
+            cancelSold();
+        }
+        seat++;
+        Long holdId = holds.hold(tripId, seat, passengerId, stopIds.get(0), stopIds.get(JmhDataset.STOPS - 1)).getId();
+        List<Ticket> tickets = checkout.checkout(List.of(holdId), PaymentMethod.CARD);
+        for (Ticket ticket : tickets) {
+            sold.add(ticket.getId());
+        }
+        return tickets;
+    }
+
+    @TearDown(Level.Iteration)
+    public void cancelSold() {
+        for (Long ticketId : sold) {
+            cancellation.cancel(ticketId);
+        }
+        sold.clear();
+        seat = 0;
+    }
+}
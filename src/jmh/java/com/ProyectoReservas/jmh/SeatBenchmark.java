@@ -0,0 +1,68 @@
+package com.ProyectoReservas.jmh;
+
+import com.ProyectoReservas.domain.entities.SeatHold;
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import com.ProyectoReservas.services.seat.SeatHoldService;
+import com.ProyectoReservas.services.seat.SeatMap;
+import com.ProyectoReservas.services.seat.SeatState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Retención de asiento (INSERT del hold + liberación, con el motor de disponibilidad) y armado del
+// mapa de asientos de un tramo desde memoria. Cada hilo retiene en un viaje distinto.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SeatBenchmark {
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    private SeatHoldService holds;
+    private SeatAvailabilityEngine engine;
+    private Long tripId;
+    private Long manifestTripId;
+    private Long passengerId;
+    private List<Long> stopIds;
+    private int seat;
+
+    @Setup(Level.Trial)
+    public void setUp(JmhContext context) {
+        holds = context.bean(SeatHoldService.class);
+        engine = context.bean(SeatAvailabilityEngine.class);
+        JmhDataset dataset = context.dataset;
+        tripId = dataset.tripIds.get(1 + THREADS.getAndIncrement() % (JmhDataset.TRIPS - 1));
+        manifestTripId = dataset.manifestTripId;
+        passengerId = dataset.passengerId;
+        stopIds = dataset.stopIds;
+    }
+
+    @Benchmark
+    public Long holdAndRelease() {
+        seat = seat % JmhDataset.SEATS + 1;
+        SeatHold hold = holds.hold(tripId, seat, passengerId, stopIds.get(1), stopIds.get(3));
+        holds.release(hold.getId());
+        return hold.getId();
+    }
+
+    @Benchmark
+    public SeatState[] seatMap() {
+        SeatMap map = engine.seatMap(manifestTripId);
+        StopSegment segment = StopSegment.of(1, 4);
+        SeatState[] states = new SeatState[map.capacity()];
+        for (int number = 1; number <= map.capacity(); number++) {
+            states[number - 1] = map.state(number, segment);
+        }
+        return states;
+    }
+}
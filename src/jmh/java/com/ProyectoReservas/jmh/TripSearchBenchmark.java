@@ -0,0 +1,55 @@
+package com.ProyectoReservas.jmh;
+
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.services.connection.ConnectionSearchEngine;
+import com.ProyectoReservas.services.connection.Itinerary;
+import com.ProyectoReservas.services.trip.TripSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Viajes del día de una ruta (consulta a Postgres) y búsqueda de itinerarios en el horario en memoria.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TripSearchBenchmark {
+
+    private static final int DAYS = JmhDataset.TRIPS / 4;
+
+    private TripSearchService tripSearch;
+    private ConnectionSearchEngine connections;
+    private Long routeId;
+    private LocalDate firstDay;
+    private int day;
+
+    @Setup(Level.Trial)
+    public void setUp(JmhContext context) {
+        tripSearch = context.bean(TripSearchService.class);
+        connections = context.bean(ConnectionSearchEngine.class);
+        // El horario se armó al arrancar, antes de cargar los datos
+        connections.rebuild();
+        routeId = context.dataset.routeId;
+        firstDay = context.dataset.firstDay;
+    }
+
+    @Benchmark
+    public List<Trip> tripsOfDay() {
+        return tripSearch.findAvailableTrips(routeId, firstDay.plusDays(day++ % DAYS));
+    }
+
+    @Benchmark
+    public List<Itinerary> connectionSearch() {
+        OffsetDateTime departAfter = firstDay.plusDays(day++ % DAYS).atStartOfDay(JmhDataset.ZONE).toOffsetDateTime();
+        return connections.search("Ciudad 1", "Ciudad " + (JmhDataset.STOPS - 1), departAfter);
+    }
+}
@@ -0,0 +1,106 @@
+package com.ProyectoReservas.jmh;
+
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.services.user.UserSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Búsqueda de usuarios sobre 5 millones de filas: fragmento de email (pocas coincidencias), nombre
+// completo, nombre con un error de tipeo y parte de un teléfono por UserSearchService, frente al LIKE
+// '%texto%' anterior sobre nombre, email y teléfono (recorre toda la tabla).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserSearchBenchmark {
+
+    static final int USERS = 5_000_000;
+
+    private static final String[] EMAILS = {"usuario4999999@", "usuario3999999@", "usuario4242424@", "usuario2718281@"};
+    private static final String[] NAMES = {"laura gomez rojas", "miguel torres diaz", "camila perez vargas"};
+    private static final String[] TYPOS = {"laura gomes rojas", "migel torres dias", "camila peres vargaz"};
+    private static final String[] PHONES = {"3123456", "3009871", "3187654", "3051234"};
+
+    private static final String LEGACY_LIKE = """
+            SELECT id FROM users
+            WHERE lower(name) LIKE lower('%' || ? || '%')
+               OR lower(email) LIKE lower('%' || ? || '%')
+               OR phone LIKE '%' || ? || '%'
+            LIMIT 20
+            """;
+
+    // Usuarios cargados una vez por corrida con generate_series (los datos quedan entre benchmarks)
+    @State(Scope.Benchmark)
+    public static class Users {
+
+        @Setup(Level.Trial)
+        public void load(JmhContext context) {
+            JdbcTemplate jdbc = context.bean(JdbcTemplate.class);
+            Long count = jdbc.queryForObject("SELECT count(*) FROM users", Long.class);
+            if (count != null && count >= USERS) {
+                return;
+            }
+            jdbc.update("""
+                    INSERT INTO users (name, email, phone, role, status, password_hash, created_at)
+                    SELECT (ARRAY['Ana','Luis','Maria','Carlos','Laura','Jorge','Diana','Andres','Paula','Felipe',
+                                  'Camila','Juan','Valentina','Santiago','Daniela','Miguel'])[1 + i % 16]
+                           || ' ' || (ARRAY['Gomez','Rodriguez','Martinez','Lopez','Garcia','Perez','Sanchez','Ramirez',
+                                  'Torres','Diaz','Vargas','Castro','Moreno','Rojas','Herrera'])[1 + (i / 16) % 15]
+                           || ' ' || (ARRAY['Gomez','Rodriguez','Martinez','Lopez','Garcia','Perez','Sanchez','Ramirez',
+                                  'Torres','Diaz','Vargas','Castro','Moreno','Rojas','Herrera'])[1 + (i / 240) % 15],
+                           'usuario' || i || '@reservas.test',
+                           '3' || lpad(((i::bigint * 7919) % 1000000000)::text, 9, '0'),
+                           'PASSENGER', 'ACTIVE', 'hash', now()
+                    FROM generate_series(1, ?) AS i
+                    """, USERS);
+            jdbc.execute("ANALYZE users");
+        }
+    }
+
+    private UserSearchService search;
+    private JdbcTemplate jdbc;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(JmhContext context, Users users) {
+        search = context.bean(UserSearchService.class);
+        jdbc = context.bean(JdbcTemplate.class);
+    }
+
+    @Benchmark
+    public Slice<User> emailFragment() {
+        return search.search(EMAILS[next++ % EMAILS.length], PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Slice<User> fullName() {
+        return search.search(NAMES[next++ % NAMES.length], PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Slice<User> fullNameWithTypo() {
+        return search.search(TYPOS[next++ % TYPOS.length], PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Slice<User> phone() {
+        return search.search(PHONES[next++ % PHONES.length], PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<Long> legacyLike() {
+        String query = EMAILS[next++ % EMAILS.length];
+        return jdbc.queryForList(LEGACY_LIKE, Long.class, query, query, query);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ProyectoReservas;
+
+import com.ProyectoReservas.datagen.DatasetGenerator;
+import com.ProyectoReservas.datagen.DatasetSpec;
+import com.ProyectoReservas.datagen.DatasetSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+// Carga el dataset sintético en la base configurada, sin servidor web. Los argumentos son los de la
+// aplicación (--spring.datasource.url=..., etc.) más las opciones del generador:
+//   --dataset.preset=production|small  (production)
+//   --dataset.seed=42  --dataset.scale=1.0  --dataset.today=2025-06-01 (hoy)
+//   --dataset.truncate=true            vacía las tablas antes de cargar
+//   --dataset.create-schema=true       crea el esquema con Hibernate (base vacía)
+// Ejemplo: java -cp app.jar -Dloader.main=com.ProyectoReservas.DatasetGeneratorApplication
+//          org.springframework.boot.loader.launch.PropertiesLauncher --dataset.scale=0.1 --dataset.truncate=true
+@Slf4j
+public class DatasetGeneratorApplication {
+
+	public static void main(String[] args) throws Exception {
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(ReservasBusesApplication.class)
+				.web(WebApplicationType.NONE);
+		if (hasFlag(args, "--dataset.create-schema")) {
+			builder.properties("spring.jpa.hibernate.ddl-auto=create");
+		}
+		try (ConfigurableApplicationContext context = builder.run(args)) {
+			Environment env = context.getEnvironment();
+			long seed = env.getProperty("dataset.seed", Long.class, 42L);
+			String day = env.getProperty("dataset.today");
+			LocalDate today = day != null ? LocalDate.parse(day) : LocalDate.now();
+			DatasetSpec spec = "small".equals(env.getProperty("dataset.preset"))
+					? DatasetSpec.small(seed, today)
+					: DatasetSpec.production(seed, today);
+			double scale = env.getProperty("dataset.scale", Double.class, 1.0);
+			if (scale != 1.0) {
+				spec = spec.scaled(scale);
+			}
+			boolean truncate = env.getProperty("dataset.truncate", Boolean.class, false);
+
+			DatasetSummary summary = new DatasetGenerator(spec).load(context.getBean(DataSource.class), truncate);
+			log.info("Dataset cargado: {} filas en {} s", summary.totalRows(), summary.elapsed().toSeconds());
+		}
+	}
+
+	private static boolean hasFlag(String[] args, String name) {
+		for (String arg : args) {
+			if (arg.equals(name) || arg.equals(name + "=true")) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
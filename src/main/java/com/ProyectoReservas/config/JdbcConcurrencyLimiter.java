@@ -0,0 +1,114 @@
+package com.ProyectoReservas.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Semáforo justo delante del pool de HikariCP: como mucho maxConcurrency conexiones pedidas a la vez.
+// Con hilos virtuales puede haber miles de peticiones esperando conexión; aquí esperan estacionadas y en
+// orden de llegada, sin ocupar un hilo del sistema ni competir en la cola interna de Hikari hasta su
+// connectionTimeout. Quien no consigue permiso en acquireTimeout recibe SQLTransientConnectionException
+// (la misma que lanza Hikari). El permiso se devuelve al cerrar la conexión, una sola vez.
+public class JdbcConcurrencyLimiter extends DelegatingDataSource {
+
+    private final int maxConcurrency;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+    private final LongAdder timeouts = new LongAdder();
+
+    public JdbcConcurrencyLimiter(DataSource target, int maxConcurrency, Duration acquireTimeout) {
+        super(target);
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency debe ser positivo: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return withPermit(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return withPermit(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int inUse() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    // Estimación: hilos esperando permiso en este momento
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException(String.format(
+                        "Sin conexión JDBC libre tras %d ms (%d en uso, %d esperando)",
+                        TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos), inUse(), waiting()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión JDBC", e);
+        }
+    }
+
+    // La conexión devuelta libera el permiso en close(); el resto de llamadas van a la conexión del pool
+    private Connection withPermit(Connection connection) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (closed.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,40 @@
+package com.ProyectoReservas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+// Pone JdbcConcurrencyLimiter delante del pool de HikariCP de la aplicación.
+// reservas.jdbc.max-concurrency: conexiones a la vez (por defecto y como máximo, el tamaño del pool);
+// reservas.jdbc.acquire-timeout-ms: espera máxima por un permiso antes de fallar.
+@Slf4j
+@Configuration
+public class JdbcLimiterConfig {
+
+    static final long DEFAULT_ACQUIRE_TIMEOUT_MS = 5000;
+
+    @Bean
+    static BeanPostProcessor jdbcConcurrencyLimiterPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                int poolSize = hikari.getMaximumPoolSize();
+                int maxConcurrency = Math.min(poolSize,
+                        environment.getProperty("reservas.jdbc.max-concurrency", Integer.class, poolSize));
+                long timeoutMs = environment.getProperty("reservas.jdbc.acquire-timeout-ms", Long.class,
+                        DEFAULT_ACQUIRE_TIMEOUT_MS);
+                log.info("Límite de concurrencia JDBC: {} conexiones (pool de {}), espera máxima {} ms",
+                        maxConcurrency, poolSize, timeoutMs);
+                return new JdbcConcurrencyLimiter(hikari, maxConcurrency, Duration.ofMillis(timeoutMs));
+            }
+        };
+    }
+}
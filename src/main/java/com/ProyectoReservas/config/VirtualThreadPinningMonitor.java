@@ -0,0 +1,114 @@
+package com.ProyectoReservas.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Avisa cuando un hilo virtual queda fijado a su hilo del sistema (bloqueo dentro de synchronized o de
+// código nativo) más de THRESHOLD. Escucha el evento jdk.VirtualThreadPinned de JFR dentro del propio
+// proceso: el primer caso de cada lugar se registra con su pila y después solo se cuenta; cada minuto se
+// resume lo acumulado. Solo existe con spring.threads.virtual.enabled=true.
+// Para una traza puntual sin la aplicación: -Djdk.tracePinnedThreads=short
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final Duration THRESHOLD = Duration.ofMillis(20);
+    static final int STACK_DEPTH = 12;
+    static final long SUMMARY_MILLIS = 60 * 1000;
+    private static final String APP_PACKAGE = "com.ProyectoReservas.";
+
+    private final Map<String, LongAdder> byLocation = new ConcurrentHashMap<>();
+    private final LongAdder pinned = new LongAdder();
+    private volatile RecordingStream stream;
+    private long summarized;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(THRESHOLD).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Vigilando hilos virtuales fijados más de {} ms", THRESHOLD.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    public long pinnedCount() {
+        return pinned.sum();
+    }
+
+    @Scheduled(fixedDelay = SUMMARY_MILLIS, initialDelay = SUMMARY_MILLIS)
+    public void logSummary() {
+        long total = pinned.sum();
+        if (total == summarized) {
+            return;
+        }
+        summarized = total;
+        StringBuilder summary = new StringBuilder();
+        byLocation.forEach((location, count) -> summary.append("\n  ").append(count.sum()).append(" x ").append(location));
+        log.warn("Hilos virtuales fijados: {} en total{}", total, summary);
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinned.increment();
+        String location = location(event.getStackTrace());
+        // Los eventos llegan de a uno por el hilo del RecordingStream
+        LongAdder count = byLocation.computeIfAbsent(location, key -> new LongAdder());
+        if (count.sum() == 0) {
+            log.warn("Hilo virtual fijado {} ms en {}{}", event.getDuration().toMillis(), location,
+                    stack(event.getStackTrace()));
+        }
+        count.increment();
+    }
+
+    // Primer marco de la aplicación: es donde se puede cambiar synchronized por un ReentrantLock (así lo
+    // hacen las cachés que consultan la base mientras tienen el lock de reconstrucción)
+    static String location(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(sin pila)";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APP_PACKAGE)) {
+                return frame(frame);
+            }
+        }
+        return frame(stackTrace.getFrames().get(0));
+    }
+
+    private static String stack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder lines = new StringBuilder();
+        stackTrace.getFrames().stream().limit(STACK_DEPTH).forEach(frame -> lines.append("\n    at ").append(frame(frame)));
+        return lines.toString();
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,545 @@
+package com.ProyectoReservas.datagen;
+
+import com.ProyectoReservas.domain.entities.BusStatus;
+import com.ProyectoReservas.domain.entities.HoldStatus;
+import com.ProyectoReservas.domain.entities.IncidentEntityType;
+import com.ProyectoReservas.domain.entities.IncidentType;
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.entities.Role;
+import com.ProyectoReservas.domain.entities.SeatType;
+import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.entities.UserStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Generador determinista del dataset de carga: llena las tablas del esquema en orden de claves
+// foráneas con ids explícitos, escribiendo filas en un TableSink (COPY para Postgres, o en memoria en
+// los tests). Solo el calendario (FleetPlan) vive en memoria; tickets, holds, equipaje, encomiendas e
+// incidentes se regeneran viaje por viaje, por eso trips puede llevar sus contadores antes que tickets.
+// load() deja las secuencias e identidades después del último id para que la aplicación siga insertando.
+@Slf4j
+public class DatasetGenerator {
+
+    // Orden de carga
+    public static final List<String> TABLES = List.of("configs", "users", "routes", "stops", "fare_rules",
+            "buses", "seats", "trips", "assignments", "seat_holds", "tickets", "baggages", "parcels",
+            "parcel_status_audit", "incidents");
+
+    private static final Map<String, String> CONFIGS = Map.of(
+            "seat.hold.minutes", "10",
+            "baggage.free.kg", "20",
+            "baggage.fee.per.kg", "2500",
+            "overbooking.percent", "5");
+
+    private static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6l1yX0JzNfBq3rQ6rJ7mXHe";
+    private static final String AMENITIES = "{\"wifi\": true, \"ac\": true, \"usb\": true}";
+
+    private final DatasetSpec spec;
+    private final FleetPlan plan;
+    private final long passengers;
+    private final long clerks;
+    private final long dispatchers;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+        this.plan = FleetPlan.of(spec);
+        this.passengers = spec.passengers();
+        this.clerks = Math.max(5, spec.routes() / 10);
+        this.dispatchers = Math.max(2, spec.routes() / 50);
+    }
+
+    public int tripCount() {
+        return plan.trips;
+    }
+
+    public int busCount() {
+        return plan.buses;
+    }
+
+    // Vacía las tablas (si truncate), carga todo con COPY en una transacción y actualiza estadísticas
+    public DatasetSummary load(DataSource dataSource, boolean truncate) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                if (truncate) {
+                    statement.execute("TRUNCATE " + String.join(", ", TABLES) + " RESTART IDENTITY CASCADE");
+                }
+                DatasetSummary summary = generate(new CopySink(connection));
+                resetSequences(statement);
+                connection.commit();
+                connection.setAutoCommit(true);
+                statement.execute("ANALYZE");
+                return summary;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    public DatasetSummary generate(TableSink sink) {
+        long started = System.nanoTime();
+        Map<String, Long> rows = new LinkedHashMap<>();
+        rows.put("configs", configs(sink));
+        rows.put("users", users(sink));
+        rows.put("routes", routes(sink));
+        rows.put("stops", stops(sink));
+        rows.put("fare_rules", fareRules(sink));
+        rows.put("buses", buses(sink));
+        rows.put("seats", seats(sink));
+        rows.put("trips", trips(sink));
+        rows.put("assignments", assignments(sink));
+        rows.put("seat_holds", seatHolds(sink));
+        rows.put("tickets", tickets(sink));
+        rows.put("baggages", baggages(sink));
+        rows.put("parcels", parcels(sink));
+        rows.put("parcel_status_audit", parcelAudit(sink));
+        rows.put("incidents", incidents(sink));
+        DatasetSummary summary = new DatasetSummary(rows, Duration.ofNanos(System.nanoTime() - started));
+        log.info("Dataset (semilla {}): {} filas en {} s {}", spec.seed(), summary.totalRows(),
+                summary.elapsed().toSeconds(), rows);
+        return summary;
+    }
+
+    private long configs(TableSink sink) {
+        sink.begin("configs", List.of("key", "value"));
+        Object[] row = new Object[2];
+        CONFIGS.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            row[0] = entry.getKey();
+            row[1] = entry.getValue();
+            sink.row(row);
+        });
+        return sink.end();
+    }
+
+    // Pasajeros, conductores, taquilleros, despachadores y dos administradores, en ese orden de ids
+    private long users(TableSink sink) {
+        sink.begin("users", List.of("id", "name", "email", "phone", "role", "status", "password_hash", "created_at"));
+        Object[] row = new Object[8];
+        long id = 0;
+        id = users(sink, row, id, passengers, Role.PASSENGER, "pasajero");
+        id = users(sink, row, id, plan.drivers, Role.DRIVER, "conductor");
+        id = users(sink, row, id, clerks, Role.CLERK, "taquilla");
+        id = users(sink, row, id, dispatchers, Role.DISPATCHER, "despacho");
+        users(sink, row, id, 2, Role.ADMIN, "admin");
+        return sink.end();
+    }
+
+    private long users(TableSink sink, Object[] row, long firstId, long count, Role role, String prefix) {
+        for (long n = 1; n <= count; n++) {
+            long id = firstId + n;
+            SplittableRandom random = DatasetRandom.of(spec.seed(), DatasetRandom.USERS, id);
+            row[0] = id;
+            row[1] = TripParcels.name(random);
+            row[2] = prefix + n + "@reservas.test";
+            row[3] = TripParcels.phone(random);
+            row[4] = role;
+            row[5] = role == Role.PASSENGER && random.nextDouble() < 0.02 ? UserStatus.INACTIVE : UserStatus.ACTIVE;
+            row[6] = PASSWORD_HASH;
+            row[7] = Instant.ofEpochSecond(plan.now - 86_400L * (30 + random.nextInt(1_000)));
+            sink.row(row);
+        }
+        return firstId + count;
+    }
+
+    private long routes(TableSink sink) {
+        sink.begin("routes", List.of("id", "code", "name", "origin", "destination", "distance_km", "duration_min", "time_zone"));
+        Object[] row = new Object[8];
+        for (int r = 0; r < plan.routes; r++) {
+            String origin = plan.stopNames[r][0];
+            String destination = plan.stopNames[r][plan.stops - 1];
+            row[0] = plan.routeId(r);
+            row[1] = String.format("R%05d", r + 1);
+            row[2] = origin + " - " + destination;
+            row[3] = origin;
+            row[4] = destination;
+            row[5] = BigDecimal.valueOf(plan.distanceKm[r]);
+            row[6] = plan.durationMin[r];
+            row[7] = spec.zone().getId();
+            sink.row(row);
+        }
+        return sink.end();
+    }
+
+    private long stops(TableSink sink) {
+        sink.begin("stops", List.of("id", "route_id", "name", "position", "lat", "lng"));
+        Object[] row = new Object[6];
+        for (int r = 0; r < plan.routes; r++) {
+            for (int p = 0; p < plan.stops; p++) {
+                row[0] = plan.stopId(r, p);
+                row[1] = plan.routeId(r);
+                row[2] = plan.stopNames[r][p];
+                row[3] = p;
+                row[4] = BigDecimal.valueOf(plan.stopLat[r][p]);
+                row[5] = BigDecimal.valueOf(plan.stopLng[r][p]);
+                sink.row(row);
+            }
+        }
+        return sink.end();
+    }
+
+    private long fareRules(TableSink sink) {
+        sink.begin("fare_rules", List.of("id", "route_id", "from_stop_id", "to_stop_id", "base_price", "dynamic_pricing"));
+        Object[] row = new Object[6];
+        long id = 0;
+        for (int r = 0; r < plan.routes; r++) {
+            for (int from = 0; from < plan.stops; from++) {
+                for (int to = from + 1; to < plan.stops; to++) {
+                    row[0] = ++id;
+                    row[1] = plan.routeId(r);
+                    row[2] = plan.stopId(r, from);
+                    row[3] = plan.stopId(r, to);
+                    row[4] = money(plan.fareCents(r, from, to));
+                    row[5] = plan.popularity[r] > 0.3;
+                    sink.row(row);
+                }
+            }
+        }
+        return sink.end();
+    }
+
+    private long buses(TableSink sink) {
+        sink.begin("buses", List.of("id", "plate", "capacity", "amenities", "status"));
+        Object[] row = new Object[5];
+        for (int b = 1; b <= plan.buses; b++) {
+            row[0] = (long) b;
+            row[1] = plate(b);
+            row[2] = spec.seatsPerBus();
+            row[3] = AMENITIES;
+            row[4] = BusStatus.ACTIVE;
+            sink.row(row);
+        }
+        return sink.end();
+    }
+
+    private long seats(TableSink sink) {
+        sink.begin("seats", List.of("id", "bus_id", "number", "type"));
+        Object[] row = new Object[4];
+        long id = 0;
+        for (int b = 1; b <= plan.buses; b++) {
+            for (int number = 1; number <= spec.seatsPerBus(); number++) {
+                row[0] = ++id;
+                row[1] = (long) b;
+                row[2] = number;
+                row[3] = number <= 4 ? SeatType.PREFERENTIAL : SeatType.STANDARD;
+                sink.row(row);
+            }
+        }
+        return sink.end();
+    }
+
+    private long trips(TableSink sink) {
+        sink.begin("trips", List.of("id", "route_id", "bus_id", "departure_at", "arrival_at", "status",
+                "current_position", "sold_count", "held_count"));
+        Object[] row = new Object[9];
+        TripSales sales = new TripSales(plan);
+        // sold_count y held_count cuentan asientos (como TripOccupancyCounters): vendido si tiene algún
+        // ticket SOLD, retenido si solo tiene holds vigentes. Las ventas llegan agrupadas por asiento
+        int[] counts = new int[2];
+        int[] seat = new int[3]; // asiento actual, filas SOLD, filas HOLD
+        int last = plan.stops - 1;
+        for (int t = 0; t < plan.trips; t++) {
+            counts[0] = 0;
+            counts[1] = 0;
+            seat[0] = 0;
+            sales.walk(t, sale -> {
+                if (sale.seat != seat[0]) {
+                    countSeat(seat, counts);
+                    seat[0] = sale.seat;
+                }
+                if (sale.hold ? sale.holdStatus == HoldStatus.HOLD : sale.ticketStatus == TicketStatus.SOLD) {
+                    seat[sale.hold ? 2 : 1]++;
+                }
+            });
+            countSeat(seat, counts);
+            TripStatus status = plan.status[t];
+            row[0] = plan.tripId(t);
+            row[1] = plan.routeId(plan.tripRoute[t]);
+            row[2] = (long) plan.bus[t];
+            row[3] = Instant.ofEpochSecond(plan.departure[t]);
+            row[4] = Instant.ofEpochSecond(plan.arrival[t]);
+            row[5] = status;
+            row[6] = switch (status) {
+                case ARRIVED -> last;
+                case DEPARTED -> (int) (last * (plan.now - plan.departure[t]) / (plan.arrival[t] - plan.departure[t]));
+                default -> null;
+            };
+            row[7] = counts[0];
+            row[8] = counts[1];
+            sink.row(row);
+        }
+        return sink.end();
+    }
+
+    private static void countSeat(int[] seat, int[] counts) {
+        if (seat[1] > 0) {
+            counts[0]++;
+        } else if (seat[2] > 0) {
+            counts[1]++;
+        }
+        seat[1] = 0;
+        seat[2] = 0;
+    }
+
+    private long assignments(TableSink sink) {
+        sink.begin("assignments", List.of("id", "trip_id", "driver_id", "dispatcher_id", "checklist_ok", "assigned_at"));
+        Object[] row = new Object[6];
+        long id = 0;
+        long firstDispatcher = passengers + plan.drivers + clerks + 1;
+        for (int t = 0; t < plan.trips; t++) {
+            if (plan.driver[t] == 0) {
+                continue;
+            }
+            SplittableRandom random = DatasetRandom.of(spec.seed(), DatasetRandom.ASSIGNMENTS, plan.tripId(t));
+            row[0] = ++id;
+            row[1] = plan.tripId(t);
+            row[2] = passengers + plan.driver[t];
+            row[3] = firstDispatcher + random.nextInt((int) dispatchers);
+            row[4] = plan.status[t] == TripStatus.ARRIVED || plan.status[t] == TripStatus.DEPARTED;
+            row[5] = Instant.ofEpochSecond(Math.min(plan.departure[t] - 86_400, plan.now - random.nextInt(3_600)));
+            sink.row(row);
+        }
+        return sink.end();
+    }
+
+    private long seatHolds(TableSink sink) {
+        sink.begin("seat_holds", List.of("id", "trip_id", "user_id", "seat_number", "from_stop_id", "to_stop_id",
+                "from_position", "to_position", "expires_at", "status"));
+        Object[] row = new Object[10];
+        long[] id = {0};
+        TripSales sales = new TripSales(plan);
+        for (int t = 0; t < plan.trips; t++) {
+            int trip = t;
+            int route = plan.tripRoute[t];
+            sales.walk(t, sale -> {
+                if (!sale.hold) return;
+                row[0] = ++id[0];
+                row[1] = plan.tripId(trip);
+                row[2] = sale.passengerId;
+                row[3] = sale.seat;
+                row[4] = plan.stopId(route, sale.fromPosition);
+                row[5] = plan.stopId(route, sale.toPosition);
+                row[6] = sale.fromPosition;
+                row[7] = sale.toPosition;
+                row[8] = Instant.ofEpochSecond(sale.at);
+                row[9] = sale.holdStatus;
+                sink.row(row);
+            });
+        }
+        return sink.end();
+    }
+
+    private long tickets(TableSink sink) {
+        sink.begin("tickets", List.of("id", "trip_id", "passenger_id", "seat_number", "from_stop_id", "to_stop_id",
+                "from_position", "to_position", "price", "payment_method", "status", "qr_code", "purchased_at"));
+        Object[] row = new Object[13];
+        long[] id = {0};
+        TripSales sales = new TripSales(plan);
+        for (int t = 0; t < plan.trips; t++) {
+            int trip = t;
+            int route = plan.tripRoute[t];
+            sales.walk(t, sale -> {
+                if (sale.hold) return;
+                long ticketId = ++id[0];
+                row[0] = ticketId;
+                row[1] = plan.tripId(trip);
+                row[2] = sale.passengerId;
+                row[3] = sale.seat;
+                row[4] = plan.stopId(route, sale.fromPosition);
+                row[5] = plan.stopId(route, sale.toPosition);
+                row[6] = sale.fromPosition;
+                row[7] = sale.toPosition;
+                row[8] = money(sale.priceCents);
+                row[9] = sale.paymentMethod;
+                row[10] = sale.ticketStatus;
+                row[11] = "QR-" + Long.toString(ticketId, 36).toUpperCase() + "-" + Long.toString(sale.passengerId, 36).toUpperCase();
+                row[12] = Instant.ofEpochSecond(sale.at);
+                sink.row(row);
+            });
+        }
+        return sink.end();
+    }
+
+    // Mismo recorrido que tickets: el id del ticket es su posición en ese recorrido
+    private long baggages(TableSink sink) {
+        sink.begin("baggages", List.of("id", "ticket_id", "weight_kg", "fee", "tag_code"));
+        Object[] row = new Object[5];
+        long[] ids = {0, 0};
+        TripSales sales = new TripSales(plan);
+        for (int t = 0; t < plan.trips; t++) {
+            sales.walk(t, sale -> {
+                if (sale.hold) return;
+                long ticketId = ++ids[0];
+                if (sale.baggageTenthsKg == 0) return;
+                row[0] = ++ids[1];
+                row[1] = ticketId;
+                row[2] = BigDecimal.valueOf(sale.baggageTenthsKg, 1);
+                row[3] = money(sale.baggageFeeCents());
+                row[4] = "BG-" + Long.toString(ticketId, 36).toUpperCase();
+                sink.row(row);
+            });
+        }
+        return sink.end();
+    }
+
+    private long parcels(TableSink sink) {
+        sink.begin("parcels", List.of("id", "code", "trip_id", "sender_name", "sender_phone", "receiver_name",
+                "receiver_phone", "from_stop_id", "to_stop_id", "price", "status", "created_at"));
+        Object[] row = new Object[12];
+        long[] id = {0};
+        TripParcels parcels = new TripParcels(plan);
+        for (int t = 0; t < plan.trips; t++) {
+            int trip = t;
+            int route = plan.tripRoute[t];
+            parcels.walk(t, parcel -> {
+                long parcelId = ++id[0];
+                row[0] = parcelId;
+                row[1] = parcelCode(parcelId);
+                row[2] = plan.tripId(trip);
+                row[3] = parcel.senderName;
+                row[4] = parcel.senderPhone;
+                row[5] = parcel.receiverName;
+                row[6] = parcel.receiverPhone;
+                row[7] = parcel.fromPosition == null ? null : plan.stopId(route, parcel.fromPosition);
+                row[8] = parcel.toPosition == null ? null : plan.stopId(route, parcel.toPosition);
+                row[9] = money(parcel.priceCents);
+                row[10] = parcel.status;
+                row[11] = Instant.ofEpochSecond(parcel.createdAt);
+                sink.row(row);
+            });
+        }
+        return sink.end();
+    }
+
+    // Salida (CREATED -> IN_TRANSIT) y cierre (-> DELIVERED | FAILED) de cada encomienda que los tuvo
+    private long parcelAudit(TableSink sink) {
+        sink.begin("parcel_status_audit", List.of("id", "parcel_id", "parcel_code", "trip_id", "stop_id",
+                "from_status", "to_status", "changed_at"));
+        Object[] row = new Object[8];
+        long[] ids = {0, 0};
+        TripParcels parcels = new TripParcels(plan);
+        for (int t = 0; t < plan.trips; t++) {
+            int trip = t;
+            int route = plan.tripRoute[t];
+            parcels.walk(t, parcel -> {
+                long parcelId = ++ids[0];
+                row[1] = parcelId;
+                row[2] = parcelCode(parcelId);
+                row[3] = plan.tripId(trip);
+                if (parcel.departedAt > 0) {
+                    row[0] = ++ids[1];
+                    row[4] = parcel.fromPosition == null ? null : plan.stopId(route, parcel.fromPosition);
+                    row[5] = ParcelStatus.CREATED;
+                    row[6] = ParcelStatus.IN_TRANSIT;
+                    row[7] = Instant.ofEpochSecond(parcel.departedAt);
+                    sink.row(row);
+                }
+                if (parcel.finishedAt > 0) {
+                    row[0] = ++ids[1];
+                    row[4] = parcel.toPosition == null || parcel.status == ParcelStatus.FAILED
+                            ? null : plan.stopId(route, parcel.toPosition);
+                    row[5] = parcel.departedAt > 0 ? ParcelStatus.IN_TRANSIT : ParcelStatus.CREATED;
+                    row[6] = parcel.status;
+                    row[7] = Instant.ofEpochSecond(parcel.finishedAt);
+                    sink.row(row);
+                }
+            });
+        }
+        return sink.end();
+    }
+
+    // Fallas de vehículo y de seguridad en viajes que ya salieron, cancelaciones con su causa y una
+    // incidencia de entrega por cada encomienda fallida
+    private long incidents(TableSink sink) {
+        sink.begin("incidents", List.of("id", "entity_type", "entity_id", "type", "note", "created_at"));
+        Object[] row = new Object[6];
+        long[] ids = {0, 0};
+        TripParcels parcels = new TripParcels(plan);
+        for (int t = 0; t < plan.trips; t++) {
+            SplittableRandom random = DatasetRandom.of(spec.seed(), DatasetRandom.INCIDENTS, plan.tripId(t));
+            double roll = random.nextDouble();
+            IncidentType type = null;
+            String note = null;
+            if (plan.status[t] == TripStatus.CANCELLED && roll < 0.5) {
+                type = IncidentType.VEHICLE;
+                note = "Viaje cancelado por falla mecánica";
+            } else if (!plan.isFuture(t) && roll < 0.003) {
+                type = IncidentType.VEHICLE;
+                note = "Falla mecánica en ruta";
+            } else if (!plan.isFuture(t) && roll < 0.004) {
+                type = IncidentType.SECURITY;
+                note = "Revisión de seguridad en retén";
+            }
+            if (type != null) {
+                row[0] = ++ids[1];
+                row[1] = IncidentEntityType.TRIP;
+                row[2] = plan.tripId(t);
+                row[3] = type;
+                row[4] = note;
+                row[5] = Instant.ofEpochSecond(Math.min(plan.departure[t] + random.nextInt(3_600), plan.now));
+                sink.row(row);
+            }
+            parcels.walk(t, parcel -> {
+                long parcelId = ++ids[0];
+                if (parcel.status != ParcelStatus.FAILED) return;
+                row[0] = ++ids[1];
+                row[1] = IncidentEntityType.PARCEL;
+                row[2] = parcelId;
+                row[3] = IncidentType.DELIVERY_FAIL;
+                row[4] = "Destinatario no encontrado";
+                row[5] = Instant.ofEpochSecond(parcel.finishedAt);
+                sink.row(row);
+            });
+        }
+        return sink.end();
+    }
+
+    private void resetSequences(Statement statement) throws SQLException {
+        for (String table : TABLES) {
+            if (table.equals("configs") || table.equals("tickets") || table.equals("seat_holds")) {
+                continue;
+            }
+            statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                    + "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "), false)");
+        }
+        // Secuencias con bloques de 50 (optimizador pooled): se deja un bloque completo de margen
+        statement.execute("SELECT setval('tickets_seq', (SELECT COALESCE(MAX(id), 0) + 100 FROM tickets))");
+        statement.execute("SELECT setval('seat_holds_seq', (SELECT COALESCE(MAX(id), 0) + 100 FROM seat_holds))");
+    }
+
+    static String parcelCode(long parcelId) {
+        return "PKG-" + String.format("%08d", parcelId);
+    }
+
+    // AAA000, AAA001, ... : única para los primeros 17 millones de buses
+    static String plate(int bus) {
+        int n = bus - 1;
+        int digits = n % 1000;
+        int letters = n / 1000;
+        char[] plate = new char[6];
+        for (int i = 2; i >= 0; i--) {
+            plate[i] = (char) ('A' + letters % 26);
+            letters /= 26;
+        }
+        plate[3] = (char) ('0' + digits / 100);
+        plate[4] = (char) ('0' + digits / 10 % 10);
+        plate[5] = (char) ('0' + digits % 10);
+        return new String(plate);
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
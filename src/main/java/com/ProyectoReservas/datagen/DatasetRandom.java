@@ -0,0 +1,31 @@
+package com.ProyectoReservas.datagen;
+
+import java.util.SplittableRandom;
+
+// Generadores independientes por (semilla, tabla, entidad): cada viaje, ruta o usuario tiene su propia
+// secuencia, así una tabla se puede regenerar sin depender del orden en que se escribieron las demás.
+final class DatasetRandom {
+
+    static final long ROUTES = 1;
+    static final long SCHEDULE = 2;
+    static final long STATUS = 3;
+    static final long SALES = 4;
+    static final long PARCELS = 5;
+    static final long USERS = 6;
+    static final long INCIDENTS = 7;
+    static final long ASSIGNMENTS = 8;
+
+    private DatasetRandom() {
+    }
+
+    static SplittableRandom of(long seed, long stream, long id) {
+        return new SplittableRandom(mix(mix(seed ^ (stream * 0x9E3779B97F4A7C15L)) + id));
+    }
+
+    // Finalizador de SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
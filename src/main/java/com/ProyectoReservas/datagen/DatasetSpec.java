@@ -0,0 +1,44 @@
+package com.ProyectoReservas.datagen;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+// Parámetros del dataset sintético. Con la misma semilla y los mismos parámetros (incluido today, el
+// día que se toma como "hoy") el generador produce exactamente las mismas filas.
+public record DatasetSpec(long seed,
+                          LocalDate today,
+                          ZoneId zone,
+                          int routes,
+                          int stopsPerRoute,
+                          int tripsPerDay,
+                          int pastDays,
+                          int futureDays,
+                          int seatsPerBus,
+                          int passengers,
+                          double parcelsPerTrip) {
+
+    public DatasetSpec {
+        if (routes < 1 || stopsPerRoute < 2 || tripsPerDay < routes || pastDays < 0 || futureDays < 1
+                || seatsPerBus < 1 || passengers < 1 || parcelsPerTrip < 0) {
+            throw new IllegalArgumentException("Parámetros de dataset inválidos: " + this);
+        }
+    }
+
+    // Volumen de producción: 500 rutas de 20 paradas, 16k viajes diarios, un mes de historia y una semana
+    // de venta anticipada (unos 33 millones de tickets y 50 millones de filas en total)
+    public static DatasetSpec production(long seed, LocalDate today) {
+        return new DatasetSpec(seed, today, ZoneId.of("America/Bogota"), 500, 20, 16_000, 30, 7, 40, 1_000_000, 2.0);
+    }
+
+    // Suficiente para tests: se genera en milisegundos
+    public static DatasetSpec small(long seed, LocalDate today) {
+        return new DatasetSpec(seed, today, ZoneId.of("America/Bogota"), 6, 5, 24, 2, 2, 12, 200, 1.5);
+    }
+
+    // Misma red con menos (o más) viajes y pasajeros
+    public DatasetSpec scaled(double factor) {
+        return new DatasetSpec(seed, today, zone, routes, stopsPerRoute,
+                Math.max(routes, (int) Math.round(tripsPerDay * factor)), pastDays, futureDays, seatsPerBus,
+                Math.max(1, (int) Math.round(passengers * factor)), parcelsPerTrip);
+    }
+}
@@ -0,0 +1,16 @@
+package com.ProyectoReservas.datagen;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Filas escritas por tabla (en orden de carga) y tiempo total.
+public record DatasetSummary(Map<String, Long> rows, Duration elapsed) {
+
+    public long totalRows() {
+        return rows.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long rows(String table) {
+        return rows.getOrDefault(table, 0L);
+    }
+}
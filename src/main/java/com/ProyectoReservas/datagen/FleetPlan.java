@@ -0,0 +1,267 @@
+package com.ProyectoReservas.datagen;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+// Red y calendario del dataset en arreglos: rutas con sus paradas, viajes ordenados por salida, bus y
+// conductor de cada viaje. Es lo único que se guarda en memoria (unos pocos bytes por viaje); tickets,
+// encomiendas y demás se regeneran por viaje con DatasetRandom cada vez que hacen falta.
+// Los ids son posiciones + 1: route r -> id r + 1, parada (r, p) -> id r * stops + p + 1, viaje i -> id i + 1.
+final class FleetPlan {
+
+    static final String[] CITIES = {
+            "Bogotá", "Medellín", "Cali", "Barranquilla", "Cartagena", "Cúcuta", "Bucaramanga", "Pereira",
+            "Santa Marta", "Ibagué", "Pasto", "Manizales", "Neiva", "Villavicencio", "Armenia", "Valledupar",
+            "Montería", "Sincelejo", "Popayán", "Tunja", "Riohacha", "Florencia", "Yopal", "Quibdó",
+            "Girardot", "Duitama", "Sogamoso", "Zipaquirá", "Fusagasugá", "Facatativá", "Honda", "La Dorada",
+            "Barrancabermeja", "Ocaña", "Pamplona", "San Gil", "Socorro", "Aguachica", "Magangué", "Lorica",
+            "Apartadó", "Turbo", "Rionegro", "Caucasia", "Tuluá", "Buga", "Cartago", "Palmira", "Jamundí",
+            "Buenaventura", "Ipiales", "Tumaco", "Pitalito", "Garzón", "Espinal", "Melgar", "Chiquinquirá",
+            "Puerto Boyacá", "Granada", "Acacías"};
+
+    // Peso relativo de salidas por hora del día: picos de madrugada y de tarde, casi nada de noche
+    static final double[] HOUR_WEIGHTS = {
+            0.2, 0.1, 0.1, 0.2, 0.8, 2.2, 3.0, 2.6, 1.8, 1.2, 1.0, 1.0,
+            1.1, 1.2, 1.3, 1.6, 2.2, 2.8, 2.6, 1.6, 1.0, 0.8, 0.6, 0.4};
+
+    static final Duration BUS_TURNAROUND = Duration.ofMinutes(30);
+    static final Duration DRIVER_REST = Duration.ofHours(1);
+    // Solo se asignan conductores a viajes que salen antes de esto
+    static final Duration ASSIGN_AHEAD = Duration.ofDays(2);
+
+    final DatasetSpec spec;
+    final int routes;
+    final int stops;
+    final long now;
+
+    // Por ruta
+    final double[] popularity;
+    final int[] distanceKm;
+    final int[] durationMin;
+    final int[] pesosPerKm;
+    final String[][] stopNames;
+    final double[][] stopLat;
+    final double[][] stopLng;
+
+    // Por viaje, ordenados por salida
+    final int trips;
+    final int[] tripRoute;
+    final long[] departure;
+    final long[] arrival;
+    final TripStatus[] status;
+    final int[] bus;
+    final int[] driver;
+
+    final int buses;
+    final int drivers;
+
+    private FleetPlan(DatasetSpec spec) {
+        this.spec = spec;
+        this.routes = spec.routes();
+        this.stops = spec.stopsPerRoute();
+        // "Ahora" es el mediodía de today: hay viajes terminados, en curso y por salir ese mismo día
+        this.now = spec.today().atTime(12, 0).atZone(spec.zone()).toEpochSecond();
+
+        popularity = new double[routes];
+        distanceKm = new int[routes];
+        durationMin = new int[routes];
+        pesosPerKm = new int[routes];
+        stopNames = new String[routes][];
+        stopLat = new double[routes][];
+        stopLng = new double[routes][];
+        buildRoutes();
+
+        long[] keys = scheduleTrips();
+        trips = keys.length;
+        tripRoute = new int[trips];
+        departure = new long[trips];
+        arrival = new long[trips];
+        status = new TripStatus[trips];
+        bus = new int[trips];
+        driver = new int[trips];
+        long firstDay = dayStart(-spec.pastDays());
+        for (int i = 0; i < trips; i++) {
+            tripRoute[i] = (int) (keys[i] & 0xFFFFF);
+            departure[i] = firstDay + (keys[i] >>> 20);
+            arrival[i] = departure[i] + durationMin[tripRoute[i]] * 60L;
+            status[i] = statusOf(i);
+        }
+        buses = assignBuses();
+        drivers = assignDrivers();
+    }
+
+    static FleetPlan of(DatasetSpec spec) {
+        return new FleetPlan(spec);
+    }
+
+    long routeId(int route) {
+        return route + 1L;
+    }
+
+    long stopId(int route, int position) {
+        return (long) route * stops + position + 1;
+    }
+
+    long tripId(int trip) {
+        return trip + 1L;
+    }
+
+    boolean isFuture(int trip) {
+        return departure[trip] > now;
+    }
+
+    // Tarifa de un tramo en centavos: cargo de abordaje más precio por km de la fracción recorrida,
+    // redondeada a 100 pesos
+    long fareCents(int route, int fromPosition, int toPosition) {
+        double km = distanceKm[route] * (double) (toPosition - fromPosition) / (stops - 1);
+        long pesos = 5_000 + Math.round(km * pesosPerKm[route]);
+        return Math.round(pesos / 100.0) * 100 * 100;
+    }
+
+    int hourOf(int trip) {
+        return Instant.ofEpochSecond(departure[trip]).atZone(spec.zone()).getHour();
+    }
+
+    private long dayStart(int dayOffset) {
+        return spec.today().plusDays(dayOffset).atStartOfDay(spec.zone()).toEpochSecond();
+    }
+
+    private void buildRoutes() {
+        SplittableRandom random = DatasetRandom.of(spec.seed(), DatasetRandom.ROUTES, 0);
+        // Popularidad tipo Zipf sobre un orden aleatorio: pocas rutas concentran la demanda
+        int[] rank = new int[routes];
+        for (int r = 0; r < routes; r++) rank[r] = r;
+        for (int r = routes - 1; r > 0; r--) {
+            int j = random.nextInt(r + 1);
+            int swap = rank[r];
+            rank[r] = rank[j];
+            rank[j] = swap;
+        }
+        for (int r = 0; r < routes; r++) {
+            popularity[r] = 1.0 / Math.pow(rank[r] + 1, 0.8);
+
+            SplittableRandom route = DatasetRandom.of(spec.seed(), DatasetRandom.ROUTES, r + 1);
+            distanceKm[r] = (int) Math.min(1_000, 40 + Math.exp(4 + route.nextDouble() * 2.2));
+            durationMin[r] = distanceKm[r] * 60 / 55 + 6 * (stops - 2);
+            pesosPerKm[r] = 110 + route.nextInt(50);
+
+            stopNames[r] = new String[stops];
+            stopLat[r] = new double[stops];
+            stopLng[r] = new double[stops];
+            int[] cities = distinctCities(route);
+            double lat0 = 1.5 + route.nextDouble() * 9.5;
+            double lng0 = -77.5 + route.nextDouble() * 5.0;
+            double lat1 = 1.5 + route.nextDouble() * 9.5;
+            double lng1 = -77.5 + route.nextDouble() * 5.0;
+            for (int p = 0; p < stops; p++) {
+                double f = (double) p / (stops - 1);
+                stopNames[r][p] = cities[p] < CITIES.length ? CITIES[cities[p]] : "Parada " + (cities[p] - CITIES.length + 1);
+                stopLat[r][p] = round6(lat0 + (lat1 - lat0) * f + (route.nextDouble() - 0.5) * 0.05);
+                stopLng[r][p] = round6(lng0 + (lng1 - lng0) * f + (route.nextDouble() - 0.5) * 0.05);
+            }
+        }
+    }
+
+    // Paradas de una ruta sin repetir ciudad; si la ruta es más larga que la lista, paradas numeradas
+    private int[] distinctCities(SplittableRandom random) {
+        int pool = Math.max(CITIES.length, stops);
+        int[] candidates = new int[pool];
+        for (int i = 0; i < pool; i++) candidates[i] = i;
+        int[] chosen = new int[stops];
+        int limit = Math.min(CITIES.length, pool);
+        for (int p = 0; p < stops; p++) {
+            if (p < limit) {
+                int j = p + random.nextInt(limit - p);
+                int swap = candidates[p];
+                candidates[p] = candidates[j];
+                candidates[j] = swap;
+            }
+            chosen[p] = candidates[p];
+        }
+        return chosen;
+    }
+
+    // Salidas de cada día repartidas entre rutas según su popularidad (al menos una por ruta) y entre
+    // horas según HOUR_WEIGHTS. Claves (segundos desde el primer día << 20 | ruta) ya ordenadas.
+    private long[] scheduleTrips() {
+        double totalWeight = Arrays.stream(popularity).sum();
+        double[] hourCumulative = new double[24];
+        double sum = 0;
+        for (int h = 0; h < 24; h++) hourCumulative[h] = sum += HOUR_WEIGHTS[h];
+
+        long firstDay = dayStart(-spec.pastDays());
+        int days = spec.pastDays() + spec.futureDays();
+        long[] keys = new long[(int) (spec.tripsPerDay() * 1.05) * days + routes * days];
+        int n = 0;
+        for (int d = 0; d < days; d++) {
+            long offset = dayStart(d - spec.pastDays()) - firstDay;
+            SplittableRandom random = DatasetRandom.of(spec.seed(), DatasetRandom.SCHEDULE, d);
+            for (int r = 0; r < routes; r++) {
+                double quota = spec.tripsPerDay() * popularity[r] / totalWeight;
+                int count = Math.max(1, (int) quota + (random.nextDouble() < quota - (int) quota ? 1 : 0));
+                for (int t = 0; t < count; t++) {
+                    double pick = random.nextDouble() * sum;
+                    int hour = 0;
+                    while (hourCumulative[hour] < pick) hour++;
+                    int minute = random.nextInt(12) * 5;
+                    if (n == keys.length) keys = Arrays.copyOf(keys, n * 2);
+                    keys[n++] = ((offset + hour * 3600L + minute * 60L) << 20) | r;
+                }
+            }
+        }
+        keys = Arrays.copyOf(keys, n);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private TripStatus statusOf(int trip) {
+        SplittableRandom random = DatasetRandom.of(spec.seed(), DatasetRandom.STATUS, trip + 1);
+        if (random.nextDouble() < (isFuture(trip) ? 0.01 : 0.015)) {
+            return TripStatus.CANCELLED;
+        }
+        if (arrival[trip] <= now) return TripStatus.ARRIVED;
+        if (departure[trip] <= now) return TripStatus.DEPARTED;
+        if (departure[trip] - 30 * 60 <= now) return TripStatus.BOARDING;
+        return TripStatus.SCHEDULED;
+    }
+
+    // Voraz por hora de salida: el bus que quedó libre primero (llegada + alistamiento), o uno nuevo.
+    // Así ningún bus queda en dos viajes que se cruzan y la flota sale del propio calendario.
+    private int assignBuses() {
+        return assignGreedy(bus, BUS_TURNAROUND.toSeconds(), Long.MAX_VALUE, false);
+    }
+
+    private int assignDrivers() {
+        return assignGreedy(driver, DRIVER_REST.toSeconds(), now + ASSIGN_AHEAD.toSeconds(), true);
+    }
+
+    // out[i] = recurso 1..n del viaje i (0 si no se asigna); devuelve n
+    private int assignGreedy(int[] out, long gapSeconds, long departuresBefore, boolean skipCancelled) {
+        PriorityQueue<long[]> free = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        int count = 0;
+        for (int i = 0; i < trips; i++) {
+            if (departure[i] >= departuresBefore || (skipCancelled && status[i] == TripStatus.CANCELLED)) {
+                continue;
+            }
+            long[] next = free.peek();
+            if (next != null && next[0] <= departure[i]) {
+                free.poll();
+            } else {
+                next = new long[]{0, ++count};
+            }
+            out[i] = (int) next[1];
+            next[0] = arrival[i] + gapSeconds;
+            free.add(next);
+        }
+        return count;
+    }
+
+    private static double round6(double value) {
+        return Math.round(value * 1e6) / 1e6;
+    }
+}
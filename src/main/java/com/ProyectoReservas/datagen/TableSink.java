@@ -0,0 +1,15 @@
+package com.ProyectoReservas.datagen;
+
+import java.util.List;
+
+// Destino de las filas del generador, tabla por tabla en orden de claves foráneas. Los valores son
+// null, String, Number, Boolean, Enum o Instant; el arreglo de row se reutiliza entre filas.
+public interface TableSink {
+
+    void begin(String table, List<String> columns);
+
+    void row(Object[] values);
+
+    // Filas escritas en la tabla
+    long end();
+}
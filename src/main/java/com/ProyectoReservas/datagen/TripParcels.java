@@ -0,0 +1,114 @@
+package com.ProyectoReservas.datagen;
+
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.entities.TripStatus;
+
+import java.util.SplittableRandom;
+
+// Encomiendas de un viaje: cantidad Poisson según la popularidad de la ruta, tramo aleatorio (a veces
+// sin parada, es decir desde el origen o hasta el destino) y estado coherente con el del viaje: las de
+// viajes terminados se entregaron casi todas, las de viajes en curso van en tránsito si su parada de
+// origen ya quedó atrás. Como TripSales, el mismo viaje produce siempre las mismas encomiendas.
+final class TripParcels {
+
+    interface Visitor {
+        void visit(TripParcels parcel);
+    }
+
+    private static final String[] FIRST_NAMES = {"Ana", "Luis", "María", "Carlos", "Laura", "Jorge", "Diana",
+            "Andrés", "Paula", "Felipe", "Camila", "Juan", "Valentina", "Santiago", "Daniela", "Miguel"};
+    private static final String[] LAST_NAMES = {"Gómez", "Rodríguez", "Martínez", "López", "García", "Pérez",
+            "Sánchez", "Ramírez", "Torres", "Díaz", "Vargas", "Castro", "Moreno", "Rojas", "Herrera"};
+
+    private final FleetPlan plan;
+
+    // Encomienda actual (se reutiliza entre visitas)
+    int index;
+    Integer fromPosition; // null: desde el origen de la ruta
+    Integer toPosition;   // null: hasta el destino
+    String senderName;
+    String senderPhone;
+    String receiverName;
+    String receiverPhone;
+    long priceCents;
+    ParcelStatus status;
+    long createdAt;
+    long departedAt;  // 0 si no ha salido
+    long finishedAt;  // 0 si no ha llegado
+
+    TripParcels(FleetPlan plan) {
+        this.plan = plan;
+    }
+
+    void walk(int trip, Visitor visitor) {
+        SplittableRandom random = DatasetRandom.of(plan.spec.seed(), DatasetRandom.PARCELS, plan.tripId(trip));
+        int route = plan.tripRoute[trip];
+        int count = poisson(random, plan.spec.parcelsPerTrip() * (0.5 + plan.popularity[route]));
+        TripStatus tripStatus = plan.status[trip];
+        long departure = plan.departure[trip];
+        long arrival = plan.arrival[trip];
+        int last = plan.stops - 1;
+
+        for (index = 0; index < count; index++) {
+            int from = random.nextInt(last);
+            int to = from + 1 + random.nextInt(last - from);
+            fromPosition = from == 0 && random.nextDouble() < 0.2 ? null : from;
+            toPosition = to == last && random.nextDouble() < 0.2 ? null : to;
+            senderName = name(random);
+            senderPhone = phone(random);
+            receiverName = name(random);
+            receiverPhone = phone(random);
+            priceCents = (8_000 + random.nextInt(40) * 500L) * 100;
+            createdAt = Math.min(departure - 1_800 - random.nextInt(3 * 86_400), plan.now - random.nextInt(3_600));
+
+            long reachFrom = departure + (arrival - departure) * from / last;
+            long reachTo = departure + (arrival - departure) * to / last;
+            departedAt = 0;
+            finishedAt = 0;
+            switch (tripStatus) {
+                case ARRIVED -> {
+                    departedAt = reachFrom;
+                    finishedAt = reachTo;
+                    status = random.nextDouble() < 0.04 ? ParcelStatus.FAILED : ParcelStatus.DELIVERED;
+                }
+                case DEPARTED -> {
+                    if (reachTo <= plan.now) {
+                        departedAt = reachFrom;
+                        finishedAt = reachTo;
+                        status = ParcelStatus.DELIVERED;
+                    } else if (reachFrom <= plan.now) {
+                        departedAt = reachFrom;
+                        status = ParcelStatus.IN_TRANSIT;
+                    } else {
+                        status = ParcelStatus.CREATED;
+                    }
+                }
+                case CANCELLED -> status = departure <= plan.now ? ParcelStatus.FAILED : ParcelStatus.CREATED;
+                default -> status = ParcelStatus.CREATED;
+            }
+            if (status == ParcelStatus.FAILED && finishedAt == 0) {
+                finishedAt = Math.min(departure, plan.now);
+            }
+            visitor.visit(this);
+        }
+    }
+
+    static String name(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    static String phone(SplittableRandom random) {
+        return "3" + (100_000_000 + random.nextInt(900_000_000));
+    }
+
+    private static int poisson(SplittableRandom random, double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,138 @@
+package com.ProyectoReservas.datagen;
+
+import com.ProyectoReservas.domain.entities.HoldStatus;
+import com.ProyectoReservas.domain.entities.PaymentMethod;
+import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.domain.entities.TripStatus;
+
+import java.util.SplittableRandom;
+
+// Ventas de un viaje asiento por asiento: cada asiento se recorre de la primera a la última parada
+// alternando tickets (la mitad hasta el final, el resto tramos parciales) y huecos, y en algunos huecos
+// queda un hold. Los tramos de un asiento nunca se solapan, como exigen las restricciones de schema.sql.
+// La ocupación depende de la popularidad de la ruta, de la hora pico y, en viajes futuros, de cuánto
+// falta para la salida. El mismo viaje produce siempre las mismas ventas, en el mismo orden.
+final class TripSales {
+
+    interface Visitor {
+        void visit(TripSales sale);
+    }
+
+    private static final PaymentMethod[] PAYMENTS = PaymentMethod.values();
+    private static final double[] PAYMENT_SHARE = {0.35, 0.20, 0.15, 0.30}; // CASH, TRANSFER, QR, CARD
+
+    private final FleetPlan plan;
+
+    // Venta actual (se reutiliza entre visitas)
+    boolean hold;
+    int seat;
+    int fromPosition;
+    int toPosition;
+    long passengerId;
+    long priceCents;
+    PaymentMethod paymentMethod;
+    TicketStatus ticketStatus;
+    HoldStatus holdStatus;
+    long at; // purchased_at del ticket o expires_at del hold
+    int baggageTenthsKg; // 0: sin equipaje
+
+    TripSales(FleetPlan plan) {
+        this.plan = plan;
+    }
+
+    void walk(int trip, Visitor visitor) {
+        SplittableRandom random = DatasetRandom.of(plan.spec.seed(), DatasetRandom.SALES, plan.tripId(trip));
+        int route = plan.tripRoute[trip];
+        int segments = plan.stops - 1;
+        TripStatus status = plan.status[trip];
+        boolean future = plan.isFuture(trip);
+        boolean open = status == TripStatus.SCHEDULED || status == TripStatus.BOARDING;
+        long departure = plan.departure[trip];
+
+        double load = 0.2 + 0.6 * plan.popularity[route] + FleetPlan.HOUR_WEIGHTS[plan.hourOf(trip)] / 15
+                + (random.nextDouble() - 0.5) * 0.15;
+        if (future) {
+            double daysAhead = (departure - plan.now) / 86_400.0;
+            load *= Math.max(0.15, 1 - 0.8 * daysAhead / (plan.spec.futureDays() + 1));
+        }
+        load = Math.min(0.97, Math.max(0.05, load));
+
+        for (seat = 1; seat <= plan.spec.seatsPerBus(); seat++) {
+            int position = 0;
+            while (position < segments) {
+                int remaining = segments - position;
+                if (random.nextDouble() < load) {
+                    int length = random.nextDouble() < 0.5 ? remaining : 1 + random.nextInt(remaining);
+                    ticket(random, route, position, position + length, status, future, departure);
+                    visitor.visit(this);
+                    position += length;
+                } else {
+                    int gap = Math.min(remaining, 1 + random.nextInt(3));
+                    if (random.nextDouble() < (open ? 0.03 : 0.01)) {
+                        hold(random, position, position + gap, open, departure);
+                        visitor.visit(this);
+                    }
+                    position += gap;
+                }
+            }
+        }
+    }
+
+    private void ticket(SplittableRandom random, int route, int from, int to, TripStatus status, boolean future,
+                        long departure) {
+        hold = false;
+        fromPosition = from;
+        toPosition = to;
+        passengerId = passenger(random);
+        priceCents = plan.fareCents(route, from, to);
+        paymentMethod = payment(random);
+
+        double roll = random.nextDouble();
+        if (status == TripStatus.CANCELLED || roll < 0.04) {
+            ticketStatus = TicketStatus.CANCELLED;
+        } else if (status == TripStatus.ARRIVED && roll < 0.06) {
+            ticketStatus = TicketStatus.NO_SHOW;
+        } else {
+            ticketStatus = TicketStatus.SOLD;
+        }
+        // Casi todas las compras en los últimos días; nunca después de "ahora" ni de la salida
+        double daysBefore = 14 * random.nextDouble() * random.nextDouble();
+        at = Math.min(departure - 600 - (long) (daysBefore * 86_400), plan.now - random.nextInt(3_600));
+
+        baggageTenthsKg = random.nextDouble() < 0.3 ? 30 + random.nextInt(320) : 0;
+        holdStatus = null;
+    }
+
+    private void hold(SplittableRandom random, int from, int to, boolean open, long departure) {
+        hold = true;
+        fromPosition = from;
+        toPosition = to;
+        passengerId = passenger(random);
+        holdStatus = open ? HoldStatus.HOLD : HoldStatus.EXPIRED;
+        at = open ? plan.now + 60 + random.nextInt(540) : Math.min(departure, plan.now) - random.nextInt(86_400);
+        ticketStatus = null;
+        paymentMethod = null;
+        priceCents = 0;
+        baggageTenthsKg = 0;
+    }
+
+    // Pocos pasajeros frecuentes compran mucho: id sesgado hacia los primeros
+    private long passenger(SplittableRandom random) {
+        double u = random.nextDouble();
+        return 1 + (long) (plan.spec.passengers() * u * u);
+    }
+
+    private static PaymentMethod payment(SplittableRandom random) {
+        double roll = random.nextDouble();
+        for (int i = 0; i < PAYMENTS.length - 1; i++) {
+            roll -= PAYMENT_SHARE[i];
+            if (roll < 0) return PAYMENTS[i];
+        }
+        return PAYMENTS[PAYMENTS.length - 1];
+    }
+
+    // Equipaje: 20 kg sin costo, 2.500 pesos por kg adicional
+    long baggageFeeCents() {
+        return Math.max(0, baggageTenthsKg - 200) * 250L * 100;
+    }
+}
@@ -5,22 +5,25 @@ import lombok.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "assignments")
+// Un conductor por viaje: el índice único decide entre dos planes guardados a la vez
+@Table(name = "assignments",
+        indexes = @Index(name = "idx_assignments_driver", columnList = "driver_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_assignments_trip", columnNames = "trip_id"))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Assignment {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "trip_id")
     private Trip trip;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "driver_id")
     private User driver;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "dispatcher_id")
     private User dispatcher;
 
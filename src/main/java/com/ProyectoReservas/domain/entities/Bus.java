@@ -1,5 +1,6 @@
 package com.ProyectoReservas.domain.entities;
 
+import com.ProyectoReservas.services.fleet.BusScheduleListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
@@ -9,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 
 @Entity
+@EntityListeners(BusScheduleListener.class)
 @Table(name = "buses")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Bus {
@@ -1,10 +1,12 @@
 package com.ProyectoReservas.domain.entities;
 
+import com.ProyectoReservas.services.config.ConfigListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
 @Table(name = "configs")
+@EntityListeners(ConfigListener.class)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Config {
 
@@ -1,25 +1,27 @@
 package com.ProyectoReservas.domain.entities;
 
+import com.ProyectoReservas.services.fare.FareMatrixListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
 
 @Entity
+@EntityListeners(FareMatrixListener.class)
 @Table(name = "fare_rules", uniqueConstraints = @UniqueConstraint(columnNames = {"route_id", "from_stop_id", "to_stop_id"}))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class FareRule {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "route_id")
     private Route route;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "from_stop_id")
     private Stop fromStop;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "to_stop_id")
     private Stop toStop;
 
@@ -1,5 +1,5 @@
 package com.ProyectoReservas.domain.entities;
 
 public enum HoldStatus {
-    HOLD, EXPIRED
+    HOLD, EXPIRED, CONSUMED
 }
@@ -5,7 +5,10 @@ import lombok.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "incidents")
+@Table(name = "incidents", indexes = {
+        // Búsqueda por tipo y rango de fechas, paginada por cursor (created_at, id)
+        @Index(name = "idx_incidents_type_created", columnList = "type, created_at, id")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Incident {
 
@@ -0,0 +1,5 @@
+package com.ProyectoReservas.domain.entities;
+
+public enum OutboxAggregate {
+    TICKET, SEAT_HOLD, PARCEL
+}
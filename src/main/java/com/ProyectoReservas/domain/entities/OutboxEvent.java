@@ -0,0 +1,46 @@
+package com.ProyectoReservas.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+
+// Evento pendiente de publicar, escrito en la misma transacción que el cambio de dominio (OutboxWriter)
+// y borrado por el OutboxRelay al publicarlo. El id da el orden de publicación dentro de la partición;
+// todos los eventos de un agregado caen en la misma partición.
+@Entity
+@Immutable
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_partition", columnList = "partition_key, id")
+})
+@Getter @NoArgsConstructor @AllArgsConstructor @Builder
+public class OutboxEvent {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "partition_key", nullable = false)
+    private Integer partitionKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxAggregate aggregateType;
+
+    // Id del ticket o del hold, código de la encomienda
+    @Column(nullable = false, length = 40)
+    private String aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private OutboxEventType eventType;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.ProyectoReservas.domain.entities;
+
+// Tipos de evento publicados por el outbox; cada uno pertenece a un solo tipo de agregado
+public enum OutboxEventType {
+    TICKET_SOLD(OutboxAggregate.TICKET),
+    TICKET_CANCELLED(OutboxAggregate.TICKET),
+    HOLD_CREATED(OutboxAggregate.SEAT_HOLD),
+    HOLD_RELEASED(OutboxAggregate.SEAT_HOLD),
+    HOLD_EXPIRED(OutboxAggregate.SEAT_HOLD),
+    HOLD_CONSUMED(OutboxAggregate.SEAT_HOLD),
+    PARCEL_STATUS_CHANGED(OutboxAggregate.PARCEL);
+
+    private final OutboxAggregate aggregate;
+
+    OutboxEventType(OutboxAggregate aggregate) {
+        this.aggregate = aggregate;
+    }
+
+    public OutboxAggregate aggregate() {
+        return aggregate;
+    }
+}
@@ -1,12 +1,17 @@
 package com.ProyectoReservas.domain.entities;
 
+import com.ProyectoReservas.services.parcel.ParcelTrackingListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "parcels")
+@EntityListeners(ParcelTrackingListener.class)
+@Table(name = "parcels", indexes = {
+        // Listados por estado del más reciente al más antiguo, paginados por cursor (created_at, id)
+        @Index(name = "idx_parcels_status_created", columnList = "status, created_at, id")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Parcel {
 
@@ -16,7 +21,7 @@ public class Parcel {
     @Column(nullable = false, unique = true, length = 30)
     private String code;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "trip_id")
     private Trip trip;
 
@@ -32,11 +37,11 @@ public class Parcel {
     @Column(length = 20)
     private String receiverPhone;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_stop_id")
     private Stop fromStop;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "to_stop_id")
     private Stop toStop;
 
@@ -0,0 +1,43 @@
+package com.ProyectoReservas.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.OffsetDateTime;
+
+// Registro de solo inserción de cada cambio de estado de una encomienda. Guarda ids y códigos
+// sueltos (sin asociaciones) para que siga valiendo aunque la encomienda o el viaje cambien.
+@Entity
+@Immutable
+@Table(name = "parcel_status_audit", indexes = {
+        @Index(name = "idx_parcel_status_audit_parcel", columnList = "parcel_id, changed_at")
+})
+@Getter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ParcelStatusAudit {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "parcel_id", nullable = false)
+    private Long parcelId;
+
+    @Column(nullable = false, length = 30)
+    private String parcelCode;
+
+    @Column(nullable = false)
+    private Long tripId;
+
+    private Long stopId; // null si la transición no depende de una parada
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ParcelStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ParcelStatus toStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private OffsetDateTime changedAt;
+}
@@ -3,6 +3,7 @@ package com.ProyectoReservas.domain.entities;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
+import java.time.ZoneId;
 import java.util.List;
 
 @Entity
@@ -30,7 +31,16 @@ public class Route {
     @Column(nullable=false)
     private Integer durationMin;
 
+    // Zona horaria de las salidas: "viajes del día" se calcula con la medianoche local de la ruta
+    @Builder.Default
+    @Column(nullable = false, length = 40)
+    private String timeZone = "America/Bogota";
+
     @OneToMany(mappedBy = "route", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Stop> stops;
+
+    public ZoneId zoneId() {
+        return ZoneId.of(timeZone);
+    }
 }
 
@@ -1,34 +1,93 @@
 package com.ProyectoReservas.domain.entities;
 
+import com.ProyectoReservas.services.seat.SeatAvailabilityListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.OffsetDateTime;
 
 @Entity
+@EntityListeners(SeatAvailabilityListener.class)
 @Table(name = "seat_holds",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"trip_id", "seat_number"}))
+        indexes = @Index(name = "idx_seat_holds_trip_seat", columnList = "trip_id, seat_number"))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class SeatHold {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_holds_seq")
+    @SequenceGenerator(name = "seat_holds_seq", sequenceName = "seat_holds_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "trip_id")
     private Trip trip;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id")
     private User user;
 
     @Column(nullable = false)
     private Integer seatNumber;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "from_stop_id")
+    private Stop fromStop;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "to_stop_id")
+    private Stop toStop;
+
+    @Embedded
+    private StopSegment segment;
+
     @Column(nullable = false)
     private OffsetDateTime expiresAt;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private HoldStatus status = HoldStatus.HOLD;
+
+    // Cambiar una parada invalida el tramo, que se recalcula en el flush (cargando las paradas si hace falta).
+    // Si las paradas no cambian (p. ej. un cambio de estado) el tramo guardado sigue valiendo sin cargarlas
+    public void setFromStop(Stop fromStop) {
+        this.fromStop = fromStop;
+        this.segment = null;
+    }
+
+    public void setToStop(Stop toStop) {
+        this.toStop = toStop;
+        this.segment = null;
+    }
+
+    // Asiento, tramo y estado tal como están en la base (al cargar o tras el último flush). Con ellos
+    // SeatAvailabilityListener libera en memoria el tramo anterior cuando un cambio lo mueve
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Integer persistedSeatNumber;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private StopSegment persistedSegment;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private HoldStatus persistedStatus;
+
+    @PrePersist
+    @PreUpdate
+    void resolveSegment() {
+        if (segment == null) {
+            segment = StopSegment.of(fromStop, toStop);
+        }
+    }
+
+    // Los callbacks de la entidad corren después de los de sus listeners: en @PostUpdate el listener
+    // todavía ve el estado anterior
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberPersistedState() {
+        persistedSeatNumber = seatNumber;
+        persistedSegment = segment;
+        persistedStatus = status;
+    }
 }
 
@@ -1,17 +1,23 @@
 package com.ProyectoReservas.domain.entities;
 
+import com.ProyectoReservas.services.connection.ConnectionGraphListener;
+import com.ProyectoReservas.services.fare.FareMatrixListener;
+import com.ProyectoReservas.services.pos.PosSnapshotListener;
+import com.ProyectoReservas.services.progress.TripProgressListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
 
 @Entity
+@EntityListeners({FareMatrixListener.class, ConnectionGraphListener.class, PosSnapshotListener.class,
+        TripProgressListener.class})
 @Table(name = "stops", uniqueConstraints = @UniqueConstraint(columnNames = {"route_id", "position"}))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Stop {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "route_id")
     private Route route;
 
@@ -0,0 +1,47 @@
+package com.ProyectoReservas.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Tramo de la ruta [fromPosition, toPosition) según Stop.position.
+// Sin parada de origen el tramo empieza en el inicio de la ruta; sin parada de destino llega al final.
+@Embeddable
+@Getter @NoArgsConstructor(access = AccessLevel.PROTECTED) @AllArgsConstructor @EqualsAndHashCode
+public class StopSegment {
+
+    public static final int ROUTE_START = 0;
+    public static final int ROUTE_END = 64;
+
+    @Column(name = "from_position", nullable = false)
+    private Integer fromPosition;
+
+    @Column(name = "to_position", nullable = false)
+    private Integer toPosition;
+
+    public static StopSegment fullRoute() {
+        return new StopSegment(ROUTE_START, ROUTE_END);
+    }
+
+    public static StopSegment of(Stop fromStop, Stop toStop) {
+        int from = fromStop != null ? fromStop.getPosition() : ROUTE_START;
+        int to = toStop != null ? toStop.getPosition() : ROUTE_END;
+        return of(from, to);
+    }
+
+    public static StopSegment of(int fromPosition, int toPosition) {
+        if (fromPosition < ROUTE_START || toPosition > ROUTE_END || fromPosition >= toPosition) {
+            throw new IllegalArgumentException("Tramo inválido: " + fromPosition + " -> " + toPosition);
+        }
+        return new StopSegment(fromPosition, toPosition);
+    }
+
+    // Un bit por tramo entre paradas consecutivas: el bit i cubre [i, i+1)
+    public long mask() {
+        long upTo = toPosition == ROUTE_END ? -1L : (1L << toPosition) - 1;
+        return upTo & -(1L << fromPosition);
+    }
+
+    public boolean overlaps(StopSegment other) {
+        return fromPosition < other.toPosition && other.fromPosition < toPosition;
+    }
+}
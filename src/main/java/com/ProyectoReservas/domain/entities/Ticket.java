@@ -1,37 +1,48 @@
 package com.ProyectoReservas.domain.entities;
 
+import com.ProyectoReservas.services.seat.SeatAvailabilityListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "tickets", uniqueConstraints = @UniqueConstraint(columnNames = {"trip_id", "seat_number"}))
+@EntityListeners(SeatAvailabilityListener.class)
+@Table(name = "tickets", indexes = {
+        // (trip_id, seat_number, id) cubre el orden del listado por viaje y su paginación por cursor
+        @Index(name = "idx_tickets_trip_seat", columnList = "trip_id, seat_number, id")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Ticket {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con asignación por bloques: IDENTITY impide que Hibernate agrupe los INSERT en lotes
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickets_seq")
+    @SequenceGenerator(name = "tickets_seq", sequenceName = "tickets_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "trip_id")
     private Trip trip;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "passenger_id")
     private User passenger;
 
     @Column(nullable = false)
     private Integer seatNumber;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_stop_id")
     private Stop fromStop;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "to_stop_id")
     private Stop toStop;
 
+    // Un asiento puede venderse varias veces en tramos que no se solapan (ver schema.sql)
+    @Embedded
+    private StopSegment segment;
+
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
@@ -48,5 +59,50 @@ public class Ticket {
 
     @Column(nullable = false)
     private OffsetDateTime purchasedAt = OffsetDateTime.now();
+
+    // Cambiar una parada invalida el tramo, que se recalcula en el flush (cargando las paradas si hace falta).
+    // Si las paradas no cambian (p. ej. un cambio de estado) el tramo guardado sigue valiendo sin cargarlas
+    public void setFromStop(Stop fromStop) {
+        this.fromStop = fromStop;
+        this.segment = null;
+    }
+
+    public void setToStop(Stop toStop) {
+        this.toStop = toStop;
+        this.segment = null;
+    }
+
+    // Asiento, tramo y estado tal como están en la base (al cargar o tras el último flush). Con ellos
+    // SeatAvailabilityListener libera en memoria el tramo anterior cuando un cambio lo mueve
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Integer persistedSeatNumber;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private StopSegment persistedSegment;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private TicketStatus persistedStatus;
+
+    @PrePersist
+    @PreUpdate
+    void resolveSegment() {
+        if (segment == null) {
+            segment = StopSegment.of(fromStop, toStop);
+        }
+    }
+
+    // Los callbacks de la entidad corren después de los de sus listeners: en @PostUpdate el listener
+    // todavía ve el estado anterior
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberPersistedState() {
+        persistedSeatNumber = seatNumber;
+        persistedSegment = segment;
+        persistedStatus = status;
+    }
 }
 
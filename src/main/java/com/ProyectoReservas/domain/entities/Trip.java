@@ -1,23 +1,30 @@
 package com.ProyectoReservas.domain.entities;
 
+import com.ProyectoReservas.services.connection.ConnectionGraphListener;
+import com.ProyectoReservas.services.fleet.BusScheduleListener;
+import com.ProyectoReservas.services.pos.PosSnapshotListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.OffsetDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "trips")
+@EntityListeners({ConnectionGraphListener.class, BusScheduleListener.class, PosSnapshotListener.class})
+@Table(name = "trips", indexes = {
+        // Búsqueda de viajes por ruta, estado y rango de salida (findAvailableTrips)
+        @Index(name = "idx_trips_route_status_departure", columnList = "route_id, status, departure_at")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Trip {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "route_id")
     private Route route;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "bus_id")
     private Bus bus;
 
@@ -31,6 +38,21 @@ public class Trip {
     @Column(nullable = false, length = 20)
     private TripStatus status = TripStatus.SCHEDULED;
 
+    // Posición (Stop.position) de la última parada alcanzada; la mantiene TripProgressEngine con
+    // TripRepository.updateProgress, así que guardar la entidad nunca la pisa
+    @Column(name = "current_position", updatable = false)
+    private Integer currentPosition;
+
+    // Contadores desnormalizados: tickets SOLD y holds HOLD del viaje (TripOccupancyCounters).
+    // Solo los mueven las sentencias en bloque; guardar la entidad no debe pisarlos con lo que leyó
+    @Builder.Default
+    @Column(name = "sold_count", nullable = false, updatable = false)
+    private Integer soldCount = 0;
+
+    @Builder.Default
+    @Column(name = "held_count", nullable = false, updatable = false)
+    private Integer heldCount = 0;
+
     @OneToMany(mappedBy = "trip", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<SeatHold> seatHolds;
 
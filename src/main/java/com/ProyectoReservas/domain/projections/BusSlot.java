@@ -0,0 +1,7 @@
+package com.ProyectoReservas.domain.projections;
+
+import java.time.OffsetDateTime;
+
+// Franja [salida, llegada) en que un bus está ocupado por un viaje, para el índice de la flota.
+public record BusSlot(Long tripId, Long busId, OffsetDateTime departureAt, OffsetDateTime arrivalAt) {
+}
@@ -0,0 +1,8 @@
+package com.ProyectoReservas.domain.projections;
+
+import java.time.OffsetDateTime;
+
+// Viaje ya asignado a un conductor, con los extremos de su ruta (ocupación y ubicación del conductor).
+public record DriverDuty(Long driverId, Long tripId, String origin, String destination,
+                         OffsetDateTime departureAt, OffsetDateTime arrivalAt) {
+}
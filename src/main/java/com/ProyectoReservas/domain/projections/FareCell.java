@@ -0,0 +1,11 @@
+package com.ProyectoReservas.domain.projections;
+
+import java.math.BigDecimal;
+
+// Tarifa de un tramo expresada por las posiciones de sus paradas en la ruta.
+public record FareCell(Integer fromPosition, Integer toPosition, BigDecimal basePrice, Boolean dynamicPricing) {
+
+    public boolean isDynamic() {
+        return Boolean.TRUE.equals(dynamicPricing);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ProyectoReservas.domain.projections;
+
+import com.ProyectoReservas.domain.entities.TicketStatus;
+
+import java.time.OffsetDateTime;
+
+// Fila del manifiesto de pasajeros de un viaje. Sin paradas el pasajero viaja la ruta completa.
+public record ManifestRow(Long ticketId, Long tripId, String routeCode, OffsetDateTime departureAt,
+                          Integer seatNumber, String passengerName, String passengerPhone,
+                          String fromStop, String toStop, TicketStatus status, String qrCode) {
+}
@@ -0,0 +1,9 @@
+package com.ProyectoReservas.domain.projections;
+
+// Contadores guardados en trips junto al conteo real de asientos vendidos y solo retenidos.
+public record OccupancyDrift(Long tripId, Integer storedSold, Long actualSold, Integer storedHeld, Long actualHeld) {
+
+    public boolean hasDrift() {
+        return storedSold.longValue() != actualSold || storedHeld.longValue() != actualHeld;
+    }
+}
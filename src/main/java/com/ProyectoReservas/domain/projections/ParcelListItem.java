@@ -0,0 +1,13 @@
+package com.ProyectoReservas.domain.projections;
+
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+// Encomienda en listados, con el viaje y las paradas ya resueltos a columnas.
+public record ParcelListItem(Long parcelId, String code, Long tripId, OffsetDateTime departureAt,
+                             String senderName, String receiverName, String receiverPhone,
+                             String fromStop, String toStop, BigDecimal price, ParcelStatus status,
+                             OffsetDateTime createdAt) {
+}
@@ -0,0 +1,14 @@
+package com.ProyectoReservas.domain.projections;
+
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+
+import java.time.OffsetDateTime;
+
+// Lo que ve quien rastrea una encomienda por su código (sin datos de remitente ni destinatario)
+public record ParcelTracking(String code, Long parcelId, Long tripId, OffsetDateTime departureAt,
+                             String fromStop, String toStop, ParcelStatus status, OffsetDateTime createdAt) {
+
+    public ParcelTracking withStatus(ParcelStatus newStatus) {
+        return new ParcelTracking(code, parcelId, tripId, departureAt, fromStop, toStop, newStatus, createdAt);
+    }
+}
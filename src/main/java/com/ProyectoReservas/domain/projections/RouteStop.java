@@ -0,0 +1,11 @@
+package com.ProyectoReservas.domain.projections;
+
+import java.math.BigDecimal;
+
+// Parada de una ruta con sus coordenadas (pueden faltar si la parada no se ha georreferenciado)
+public record RouteStop(Long stopId, Long routeId, Integer position, String name, BigDecimal lat, BigDecimal lng) {
+
+    public boolean hasCoordinates() {
+        return lat != null && lng != null;
+    }
+}
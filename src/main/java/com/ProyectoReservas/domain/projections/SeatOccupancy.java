@@ -0,0 +1,11 @@
+package com.ProyectoReservas.domain.projections;
+
+import com.ProyectoReservas.domain.entities.StopSegment;
+
+// Asiento ocupado (vendido o retenido) en un tramo del viaje.
+public record SeatOccupancy(Integer seatNumber, Integer fromPosition, Integer toPosition) {
+
+    public StopSegment segment() {
+        return StopSegment.of(fromPosition, toPosition);
+    }
+}
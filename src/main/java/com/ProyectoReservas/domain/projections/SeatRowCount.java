@@ -0,0 +1,5 @@
+package com.ProyectoReservas.domain.projections;
+
+// Filas (tickets o holds) de un asiento del viaje.
+public record SeatRowCount(Integer seatNumber, Long rows) {
+}
@@ -0,0 +1,5 @@
+package com.ProyectoReservas.domain.projections;
+
+// Parada de una ruta reducida a lo que necesita el grafo de conexiones.
+public record StopPoint(Long routeId, Integer position, String name) {
+}
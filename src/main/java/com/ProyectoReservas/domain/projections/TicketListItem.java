@@ -0,0 +1,14 @@
+package com.ProyectoReservas.domain.projections;
+
+import com.ProyectoReservas.domain.entities.PaymentMethod;
+import com.ProyectoReservas.domain.entities.TicketStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+// Ticket en listados (taquilla, "mis viajes"), sin cargar viaje, ruta ni pasajero como entidades.
+public record TicketListItem(Long ticketId, Long tripId, String routeCode, OffsetDateTime departureAt,
+                             Integer seatNumber, String passengerName, String fromStop, String toStop,
+                             BigDecimal price, PaymentMethod paymentMethod, TicketStatus status,
+                             OffsetDateTime purchasedAt) {
+}
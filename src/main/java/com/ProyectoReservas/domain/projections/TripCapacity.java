@@ -0,0 +1,7 @@
+package com.ProyectoReservas.domain.projections;
+
+import java.time.OffsetDateTime;
+
+// Viaje de un listado con la capacidad de su bus.
+public record TripCapacity(Long tripId, OffsetDateTime departureAt, OffsetDateTime arrivalAt, Integer capacity) {
+}
@@ -0,0 +1,5 @@
+package com.ProyectoReservas.domain.projections;
+
+// Contadores desnormalizados de un viaje (asientos vendidos y asientos solo retenidos).
+public record TripOccupancy(Long tripId, Integer soldCount, Integer heldCount) {
+}
@@ -0,0 +1,6 @@
+package com.ProyectoReservas.domain.projections;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+
+public record TripProgressRow(Long tripId, Long routeId, TripStatus status, Integer currentPosition) {
+}
@@ -0,0 +1,8 @@
+package com.ProyectoReservas.domain.projections;
+
+import java.time.OffsetDateTime;
+
+// Horario de un viaje programado con los datos de su ruta, para armar el grafo de conexiones.
+public record TripSchedule(Long tripId, Long routeId, String origin, String destination, String timeZone,
+                           OffsetDateTime departureAt, OffsetDateTime arrivalAt) {
+}
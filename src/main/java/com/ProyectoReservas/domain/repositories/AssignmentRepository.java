@@ -1,7 +1,9 @@
 package com.ProyectoReservas.domain.repositories;
 
 import com.ProyectoReservas.domain.entities.Assignment;
+import com.ProyectoReservas.domain.projections.DriverDuty;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -11,16 +13,72 @@ import java.util.List;
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     List<Assignment> findByTripId(Long tripId);
 
-    //Ver viajes asignados a un conductor en una fecha específica.
+    //Ver viajes asignados a un conductor entre dos instantes [from, to).
     @Query("""
        SELECT a FROM Assignment a
        JOIN FETCH a.trip t
        WHERE a.driver.id = :driverId
-         AND DATE(t.departureAt) = DATE(:date)
+         AND t.departureAt >= :from
+         AND t.departureAt < :to
        """)
-    List<Assignment> findByDriverAndDate(@Param("driverId") Long driverId,
-                                         @Param("date") OffsetDateTime date);
+    List<Assignment> findByDriverAndDepartureRange(@Param("driverId") Long driverId,
+                                                   @Param("from") OffsetDateTime from,
+                                                   @Param("to") OffsetDateTime to);
 
+    //Ver viajes asignados a un conductor en una fecha específica (día de :date según su offset).
+    default List<Assignment> findByDriverAndDate(Long driverId, OffsetDateTime date) {
+        OffsetDateTime from = date.toLocalDate().atStartOfDay().atOffset(date.getOffset());
+        return findByDriverAndDepartureRange(driverId, from, from.plusDays(1));
+    }
+
+    //Viajes asignados (no cancelados) que se cruzan con [from, to), para el optimizador de asignaciones.
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.DriverDuty(
+              a.driver.id, t.id, r.origin, r.destination, t.departureAt, t.arrivalAt)
+       FROM Assignment a
+       JOIN a.trip t
+       JOIN t.route r
+       WHERE t.status <> 'CANCELLED'
+         AND t.departureAt < :to
+         AND t.arrivalAt > :from
+       ORDER BY t.departureAt
+       """)
+    List<DriverDuty> findDutiesBetween(@Param("from") OffsetDateTime from,
+                                       @Param("to") OffsetDateTime to);
+
+    //Candado de cada conductor hasta el fin de la transacción, en orden de id (sin interbloqueos).
+    //Va antes de insertAll: así su comprobación de solapes ve lo que guardó otro plan con los mismos conductores.
+    @Query(nativeQuery = true, value = """
+       SELECT COUNT(*) FROM (
+           SELECT pg_advisory_xact_lock(:lockKey, CAST(d.id % 2147483647 AS integer))
+           FROM (SELECT DISTINCT u.id FROM unnest(CAST(:driverIds AS bigint[])) AS u(id) ORDER BY u.id) d
+       ) locked
+       """)
+    long lockDrivers(@Param("lockKey") int lockKey, @Param("driverIds") Long[] driverIds);
+
+    //Inserta muchas asignaciones en una sola sentencia (arreglos paralelos viaje / conductor).
+    //Con ids IDENTITY Hibernate no agrupa los INSERT. Se omiten los viajes que ya tienen conductor
+    //(uk_assignments_trip) y los que chocan, descanso incluido, con otro viaje no cancelado del conductor.
+    @Modifying
+    @Query(nativeQuery = true, value = """
+       INSERT INTO assignments (trip_id, driver_id, dispatcher_id, checklist_ok, assigned_at)
+       SELECT v.trip_id, v.driver_id, CAST(:dispatcherId AS bigint), false, :assignedAt
+       FROM unnest(CAST(:tripIds AS bigint[]), CAST(:driverIds AS bigint[])) AS v(trip_id, driver_id)
+       JOIN trips nt ON nt.id = v.trip_id
+       WHERE NOT EXISTS (
+           SELECT 1 FROM assignments a
+           JOIN trips t ON t.id = a.trip_id
+           WHERE a.driver_id = v.driver_id
+             AND t.status <> 'CANCELLED'
+             AND t.departure_at < nt.arrival_at + make_interval(secs => :minRestSeconds)
+             AND nt.departure_at < t.arrival_at + make_interval(secs => :minRestSeconds))
+       ON CONFLICT (trip_id) DO NOTHING
+       """)
+    int insertAll(@Param("tripIds") Long[] tripIds,
+                  @Param("driverIds") Long[] driverIds,
+                  @Param("dispatcherId") Long dispatcherId,
+                  @Param("assignedAt") OffsetDateTime assignedAt,
+                  @Param("minRestSeconds") long minRestSeconds);
 
 }
 
@@ -3,6 +3,8 @@ package com.ProyectoReservas.domain.repositories;
 import com.ProyectoReservas.domain.entities.Bus;
 import com.ProyectoReservas.domain.entities.BusStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,5 +14,9 @@ public interface BusRepository extends JpaRepository<Bus, Long> {
     boolean existsByPlateIgnoreCase(String plate);
     List<Bus> findByStatus(BusStatus status);
 
+    //Solo los ids, para armar el índice de la flota sin cargar buses ni asientos.
+    @Query("SELECT b.id FROM Bus b WHERE b.status = :status")
+    List<Long> findIdsByStatus(@Param("status") BusStatus status);
+
 }
 
@@ -2,6 +2,15 @@ package com.ProyectoReservas.domain.repositories;
 
 import com.ProyectoReservas.domain.entities.Config;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface ConfigRepository extends JpaRepository<Config, String> {}
+public interface ConfigRepository extends JpaRepository<Config, String> {
 
+    //Huella del contenido de la tabla: cambia con cualquier alta, baja o modificación, también las hechas
+    //por SQL directo. Vacía si no hay filas.
+    @Query(nativeQuery = true, value = """
+       SELECT COALESCE(md5(string_agg(key || '=' || value, chr(10) ORDER BY key)), '')
+       FROM configs
+       """)
+    String findContentVersion();
+}
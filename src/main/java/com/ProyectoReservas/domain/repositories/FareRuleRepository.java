@@ -1,6 +1,7 @@
 package com.ProyectoReservas.domain.repositories;
 
 import com.ProyectoReservas.domain.entities.FareRule;
+import com.ProyectoReservas.domain.projections.FareCell;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -23,5 +24,14 @@ public interface FareRuleRepository extends JpaRepository<FareRule, Long> {
                                   @Param("fromStopId") Long fromStopId,
                                   @Param("toStopId") Long toStopId);
 
+    //Tarifas de una ruta por posición de parada (carga de la matriz de tarifas en memoria).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.FareCell(
+              fr.fromStop.position, fr.toStop.position, fr.basePrice, fr.dynamicPricing)
+       FROM FareRule fr
+       WHERE fr.route.id = :routeId
+       """)
+    List<FareCell> findFareCellsByRoute(@Param("routeId") Long routeId);
+
 }
 
@@ -2,12 +2,16 @@ package com.ProyectoReservas.domain.repositories;
 
 import com.ProyectoReservas.domain.entities.Incident;
 import com.ProyectoReservas.domain.entities.IncidentType;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface IncidentRepository extends JpaRepository<Incident, Long> {
     List<Incident> findByType(IncidentType type);
@@ -24,5 +28,29 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
             @Param("startDate") OffsetDateTime start,
             @Param("endDate") OffsetDateTime end);
 
+    //Incidentes por tipo y rango [start, end], del más reciente al más antiguo, por cursor (created_at, id).
+    default Window<Incident> scrollByTypeAndDateRange(IncidentType type, OffsetDateTime start, OffsetDateTime end,
+                                                      KeysetScrollPosition position, int size) {
+        Limit limit = Limit.of(size + 1);
+        // La primera página busca desde el final del rango con un id mayor que cualquiera
+        OffsetDateTime createdAt = position.isInitial() ? end : KeysetWindows.key(position, "createdAt", OffsetDateTime.class);
+        Long id = position.isInitial() ? Long.MAX_VALUE : KeysetWindows.key(position, "id", Long.class);
+        List<Incident> rows = findNextByTypeKeyset(type, start, createdAt, id, limit);
+        return KeysetWindows.of(rows, size, i -> Map.of("createdAt", i.getCreatedAt(), "id", i.getId()));
+    }
+
+    @Query("""
+       SELECT i FROM Incident i
+       WHERE i.type = :type
+         AND i.createdAt >= :startDate
+         AND (i.createdAt, i.id) < (:createdAt, :id)
+       ORDER BY i.createdAt DESC, i.id DESC
+       """)
+    List<Incident> findNextByTypeKeyset(@Param("type") IncidentType type,
+                                        @Param("startDate") OffsetDateTime start,
+                                        @Param("createdAt") OffsetDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
 }
 
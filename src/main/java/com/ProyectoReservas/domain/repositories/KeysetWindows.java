@@ -0,0 +1,31 @@
+package com.ProyectoReservas.domain.repositories;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Arma un Window de Spring Data a partir de una consulta por cursor que pidió size + 1 filas:
+// la fila extra solo indica que hay página siguiente. La posición de cada fila son sus claves de orden.
+final class KeysetWindows {
+
+    private KeysetWindows() {
+    }
+
+    static <T> Window<T> of(List<T> rows, int size, Function<T, Map<String, ?>> keys) {
+        boolean hasNext = rows.size() > size;
+        List<T> page = hasNext ? rows.subList(0, size) : rows;
+        return Window.from(page, i -> ScrollPosition.forward(keys.apply(page.get(i))), hasNext);
+    }
+
+    static <K> K key(KeysetScrollPosition position, String name, Class<K> type) {
+        Object value = position.getKeys().get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("La posición no tiene la clave " + name);
+        }
+        return type.cast(value);
+    }
+}
@@ -0,0 +1,50 @@
+package com.ProyectoReservas.domain.repositories;
+
+import com.ProyectoReservas.domain.entities.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    //Todos los eventos de una transacción en una sola sentencia (arreglos paralelos).
+    //ORDER BY ord conserva en los ids el orden en que se registraron.
+    @Modifying
+    @Query(nativeQuery = true, value = """
+       INSERT INTO outbox_events (partition_key, aggregate_type, aggregate_id, event_type, payload, created_at)
+       SELECT v.partition_key, v.aggregate_type, v.aggregate_id, v.event_type, CAST(v.payload AS jsonb), :createdAt
+       FROM unnest(CAST(:partitions AS integer[]), CAST(:aggregateTypes AS varchar[]),
+                   CAST(:aggregateIds AS varchar[]), CAST(:eventTypes AS varchar[]), CAST(:payloads AS text[]))
+            WITH ORDINALITY AS v(partition_key, aggregate_type, aggregate_id, event_type, payload, ord)
+       ORDER BY v.ord
+       """)
+    int insertBatch(@Param("partitions") Integer[] partitions,
+                    @Param("aggregateTypes") String[] aggregateTypes,
+                    @Param("aggregateIds") String[] aggregateIds,
+                    @Param("eventTypes") String[] eventTypes,
+                    @Param("payloads") String[] payloads,
+                    @Param("createdAt") OffsetDateTime createdAt);
+
+    //Candado de la partición hasta el fin de la transacción: un solo relay publica cada partición a la vez.
+    @Query(nativeQuery = true, value = "SELECT pg_try_advisory_xact_lock(:lockKey, :partition)")
+    boolean tryLockPartition(@Param("lockKey") int lockKey, @Param("partition") int partition);
+
+    //Siguiente lote de la partición en orden de id; las filas tomadas por otra transacción se saltan.
+    @Query(nativeQuery = true, value = """
+       SELECT * FROM outbox_events
+       WHERE partition_key = :partition
+       ORDER BY id
+       LIMIT :limit
+       FOR UPDATE SKIP LOCKED
+       """)
+    List<OutboxEvent> lockBatch(@Param("partition") int partition, @Param("limit") int limit);
+
+    //Eventos ya publicados.
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM outbox_events WHERE id = ANY(CAST(:ids AS bigint[]))")
+    int deleteByIds(@Param("ids") Long[] ids);
+}
@@ -2,17 +2,36 @@ package com.ProyectoReservas.domain.repositories;
 
 import com.ProyectoReservas.domain.entities.Parcel;
 import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.projections.ParcelListItem;
+import com.ProyectoReservas.domain.projections.ParcelTracking;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public interface ParcelRepository extends JpaRepository<Parcel, Long> {
+public interface ParcelRepository extends JpaRepository<Parcel, Long>, ParcelTransitionQueries {
     Optional<Parcel> findByCode(String code);
     List<Parcel> findByStatus(ParcelStatus status);
 
+    //Rastreo por código: estado, viaje y tramo en una sola sentencia (lo carga ParcelTrackingCache).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.ParcelTracking(
+              p.code, p.id, t.id, t.departureAt, fs.name, ts.name, p.status, p.createdAt)
+       FROM Parcel p
+       JOIN p.trip t
+       LEFT JOIN p.fromStop fs
+       LEFT JOIN p.toStop ts
+       WHERE p.code = :code
+       """)
+    Optional<ParcelTracking> findTrackingByCode(@Param("code") String code);
+
     //Listar encomiendas en tránsito o entregadas.
     @Query("""
        SELECT p FROM Parcel p
@@ -21,5 +40,60 @@ public interface ParcelRepository extends JpaRepository<Parcel, Long> {
        """)
     List<Parcel> findByStatusOrdered(@Param("status") ParcelStatus status);
 
-}
+    //Encomiendas por estado, de la más reciente a la más antigua, por cursor (created_at, id).
+    default Window<Parcel> scrollByStatus(ParcelStatus status, KeysetScrollPosition position, int size) {
+        Limit limit = Limit.of(size + 1);
+        List<Parcel> rows = position.isInitial()
+                ? findFirstByStatusKeyset(status, limit)
+                : findNextByStatusKeyset(status, KeysetWindows.key(position, "createdAt", OffsetDateTime.class),
+                        KeysetWindows.key(position, "id", Long.class), limit);
+        return KeysetWindows.of(rows, size, p -> Map.of("createdAt", p.getCreatedAt(), "id", p.getId()));
+    }
+
+    @Query("""
+       SELECT p FROM Parcel p
+       WHERE p.status = :status
+       ORDER BY p.createdAt DESC, p.id DESC
+       """)
+    List<Parcel> findFirstByStatusKeyset(@Param("status") ParcelStatus status, Limit limit);
+
+    @Query("""
+       SELECT p FROM Parcel p
+       WHERE p.status = :status
+         AND (p.createdAt, p.id) < (:createdAt, :id)
+       ORDER BY p.createdAt DESC, p.id DESC
+       """)
+    List<Parcel> findNextByStatusKeyset(@Param("status") ParcelStatus status,
+                                        @Param("createdAt") OffsetDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
+    //Listado de encomiendas por estado con su viaje y paradas, en una sola sentencia.
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.ParcelListItem(
+              p.id, p.code, t.id, t.departureAt, p.senderName, p.receiverName, p.receiverPhone,
+              fs.name, ts.name, p.price, p.status, p.createdAt)
+       FROM Parcel p
+       JOIN p.trip t
+       LEFT JOIN p.fromStop fs
+       LEFT JOIN p.toStop ts
+       WHERE p.status = :status
+       ORDER BY p.createdAt DESC
+       """)
+    List<ParcelListItem> findParcelListByStatus(@Param("status") ParcelStatus status);
+
+    //Encomiendas que viajan en un viaje (bodega del bus).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.ParcelListItem(
+              p.id, p.code, t.id, t.departureAt, p.senderName, p.receiverName, p.receiverPhone,
+              fs.name, ts.name, p.price, p.status, p.createdAt)
+       FROM Parcel p
+       JOIN p.trip t
+       LEFT JOIN p.fromStop fs
+       LEFT JOIN p.toStop ts
+       WHERE t.id = :tripId
+       ORDER BY p.createdAt DESC
+       """)
+    List<ParcelListItem> findParcelListByTrip(@Param("tripId") Long tripId);
 
+}
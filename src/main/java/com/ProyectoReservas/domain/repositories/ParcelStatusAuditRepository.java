@@ -0,0 +1,14 @@
+package com.ProyectoReservas.domain.repositories;
+
+import com.ProyectoReservas.domain.entities.ParcelStatusAudit;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+
+// Solo lectura: las filas las inserta ParcelRepository en la misma sentencia de cada transición
+public interface ParcelStatusAuditRepository extends Repository<ParcelStatusAudit, Long> {
+
+    List<ParcelStatusAudit> findByParcelIdOrderByChangedAtAscIdAsc(Long parcelId);
+
+    List<ParcelStatusAudit> findByTripIdOrderByChangedAtAscIdAsc(Long tripId);
+}
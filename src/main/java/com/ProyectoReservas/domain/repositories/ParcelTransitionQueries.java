@@ -0,0 +1,21 @@
+package com.ProyectoReservas.domain.repositories;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// Transiciones por lotes de ParcelRepository: cada una es una sola sentencia que cambia el estado y deja el
+// registro en parcel_status_audit (CTE con UPDATE ... RETURNING). Devuelven los códigos movidos.
+// Con openEnd también entran las encomiendas sin parada (origen o destino = extremo de la ruta).
+public interface ParcelTransitionQueries {
+
+    //Encomiendas del viaje cuyo destino es la parada alcanzada.
+    List<String> transitionByDestination(Long tripId, Long stopId, boolean openEnd,
+                                         String fromStatus, String toStatus, OffsetDateTime changedAt);
+
+    //Encomiendas del viaje que se suben en la parada de la que sale el bus.
+    List<String> transitionByOrigin(Long tripId, Long stopId, boolean openEnd,
+                                    String fromStatus, String toStatus, OffsetDateTime changedAt);
+
+    //Todas las encomiendas del viaje en fromStatus, sin importar la parada.
+    List<String> transitionAll(Long tripId, String fromStatus, String toStatus, OffsetDateTime changedAt);
+}
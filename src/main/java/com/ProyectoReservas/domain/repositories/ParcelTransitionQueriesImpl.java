@@ -0,0 +1,73 @@
+package com.ProyectoReservas.domain.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Ver ReturningStatements: flush antes y contexto de persistencia vacío después de cada transición
+class ParcelTransitionQueriesImpl implements ParcelTransitionQueries {
+
+    private static final String BY_DESTINATION = """
+            WITH moved AS (
+                UPDATE parcels p SET status = :toStatus
+                WHERE p.trip_id = :tripId
+                  AND p.status = :fromStatus
+                  AND (p.to_stop_id = :stopId OR (:openEnd AND p.to_stop_id IS NULL))
+                RETURNING p.id, p.code
+            )
+            INSERT INTO parcel_status_audit (parcel_id, parcel_code, trip_id, stop_id, from_status, to_status, changed_at)
+            SELECT m.id, m.code, :tripId, :stopId, :fromStatus, :toStatus, :changedAt FROM moved m
+            RETURNING parcel_code
+            """;
+
+    private static final String BY_ORIGIN = """
+            WITH moved AS (
+                UPDATE parcels p SET status = :toStatus
+                WHERE p.trip_id = :tripId
+                  AND p.status = :fromStatus
+                  AND (p.from_stop_id = :stopId OR (:openEnd AND p.from_stop_id IS NULL))
+                RETURNING p.id, p.code
+            )
+            INSERT INTO parcel_status_audit (parcel_id, parcel_code, trip_id, stop_id, from_status, to_status, changed_at)
+            SELECT m.id, m.code, :tripId, :stopId, :fromStatus, :toStatus, :changedAt FROM moved m
+            RETURNING parcel_code
+            """;
+
+    private static final String ALL = """
+            WITH moved AS (
+                UPDATE parcels p SET status = :toStatus
+                WHERE p.trip_id = :tripId
+                  AND p.status = :fromStatus
+                RETURNING p.id, p.code
+            )
+            INSERT INTO parcel_status_audit (parcel_id, parcel_code, trip_id, stop_id, from_status, to_status, changed_at)
+            SELECT m.id, m.code, :tripId, NULL, :fromStatus, :toStatus, :changedAt FROM moved m
+            RETURNING parcel_code
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<String> transitionByDestination(Long tripId, Long stopId, boolean openEnd,
+                                                String fromStatus, String toStatus, OffsetDateTime changedAt) {
+        return ReturningStatements.execute(entityManager, BY_DESTINATION, Map.of("tripId", tripId, "stopId", stopId,
+                "openEnd", openEnd, "fromStatus", fromStatus, "toStatus", toStatus, "changedAt", changedAt));
+    }
+
+    @Override
+    public List<String> transitionByOrigin(Long tripId, Long stopId, boolean openEnd,
+                                           String fromStatus, String toStatus, OffsetDateTime changedAt) {
+        return ReturningStatements.execute(entityManager, BY_ORIGIN, Map.of("tripId", tripId, "stopId", stopId,
+                "openEnd", openEnd, "fromStatus", fromStatus, "toStatus", toStatus, "changedAt", changedAt));
+    }
+
+    @Override
+    public List<String> transitionAll(Long tripId, String fromStatus, String toStatus, OffsetDateTime changedAt) {
+        return ReturningStatements.execute(entityManager, ALL, Map.of("tripId", tripId,
+                "fromStatus", fromStatus, "toStatus", toStatus, "changedAt", changedAt));
+    }
+}
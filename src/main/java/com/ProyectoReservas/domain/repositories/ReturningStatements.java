@@ -0,0 +1,27 @@
+package com.ProyectoReservas.domain.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.List;
+import java.util.Map;
+
+// Sentencias nativas que modifican filas y devuelven las afectadas (... RETURNING). Spring Data solo admite
+// @Modifying con int o void, así que aquí se hace lo mismo que @Modifying(flushAutomatically = true,
+// clearAutomatically = true): antes se escriben los cambios pendientes para que la sentencia los vea y
+// después se vacía el contexto de persistencia para que ninguna entidad cargada conserve el estado anterior.
+final class ReturningStatements {
+
+    private ReturningStatements() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> execute(EntityManager entityManager, String sql, Map<String, ?> parameters) {
+        entityManager.flush();
+        Query query = entityManager.createNativeQuery(sql);
+        parameters.forEach(query::setParameter);
+        List<T> rows = query.getResultList();
+        entityManager.clear();
+        return rows;
+    }
+}
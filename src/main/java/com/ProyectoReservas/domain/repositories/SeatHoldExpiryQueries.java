@@ -0,0 +1,11 @@
+package com.ProyectoReservas.domain.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+// Expiración en bloque de SeatHoldRepository (UPDATE ... RETURNING, ver ReturningStatements)
+public interface SeatHoldExpiryQueries {
+
+    //Expirar en bloque los holds indicados que sigan en HOLD; devuelve los ids que cambiaron.
+    List<Long> expireHolds(Collection<Long> ids);
+}
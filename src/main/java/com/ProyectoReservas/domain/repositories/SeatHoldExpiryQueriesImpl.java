@@ -0,0 +1,26 @@
+package com.ProyectoReservas.domain.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+class SeatHoldExpiryQueriesImpl implements SeatHoldExpiryQueries {
+
+    private static final String EXPIRE = """
+            UPDATE seat_holds SET status = 'EXPIRED'
+            WHERE id IN (:ids)
+              AND status = 'HOLD'
+            RETURNING id
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> expireHolds(Collection<Long> ids) {
+        return ReturningStatements.execute(entityManager, EXPIRE, Map.of("ids", ids));
+    }
+}
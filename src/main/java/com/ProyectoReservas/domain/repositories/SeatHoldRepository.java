@@ -2,15 +2,55 @@ package com.ProyectoReservas.domain.repositories;
 
 import com.ProyectoReservas.domain.entities.SeatHold;
 import com.ProyectoReservas.domain.entities.HoldStatus;
+import com.ProyectoReservas.domain.projections.SeatOccupancy;
+import com.ProyectoReservas.domain.projections.SeatRowCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
+public interface SeatHoldRepository extends JpaRepository<SeatHold, Long>, SeatHoldExpiryQueries {
     List<SeatHold> findByTripIdAndStatus(Long tripId, HoldStatus status);
 
+    //Viajes con holds en el estado indicado (reconstrucción de la rueda de expiración).
+    @Query("""
+       SELECT DISTINCT sh.trip.id FROM SeatHold sh
+       WHERE sh.status = :status
+       """)
+    List<Long> findTripIdsByStatus(@Param("status") HoldStatus status);
+
+    //Holds de una compra con su viaje, ruta y paradas (una sola consulta para todo el grupo).
+    @Query("""
+       SELECT sh FROM SeatHold sh
+       JOIN FETCH sh.trip t
+       JOIN FETCH t.route
+       LEFT JOIN FETCH sh.fromStop
+       LEFT JOIN FETCH sh.toStop
+       WHERE sh.id IN :ids
+       """)
+    List<SeatHold> findAllForCheckout(@Param("ids") Collection<Long> ids);
+
+    //Marcar en bloque como consumidos los holds convertidos en tickets.
+    @Modifying
+    @Query("""
+       UPDATE SeatHold sh SET sh.status = 'CONSUMED'
+       WHERE sh.id IN :ids
+         AND sh.status = 'HOLD'
+       """)
+    int consumeHolds(@Param("ids") Collection<Long> ids);
+
+    //Borrar un hold solo si sigue vigente (no consumido por una compra ni expirado a la vez).
+    @Modifying
+    @Query("""
+       DELETE FROM SeatHold sh
+       WHERE sh.id = :id
+         AND sh.status = 'HOLD'
+       """)
+    int deleteActiveHold(@Param("id") Long id);
+
     //Verificar si un asiento está temporalmente bloqueado (en hold) y aún no expiró.
     @Query("""
        SELECT COUNT(sh) > 0 FROM SeatHold sh
@@ -22,6 +62,28 @@ public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
     boolean isSeatHeld(@Param("tripId") Long tripId,
                        @Param("seatNumber") Integer seatNumber);
 
+    //Asientos con hold vigente de un viaje y su tramo (carga del mapa de asientos en memoria).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.SeatOccupancy(
+              sh.seatNumber, sh.segment.fromPosition, sh.segment.toPosition)
+       FROM SeatHold sh
+       WHERE sh.trip.id = :tripId
+         AND sh.status = 'HOLD'
+         AND sh.expiresAt > CURRENT_TIMESTAMP
+       """)
+    List<SeatOccupancy> findActiveHeldSeatSegments(@Param("tripId") Long tripId);
+
+    //Holds vigentes por asiento, solo de los asientos dados (ajuste de los contadores de ocupación).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.SeatRowCount(sh.seatNumber, COUNT(sh))
+       FROM SeatHold sh
+       WHERE sh.trip.id = :tripId
+         AND sh.seatNumber IN :seatNumbers
+         AND sh.status = 'HOLD'
+       GROUP BY sh.seatNumber
+       """)
+    List<SeatRowCount> countActiveBySeat(@Param("tripId") Long tripId,
+                                         @Param("seatNumbers") Collection<Integer> seatNumbers);
 
 }
 
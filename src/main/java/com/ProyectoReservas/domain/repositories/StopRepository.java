@@ -1,10 +1,13 @@
 package com.ProyectoReservas.domain.repositories;
 
 import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.projections.RouteStop;
+import com.ProyectoReservas.domain.projections.StopPoint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,7 +22,47 @@ public interface StopRepository extends JpaRepository<Stop, Long> {
            """)
     List<Stop> findStopsByRoute(@Param("routeId") Long routeId);
 
+    //Paradas de varias rutas, agrupadas por ruta y en orden de recorrido.
+    @Query("""
+           SELECT s FROM Stop s
+           WHERE s.route.id IN :routeIds
+           ORDER BY s.route.id, s.position
+           """)
+    List<Stop> findStopsByRoutes(@Param("routeIds") Collection<Long> routeIds);
+
     Optional<Stop> findByRouteIdAndPosition(Long routeId, Integer position);
+
+    @Query("""
+           SELECT new com.ProyectoReservas.domain.projections.StopPoint(s.route.id, s.position, s.name)
+           FROM Stop s
+           ORDER BY s.route.id, s.position
+           """)
+    List<StopPoint> findAllStopPoints();
+
+    @Query("""
+           SELECT new com.ProyectoReservas.domain.projections.StopPoint(s.route.id, s.position, s.name)
+           FROM Stop s
+           WHERE s.route.id = :routeId
+           ORDER BY s.position
+           """)
+    List<StopPoint> findStopPointsByRoute(@Param("routeId") Long routeId);
+
+    //Ids de las paradas de la ruta de un viaje, en orden de recorrido.
+    @Query("""
+           SELECT s.id FROM Stop s
+           WHERE s.route.id = (SELECT t.route.id FROM Trip t WHERE t.id = :tripId)
+           ORDER BY s.position
+           """)
+    List<Long> findStopIdsByTrip(@Param("tripId") Long tripId);
+
+    //Paradas de la ruta con coordenadas, en orden de recorrido (seguimiento de viajes).
+    @Query("""
+           SELECT new com.ProyectoReservas.domain.projections.RouteStop(s.id, s.route.id, s.position, s.name, s.lat, s.lng)
+           FROM Stop s
+           WHERE s.route.id = :routeId
+           ORDER BY s.position
+           """)
+    List<RouteStop> findRouteStops(@Param("routeId") Long routeId);
 }
 
 
@@ -2,18 +2,75 @@ package com.ProyectoReservas.domain.repositories;
 
 import com.ProyectoReservas.domain.entities.Ticket;
 import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.domain.projections.ManifestRow;
+import com.ProyectoReservas.domain.projections.SeatOccupancy;
+import com.ProyectoReservas.domain.projections.SeatRowCount;
+import com.ProyectoReservas.domain.projections.TicketListItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+    String MANIFEST_FETCH_SIZE = "1000";
+
+    //Columnas del manifiesto (lo que se imprime), comunes a las consultas de manifiesto.
+    String MANIFEST_SELECT = """
+       SELECT new com.ProyectoReservas.domain.projections.ManifestRow(
+              tk.id, t.id, r.code, t.departureAt, tk.seatNumber, p.name, p.phone,
+              fs.name, ts.name, tk.status, tk.qrCode)
+       FROM Ticket tk
+       JOIN tk.trip t
+       JOIN t.route r
+       JOIN tk.passenger p
+       LEFT JOIN tk.fromStop fs
+       LEFT JOIN tk.toStop ts
+       """;
+
     Page<Ticket> findByTripId(Long tripId, Pageable pageable);
+
+    //Tickets de un viaje por cursor (seat_number, id): cada página cuesta lo mismo sin importar su profundidad.
+    //La posición inicial es ScrollPosition.keyset(); la siguiente sale de Window.positionAt.
+    default Window<Ticket> scrollByTripId(Long tripId, KeysetScrollPosition position, int size) {
+        Limit limit = Limit.of(size + 1);
+        List<Ticket> rows = position.isInitial()
+                ? findFirstByTripKeyset(tripId, limit)
+                : findNextByTripKeyset(tripId, KeysetWindows.key(position, "seatNumber", Integer.class),
+                        KeysetWindows.key(position, "id", Long.class), limit);
+        return KeysetWindows.of(rows, size, tk -> Map.of("seatNumber", tk.getSeatNumber(), "id", tk.getId()));
+    }
+
+    @Query("""
+       SELECT tk FROM Ticket tk
+       WHERE tk.trip.id = :tripId
+       ORDER BY tk.seatNumber, tk.id
+       """)
+    List<Ticket> findFirstByTripKeyset(@Param("tripId") Long tripId, Limit limit);
+
+    @Query("""
+       SELECT tk FROM Ticket tk
+       WHERE tk.trip.id = :tripId
+         AND (tk.seatNumber, tk.id) > (:seatNumber, :id)
+       ORDER BY tk.seatNumber, tk.id
+       """)
+    List<Ticket> findNextByTripKeyset(@Param("tripId") Long tripId,
+                                      @Param("seatNumber") Integer seatNumber,
+                                      @Param("id") Long id,
+                                      Limit limit);
     List<Ticket> findByPassengerId(Long userId);
     List<Ticket> findByStatus(TicketStatus status);
 
@@ -40,5 +97,113 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
                                                     @Param("startDate") OffsetDateTime start,
                                                     @Param("endDate") OffsetDateTime end);
 
+    //Manifiesto de pasajeros del viaje: solo las columnas que se imprimen, en una sentencia.
+    @Query(MANIFEST_SELECT + """
+       WHERE t.id = :tripId
+         AND tk.status = 'SOLD'
+       ORDER BY tk.seatNumber, tk.id
+       """)
+    List<ManifestRow> findManifestByTrip(@Param("tripId") Long tripId);
+
+    //Manifiesto del viaje como cursor (exportaciones): se lee por bloques de MANIFEST_FETCH_SIZE filas.
+    //El Stream debe consumirse y cerrarse dentro de una transacción.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = MANIFEST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(MANIFEST_SELECT + """
+       WHERE t.id = :tripId
+         AND tk.status = 'SOLD'
+       ORDER BY tk.seatNumber, tk.id
+       """)
+    Stream<ManifestRow> streamManifestByTrip(@Param("tripId") Long tripId);
+
+    //Manifiestos de todos los viajes que salen en [from, to) (cierre del día), viaje por viaje.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = MANIFEST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(MANIFEST_SELECT + """
+       WHERE t.departureAt >= :from
+         AND t.departureAt < :to
+         AND tk.status = 'SOLD'
+       ORDER BY t.departureAt, t.id, tk.seatNumber, tk.id
+       """)
+    Stream<ManifestRow> streamManifestByDepartureRange(@Param("from") OffsetDateTime from,
+                                                       @Param("to") OffsetDateTime to);
+
+    //Listado paginado de tickets de un viaje (vista de taquilla).
+    @Query(value = """
+       SELECT new com.ProyectoReservas.domain.projections.TicketListItem(
+              tk.id, t.id, r.code, t.departureAt, tk.seatNumber, p.name, fs.name, ts.name,
+              tk.price, tk.paymentMethod, tk.status, tk.purchasedAt)
+       FROM Ticket tk
+       JOIN tk.trip t
+       JOIN t.route r
+       JOIN tk.passenger p
+       LEFT JOIN tk.fromStop fs
+       LEFT JOIN tk.toStop ts
+       WHERE t.id = :tripId
+       """,
+           countQuery = """
+       SELECT COUNT(tk) FROM Ticket tk
+       WHERE tk.trip.id = :tripId
+       """)
+    Page<TicketListItem> findTicketListByTrip(@Param("tripId") Long tripId, Pageable pageable);
+
+    //Tickets de un pasajero para "mis viajes", del más reciente al más antiguo.
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.TicketListItem(
+              tk.id, t.id, r.code, t.departureAt, tk.seatNumber, p.name, fs.name, ts.name,
+              tk.price, tk.paymentMethod, tk.status, tk.purchasedAt)
+       FROM Ticket tk
+       JOIN tk.trip t
+       JOIN t.route r
+       JOIN tk.passenger p
+       LEFT JOIN tk.fromStop fs
+       LEFT JOIN tk.toStop ts
+       WHERE p.id = :userId
+       ORDER BY t.departureAt DESC
+       """)
+    List<TicketListItem> findTicketListByPassenger(@Param("userId") Long userId);
+
+    //Asientos vendidos de un viaje con su tramo (carga del mapa de asientos en memoria).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.SeatOccupancy(
+              tk.seatNumber, tk.segment.fromPosition, tk.segment.toPosition)
+       FROM Ticket tk
+       WHERE tk.trip.id = :tripId
+         AND tk.status = 'SOLD'
+       """)
+    List<SeatOccupancy> findSoldSeatSegmentsByTrip(@Param("tripId") Long tripId);
+
+    //Tickets vendidos por asiento, solo de los asientos dados (ajuste de los contadores de ocupación).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.SeatRowCount(tk.seatNumber, COUNT(tk))
+       FROM Ticket tk
+       WHERE tk.trip.id = :tripId
+         AND tk.seatNumber IN :seatNumbers
+         AND tk.status = 'SOLD'
+       GROUP BY tk.seatNumber
+       """)
+    List<SeatRowCount> countSoldBySeat(@Param("tripId") Long tripId,
+                                       @Param("seatNumbers") Collection<Integer> seatNumbers);
+
+    //Verificar si el asiento ya está vendido en algún tramo que se solape con [from, to).
+    @Query("""
+       SELECT COUNT(tk) > 0 FROM Ticket tk
+       WHERE tk.trip.id = :tripId
+         AND tk.seatNumber = :seatNumber
+         AND tk.status = 'SOLD'
+         AND tk.segment.fromPosition < :toPosition
+         AND tk.segment.toPosition > :fromPosition
+       """)
+    boolean existsOverlappingSoldTicket(@Param("tripId") Long tripId,
+                                        @Param("seatNumber") Integer seatNumber,
+                                        @Param("fromPosition") Integer fromPosition,
+                                        @Param("toPosition") Integer toPosition);
+
 }
 
@@ -2,36 +2,213 @@ package com.ProyectoReservas.domain.repositories;
 
 import com.ProyectoReservas.domain.entities.Trip;
 import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.projections.BusSlot;
+import com.ProyectoReservas.domain.projections.OccupancyDrift;
+import com.ProyectoReservas.domain.projections.TripCapacity;
+import com.ProyectoReservas.domain.projections.TripOccupancy;
+import com.ProyectoReservas.domain.projections.TripProgressRow;
+import com.ProyectoReservas.domain.projections.TripSchedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TripRepository extends JpaRepository<Trip, Long> {
     List<Trip> findByRouteId(Long routeId);
     List<Trip> findByStatus(TripStatus status);
 
     //Buscar viajes disponibles entre fechas, ruta y estado SCHEDULED.
+    //Rango semiabierto [from, to) sobre departure_at: usa idx_trips_route_status_departure.
     @Query("""
        SELECT t FROM Trip t
        WHERE t.route.id = :routeId
-         AND DATE(t.departureAt) = DATE(:date)
          AND t.status = 'SCHEDULED'
+         AND t.departureAt >= :from
+         AND t.departureAt < :to
        ORDER BY t.departureAt
        """)
     List<Trip> findAvailableTrips(@Param("routeId") Long routeId,
-                                  @Param("date") OffsetDateTime date);
+                                  @Param("from") OffsetDateTime from,
+                                  @Param("to") OffsetDateTime to);
 
-    //Contar cuántos asientos están ocupados o disponibles.
+    //Viajes del día de :date según su propio offset. Para el día local de la ruta usar TripSearchService.
+    default List<Trip> findAvailableTrips(Long routeId, OffsetDateTime date) {
+        OffsetDateTime from = date.toLocalDate().atStartOfDay().atOffset(date.getOffset());
+        return findAvailableTrips(routeId, from, from.plusDays(1));
+    }
+
+    //Viajes disponibles con la capacidad de su bus (listado con asientos libres, ver TripSearchService).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.TripCapacity(t.id, t.departureAt, t.arrivalAt, b.capacity)
+       FROM Trip t
+       JOIN t.bus b
+       WHERE t.route.id = :routeId
+         AND t.status = 'SCHEDULED'
+         AND t.departureAt >= :from
+         AND t.departureAt < :to
+       ORDER BY t.departureAt
+       """)
+    List<TripCapacity> findAvailableTripCapacities(@Param("routeId") Long routeId,
+                                                   @Param("from") OffsetDateTime from,
+                                                   @Param("to") OffsetDateTime to);
+
+    //Capacidad del bus asignado al viaje.
+    @Query("""
+       SELECT t.bus.capacity FROM Trip t
+       WHERE t.id = :tripId
+       """)
+    Optional<Integer> findBusCapacity(@Param("tripId") Long tripId);
+
+    //Horarios de los viajes programados que salen en [from, to), para el grafo de conexiones.
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.TripSchedule(
+              t.id, r.id, r.origin, r.destination, r.timeZone, t.departureAt, t.arrivalAt)
+       FROM Trip t
+       JOIN t.route r
+       WHERE t.status = 'SCHEDULED'
+         AND t.departureAt >= :from
+         AND t.departureAt < :to
+       """)
+    List<TripSchedule> findSchedulesBetween(@Param("from") OffsetDateTime from,
+                                            @Param("to") OffsetDateTime to);
+
+    //Horarios de viajes concretos; los que ya no están programados no aparecen.
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.TripSchedule(
+              t.id, r.id, r.origin, r.destination, r.timeZone, t.departureAt, t.arrivalAt)
+       FROM Trip t
+       JOIN t.route r
+       WHERE t.id IN :tripIds
+         AND t.status = 'SCHEDULED'
+       """)
+    List<TripSchedule> findSchedulesByIds(@Param("tripIds") Collection<Long> tripIds);
+
+    //Horarios de los viajes de las rutas dadas que salen en [from, to) con alguno de los estados (taquilla).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.TripSchedule(
+              t.id, r.id, r.origin, r.destination, r.timeZone, t.departureAt, t.arrivalAt)
+       FROM Trip t
+       JOIN t.route r
+       WHERE r.id IN :routeIds
+         AND t.status IN :statuses
+         AND t.departureAt >= :from
+         AND t.departureAt < :to
+       ORDER BY t.departureAt
+       """)
+    List<TripSchedule> findSchedulesByRoutes(@Param("routeIds") Collection<Long> routeIds,
+                                             @Param("statuses") Collection<TripStatus> statuses,
+                                             @Param("from") OffsetDateTime from,
+                                             @Param("to") OffsetDateTime to);
+
+    //Viajes programados que salen en [from, to) y todavía no tienen conductor asignado.
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.TripSchedule(
+              t.id, r.id, r.origin, r.destination, r.timeZone, t.departureAt, t.arrivalAt)
+       FROM Trip t
+       JOIN t.route r
+       WHERE t.status = 'SCHEDULED'
+         AND t.departureAt >= :from
+         AND t.departureAt < :to
+         AND NOT EXISTS (SELECT a.id FROM Assignment a WHERE a.trip = t)
+       ORDER BY t.departureAt
+       """)
+    List<TripSchedule> findUnassignedSchedulesBetween(@Param("from") OffsetDateTime from,
+                                                      @Param("to") OffsetDateTime to);
+
+    //Franjas de los buses en viajes no cancelados que terminan después de :from (índice de la flota).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.BusSlot(t.id, t.bus.id, t.departureAt, t.arrivalAt)
+       FROM Trip t
+       WHERE t.status <> 'CANCELLED'
+         AND t.arrivalAt > :from
+       """)
+    List<BusSlot> findBusSlotsArrivingAfter(@Param("from") OffsetDateTime from);
+
+    //Ruta de un viaje, sin cargarlo (validar paradas de un hold).
+    @Query("SELECT t.route.id FROM Trip t WHERE t.id = :tripId")
+    Optional<Long> findRouteIdById(@Param("tripId") Long tripId);
+
+    //Estado de avance de un viaje (al empezar a seguirlo).
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.TripProgressRow(t.id, t.route.id, t.status, t.currentPosition)
+       FROM Trip t
+       WHERE t.id = :tripId
+       """)
+    Optional<TripProgressRow> findProgressRow(@Param("tripId") Long tripId);
+
+    //Avance de muchos viajes en una sola sentencia (arreglos paralelos id / estado / posición).
+    //Los viajes cancelados no se tocan.
+    @Modifying
+    @Query(nativeQuery = true, value = """
+       UPDATE trips t
+       SET status = v.status, current_position = v.position
+       FROM unnest(CAST(:tripIds AS bigint[]), CAST(:statuses AS varchar[]), CAST(:positions AS integer[]))
+            AS v(id, status, position)
+       WHERE t.id = v.id
+         AND t.status <> 'CANCELLED'
+       """)
+    int updateProgress(@Param("tripIds") Long[] tripIds,
+                       @Param("statuses") String[] statuses,
+                       @Param("positions") Integer[] positions);
+
+    //Bloquea la fila del viaje hasta el final de la transacción: ordena los ajustes de sus contadores.
+    //FOR NO KEY UPDATE no choca con las claves foráneas de tickets y holds que se insertan a la vez.
+    @Query(nativeQuery = true, value = "SELECT id FROM trips WHERE id = :tripId FOR NO KEY UPDATE")
+    Optional<Long> lockOccupancy(@Param("tripId") Long tripId);
+
+    //Contadores desnormalizados de varios viajes en una sola consulta.
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.TripOccupancy(t.id, t.soldCount, t.heldCount)
+       FROM Trip t
+       WHERE t.id IN :tripIds
+       """)
+    List<TripOccupancy> findOccupancyByIds(@Param("tripIds") Collection<Long> tripIds);
+
+    //Suma deltas a los contadores dentro de la transacción que vende, cancela o retiene.
+    @Modifying
+    @Query("""
+       UPDATE Trip t SET t.soldCount = t.soldCount + :soldDelta,
+                         t.heldCount = t.heldCount + :heldDelta
+       WHERE t.id = :tripId
+       """)
+    int adjustOccupancy(@Param("tripId") Long tripId,
+                        @Param("soldDelta") int soldDelta,
+                        @Param("heldDelta") int heldDelta);
+
+    //Contadores guardados frente al conteo real: asientos con algún ticket vendido y asientos solo retenidos.
+    @Query("""
+       SELECT new com.ProyectoReservas.domain.projections.OccupancyDrift(
+              t.id,
+              t.soldCount,
+              (SELECT COUNT(DISTINCT tk.seatNumber) FROM Ticket tk WHERE tk.trip = t AND tk.status = 'SOLD'),
+              t.heldCount,
+              (SELECT COUNT(DISTINCT sh.seatNumber) FROM SeatHold sh
+               WHERE sh.trip = t AND sh.status = 'HOLD'
+                 AND NOT EXISTS (SELECT tk.id FROM Ticket tk
+                                 WHERE tk.trip = t AND tk.seatNumber = sh.seatNumber AND tk.status = 'SOLD')))
+       FROM Trip t
+       WHERE t.status IN :statuses
+       """)
+    List<OccupancyDrift> findOccupancyDrift(@Param("statuses") Collection<TripStatus> statuses);
+
+    //Corrige los contadores solo si no cambiaron desde que se detectó la diferencia.
+    @Modifying
     @Query("""
-       SELECT COUNT(DISTINCT tk.seatNumber)
-       FROM Ticket tk
-       WHERE tk.trip.id = :tripId
-         AND tk.status = 'SOLD'
+       UPDATE Trip t SET t.soldCount = :soldCount, t.heldCount = :heldCount
+       WHERE t.id = :tripId
+         AND t.soldCount = :expectedSold
+         AND t.heldCount = :expectedHeld
        """)
-    long countOccupiedSeats(@Param("tripId") Long tripId);
+    int resetOccupancy(@Param("tripId") Long tripId,
+                       @Param("soldCount") int soldCount,
+                       @Param("heldCount") int heldCount,
+                       @Param("expectedSold") int expectedSold,
+                       @Param("expectedHeld") int expectedHeld);
 
 }
 
@@ -4,9 +4,13 @@ import com.ProyectoReservas.domain.entities.Role;
 import com.ProyectoReservas.domain.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
@@ -36,14 +40,83 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.status = 'ACTIVE'")
     List<User> findActiveUsers();
 
-    // --- Búsqueda por nombre (útil para Admin) ---
-    @Query("""
-        SELECT u 
-        FROM User u 
-        WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :query, '%'))
-           OR LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%'))
-           OR u.phone LIKE CONCAT('%', :query, '%')
-        """)
-    List<User> searchUsers(String query);
+    // --- Búsqueda de usuarios (Admin y taquilla) ---
+    //Nombre, email o teléfono que contienen la consulta, a lo sumo :limit filas desde :offset. Un teléfono
+    //(dígitos con + inicial opcional; se ignoran espacios, guiones y paréntesis) lista primero los que empiezan
+    //por él; lo demás se ordena por parecido. Para validar la consulta y paginar usar UserSearchService.
+    Pattern PHONE_QUERY = Pattern.compile("\\+?\\d+");
+
+    default List<User> searchUsers(String query, int limit, int offset) {
+        String text = query.trim().toLowerCase(Locale.ROOT);
+        String pattern = "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        String phone = query.replaceAll("[\\s()-]", "");
+        if (PHONE_QUERY.matcher(phone).matches()) {
+            return searchPhone(phone, pattern, limit, offset);
+        }
+        return searchByText(text, pattern, limit, offset);
+    }
+
+    //Primero los teléfonos que empiezan por :phone (índice btree idx_users_phone_prefix); solo si no llenan la
+    //página se completa con la búsqueda por contenido, que continúa donde terminan los prefijos.
+    private List<User> searchPhone(String phone, String pattern, int limit, int offset) {
+        List<User> users = new ArrayList<>(searchByPhonePrefix(phone, limit, offset));
+        if (users.size() < limit) {
+            //Sin filas en esta página no se sabe cuántos prefijos quedaron atrás: se cuentan con el mismo índice
+            long prefixed = users.isEmpty() && offset > 0 ? countByPhonePrefix(phone) : offset + users.size();
+            int rest = Math.toIntExact(Math.max(0, offset + users.size() - prefixed));
+            users.addAll(searchByPhone(phone, "%" + phone + "%", pattern, limit - users.size(), rest));
+        }
+        return users;
+    }
+
+    //Teléfonos que empiezan por :phone, en orden de teléfono. Usa idx_users_phone_prefix (schema.sql).
+    @Query(nativeQuery = true, value = """
+       SELECT u.* FROM users u
+       WHERE u.phone LIKE :phone || '%'
+       ORDER BY u.phone COLLATE "C", u.id
+       LIMIT :limit OFFSET :offset
+       """)
+    List<User> searchByPhonePrefix(@Param("phone") String phone,
+                                   @Param("limit") int limit,
+                                   @Param("offset") int offset);
+
+    @Query(nativeQuery = true, value = "SELECT COUNT(*) FROM users u WHERE u.phone LIKE :phone || '%'")
+    long countByPhonePrefix(@Param("phone") String phone);
+
+    //Nombre, email o teléfono que contienen :pattern, o nombre o email que se parecen a :query (errores de
+    //tipeo, operador <% de pg_trgm), del más parecido al menos parecido. Usa los índices idx_users_*_trgm (schema.sql).
+    @Query(nativeQuery = true, value = """
+       SELECT u.* FROM users u
+       WHERE lower(u.name) LIKE :pattern
+          OR lower(u.email) LIKE :pattern
+          OR u.phone LIKE :pattern
+          OR :query <% lower(u.name)
+          OR :query <% lower(u.email)
+       ORDER BY GREATEST(word_similarity(:query, lower(u.name)), word_similarity(:query, lower(u.email))) DESC,
+                u.id
+       LIMIT :limit OFFSET :offset
+       """)
+    List<User> searchByText(@Param("query") String query,
+                            @Param("pattern") String pattern,
+                            @Param("limit") int limit,
+                            @Param("offset") int offset);
+
+    //Teléfono que contiene :phone (:phonePattern), o nombre o email que contienen :pattern, sin los teléfonos
+    //que empiezan por :phone (esos los da searchByPhonePrefix), en orden de teléfono. Usa los índices
+    //idx_users_*_trgm (schema.sql).
+    @Query(nativeQuery = true, value = """
+       SELECT u.* FROM users u
+       WHERE (u.phone LIKE :phonePattern
+              OR lower(u.name) LIKE :pattern
+              OR lower(u.email) LIKE :pattern)
+         AND (u.phone IS NULL OR u.phone NOT LIKE :phone || '%')
+       ORDER BY u.phone COLLATE "C", u.id
+       LIMIT :limit OFFSET :offset
+       """)
+    List<User> searchByPhone(@Param("phone") String phone,
+                             @Param("phonePattern") String phonePattern,
+                             @Param("pattern") String pattern,
+                             @Param("limit") int limit,
+                             @Param("offset") int offset);
 
 }
@@ -0,0 +1,14 @@
+package com.ProyectoReservas.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+// Excepción lanzada cuando un hold no puede convertirse en ticket (inexistente, vencido o ya usado)
+public class InvalidHoldException extends BusinessException {
+    public InvalidHoldException(String message) {
+        super(message, HttpStatus.CONFLICT, "INVALID_HOLD");
+    }
+
+    public InvalidHoldException(Long holdId, String reason) {
+        super(String.format("El hold %d no es válido: %s", holdId, reason), HttpStatus.CONFLICT, "INVALID_HOLD");
+    }
+}
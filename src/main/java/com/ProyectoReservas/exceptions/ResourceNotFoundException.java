@@ -0,0 +1,10 @@
+package com.ProyectoReservas.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+// Excepción lanzada cuando no existe la entidad buscada
+public class ResourceNotFoundException extends BusinessException {
+    public ResourceNotFoundException(String resource, Object id) {
+        super(String.format("%s no encontrado: %s", resource, id), HttpStatus.NOT_FOUND, "RESOURCE_NOT_FOUND");
+    }
+}
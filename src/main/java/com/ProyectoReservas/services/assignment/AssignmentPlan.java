@@ -0,0 +1,13 @@
+package com.ProyectoReservas.services.assignment;
+
+import java.util.List;
+
+// Resultado del optimizador: asignaciones sin choques y viajes que ningún conductor puede cubrir.
+public record AssignmentPlan(List<DriverAssignment> assignments, List<Long> unassignedTripIds) {
+
+    static final AssignmentPlan EMPTY = new AssignmentPlan(List.of(), List.of());
+
+    public long atDepartureCity() {
+        return assignments.stream().filter(DriverAssignment::atDepartureCity).count();
+    }
+}
@@ -0,0 +1,5 @@
+package com.ProyectoReservas.services.assignment;
+
+// Conductor propuesto para un viaje; atDepartureCity indica que ya estaba en la ciudad de salida.
+public record DriverAssignment(Long tripId, Long driverId, boolean atDepartureCity) {
+}
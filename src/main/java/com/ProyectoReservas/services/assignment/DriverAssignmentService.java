@@ -0,0 +1,11 @@
+package com.ProyectoReservas.services.assignment;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+public interface DriverAssignmentService {
+
+    AssignmentPlan plan(LocalDate day, ZoneId zone);
+
+    AssignmentPlan assignDay(LocalDate day, ZoneId zone, Long dispatcherId);
+}
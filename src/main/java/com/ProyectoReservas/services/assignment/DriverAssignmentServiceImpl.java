@@ -0,0 +1,110 @@
+package com.ProyectoReservas.services.assignment;
+
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.domain.projections.DriverDuty;
+import com.ProyectoReservas.domain.projections.TripSchedule;
+import com.ProyectoReservas.domain.repositories.AssignmentRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// Asigna conductores a todos los viajes sin asignar de un día con tres consultas (viajes, conductores
+// activos y viajes ya asignados alrededor del día) y resuelve en memoria con DriverAssignmentSolver.
+// El plan se guarda con un único INSERT tras bloquear a sus conductores; si otro despachador asignó
+// alguno de esos viajes o conductores mientras tanto, no se guarda nada y se pide recalcular.
+@Slf4j
+@Service
+public class DriverAssignmentServiceImpl implements DriverAssignmentService {
+
+    // Descanso mínimo entre la llegada de un viaje y la salida del siguiente
+    static final Duration MIN_REST = Duration.ofHours(1);
+    // Viajes previos que se miran para saber en qué ciudad está cada conductor al empezar el día
+    static final Duration LOOKBACK = Duration.ofHours(24);
+    // Primera clave de pg_advisory_xact_lock(int, int); la segunda es el conductor
+    static final int DRIVER_LOCK_KEY = 7_310_002;
+
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final Duration minRest;
+    private final Clock clock;
+
+    @Autowired
+    public DriverAssignmentServiceImpl(TripRepository tripRepository, UserRepository userRepository,
+                                       AssignmentRepository assignmentRepository) {
+        this(tripRepository, userRepository, assignmentRepository, MIN_REST, Clock.systemUTC());
+    }
+
+    DriverAssignmentServiceImpl(TripRepository tripRepository, UserRepository userRepository,
+                                AssignmentRepository assignmentRepository, Duration minRest, Clock clock) {
+        this.tripRepository = tripRepository;
+        this.userRepository = userRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.minRest = minRest;
+        this.clock = clock;
+    }
+
+    // Día en la zona indicada, como rango semiabierto [00:00, 00:00 del día siguiente)
+    @Override
+    @Transactional(readOnly = true)
+    public AssignmentPlan plan(LocalDate day, ZoneId zone) {
+        OffsetDateTime from = day.atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime to = day.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+        List<TripSchedule> trips = tripRepository.findUnassignedSchedulesBetween(from, to);
+        if (trips.isEmpty()) {
+            return AssignmentPlan.EMPTY;
+        }
+
+        long started = System.nanoTime();
+        List<Long> driverIds = userRepository.findActiveDrivers().stream().map(User::getId).toList();
+        DriverAssignmentSolver solver = new DriverAssignmentSolver(driverIds, minRest);
+        // Hasta la última llegada del día más el descanso: los viajes de mañana temprano también chocan
+        OffsetDateTime lastArrival = trips.stream().map(TripSchedule::arrivalAt)
+                .max(OffsetDateTime::compareTo).orElse(to);
+        for (DriverDuty duty : assignmentRepository.findDutiesBetween(from.minus(LOOKBACK),
+                lastArrival.plus(minRest))) {
+            solver.occupy(duty);
+        }
+        AssignmentPlan plan = solver.solve(trips);
+        log.info("Plan de conductores para {}: {} viajes, {} asignados ({} ya en la ciudad), {} sin conductor en {} ms",
+                day, trips.size(), plan.assignments().size(), plan.atDepartureCity(),
+                plan.unassignedTripIds().size(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return plan;
+    }
+
+    @Override
+    @Transactional
+    public AssignmentPlan assignDay(LocalDate day, ZoneId zone, Long dispatcherId) {
+        AssignmentPlan plan = plan(day, zone);
+        List<DriverAssignment> assignments = plan.assignments();
+        if (assignments.isEmpty()) {
+            return plan;
+        }
+        Long[] tripIds = new Long[assignments.size()];
+        Long[] driverIds = new Long[assignments.size()];
+        for (int i = 0; i < assignments.size(); i++) {
+            tripIds[i] = assignments.get(i).tripId();
+            driverIds[i] = assignments.get(i).driverId();
+        }
+        assignmentRepository.lockDrivers(DRIVER_LOCK_KEY, driverIds);
+        int inserted = assignmentRepository.insertAll(tripIds, driverIds, dispatcherId, OffsetDateTime.now(clock),
+                minRest.toSeconds());
+        if (inserted != assignments.size()) {
+            throw new BusinessException("Se asignaron viajes del " + day + " mientras se calculaba el plan; vuelva a generarlo",
+                    HttpStatus.CONFLICT, "ASSIGNMENT_PLAN_STALE");
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ProyectoReservas.services.assignment;
+
+import com.ProyectoReservas.domain.projections.DriverDuty;
+import com.ProyectoReservas.domain.projections.TripSchedule;
+import com.ProyectoReservas.services.common.StationNames;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Asignación voraz en memoria: los viajes se recorren por hora de salida y cada uno va al conductor
+// libre mejor ubicado según la agenda (DriverTimeline) de cada uno, sin consultas por pareja.
+// Preferencia: 1) conductores que llegaron a la ciudad de salida, el de llegada más reciente (deja
+// libres a los que llevan más tiempo esperando); 2) conductores sin viajes previos en la ventana;
+// 3) conductores en otra ciudad, el que llegó hace más tiempo. Empates: menos viajes, luego menor id.
+// Un conductor está libre si entre la llegada de un viaje y la salida del siguiente hay al menos rest.
+final class DriverAssignmentSolver {
+
+    private static final int AT_CITY = 0;
+    private static final int UNPLACED = 1;
+    private static final int ELSEWHERE = 2;
+
+    private final long restSeconds;
+    private final List<DriverTimeline> drivers = new ArrayList<>();
+    private final Map<Long, DriverTimeline> byId = new HashMap<>();
+
+    DriverAssignmentSolver(Collection<Long> driverIds, Duration rest) {
+        this.restSeconds = rest.toSeconds();
+        for (Long driverId : driverIds) {
+            DriverTimeline timeline = new DriverTimeline(driverId);
+            if (byId.putIfAbsent(driverId, timeline) == null) {
+                drivers.add(timeline);
+            }
+        }
+        drivers.sort(Comparator.comparingLong(timeline -> timeline.driverId));
+    }
+
+    // Viaje ya asignado; los de conductores que no están activos se ignoran
+    void occupy(DriverDuty duty) {
+        DriverTimeline timeline = byId.get(duty.driverId());
+        if (timeline != null) {
+            long arrival = duty.arrivalAt().toEpochSecond();
+            timeline.occupy(duty.departureAt().toEpochSecond(), arrival + restSeconds, arrival,
+                    cityKey(duty.destination()));
+        }
+    }
+
+    AssignmentPlan solve(Collection<TripSchedule> trips) {
+        List<TripSchedule> ordered = new ArrayList<>(trips);
+        ordered.sort(Comparator.comparing(TripSchedule::departureAt)
+                .thenComparing(TripSchedule::arrivalAt)
+                .thenComparing(TripSchedule::tripId));
+
+        List<DriverAssignment> assignments = new ArrayList<>(ordered.size());
+        List<Long> unassigned = new ArrayList<>();
+        Map<String, String> keys = new HashMap<>();
+        for (TripSchedule trip : ordered) {
+            long departure = trip.departureAt().toEpochSecond();
+            long arrival = trip.arrivalAt().toEpochSecond();
+            String origin = keys.computeIfAbsent(trip.origin(), DriverAssignmentSolver::cityKey);
+            String destination = keys.computeIfAbsent(trip.destination(), DriverAssignmentSolver::cityKey);
+
+            DriverTimeline best = null;
+            int bestTier = Integer.MAX_VALUE;
+            long bestKey = 0;
+            for (DriverTimeline driver : drivers) {
+                if (!driver.isFree(departure, arrival + restSeconds)) {
+                    continue;
+                }
+                Map.Entry<Long, String> last = driver.lastArrival(departure);
+                int tier;
+                long key;
+                if (last == null) {
+                    tier = UNPLACED;
+                    key = 0;
+                } else if (last.getValue().equals(origin)) {
+                    tier = AT_CITY;
+                    key = -last.getKey();
+                } else {
+                    tier = ELSEWHERE;
+                    key = last.getKey();
+                }
+                if (best == null || tier < bestTier || (tier == bestTier
+                        && (key < bestKey || (key == bestKey && driver.duties() < best.duties())))) {
+                    best = driver;
+                    bestTier = tier;
+                    bestKey = key;
+                }
+            }
+
+            if (best == null) {
+                unassigned.add(trip.tripId());
+                continue;
+            }
+            best.occupy(departure, arrival + restSeconds, arrival, destination);
+            assignments.add(new DriverAssignment(trip.tripId(), best.driverId, bestTier == AT_CITY));
+        }
+        return new AssignmentPlan(assignments, unassigned);
+    }
+
+    // Misma ciudad aunque cambien tildes, mayúsculas o espacios entre rutas
+    static String cityKey(String name) {
+        return StationNames.key(name);
+    }
+}
@@ -0,0 +1,50 @@
+package com.ProyectoReservas.services.assignment;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Agenda de un conductor en segundos epoch. Los bloques ocupados [salida, llegada + descanso) se guardan
+// disjuntos en un árbol ordenado por inicio (TreeMap): como no se solapan, el único bloque que puede
+// chocar con un intervalo nuevo es el que empieza justo antes de su fin, así que consultar e insertar
+// cuesta O(log n). Si llegan asignaciones previas que se solapan se fusionan en un solo bloque.
+// Aparte se guardan las llegadas con su ciudad para saber dónde está el conductor en cada momento.
+final class DriverTimeline {
+
+    final long driverId;
+    private final TreeMap<Long, Long> busy = new TreeMap<>();
+    private final TreeMap<Long, String> arrivals = new TreeMap<>();
+    private int duties;
+
+    DriverTimeline(long driverId) {
+        this.driverId = driverId;
+    }
+
+    boolean isFree(long start, long end) {
+        Map.Entry<Long, Long> before = busy.lowerEntry(end);
+        return before == null || before.getValue() <= start;
+    }
+
+    void occupy(long start, long end, long arrival, String city) {
+        long from = start;
+        long to = end;
+        Map.Entry<Long, Long> before = busy.lowerEntry(to);
+        while (before != null && before.getValue() > from) {
+            from = Math.min(from, before.getKey());
+            to = Math.max(to, before.getValue());
+            busy.remove(before.getKey());
+            before = busy.lowerEntry(to);
+        }
+        busy.put(from, to);
+        arrivals.put(arrival, city);
+        duties++;
+    }
+
+    // Última llegada en o antes de epochSecond; null si todavía no ha hecho ningún viaje
+    Map.Entry<Long, String> lastArrival(long epochSecond) {
+        return arrivals.floorEntry(epochSecond);
+    }
+
+    int duties() {
+        return duties;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ProyectoReservas.services.common;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+// Nombres de ciudades y paradas comparables entre rutas: la misma estación aunque cambien tildes,
+// mayúsculas o espacios.
+public final class StationNames {
+
+    private StationNames() {
+    }
+
+    public static String key(String name) {
+        String plain = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return plain.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
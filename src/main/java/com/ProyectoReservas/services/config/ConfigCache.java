@@ -0,0 +1,85 @@
+package com.ProyectoReservas.services.config;
+
+import com.ProyectoReservas.domain.entities.Config;
+import com.ProyectoReservas.domain.repositories.ConfigRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Configuración tipada sin consultas en el camino de las reservas: toda la tabla configs se carga en un
+// ConfigSnapshot inmutable y las lecturas solo leen el campo volatile. Cada segundo se consulta la
+// huella del contenido (una fila de 32 caracteres) y, si cambió, se carga y se reemplaza la copia
+// completa, así todas las instancias ven los cambios en un segundo, incluso los hechos por SQL directo.
+// Los cambios guardados desde esta instancia (ConfigListener) se aplican de inmediato al confirmar.
+@Slf4j
+@Component
+public class ConfigCache {
+
+    static final long POLL_MILLIS = 1000;
+
+    private final ConfigRepository configRepository;
+    private volatile ConfigSnapshot snapshot = ConfigSnapshot.DEFAULTS;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public ConfigCache(ConfigRepository configRepository) {
+        this.configRepository = configRepository;
+    }
+
+    public ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public Duration holdDuration() {
+        return snapshot.holdDuration();
+    }
+
+    public BigDecimal baggageFreeKg() {
+        return snapshot.baggageFreeKg();
+    }
+
+    public BigDecimal baggageFeePerKg() {
+        return snapshot.baggageFeePerKg();
+    }
+
+    public int overbookingPercent() {
+        return snapshot.overbookingPercent();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        reloadLock.lock();
+        try {
+            // La huella se lee antes que las filas: si algo cambia entre ambas, la siguiente consulta recarga
+            String version = configRepository.findContentVersion();
+            Map<String, String> values = new HashMap<>();
+            for (Config config : configRepository.findAll()) {
+                values.put(config.getKey(), config.getValue());
+            }
+            snapshot = ConfigSnapshot.of(values, version);
+            log.info("Configuración cargada: {} claves", values.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelay = POLL_MILLIS, initialDelay = POLL_MILLIS)
+    public void poll() {
+        try {
+            if (!configRepository.findContentVersion().equals(snapshot.version())) {
+                reload();
+            }
+        } catch (DataAccessException e) {
+            // Se sigue con la copia vigente hasta que la base responda
+            log.warn("No se pudo consultar la versión de la configuración: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ProyectoReservas.services.config;
+
+import com.ProyectoReservas.services.common.AfterCommit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// Recarga ConfigCache al confirmar un cambio hecho desde esta instancia, sin esperar la consulta
+// periódica.
+@Component
+@RequiredArgsConstructor
+public class ConfigListener {
+
+    private final ObjectProvider<ConfigCache> cache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object config) {
+        ConfigCache target = cache.getIfAvailable();
+        if (target != null) {
+            AfterCommit.run(target::reload);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.ProyectoReservas.services.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+// Copia inmutable de la tabla configs con los valores conocidos ya convertidos a su tipo. Una clave
+// ausente o con un valor que no se puede interpretar toma el valor por defecto (y se registra), así un
+// error al editar la tabla no deja a la aplicación sin configuración.
+@Slf4j
+public final class ConfigSnapshot {
+
+    public static final String HOLD_MINUTES = "seat.hold.minutes";
+    public static final String BAGGAGE_FREE_KG = "baggage.free.kg";
+    public static final String BAGGAGE_FEE_PER_KG = "baggage.fee.per.kg";
+    public static final String OVERBOOKING_PERCENT = "overbooking.percent";
+
+    static final Duration DEFAULT_HOLD_DURATION = Duration.ofMinutes(10);
+    static final BigDecimal DEFAULT_BAGGAGE_FREE_KG = BigDecimal.valueOf(20);
+    static final BigDecimal DEFAULT_BAGGAGE_FEE_PER_KG = BigDecimal.valueOf(2500);
+    static final int DEFAULT_OVERBOOKING_PERCENT = 0;
+
+    // Antes de la primera carga
+    static final ConfigSnapshot DEFAULTS = of(Map.of(), "");
+
+    private final String version;
+    private final Map<String, String> values;
+    private final Duration holdDuration;
+    private final BigDecimal baggageFreeKg;
+    private final BigDecimal baggageFeePerKg;
+    private final int overbookingPercent;
+
+    private ConfigSnapshot(String version, Map<String, String> values) {
+        this.version = version;
+        this.values = values;
+        this.holdDuration = Duration.ofMinutes(parseInt(HOLD_MINUTES, 1, 24 * 60, (int) DEFAULT_HOLD_DURATION.toMinutes()));
+        this.baggageFreeKg = parseAmount(BAGGAGE_FREE_KG, DEFAULT_BAGGAGE_FREE_KG);
+        this.baggageFeePerKg = parseAmount(BAGGAGE_FEE_PER_KG, DEFAULT_BAGGAGE_FEE_PER_KG);
+        this.overbookingPercent = parseInt(OVERBOOKING_PERCENT, 0, 100, DEFAULT_OVERBOOKING_PERCENT);
+    }
+
+    static ConfigSnapshot of(Map<String, String> values, String version) {
+        return new ConfigSnapshot(version, Map.copyOf(values));
+    }
+
+    // Huella del contenido de la tabla cuando se cargó (ConfigRepository.findContentVersion)
+    public String version() {
+        return version;
+    }
+
+    public Duration holdDuration() {
+        return holdDuration;
+    }
+
+    public BigDecimal baggageFreeKg() {
+        return baggageFreeKg;
+    }
+
+    public BigDecimal baggageFeePerKg() {
+        return baggageFeePerKg;
+    }
+
+    public int overbookingPercent() {
+        return overbookingPercent;
+    }
+
+    // Claves sin tipo propio
+    public Optional<String> value(String key) {
+        return Optional.ofNullable(values.get(key));
+    }
+
+    public Map<String, String> values() {
+        return values;
+    }
+
+    private int parseInt(String key, int min, int max, int fallback) {
+        String raw = values.get(key);
+        if (raw == null) {
+            return fallback;
+        }
+        try {
+            int value = Integer.parseInt(raw.trim());
+            if (value >= min && value <= max) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+            // se registra abajo
+        }
+        log.warn("Configuración {}='{}' inválida (entero entre {} y {}); se usa {}", key, raw, min, max, fallback);
+        return fallback;
+    }
+
+    private BigDecimal parseAmount(String key, BigDecimal fallback) {
+        String raw = values.get(key);
+        if (raw == null) {
+            return fallback;
+        }
+        try {
+            BigDecimal value = new BigDecimal(raw.trim());
+            if (value.signum() >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+            // se registra abajo
+        }
+        log.warn("Configuración {}='{}' inválida (número no negativo); se usa {}", key, raw, fallback);
+        return fallback;
+    }
+}
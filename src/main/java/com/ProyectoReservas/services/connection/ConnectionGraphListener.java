@@ -0,0 +1,36 @@
+package com.ProyectoReservas.services.connection;
+
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.services.common.AfterCommit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// Avisa al ConnectionSearchEngine de los viajes y paradas que cambian, al confirmar la transacción.
+@Component
+@RequiredArgsConstructor
+public class ConnectionGraphListener {
+
+    private final ObjectProvider<ConnectionSearchEngine> engine;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        ConnectionSearchEngine target = engine.getIfAvailable();
+        if (target == null) {
+            return;
+        }
+        if (entity instanceof Trip trip) {
+            Long tripId = trip.getId();
+            AfterCommit.run(() -> target.onTripChanged(tripId));
+        } else if (entity instanceof Stop stop) {
+            Long routeId = stop.getRoute().getId();
+            AfterCommit.run(() -> target.onRouteChanged(routeId));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.ProyectoReservas.services.connection;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+// Connection Scan por rondas: la ronda k calcula la llegada más temprana a cada estación usando como
+// mucho k viajes, a partir de las llegadas de la ronda k-1. Cada ronda es una sola pasada por las
+// conexiones ordenadas desde la hora de salida pedida, así que el costo es O(rondas × conexiones) sin
+// consultas. De las rondas que mejoran la llegada al destino sale el frente de Pareto
+// (llegada, transbordos): la primera es la de menos transbordos y la última la de llegada más temprana.
+final class ConnectionScan {
+
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    private final ConnectionTimetable timetable;
+    private final long minTransferSeconds;
+    private final int maxLegs;
+    private final long horizonSeconds;
+
+    ConnectionScan(ConnectionTimetable timetable, long minTransferSeconds, int maxLegs, long horizonSeconds) {
+        this.timetable = timetable;
+        this.minTransferSeconds = minTransferSeconds;
+        this.maxLegs = maxLegs;
+        this.horizonSeconds = horizonSeconds;
+    }
+
+    List<Itinerary> search(int origin, int target, long departAfter) {
+        if (origin < 0 || target < 0 || origin == target) {
+            return List.of();
+        }
+        ConnectionTimetable tt = timetable;
+        int stations = tt.stationCount();
+        long latestDeparture = departAfter + horizonSeconds;
+        int first = tt.firstDepartingAt(departAfter);
+
+        long[][] arrival = new long[maxLegs + 1][];
+        int[][] arrivedBy = new int[maxLegs + 1][];
+        int[][] boardedAt = new int[maxLegs + 1][];
+        arrival[0] = new long[stations];
+        Arrays.fill(arrival[0], UNREACHED);
+        arrival[0][origin] = departAfter;
+
+        List<Itinerary> itineraries = new ArrayList<>();
+        for (int round = 1; round <= maxLegs; round++) {
+            long[] previous = arrival[round - 1];
+            long[] current = previous.clone();
+            int[] arrived = new int[stations];
+            int[] boarded = new int[tt.tripCount()];
+            Arrays.fill(arrived, -1);
+            Arrays.fill(boarded, -1);
+
+            for (int c = first; c < tt.size; c++) {
+                long departure = tt.depTime[c];
+                // Ninguna conexión que sale después de la mejor llegada al destino puede mejorarla
+                if (departure >= current[target] || departure > latestDeparture) {
+                    break;
+                }
+                int trip = tt.trip[c];
+                if (boarded[trip] < 0) {
+                    int station = tt.depStation[c];
+                    long ready = previous[station];
+                    if (ready == UNREACHED) {
+                        continue;
+                    }
+                    if (station != origin) {
+                        ready += minTransferSeconds;
+                    }
+                    if (ready > departure) {
+                        continue;
+                    }
+                    boarded[trip] = c;
+                }
+                int station = tt.arrStation[c];
+                if (tt.arrTime[c] < current[station]) {
+                    current[station] = tt.arrTime[c];
+                    arrived[station] = c;
+                }
+            }
+
+            arrival[round] = current;
+            arrivedBy[round] = arrived;
+            boardedAt[round] = boarded;
+            if (current[target] < previous[target]) {
+                itineraries.add(rebuild(origin, target, round, arrivedBy, boardedAt));
+            }
+        }
+        return itineraries;
+    }
+
+    // Recorre hacia atrás: en cada ronda sin mejora propia la llegada se heredó de una ronda anterior
+    private Itinerary rebuild(int origin, int target, int round, int[][] arrivedBy, int[][] boardedAt) {
+        ConnectionTimetable tt = timetable;
+        Deque<Leg> legs = new ArrayDeque<>();
+        int station = target;
+        while (station != origin) {
+            while (arrivedBy[round][station] < 0) {
+                round--;
+            }
+            int alight = arrivedBy[round][station];
+            int board = boardedAt[round][tt.trip[alight]];
+            legs.addFirst(leg(board, alight));
+            station = tt.depStation[board];
+            round--;
+        }
+        return new Itinerary(new ArrayList<>(legs));
+    }
+
+    private Leg leg(int board, int alight) {
+        ConnectionTimetable tt = timetable;
+        int trip = tt.trip[board];
+        return new Leg(tt.tripIds[trip], tt.routeIds[trip],
+                tt.stationNames.get(tt.depStation[board]), tt.stationNames.get(tt.arrStation[alight]),
+                tt.fromPosition[board], tt.toPosition[alight],
+                OffsetDateTime.ofInstant(Instant.ofEpochSecond(tt.depTime[board]), tt.zones[trip]),
+                OffsetDateTime.ofInstant(Instant.ofEpochSecond(tt.arrTime[alight]), tt.zones[trip]));
+    }
+}
@@ -0,0 +1,161 @@
+package com.ProyectoReservas.services.connection;
+
+import com.ProyectoReservas.domain.projections.StopPoint;
+import com.ProyectoReservas.domain.projections.TripSchedule;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Búsqueda de itinerarios con transbordo entre ciudades sobre un horario en memoria.
+// El horario se arma al arrancar con dos consultas (viajes programados de la ventana y paradas) y se
+// rehace completo cada hora para correr la ventana. Entre tanto, los viajes creados, reprogramados o
+// cancelados (ConnectionGraphListener) se acumulan y se mezclan cada segundo en una copia nueva del
+// horario leyendo solo esos viajes. Las búsquedas leen la copia vigente sin bloqueos ni SQL.
+@Slf4j
+@Component
+public class ConnectionSearchEngine {
+
+    static final Duration MIN_TRANSFER = Duration.ofMinutes(15);
+    static final int MAX_LEGS = 4;
+    static final Duration SEARCH_HORIZON = Duration.ofHours(48);
+    static final Duration LOAD_WINDOW = Duration.ofDays(7);
+    static final long REBUILD_MILLIS = 60 * 60 * 1000;
+    static final long APPLY_MILLIS = 1000;
+
+    private final TripRepository tripRepository;
+    private final StopRepository stopRepository;
+    private final Clock clock;
+
+    private final Set<Long> changedTrips = ConcurrentHashMap.newKeySet();
+    private final Set<Long> changedRoutes = ConcurrentHashMap.newKeySet();
+    private final Map<Long, List<StopPoint>> stopsByRoute = new ConcurrentHashMap<>();
+    private volatile ConnectionTimetable timetable = ConnectionTimetable.EMPTY;
+    // Serializa rebuild y applyChanges
+    private final ReentrantLock timetableLock = new ReentrantLock();
+
+    @Autowired
+    public ConnectionSearchEngine(TripRepository tripRepository, StopRepository stopRepository) {
+        this(tripRepository, stopRepository, Clock.systemUTC());
+    }
+
+    ConnectionSearchEngine(TripRepository tripRepository, StopRepository stopRepository, Clock clock) {
+        this.tripRepository = tripRepository;
+        this.stopRepository = stopRepository;
+        this.clock = clock;
+    }
+
+    // Frente de Pareto: ordenado de menos transbordos a llegada más temprana
+    public List<Itinerary> search(String origin, String destination, OffsetDateTime departAfter) {
+        ConnectionTimetable current = timetable;
+        ConnectionScan scan = new ConnectionScan(current, MIN_TRANSFER.toSeconds(), MAX_LEGS,
+                SEARCH_HORIZON.toSeconds());
+        return scan.search(current.station(origin), current.station(destination), departAfter.toEpochSecond());
+    }
+
+    public Optional<Itinerary> earliestArrival(String origin, String destination, OffsetDateTime departAfter) {
+        List<Itinerary> itineraries = search(origin, destination, departAfter);
+        return itineraries.isEmpty() ? Optional.empty() : Optional.of(itineraries.get(itineraries.size() - 1));
+    }
+
+    public Optional<Itinerary> fewestTransfers(String origin, String destination, OffsetDateTime departAfter) {
+        return search(origin, destination, departAfter).stream().findFirst();
+    }
+
+    public void onTripChanged(Long tripId) {
+        changedTrips.add(tripId);
+    }
+
+    // Paradas de la ruta modificadas: se recargan y se rehacen todos sus viajes
+    public void onRouteChanged(Long routeId) {
+        changedRoutes.add(routeId);
+    }
+
+    public int connectionCount() {
+        return timetable.size;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelay = REBUILD_MILLIS, initialDelay = REBUILD_MILLIS)
+    public void rebuild() {
+        timetableLock.lock();
+        try {
+            OffsetDateTime now = OffsetDateTime.now(clock);
+            Map<Long, List<StopPoint>> stops = new HashMap<>();
+            for (StopPoint stop : stopRepository.findAllStopPoints()) {
+                stops.computeIfAbsent(stop.routeId(), id -> new ArrayList<>()).add(stop);
+            }
+            stopsByRoute.clear();
+            stopsByRoute.putAll(stops);
+            List<ScheduledTrip> trips = new ArrayList<>();
+            for (TripSchedule schedule : tripRepository.findSchedulesBetween(now, now.plus(LOAD_WINDOW))) {
+                trips.add(ScheduledTrip.of(schedule, stops.get(schedule.routeId())));
+            }
+            timetable = ConnectionTimetable.of(trips);
+            log.info("Horario de conexiones reconstruido: {} viajes, {} conexiones, {} estaciones",
+                    timetable.tripCount(), timetable.size, timetable.stationCount());
+        } finally {
+            timetableLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelay = APPLY_MILLIS)
+    public void applyChanges() {
+        timetableLock.lock();
+        try {
+            if (changedTrips.isEmpty() && changedRoutes.isEmpty()) {
+                return;
+            }
+            ConnectionTimetable current = timetable;
+            Set<Long> tripIds = drain(changedTrips);
+            for (Long routeId : drain(changedRoutes)) {
+                stopsByRoute.put(routeId, stopRepository.findStopPointsByRoute(routeId));
+                tripIds.addAll(current.tripIdsOfRoute(routeId));
+            }
+            if (tripIds.isEmpty()) {
+                return;
+            }
+
+            OffsetDateTime now = OffsetDateTime.now(clock);
+            OffsetDateTime windowEnd = now.plus(LOAD_WINDOW);
+            List<ScheduledTrip> added = new ArrayList<>();
+            for (TripSchedule schedule : tripRepository.findSchedulesByIds(tripIds)) {
+                if (!schedule.departureAt().isBefore(now) && schedule.departureAt().isBefore(windowEnd)) {
+                    added.add(ScheduledTrip.of(schedule, stopsByRoute.get(schedule.routeId())));
+                }
+            }
+            // Los que no volvieron (cancelados, eliminados o fuera de la ventana) salen del horario
+            timetable = current.merge(tripIds, added);
+            log.debug("{} viajes actualizados en el horario de conexiones", tripIds.size());
+        } finally {
+            timetableLock.unlock();
+        }
+    }
+
+    private static Set<Long> drain(Set<Long> pending) {
+        Set<Long> drained = new HashSet<>();
+        for (Long id : pending) {
+            if (pending.remove(id)) {
+                drained.add(id);
+            }
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,214 @@
+package com.ProyectoReservas.services.connection;
+
+import com.ProyectoReservas.services.common.StationNames;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Horario inmutable de conexiones elementales (parada -> parada siguiente de un mismo viaje) en
+// arreglos paralelos ordenados por hora de salida, que es lo que recorre el Connection Scan.
+// Las paradas de rutas distintas con el mismo nombre normalizado son la misma estación (transbordo).
+// Los cambios producen una copia nueva: se quitan las conexiones de los viajes afectados y se mezclan
+// las nuevas en una pasada lineal, sin reordenar todo el horario.
+final class ConnectionTimetable {
+
+    static final ConnectionTimetable EMPTY = new ConnectionTimetable(List.of(), Map.of(),
+            new long[0], new long[0], new ZoneId[0], 0,
+            new int[0], new int[0], new int[0], new int[0], new int[0], new long[0], new long[0]);
+
+    final List<String> stationNames;
+    final Map<String, Integer> stationIndex;
+
+    final long[] tripIds;
+    final long[] routeIds;
+    final ZoneId[] zones;
+
+    final int size;
+    final int[] depStation;
+    final int[] arrStation;
+    final int[] trip;
+    final int[] fromPosition;
+    final int[] toPosition;
+    final long[] depTime;
+    final long[] arrTime;
+
+    private ConnectionTimetable(List<String> stationNames, Map<String, Integer> stationIndex,
+                                long[] tripIds, long[] routeIds, ZoneId[] zones, int size,
+                                int[] depStation, int[] arrStation, int[] trip, int[] fromPosition, int[] toPosition,
+                                long[] depTime, long[] arrTime) {
+        this.stationNames = stationNames;
+        this.stationIndex = stationIndex;
+        this.tripIds = tripIds;
+        this.routeIds = routeIds;
+        this.zones = zones;
+        this.size = size;
+        this.depStation = depStation;
+        this.arrStation = arrStation;
+        this.trip = trip;
+        this.fromPosition = fromPosition;
+        this.toPosition = toPosition;
+        this.depTime = depTime;
+        this.arrTime = arrTime;
+    }
+
+    static ConnectionTimetable of(Collection<ScheduledTrip> trips) {
+        return EMPTY.merge(Set.of(), trips);
+    }
+
+    static String stationKey(String name) {
+        return StationNames.key(name);
+    }
+
+    // -1 si ninguna parada tiene ese nombre
+    int station(String name) {
+        Integer index = stationIndex.get(stationKey(name));
+        return index != null ? index : -1;
+    }
+
+    int stationCount() {
+        return stationNames.size();
+    }
+
+    int tripCount() {
+        return tripIds.length;
+    }
+
+    // Primera conexión que sale en o después de epochSecond
+    int firstDepartingAt(long epochSecond) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (depTime[mid] < epochSecond) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    List<Long> tripIdsOfRoute(long routeId) {
+        List<Long> ids = new ArrayList<>();
+        for (int t = 0; t < tripIds.length; t++) {
+            if (routeIds[t] == routeId) ids.add(tripIds[t]);
+        }
+        return ids;
+    }
+
+    // Copia sin los viajes de removedTripIds y con addedTrips (que reemplazan a los de mismo id)
+    ConnectionTimetable merge(Set<Long> removedTripIds, Collection<ScheduledTrip> addedTrips) {
+        Set<Long> replaced = new HashSet<>(removedTripIds);
+        addedTrips.forEach(added -> replaced.add(added.tripId()));
+
+        // Estaciones: solo crecen
+        List<String> names = new ArrayList<>(stationNames);
+        Map<String, Integer> index = new HashMap<>(stationIndex);
+        // Los nombres se repiten en cada viaje de la ruta: se normalizan una vez
+        Map<String, Integer> byName = new HashMap<>();
+
+        // Viajes: los que se conservan mantienen el orden, los nuevos van al final
+        int[] tripRemap = new int[tripIds.length];
+        int keptTrips = 0;
+        for (int t = 0; t < tripIds.length; t++) {
+            tripRemap[t] = replaced.contains(tripIds[t]) ? -1 : keptTrips++;
+        }
+        int tripTotal = keptTrips + addedTrips.size();
+        long[] newTripIds = new long[tripTotal];
+        long[] newRouteIds = new long[tripTotal];
+        ZoneId[] newZones = new ZoneId[tripTotal];
+        for (int t = 0; t < tripIds.length; t++) {
+            if (tripRemap[t] >= 0) {
+                newTripIds[tripRemap[t]] = tripIds[t];
+                newRouteIds[tripRemap[t]] = routeIds[t];
+                newZones[tripRemap[t]] = zones[t];
+            }
+        }
+
+        // Conexiones nuevas, ordenadas por salida
+        int addedSize = 0;
+        for (ScheduledTrip added : addedTrips) addedSize += added.connectionCount();
+        long[] addedKeys = new long[addedSize];
+        int[][] addedRows = new int[addedSize][];
+        long[][] addedTimes = new long[addedSize][];
+        int n = 0;
+        int tripSlot = keptTrips;
+        for (ScheduledTrip added : addedTrips) {
+            newTripIds[tripSlot] = added.tripId();
+            newRouteIds[tripSlot] = added.routeId();
+            newZones[tripSlot] = added.zone();
+            int[] stations = new int[added.stations().length];
+            for (int i = 0; i < stations.length; i++) {
+                String name = added.stations()[i];
+                Integer station = byName.get(name);
+                if (station == null) {
+                    String key = stationKey(name);
+                    station = index.get(key);
+                    if (station == null) {
+                        station = names.size();
+                        names.add(name.trim());
+                        index.put(key, station);
+                    }
+                    byName.put(name, station);
+                }
+                stations[i] = station;
+            }
+            for (int i = 0; i < added.connectionCount(); i++) {
+                addedRows[n] = new int[]{stations[i], stations[i + 1], tripSlot,
+                        added.positions()[i], added.positions()[i + 1]};
+                addedTimes[n] = new long[]{added.times()[i], added.times()[i + 1]};
+                addedKeys[n] = added.times()[i];
+                n++;
+            }
+            tripSlot++;
+        }
+        Integer[] order = new Integer[addedSize];
+        for (int i = 0; i < addedSize; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(addedKeys[a], addedKeys[b]));
+
+        // Mezcla lineal de las conexiones conservadas (ya ordenadas) con las nuevas
+        int capacity = size + addedSize;
+        int[] dep = new int[capacity], arr = new int[capacity], trips = new int[capacity];
+        int[] from = new int[capacity], to = new int[capacity];
+        long[] depAt = new long[capacity], arrAt = new long[capacity];
+        int out = 0;
+        int old = 0;
+        int next = 0;
+        while (old < size || next < addedSize) {
+            while (old < size && tripRemap[trip[old]] < 0) old++;
+            boolean takeOld = old < size
+                    && (next >= addedSize || depTime[old] <= addedKeys[order[next]]);
+            if (takeOld) {
+                dep[out] = depStation[old];
+                arr[out] = arrStation[old];
+                trips[out] = tripRemap[trip[old]];
+                from[out] = fromPosition[old];
+                to[out] = toPosition[old];
+                depAt[out] = depTime[old];
+                arrAt[out] = arrTime[old];
+                old++;
+                out++;
+            } else if (next < addedSize) {
+                int row = order[next++];
+                dep[out] = addedRows[row][0];
+                arr[out] = addedRows[row][1];
+                trips[out] = addedRows[row][2];
+                from[out] = addedRows[row][3];
+                to[out] = addedRows[row][4];
+                depAt[out] = addedTimes[row][0];
+                arrAt[out] = addedTimes[row][1];
+                out++;
+            }
+        }
+
+        return new ConnectionTimetable(List.copyOf(names), Map.copyOf(index),
+                newTripIds, newRouteIds, newZones, out,
+                Arrays.copyOf(dep, out), Arrays.copyOf(arr, out), Arrays.copyOf(trips, out),
+                Arrays.copyOf(from, out), Arrays.copyOf(to, out),
+                Arrays.copyOf(depAt, out), Arrays.copyOf(arrAt, out));
+    }
+}
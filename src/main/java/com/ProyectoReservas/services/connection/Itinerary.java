@@ -0,0 +1,23 @@
+package com.ProyectoReservas.services.connection;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record Itinerary(List<Leg> legs) {
+
+    public Itinerary {
+        legs = List.copyOf(legs);
+    }
+
+    public int transfers() {
+        return legs.size() - 1;
+    }
+
+    public OffsetDateTime departureAt() {
+        return legs.get(0).departureAt();
+    }
+
+    public OffsetDateTime arrivalAt() {
+        return legs.get(legs.size() - 1).arrivalAt();
+    }
+}
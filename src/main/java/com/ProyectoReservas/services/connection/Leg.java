@@ -0,0 +1,14 @@
+package com.ProyectoReservas.services.connection;
+
+import com.ProyectoReservas.domain.entities.StopSegment;
+
+import java.time.OffsetDateTime;
+
+// Tramo de un itinerario dentro de un mismo viaje; las posiciones permiten retener el asiento del tramo.
+public record Leg(Long tripId, Long routeId, String fromStation, String toStation,
+                  int fromPosition, int toPosition, OffsetDateTime departureAt, OffsetDateTime arrivalAt) {
+
+    public StopSegment segment() {
+        return StopSegment.of(fromPosition, toPosition);
+    }
+}
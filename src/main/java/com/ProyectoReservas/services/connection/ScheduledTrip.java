@@ -0,0 +1,43 @@
+package com.ProyectoReservas.services.connection;
+
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.projections.StopPoint;
+import com.ProyectoReservas.domain.projections.TripSchedule;
+
+import java.time.ZoneId;
+import java.util.List;
+
+// Un viaje programado como secuencia de paradas con su hora estimada de paso (segundos epoch).
+// Las paradas no tienen horario propio: la hora se interpola entre salida y llegada según la posición.
+// Una ruta sin paradas registradas va directa de origin a destination (tramo de ruta completa).
+record ScheduledTrip(long tripId, long routeId, ZoneId zone, String[] stations, int[] positions, long[] times) {
+
+    static ScheduledTrip of(TripSchedule schedule, List<StopPoint> stops) {
+        long departure = schedule.departureAt().toEpochSecond();
+        long arrival = schedule.arrivalAt().toEpochSecond();
+        ZoneId zone = ZoneId.of(schedule.timeZone());
+        if (stops == null || stops.size() < 2) {
+            return new ScheduledTrip(schedule.tripId(), schedule.routeId(), zone,
+                    new String[]{schedule.origin(), schedule.destination()},
+                    new int[]{StopSegment.ROUTE_START, StopSegment.ROUTE_END},
+                    new long[]{departure, arrival});
+        }
+        int count = stops.size();
+        String[] stations = new String[count];
+        int[] positions = new int[count];
+        long[] times = new long[count];
+        int first = stops.get(0).position();
+        int span = Math.max(1, stops.get(count - 1).position() - first);
+        for (int i = 0; i < count; i++) {
+            StopPoint stop = stops.get(i);
+            stations[i] = stop.name();
+            positions[i] = stop.position();
+            times[i] = departure + (arrival - departure) * (stop.position() - first) / span;
+        }
+        return new ScheduledTrip(schedule.tripId(), schedule.routeId(), zone, stations, positions, times);
+    }
+
+    int connectionCount() {
+        return stations.length - 1;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ProyectoReservas.services.fare;
+
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+
+// Precio cotizado de un tramo para un viaje concreto.
+// Las tarifas sin dynamicPricing se cobran a basePrice. Las dinámicas aplican un factor (en puntos
+// básicos) según la ocupación del bus en el tramo cotizado y el tiempo que falta para la salida.
+// La ocupación sale de los contadores por tramo del SeatAvailabilityEngine, que se mantienen con cada
+// hold, venta y cancelación; cotizar nunca cuenta asientos en la base de datos.
+@Component
+public class DynamicPricingEngine {
+
+    static final int BASE_BPS = 10_000;
+
+    // Hasta la mitad del bus no hay recargo; de ahí al lleno sube linealmente hasta +40 %
+    static final int LOAD_THRESHOLD_PERMILLE = 500;
+    static final int FULL_LOAD_SURCHARGE_BPS = 4_000;
+
+    // Compra anticipada con baja ocupación: -10 %. Últimas 48 h: +10 %; últimas 6 h: +20 %.
+    static final long EARLY_BIRD_SECONDS = 14L * 24 * 3600;
+    static final int EARLY_BIRD_DISCOUNT_BPS = -1_000;
+    static final long LAST_DAYS_SECONDS = 48L * 3600;
+    static final int LAST_DAYS_SURCHARGE_BPS = 1_000;
+    static final long LAST_HOURS_SECONDS = 6L * 3600;
+    static final int LAST_HOURS_SURCHARGE_BPS = 2_000;
+
+    static final int MIN_BPS = 9_000;
+    static final int MAX_BPS = 16_000;
+
+    private final FareMatrixCache fareMatrixCache;
+    private final SeatAvailabilityEngine availabilityEngine;
+    private final Clock clock;
+
+    @Autowired
+    public DynamicPricingEngine(FareMatrixCache fareMatrixCache, SeatAvailabilityEngine availabilityEngine) {
+        this(fareMatrixCache, availabilityEngine, Clock.systemUTC());
+    }
+
+    DynamicPricingEngine(FareMatrixCache fareMatrixCache, SeatAvailabilityEngine availabilityEngine, Clock clock) {
+        this.fareMatrixCache = fareMatrixCache;
+        this.availabilityEngine = availabilityEngine;
+        this.clock = clock;
+    }
+
+    // Sin parada de origen o destino el tramo va desde la primera o hasta la última parada de la ruta
+    public BigDecimal quote(Trip trip, Stop fromStop, Stop toStop) {
+        Long routeId = trip.getRoute().getId();
+        FareMatrix matrix = fareMatrixCache.load(routeId);
+        int from = fromStop != null ? fromStop.getPosition() : matrix.firstPosition();
+        int to = toStop != null ? toStop.getPosition() : matrix.lastPosition();
+        return FareMatrix.fromCents(quoteCents(trip.getId(), routeId, trip.getDepartureAt(), from, to));
+    }
+
+    // Camino de las búsquedas: sin entidades ni BigDecimal, solo ids, posiciones y centavos
+    public long quoteCents(Long tripId, Long routeId, OffsetDateTime departureAt, int fromPosition, int toPosition) {
+        FareMatrix matrix = fareMatrixCache.load(routeId);
+        long base = matrix.priceCents(fromPosition, toPosition);
+        if (base == FareMatrix.MISSING) {
+            throw new ResourceNotFoundException("Tarifa", routeId + ":" + fromPosition + "->" + toPosition);
+        }
+        if (!matrix.isDynamic(fromPosition, toPosition)) {
+            return base;
+        }
+        int loadPermille = (int) (availabilityEngine.loadFactor(tripId, StopSegment.of(fromPosition, toPosition)) * 1000);
+        long secondsToDeparture = departureAt.toEpochSecond() - clock.millis() / 1000;
+        return apply(base, factorBps(loadPermille, secondsToDeparture));
+    }
+
+    static int factorBps(int loadPermille, long secondsToDeparture) {
+        int bps = BASE_BPS;
+        if (loadPermille > LOAD_THRESHOLD_PERMILLE) {
+            int over = Math.min(loadPermille, 1000) - LOAD_THRESHOLD_PERMILLE;
+            bps += FULL_LOAD_SURCHARGE_BPS * over / (1000 - LOAD_THRESHOLD_PERMILLE);
+        }
+        if (secondsToDeparture >= 0) {
+            if (secondsToDeparture <= LAST_HOURS_SECONDS) {
+                bps += LAST_HOURS_SURCHARGE_BPS;
+            } else if (secondsToDeparture <= LAST_DAYS_SECONDS) {
+                bps += LAST_DAYS_SURCHARGE_BPS;
+            } else if (secondsToDeparture >= EARLY_BIRD_SECONDS && loadPermille <= LOAD_THRESHOLD_PERMILLE) {
+                bps += EARLY_BIRD_DISCOUNT_BPS;
+            }
+        }
+        return Math.max(MIN_BPS, Math.min(MAX_BPS, bps));
+    }
+
+    // Redondeo al centavo más cercano
+    static long apply(long baseCents, int bps) {
+        return (baseCents * bps + BASE_BPS / 2) / BASE_BPS;
+    }
+}
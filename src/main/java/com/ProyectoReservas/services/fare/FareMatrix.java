@@ -0,0 +1,100 @@
+package com.ProyectoReservas.services.fare;
+
+import com.ProyectoReservas.domain.projections.FareCell;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+// Matriz densa de precios (en centavos) de una ruta, indexada por [Stop.position de origen][destino].
+// Los pares sin FareRule se completan con la combinación más barata de tramos contiguos conocidos,
+// así que cualquier par de paradas de la ruta con un camino de tarifas tiene precio. Un par completado
+// tiene precio dinámico si alguno de los tramos que lo forman lo tiene.
+final class FareMatrix {
+
+    static final long MISSING = -1;
+
+    private final int size;
+    private final long[] cents;
+    private final boolean[] dynamic;
+    private final Map<Long, Integer> positionByStopId;
+    private final int firstPosition;
+    private final int lastPosition;
+
+    FareMatrix(Collection<FareCell> cells, Map<Long, Integer> positionByStopId, int firstPosition, int lastPosition) {
+        this.size = lastPosition + 1;
+        this.cents = new long[size * size];
+        this.dynamic = new boolean[size * size];
+        this.positionByStopId = Map.copyOf(positionByStopId);
+        this.firstPosition = firstPosition;
+        this.lastPosition = lastPosition;
+        Arrays.fill(cents, MISSING);
+        for (FareCell cell : cells) {
+            if (cell.fromPosition() < size && cell.toPosition() < size) {
+                int index = cell.fromPosition() * size + cell.toPosition();
+                cents[index] = toCents(cell.basePrice());
+                dynamic[index] = cell.isDynamic();
+            }
+        }
+        fillGaps();
+    }
+
+    long priceCents(int fromPosition, int toPosition) {
+        if (fromPosition < 0 || toPosition < 0 || fromPosition >= size || toPosition >= size) {
+            return MISSING;
+        }
+        return cents[fromPosition * size + toPosition];
+    }
+
+    boolean isDynamic(int fromPosition, int toPosition) {
+        if (fromPosition < 0 || toPosition < 0 || fromPosition >= size || toPosition >= size) {
+            return false;
+        }
+        return dynamic[fromPosition * size + toPosition];
+    }
+
+    Integer position(Long stopId) {
+        return positionByStopId.get(stopId);
+    }
+
+    int firstPosition() {
+        return firstPosition;
+    }
+
+    int lastPosition() {
+        return lastPosition;
+    }
+
+    // Tramos cada vez más largos: a -> c se arma con el a -> b -> c más barato ya conocido
+    private void fillGaps() {
+        for (int span = 2; span < size; span++) {
+            for (int from = 0; from + span < size; from++) {
+                int to = from + span;
+                if (cents[from * size + to] != MISSING) {
+                    continue;
+                }
+                long best = MISSING;
+                boolean bestDynamic = false;
+                for (int via = from + 1; via < to; via++) {
+                    long first = cents[from * size + via];
+                    long second = cents[via * size + to];
+                    if (first != MISSING && second != MISSING && (best == MISSING || first + second < best)) {
+                        best = first + second;
+                        bestDynamic = dynamic[from * size + via] || dynamic[via * size + to];
+                    }
+                }
+                cents[from * size + to] = best;
+                dynamic[from * size + to] = bestDynamic;
+            }
+        }
+    }
+
+    static long toCents(BigDecimal price) {
+        return price.movePointRight(2).longValueExact();
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ProyectoReservas.services.fare;
+
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.projections.FareCell;
+import com.ProyectoReservas.domain.repositories.FareRuleRepository;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache de tarifas por ruta: una cotización son dos índices sobre un arreglo de longs.
+// Cada ruta se carga con dos consultas (tarifas y paradas) y se descarta cuando cambia una FareRule
+// o una Stop de la ruta (FareMatrixListener). Cada invalidación sube la generación de la ruta y una
+// lectura empezada antes no se publica, así no queda en cache una matriz anterior al cambio.
+@Component
+@RequiredArgsConstructor
+public class FareMatrixCache {
+
+    private final FareRuleRepository fareRuleRepository;
+    private final StopRepository stopRepository;
+
+    private final Map<Long, FareMatrix> routes = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    // Precio en centavos entre dos posiciones de la ruta
+    public long priceCents(Long routeId, int fromPosition, int toPosition) {
+        long cents = load(routeId).priceCents(fromPosition, toPosition);
+        if (cents == FareMatrix.MISSING) {
+            throw new ResourceNotFoundException("Tarifa", routeId + ":" + fromPosition + "->" + toPosition);
+        }
+        return cents;
+    }
+
+    // Sin parada de origen o destino el tramo va desde la primera o hasta la última parada de la ruta
+    public BigDecimal price(Long routeId, Stop fromStop, Stop toStop) {
+        FareMatrix matrix = load(routeId);
+        int from = fromStop != null ? fromStop.getPosition() : matrix.firstPosition();
+        int to = toStop != null ? toStop.getPosition() : matrix.lastPosition();
+        return FareMatrix.fromCents(priceCents(routeId, from, to));
+    }
+
+    public BigDecimal price(Long routeId, Long fromStopId, Long toStopId) {
+        FareMatrix matrix = load(routeId);
+        Integer from = matrix.position(fromStopId);
+        Integer to = matrix.position(toStopId);
+        if (from == null || to == null) {
+            throw new ResourceNotFoundException("Parada de la ruta " + routeId, from == null ? fromStopId : toStopId);
+        }
+        return FareMatrix.fromCents(priceCents(routeId, from, to));
+    }
+
+    // Carga la matriz antes de la primera cotización (sesiones de taquilla)
+    public void preload(Long routeId) {
+        load(routeId);
+    }
+
+    public void invalidate(Long routeId) {
+        generation(routeId).incrementAndGet();
+        routes.remove(routeId);
+    }
+
+    // La lectura va fuera del mapa; la publicación compara la generación dentro de compute, que es
+    // atómico frente a la subida de invalidate seguida del remove
+    FareMatrix load(Long routeId) {
+        FareMatrix matrix = routes.get(routeId);
+        if (matrix != null) {
+            return matrix;
+        }
+        AtomicLong generation = generation(routeId);
+        long stamp = generation.get();
+        FareMatrix loaded = read(routeId);
+        FareMatrix published = routes.compute(routeId,
+                (id, current) -> current != null ? current : generation.get() == stamp ? loaded : null);
+        return published != null ? published : loaded;
+    }
+
+    private AtomicLong generation(Long routeId) {
+        return generations.computeIfAbsent(routeId, id -> new AtomicLong());
+    }
+
+    private FareMatrix read(Long routeId) {
+        List<Stop> stops = stopRepository.findByRouteIdOrderByPositionAsc(routeId);
+        if (stops.isEmpty()) {
+            throw new ResourceNotFoundException("Paradas de la ruta", routeId);
+        }
+        List<FareCell> cells = fareRuleRepository.findFareCellsByRoute(routeId);
+        Map<Long, Integer> positions = new HashMap<>();
+        stops.forEach(stop -> positions.put(stop.getId(), stop.getPosition()));
+        return new FareMatrix(cells, positions, stops.get(0).getPosition(), stops.get(stops.size() - 1).getPosition());
+    }
+}
@@ -0,0 +1,36 @@
+package com.ProyectoReservas.services.fare;
+
+import com.ProyectoReservas.domain.entities.FareRule;
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.services.common.AfterCommit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// Descarta la matriz de tarifas de la ruta cuando cambia una FareRule o una Stop (su posición)
+@Component
+@RequiredArgsConstructor
+public class FareMatrixListener {
+
+    private final ObjectProvider<FareMatrixCache> cache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Long routeId = null;
+        if (entity instanceof FareRule rule) {
+            routeId = rule.getRoute().getId();
+        } else if (entity instanceof Stop stop) {
+            routeId = stop.getRoute().getId();
+        }
+        FareMatrixCache target = cache.getIfAvailable();
+        if (routeId != null && target != null) {
+            Long id = routeId;
+            AfterCommit.run(() -> target.invalidate(id));
+        }
+    }
+}
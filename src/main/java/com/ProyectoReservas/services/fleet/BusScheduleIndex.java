@@ -0,0 +1,208 @@
+package com.ProyectoReservas.services.fleet;
+
+import com.ProyectoReservas.domain.entities.BusStatus;
+import com.ProyectoReservas.domain.projections.BusSlot;
+import com.ProyectoReservas.domain.repositories.BusRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Ocupación de cada bus en memoria: un árbol de intervalos (BusTimeline) por bus con las franjas
+// [salida, llegada) de sus viajes no cancelados. Se arma al arrancar desde trips y lo mantiene
+// BusScheduleListener. La reserva de la franja se hace dentro de la transacción que crea o reprograma
+// el viaje (y se deshace si esta se revierte), así dos transacciones concurrentes no pueden tomar el
+// mismo bus en horas que se cruzan. Las consultas de buses libres no tocan la base de datos.
+@Slf4j
+@Component
+public class BusScheduleIndex {
+
+    // Los viajes que llegaron hace más de esto ya no pueden chocar con nada nuevo
+    static final Duration KEEP_PAST = Duration.ofDays(1);
+    static final long PRUNE_MILLIS = 60 * 60 * 1000;
+
+    private final TripRepository tripRepository;
+    private final BusRepository busRepository;
+    private final Clock clock;
+
+    private final Map<Long, BusTimeline> byBus = new ConcurrentHashMap<>();
+    private final Map<Long, BusSlot> byTrip = new ConcurrentHashMap<>();
+    private final Set<Long> activeBuses = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Autowired
+    public BusScheduleIndex(TripRepository tripRepository, BusRepository busRepository) {
+        this(tripRepository, busRepository, Clock.systemUTC());
+    }
+
+    BusScheduleIndex(TripRepository tripRepository, BusRepository busRepository, Clock clock) {
+        this.tripRepository = tripRepository;
+        this.busRepository = busRepository;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            List<BusSlot> slots = tripRepository.findBusSlotsArrivingAfter(OffsetDateTime.now(clock).minus(KEEP_PAST));
+            byBus.clear();
+            byTrip.clear();
+            activeBuses.clear();
+            activeBuses.addAll(busRepository.findIdsByStatus(BusStatus.ACTIVE));
+            int doubleBooked = 0;
+            for (BusSlot slot : slots) {
+                BusTimeline timeline = byBus.computeIfAbsent(slot.busId(), id -> new BusTimeline());
+                if (timeline.firstOverlap(start(slot), end(slot), slot.tripId()) != BusTimeline.NONE) {
+                    doubleBooked++;
+                }
+                timeline.add(slot.tripId(), start(slot), end(slot));
+                byTrip.put(slot.tripId(), slot);
+            }
+            if (doubleBooked > 0) {
+                log.warn("{} viajes comparten bus con otro viaje en horas que se cruzan", doubleBooked);
+            }
+            log.info("Índice de flota reconstruido: {} buses activos, {} viajes", activeBuses.size(), byTrip.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Toma la franja del viaje en su bus (reemplaza la anterior si se reprogramó o cambió de bus).
+    // Devuelve la franja anterior, para restore si la transacción se revierte.
+    public BusSlot reserve(BusSlot slot) {
+        BusSlot previous = byTrip.get(slot.tripId());
+        if (slot.equals(previous)) {
+            return previous;
+        }
+        BusTimeline timeline = byBus.computeIfAbsent(slot.busId(), id -> new BusTimeline());
+        synchronized (timeline) {
+            long conflict = timeline.firstOverlap(start(slot), end(slot), slot.tripId());
+            if (conflict != BusTimeline.NONE) {
+                throw new BusinessException("El bus " + slot.busId() + " ya está asignado al viaje " + conflict
+                        + " en ese horario", HttpStatus.CONFLICT, "BUS_DOUBLE_BOOKED");
+            }
+            if (previous != null && previous.busId().equals(slot.busId())) {
+                timeline.remove(previous.tripId(), start(previous));
+            }
+            timeline.add(slot.tripId(), start(slot), end(slot));
+        }
+        if (previous != null && !previous.busId().equals(slot.busId())) {
+            detach(previous);
+        }
+        byTrip.put(slot.tripId(), slot);
+        return previous;
+    }
+
+    // Libera la franja del viaje (cancelado o eliminado); devuelve la que tenía
+    public BusSlot release(Long tripId) {
+        BusSlot previous = byTrip.remove(tripId);
+        if (previous != null) {
+            detach(previous);
+        }
+        return previous;
+    }
+
+    // Vuelve a dejar el viaje como estaba antes de reserve/release (null: no estaba en el índice)
+    public void restore(Long tripId, BusSlot previous) {
+        release(tripId);
+        if (previous != null) {
+            BusTimeline timeline = byBus.computeIfAbsent(previous.busId(), id -> new BusTimeline());
+            synchronized (timeline) {
+                timeline.add(tripId, start(previous), end(previous));
+            }
+            byTrip.put(tripId, previous);
+        }
+    }
+
+    public void onBusStatusChanged(Long busId, BusStatus status) {
+        if (status == BusStatus.ACTIVE) {
+            activeBuses.add(busId);
+        } else {
+            activeBuses.remove(busId);
+        }
+    }
+
+    public boolean isFree(Long busId, OffsetDateTime from, OffsetDateTime to) {
+        BusTimeline timeline = byBus.get(busId);
+        if (timeline == null) {
+            return true;
+        }
+        synchronized (timeline) {
+            return timeline.firstOverlap(from.toEpochSecond(), to.toEpochSecond(), BusTimeline.NONE) == BusTimeline.NONE;
+        }
+    }
+
+    // Viajes del bus que se cruzan con [from, to)
+    public List<Long> conflicts(Long busId, OffsetDateTime from, OffsetDateTime to) {
+        List<Long> tripIds = new ArrayList<>();
+        BusTimeline timeline = byBus.get(busId);
+        if (timeline != null) {
+            synchronized (timeline) {
+                timeline.overlaps(from.toEpochSecond(), to.toEpochSecond(), tripIds);
+            }
+        }
+        return tripIds;
+    }
+
+    // Buses activos sin ningún viaje en [from, to), por id
+    public List<Long> freeBuses(OffsetDateTime from, OffsetDateTime to) {
+        List<Long> free = new ArrayList<>();
+        for (Long busId : activeBuses) {
+            if (isFree(busId, from, to)) {
+                free.add(busId);
+            }
+        }
+        free.sort(null);
+        return free;
+    }
+
+    public int tripCount() {
+        return byTrip.size();
+    }
+
+    @Scheduled(fixedDelay = PRUNE_MILLIS, initialDelay = PRUNE_MILLIS)
+    public void prune() {
+        long limit = OffsetDateTime.now(clock).minus(KEEP_PAST).toEpochSecond();
+        int removed = 0;
+        for (BusSlot slot : byTrip.values()) {
+            if (end(slot) <= limit && byTrip.remove(slot.tripId(), slot)) {
+                detach(slot);
+                removed++;
+            }
+        }
+        log.debug("{} viajes terminados salieron del índice de flota", removed);
+    }
+
+    private void detach(BusSlot slot) {
+        BusTimeline timeline = byBus.get(slot.busId());
+        if (timeline != null) {
+            synchronized (timeline) {
+                timeline.remove(slot.tripId(), start(slot));
+            }
+        }
+    }
+
+    private static long start(BusSlot slot) {
+        return slot.departureAt().toEpochSecond();
+    }
+
+    private static long end(BusSlot slot) {
+        return slot.arrivalAt().toEpochSecond();
+    }
+}
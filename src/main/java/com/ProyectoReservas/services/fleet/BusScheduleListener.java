@@ -0,0 +1,59 @@
+package com.ProyectoReservas.services.fleet;
+
+import com.ProyectoReservas.domain.entities.Bus;
+import com.ProyectoReservas.domain.entities.BusStatus;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.projections.BusSlot;
+import com.ProyectoReservas.services.common.AfterCommit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// Mantiene BusScheduleIndex al día. Los viajes reservan su franja dentro de la transacción (un choque
+// la aborta con BUS_DOUBLE_BOOKED) y se restaura la anterior si se revierte; los borrados y los cambios
+// de estado de los buses se aplican al confirmar.
+@Component
+@RequiredArgsConstructor
+public class BusScheduleListener {
+
+    private final ObjectProvider<BusScheduleIndex> index;
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(Object entity) {
+        BusScheduleIndex target = index.getIfAvailable();
+        if (target == null) {
+            return;
+        }
+        if (entity instanceof Trip trip) {
+            Long tripId = trip.getId();
+            BusSlot previous = trip.getStatus() == TripStatus.CANCELLED
+                    ? target.release(tripId)
+                    : target.reserve(new BusSlot(tripId, trip.getBus().getId(), trip.getDepartureAt(), trip.getArrivalAt()));
+            AfterCommit.onRollback(() -> target.restore(tripId, previous));
+        } else if (entity instanceof Bus bus) {
+            Long busId = bus.getId();
+            BusStatus status = bus.getStatus();
+            AfterCommit.run(() -> target.onBusStatusChanged(busId, status));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        BusScheduleIndex target = index.getIfAvailable();
+        if (target == null) {
+            return;
+        }
+        if (entity instanceof Trip trip) {
+            Long tripId = trip.getId();
+            AfterCommit.run(() -> target.release(tripId));
+        } else if (entity instanceof Bus bus) {
+            Long busId = bus.getId();
+            AfterCommit.run(() -> target.onBusStatusChanged(busId, BusStatus.INACTIVE));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.ProyectoReservas.services.fleet;
+
+import java.util.List;
+
+// Árbol de intervalos de un bus: AVL ordenado por (inicio, viaje) en el que cada nodo guarda además el
+// mayor fin de su subárbol. Con eso una consulta de solape descarta ramas enteras: encontrar el primer
+// choque cuesta O(log n) y listar los k choques O(log n + k). A diferencia de una agenda de bloques
+// disjuntos, admite intervalos solapados (dobles reservas que ya estaban en la base) para reportarlos.
+// Segundos epoch, intervalos semiabiertos [inicio, fin). No es seguro entre hilos: lo protege el índice.
+final class BusTimeline {
+
+    static final long NONE = -1;
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final long tripId;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(long start, long end, long tripId) {
+            this.start = start;
+            this.end = end;
+            this.tripId = tripId;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void add(long tripId, long start, long end) {
+        root = insert(root, new Node(start, end, tripId));
+        size++;
+    }
+
+    boolean remove(long tripId, long start) {
+        int before = size;
+        root = delete(root, start, tripId);
+        return size < before;
+    }
+
+    // Primer viaje distinto de exceptTripId que se solapa con [start, end); NONE si no hay
+    long firstOverlap(long start, long end, long exceptTripId) {
+        return first(root, start, end, exceptTripId);
+    }
+
+    void overlaps(long start, long end, List<Long> out) {
+        collect(root, start, end, out);
+    }
+
+    private static long first(Node node, long start, long end, long except) {
+        if (node == null || node.maxEnd <= start) {
+            return NONE;
+        }
+        long left = first(node.left, start, end, except);
+        if (left != NONE) {
+            return left;
+        }
+        if (node.start >= end) {
+            // Todo lo de la derecha empieza todavía más tarde
+            return NONE;
+        }
+        if (node.end > start && node.tripId != except) {
+            return node.tripId;
+        }
+        return first(node.right, start, end, except);
+    }
+
+    private static void collect(Node node, long start, long end, List<Long> out) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, out);
+        if (node.start >= end) {
+            return;
+        }
+        if (node.end > start) {
+            out.add(node.tripId);
+        }
+        collect(node.right, start, end, out);
+    }
+
+    private static int compare(long start, long tripId, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Long.compare(tripId, node.tripId);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.tripId, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, long start, long tripId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, tripId, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, tripId);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, tripId);
+        } else {
+            size--;
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            Node successor = node.right;
+            while (successor.left != null) successor = successor.left;
+            Node replacement = new Node(successor.start, successor.end, successor.tripId);
+            replacement.right = removeMin(node.right);
+            replacement.left = node.left;
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    private static Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long max = node.end;
+        if (node.left != null) max = Math.max(max, node.left.maxEnd);
+        if (node.right != null) max = Math.max(max, node.right.maxEnd);
+        node.maxEnd = max;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ProyectoReservas.services.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Bus en memoria: entrega cada mensaje, en orden, a todos los OutboxSubscriber del contexto. Un
+// suscriptor que falla corta el lote y la excepción llega al relay, que lo reintenta.
+// Para publicar en un broker basta registrar otra implementación de OutboxEventBus como @Primary.
+@Component
+@RequiredArgsConstructor
+public class InProcessEventBus implements OutboxEventBus {
+
+    private final ObjectProvider<OutboxSubscriber> subscribers;
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        List<OutboxSubscriber> targets = subscribers.orderedStream().toList();
+        if (targets.isEmpty()) {
+            return;
+        }
+        for (OutboxMessage message : messages) {
+            for (OutboxSubscriber subscriber : targets) {
+                subscriber.onEvent(message);
+            }
+        }
+    }
+}
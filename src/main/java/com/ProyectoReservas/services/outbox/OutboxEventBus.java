@@ -0,0 +1,10 @@
+package com.ProyectoReservas.services.outbox;
+
+import java.util.List;
+
+// Destino de los eventos del outbox. El lote llega en orden de id; si publish lanza una excepción el
+// relay no borra el lote y lo vuelve a entregar completo en la siguiente pasada.
+public interface OutboxEventBus {
+
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,22 @@
+package com.ProyectoReservas.services.outbox;
+
+import com.ProyectoReservas.domain.entities.OutboxAggregate;
+import com.ProyectoReservas.domain.entities.OutboxEvent;
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+
+import java.time.OffsetDateTime;
+
+// Evento tal como lo recibe el bus. El id es único y creciente por agregado: un suscriptor que ya
+// procesó un id igual o mayor del mismo agregado puede descartar el mensaje (entrega al menos una vez).
+public record OutboxMessage(Long id,
+                            OutboxAggregate aggregate,
+                            String aggregateId,
+                            OutboxEventType eventType,
+                            String payload,
+                            OffsetDateTime createdAt) {
+
+    public static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+}
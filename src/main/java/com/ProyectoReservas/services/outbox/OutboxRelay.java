@@ -0,0 +1,85 @@
+package com.ProyectoReservas.services.outbox;
+
+import com.ProyectoReservas.domain.entities.OutboxEvent;
+import com.ProyectoReservas.domain.repositories.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Vacía outbox_events hacia el OutboxEventBus. Cada lote es una transacción sobre una partición:
+// candado consultivo de la partición, SELECT ... FOR UPDATE SKIP LOCKED en orden de id, publicación y
+// DELETE de lo publicado. El candado deja a un solo relay (de cualquier instancia) por partición, así
+// que los eventos de un agregado salen en orden. Si la publicación falla el lote se revierte y se
+// vuelve a entregar en la siguiente pasada: entrega al menos una vez.
+// Usa una conexión a la vez para no quitarle conexiones a las ventas.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    static final long POLL_MILLIS = 100;
+    static final int BATCH_SIZE = 1000;
+    // Lotes seguidos de una partición antes de pasar a la siguiente
+    static final int MAX_BATCHES_PER_PARTITION = 20;
+    // Primera clave de pg_try_advisory_xact_lock(int, int); la segunda es la partición
+    static final int LOCK_KEY = 7_310_001;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventBus eventBus;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    @Scheduled(fixedDelay = POLL_MILLIS)
+    public void drain() {
+        for (int partition = 0; partition < OutboxWriter.PARTITIONS; partition++) {
+            for (int batch = 0; batch < MAX_BATCHES_PER_PARTITION; batch++) {
+                if (drainPartition(partition) < BATCH_SIZE) {
+                    break;
+                }
+            }
+        }
+    }
+
+    public long publishedCount() {
+        return published.get();
+    }
+
+    public long failureCount() {
+        return failures.get();
+    }
+
+    // Eventos publicados del lote; 0 si la partición estaba vacía, tomada por otro relay o falló
+    int drainPartition(int partition) {
+        try {
+            Integer count = transactionTemplate.execute(status -> publishBatch(partition));
+            int publishedNow = count != null ? count : 0;
+            published.addAndGet(publishedNow);
+            return publishedNow;
+        } catch (RuntimeException e) {
+            // El lote sigue en la tabla y se reintenta en la próxima pasada
+            failures.incrementAndGet();
+            log.error("No se pudo publicar el outbox de la partición {}", partition, e);
+            return 0;
+        }
+    }
+
+    private int publishBatch(int partition) {
+        if (!outboxEventRepository.tryLockPartition(LOCK_KEY, partition)) {
+            return 0;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.lockBatch(partition, BATCH_SIZE);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        eventBus.publish(batch.stream().map(OutboxMessage::of).toList());
+        outboxEventRepository.deleteByIds(batch.stream().map(OutboxEvent::getId).toArray(Long[]::new));
+        return batch.size();
+    }
+}
@@ -0,0 +1,7 @@
+package com.ProyectoReservas.services.outbox;
+
+// Consumidor en proceso de los eventos del outbox. Debe tolerar mensajes repetidos.
+public interface OutboxSubscriber {
+
+    void onEvent(OutboxMessage message);
+}
@@ -0,0 +1,148 @@
+package com.ProyectoReservas.services.outbox;
+
+import com.ProyectoReservas.domain.entities.OutboxAggregate;
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.entities.Ticket;
+import com.ProyectoReservas.domain.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Registra los cambios de tickets, holds y encomiendas en outbox_events dentro de la transacción que
+// los produce. Los eventos se acumulan en memoria y justo antes de confirmar se vacía la sesión de
+// Hibernate y se insertan todos con una sola sentencia: el INSERT va después de los UPDATE que bloquean
+// las filas del dominio, así que dos transacciones sobre el mismo agregado obtienen ids en el orden en
+// que confirman. Sin transacción activa no se escribe nada (el evento se perdería).
+@Component
+public class OutboxWriter {
+
+    static final int PARTITIONS = 16;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    @Autowired
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this(outboxEventRepository, objectMapper, Clock.systemUTC());
+    }
+
+    OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper, Clock clock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    public void ticket(OutboxEventType type, Ticket ticket) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("ticketId", ticket.getId());
+        payload.put("tripId", ticket.getTrip().getId());
+        payload.put("passengerId", ticket.getPassenger() != null ? ticket.getPassenger().getId() : null);
+        payload.put("seatNumber", ticket.getSeatNumber());
+        payload.put("fromStopId", ticket.getFromStop() != null ? ticket.getFromStop().getId() : null);
+        payload.put("toStopId", ticket.getToStop() != null ? ticket.getToStop().getId() : null);
+        payload.put("price", ticket.getPrice());
+        payload.put("status", ticket.getStatus());
+        append(type, ticket.getId(), payload);
+    }
+
+    public void hold(OutboxEventType type, Long holdId, Long tripId, Integer seatNumber) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("holdId", holdId);
+        payload.put("tripId", tripId);
+        payload.put("seatNumber", seatNumber);
+        append(type, holdId, payload);
+    }
+
+    public void parcel(String code, Long tripId, Long stopId, ParcelStatus from, ParcelStatus to) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("code", code);
+        payload.put("tripId", tripId);
+        payload.put("stopId", stopId);
+        payload.put("fromStatus", from);
+        payload.put("toStatus", to);
+        append(OutboxEventType.PARCEL_STATUS_CHANGED, code, payload);
+    }
+
+    public void append(OutboxEventType type, Object aggregateId, Map<String, Object> payload) {
+        String id = String.valueOf(aggregateId);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + type + " de " + id, e);
+        }
+        pending().add(partition(type.aggregate(), id), type, id, json);
+    }
+
+    // String.hashCode es estable entre JVM: todas las instancias eligen la misma partición
+    static int partition(OutboxAggregate aggregate, String aggregateId) {
+        return Math.floorMod((aggregate.name() + ':' + aggregateId).hashCode(), PARTITIONS);
+    }
+
+    // Se busca entre las sincronizaciones (y no como recurso) para que una transacción anidada
+    // REQUIRES_NEW tenga su propio lote
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Los eventos del outbox se escriben dentro de una transacción");
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Pending pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        Pending pending = new Pending();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private final class Pending implements TransactionSynchronization {
+
+        private final List<Integer> partitions = new ArrayList<>();
+        private final List<String> aggregateTypes = new ArrayList<>();
+        private final List<String> aggregateIds = new ArrayList<>();
+        private final List<String> eventTypes = new ArrayList<>();
+        private final List<String> payloads = new ArrayList<>();
+
+        OutboxWriter owner() {
+            return OutboxWriter.this;
+        }
+
+        void add(int partition, OutboxEventType type, String aggregateId, String payload) {
+            partitions.add(partition);
+            aggregateTypes.add(type.aggregate().name());
+            aggregateIds.add(aggregateId);
+            eventTypes.add(type.name());
+            payloads.add(payload);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (partitions.isEmpty()) {
+                return;
+            }
+            outboxEventRepository.flush();
+            outboxEventRepository.insertBatch(partitions.toArray(Integer[]::new),
+                    aggregateTypes.toArray(String[]::new), aggregateIds.toArray(String[]::new),
+                    eventTypes.toArray(String[]::new), payloads.toArray(String[]::new),
+                    OffsetDateTime.now(clock));
+            partitions.clear();
+            aggregateTypes.clear();
+            aggregateIds.clear();
+            eventTypes.clear();
+            payloads.clear();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.ProyectoReservas.services.parcel;
+
+import com.ProyectoReservas.domain.entities.Parcel;
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.projections.ParcelTracking;
+import com.ProyectoReservas.domain.repositories.ParcelRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cache de rastreo de encomiendas por código. Las consultas de rastreo se repiten sobre pocas
+// encomiendas (en tránsito o recién entregadas): esas quedan en memoria y no llegan a PostgreSQL.
+// Acotada en bytes con expulsión LRU, repartida en segmentos con su propio candado para que las
+// consultas concurrentes no compitan por uno solo. Los cambios de estado se escriben en la cache al
+// confirmar la transacción (ParcelTrackingListener); los códigos inexistentes no se guardan.
+// Una carga solo se guarda si ninguna escritura tocó su segmento mientras se leía (si no, podría
+// pisar un estado más nuevo), y cada entrada caduca a los TTL_MILLIS por si un cambio no pasó por aquí.
+@Slf4j
+@Component
+public class ParcelTrackingCache {
+
+    static final long MAX_BYTES = 32L * 1024 * 1024;
+    static final int SEGMENTS = 16;
+    static final long STATS_LOG_MILLIS = 5 * 60 * 1000;
+    static final long TTL_MILLIS = 10 * 60 * 1000;
+
+    // Registro, nodo del mapa, fechas y números en caja; los textos se suman aparte
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final ParcelRepository parcelRepository;
+    private final Segment[] segments;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    @Autowired
+    public ParcelTrackingCache(ParcelRepository parcelRepository) {
+        this(parcelRepository, MAX_BYTES, Clock.systemUTC());
+    }
+
+    ParcelTrackingCache(ParcelRepository parcelRepository, long maxBytes, Clock clock) {
+        this.parcelRepository = parcelRepository;
+        this.clock = clock;
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxBytes / SEGMENTS);
+        }
+    }
+
+    public Optional<ParcelTracking> track(String code) {
+        Segment segment = segmentFor(code);
+        ParcelTracking cached = segment.get(code);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        long stamp = segment.writes();
+        long t0 = System.nanoTime();
+        Optional<ParcelTracking> loaded = parcelRepository.findTrackingByCode(code);
+        loadNanos.add(System.nanoTime() - t0);
+        loads.increment();
+        loaded.ifPresent(tracking -> segment.putLoaded(tracking, stamp));
+        return loaded;
+    }
+
+    // Escritura directa tras un cambio confirmado. Sin instantánea completa se actualiza el estado
+    // de la entrada que ya estaba; si no estaba, la próxima consulta la carga
+    public void write(String code, ParcelStatus status, ParcelTracking snapshot) {
+        if (snapshot != null) {
+            segmentFor(code).put(snapshot);
+        } else {
+            segmentFor(code).updateStatus(code, status);
+        }
+    }
+
+    public void invalidate(String code) {
+        segmentFor(code).remove(code);
+    }
+
+    public ParcelTrackingStats stats() {
+        int entries = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                entries += segment.size();
+                bytes += segment.bytes;
+            }
+        }
+        return new ParcelTrackingStats(hits.sum(), misses.sum(), evictions.sum(), loads.sum(), loadNanos.sum(),
+                entries, bytes);
+    }
+
+    @Scheduled(fixedDelay = STATS_LOG_MILLIS, initialDelay = STATS_LOG_MILLIS)
+    public void logStats() {
+        ParcelTrackingStats stats = stats();
+        if (stats.hits() + stats.misses() == 0) {
+            return;
+        }
+        log.info("Rastreo de encomiendas: aciertos {}%, {} cargas ({} ms promedio), {} expulsiones, {} entradas, {} KB",
+                Math.round(stats.hitRate() * 100), stats.loads(), String.format("%.2f", stats.averageLoadMillis()),
+                stats.evictions(), stats.entries(), stats.bytes() / 1024);
+    }
+
+    // Instantánea de la entidad si su viaje y paradas ya están cargados; null si leerlos dispararía consultas
+    static ParcelTracking snapshotOf(Parcel parcel) {
+        if (parcel.getTrip() == null || !Hibernate.isInitialized(parcel.getTrip())
+                || !Hibernate.isInitialized(parcel.getFromStop()) || !Hibernate.isInitialized(parcel.getToStop())) {
+            return null;
+        }
+        return new ParcelTracking(parcel.getCode(), parcel.getId(), parcel.getTrip().getId(),
+                parcel.getTrip().getDepartureAt(),
+                parcel.getFromStop() != null ? parcel.getFromStop().getName() : null,
+                parcel.getToStop() != null ? parcel.getToStop().getName() : null,
+                parcel.getStatus(), parcel.getCreatedAt());
+    }
+
+    static long weigh(ParcelTracking tracking) {
+        return ENTRY_OVERHEAD + chars(tracking.code()) + chars(tracking.fromStop()) + chars(tracking.toStop());
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : 24 + 2L * value.length();
+    }
+
+    private Segment segmentFor(String code) {
+        int h = code.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Entry(ParcelTracking tracking, long expiresAt) {
+    }
+
+    // LinkedHashMap en orden de acceso: la primera entrada es la menos usada recientemente
+    private final class Segment extends LinkedHashMap<String, Entry> {
+
+        private final long maxBytes;
+        private long bytes;
+        // Escrituras directas e invalidaciones; una carga empezada antes de la última no se guarda
+        private long writes;
+
+        Segment(long maxBytes) {
+            super(64, 0.75f, true);
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized long writes() {
+            return writes;
+        }
+
+        synchronized ParcelTracking get(String code) {
+            Entry entry = super.get(code);
+            if (entry == null) {
+                return null;
+            }
+            if (clock.millis() >= entry.expiresAt()) {
+                drop(code);
+                return null;
+            }
+            return entry.tracking();
+        }
+
+        synchronized void put(ParcelTracking tracking) {
+            writes++;
+            store(tracking);
+        }
+
+        synchronized void putLoaded(ParcelTracking tracking, long stamp) {
+            if (writes == stamp && !containsKey(tracking.code())) {
+                store(tracking);
+            }
+        }
+
+        synchronized void updateStatus(String code, ParcelStatus status) {
+            writes++;
+            Entry cached = super.get(code);
+            if (cached != null) {
+                super.put(code, new Entry(cached.tracking().withStatus(status), cached.expiresAt()));
+            }
+        }
+
+        synchronized void remove(String code) {
+            writes++;
+            drop(code);
+        }
+
+        private void drop(String code) {
+            Entry removed = super.remove(code);
+            if (removed != null) {
+                bytes -= weigh(removed.tracking());
+            }
+        }
+
+        private void store(ParcelTracking tracking) {
+            Entry previous = super.put(tracking.code(), new Entry(tracking, clock.millis() + TTL_MILLIS));
+            if (previous != null) {
+                bytes -= weigh(previous.tracking());
+            }
+            bytes += weigh(tracking);
+            Iterator<Map.Entry<String, Entry>> eldest = entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= weigh(eldest.next().getValue().tracking());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ProyectoReservas.services.parcel;
+
+import com.ProyectoReservas.domain.entities.Parcel;
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.projections.ParcelTracking;
+import com.ProyectoReservas.services.common.AfterCommit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// Escribe en ParcelTrackingCache cada encomienda creada o modificada, al confirmar la transacción.
+@Component
+@RequiredArgsConstructor
+public class ParcelTrackingListener {
+
+    private final ObjectProvider<ParcelTrackingCache> cache;
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(Parcel parcel) {
+        ParcelTrackingCache target = cache.getIfAvailable();
+        if (target == null) {
+            return;
+        }
+        String code = parcel.getCode();
+        ParcelStatus status = parcel.getStatus();
+        ParcelTracking snapshot = ParcelTrackingCache.snapshotOf(parcel);
+        AfterCommit.run(() -> target.write(code, status, snapshot));
+    }
+
+    @PostRemove
+    public void onRemove(Parcel parcel) {
+        ParcelTrackingCache target = cache.getIfAvailable();
+        if (target != null) {
+            String code = parcel.getCode();
+            AfterCommit.run(() -> target.invalidate(code));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ProyectoReservas.services.parcel;
+
+// Contadores acumulados de ParcelTrackingCache desde el arranque
+public record ParcelTrackingStats(long hits, long misses, long evictions, long loads, long loadNanos,
+                                  int entries, long bytes) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public double averageLoadMillis() {
+        return loads == 0 ? 0 : loadNanos / 1e6 / loads;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ProyectoReservas.services.parcel;
+
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+
+import java.util.List;
+
+public interface ParcelTransitionService {
+
+    int departFrom(Long tripId, Long stopId);
+
+    int arriveAt(Long tripId, Long stopId);
+
+    int tripArrived(Long tripId);
+
+    int advance(Long tripId, List<Long> departedFrom, List<Long> arrivedAt, boolean finished);
+
+    int transitionAll(Long tripId, ParcelStatus from, ParcelStatus to);
+}
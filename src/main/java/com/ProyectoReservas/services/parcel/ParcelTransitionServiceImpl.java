@@ -0,0 +1,133 @@
+package com.ProyectoReservas.services.parcel;
+
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.repositories.ParcelRepository;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.services.common.AfterCommit;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// Transiciones de encomiendas por lotes a medida que el viaje avanza. Cada transición es una
+// sentencia (UPDATE + registro en parcel_status_audit) sin cargar entidades Parcel, validada antes
+// con ParcelTransitions. Cada encomienda movida deja un evento en el outbox y su código se escribe en
+// la cache de rastreo al confirmar.
+@Slf4j
+@Service
+public class ParcelTransitionServiceImpl implements ParcelTransitionService {
+
+    // Ruta sin paradas: ninguna encomienda tiene este id de parada, solo entran las de extremo abierto
+    private static final Long NO_STOP = 0L;
+
+    private final ParcelRepository parcelRepository;
+    private final StopRepository stopRepository;
+    private final ParcelTrackingCache trackingCache;
+    private final OutboxWriter outboxWriter;
+    private final Clock clock;
+
+    @Autowired
+    public ParcelTransitionServiceImpl(ParcelRepository parcelRepository, StopRepository stopRepository,
+                                       ParcelTrackingCache trackingCache, OutboxWriter outboxWriter) {
+        this(parcelRepository, stopRepository, trackingCache, outboxWriter, Clock.systemUTC());
+    }
+
+    ParcelTransitionServiceImpl(ParcelRepository parcelRepository, StopRepository stopRepository,
+                                ParcelTrackingCache trackingCache, OutboxWriter outboxWriter, Clock clock) {
+        this.parcelRepository = parcelRepository;
+        this.stopRepository = stopRepository;
+        this.trackingCache = trackingCache;
+        this.outboxWriter = outboxWriter;
+        this.clock = clock;
+    }
+
+    // El bus sale de la parada: se suben las encomiendas que parten de ella (sin parada = primera)
+    @Override
+    @Transactional
+    public int departFrom(Long tripId, Long stopId) {
+        return departFrom(tripId, stopId, stopRepository.findStopIdsByTrip(tripId));
+    }
+
+    // El bus llega a la parada: se entregan las encomiendas con destino en ella (sin parada = última)
+    @Override
+    @Transactional
+    public int arriveAt(Long tripId, Long stopId) {
+        return arriveAt(tripId, stopId, stopRepository.findStopIdsByTrip(tripId));
+    }
+
+    // Fin del viaje: llegada a la última parada y las que sigan en tránsito (su parada quedó atrás) fallan
+    @Override
+    @Transactional
+    public int tripArrived(Long tripId) {
+        return tripArrived(tripId, stopRepository.findStopIdsByTrip(tripId));
+    }
+
+    // Avance de un viaje dentro de un lote con una sola lectura de sus paradas. Las salidas van antes
+    // que las llegadas (el origen de una encomienda siempre precede a su destino) y el fin del viaje al final.
+    @Override
+    @Transactional
+    public int advance(Long tripId, List<Long> departedFrom, List<Long> arrivedAt, boolean finished) {
+        List<Long> stops = stopRepository.findStopIdsByTrip(tripId);
+        int moved = 0;
+        for (Long stopId : departedFrom) {
+            moved += departFrom(tripId, stopId, stops);
+        }
+        for (Long stopId : arrivedAt) {
+            moved += arriveAt(tripId, stopId, stops);
+        }
+        if (finished) {
+            moved += tripArrived(tripId, stops);
+        }
+        return moved;
+    }
+
+    @Override
+    @Transactional
+    public int transitionAll(Long tripId, ParcelStatus from, ParcelStatus to) {
+        ParcelTransitions.check(from, to);
+        List<String> codes = parcelRepository.transitionAll(tripId, from.name(), to.name(), OffsetDateTime.now(clock));
+        return published(codes, tripId, null, from, to);
+    }
+
+    private int departFrom(Long tripId, Long stopId, List<Long> stops) {
+        ParcelTransitions.check(ParcelStatus.CREATED, ParcelStatus.IN_TRANSIT);
+        boolean first = stops.isEmpty() || stops.get(0).equals(stopId);
+        List<String> codes = parcelRepository.transitionByOrigin(tripId, stopId, first,
+                ParcelStatus.CREATED.name(), ParcelStatus.IN_TRANSIT.name(), OffsetDateTime.now(clock));
+        return published(codes, tripId, stopId, ParcelStatus.CREATED, ParcelStatus.IN_TRANSIT);
+    }
+
+    private int arriveAt(Long tripId, Long stopId, List<Long> stops) {
+        return arriveAt(tripId, stopId, stops.isEmpty() || stops.get(stops.size() - 1).equals(stopId));
+    }
+
+    private int tripArrived(Long tripId, List<Long> stops) {
+        Long last = stops.isEmpty() ? NO_STOP : stops.get(stops.size() - 1);
+        int delivered = arriveAt(tripId, last, true);
+        int failed = transitionAll(tripId, ParcelStatus.IN_TRANSIT, ParcelStatus.FAILED);
+        if (failed > 0) {
+            log.warn("Viaje {} llegó con {} encomiendas sin entregar; quedan en FAILED", tripId, failed);
+        }
+        return delivered + failed;
+    }
+
+    private int arriveAt(Long tripId, Long stopId, boolean last) {
+        ParcelTransitions.check(ParcelStatus.IN_TRANSIT, ParcelStatus.DELIVERED);
+        List<String> codes = parcelRepository.transitionByDestination(tripId, stopId, last,
+                ParcelStatus.IN_TRANSIT.name(), ParcelStatus.DELIVERED.name(), OffsetDateTime.now(clock));
+        return published(codes, tripId, stopId, ParcelStatus.IN_TRANSIT, ParcelStatus.DELIVERED);
+    }
+
+    private int published(List<String> codes, Long tripId, Long stopId, ParcelStatus from, ParcelStatus to) {
+        if (!codes.isEmpty()) {
+            codes.forEach(code -> outboxWriter.parcel(code, tripId, stopId, from, to));
+            AfterCommit.run(() -> codes.forEach(code -> trackingCache.write(code, to, null)));
+        }
+        return codes.size();
+    }
+}
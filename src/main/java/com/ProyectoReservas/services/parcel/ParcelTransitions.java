@@ -0,0 +1,42 @@
+package com.ProyectoReservas.services.parcel;
+
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.exceptions.BusinessException;
+import org.springframework.http.HttpStatus;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// Máquina de estados de las encomiendas. Se valida en memoria antes de lanzar una actualización por
+// lotes: una transición ilegal no llega a la base de datos.
+//   CREATED    -> IN_TRANSIT | FAILED
+//   IN_TRANSIT -> DELIVERED | FAILED
+//   FAILED     -> IN_TRANSIT (reenvío)
+//   DELIVERED  -> (final)
+public final class ParcelTransitions {
+
+    private static final Map<ParcelStatus, Set<ParcelStatus>> ALLOWED = new EnumMap<>(ParcelStatus.class);
+
+    static {
+        ALLOWED.put(ParcelStatus.CREATED, EnumSet.of(ParcelStatus.IN_TRANSIT, ParcelStatus.FAILED));
+        ALLOWED.put(ParcelStatus.IN_TRANSIT, EnumSet.of(ParcelStatus.DELIVERED, ParcelStatus.FAILED));
+        ALLOWED.put(ParcelStatus.FAILED, EnumSet.of(ParcelStatus.IN_TRANSIT));
+        ALLOWED.put(ParcelStatus.DELIVERED, EnumSet.noneOf(ParcelStatus.class));
+    }
+
+    private ParcelTransitions() {
+    }
+
+    public static boolean isAllowed(ParcelStatus from, ParcelStatus to) {
+        return from != null && to != null && ALLOWED.get(from).contains(to);
+    }
+
+    public static void check(ParcelStatus from, ParcelStatus to) {
+        if (!isAllowed(from, to)) {
+            throw new BusinessException("Transición de encomienda no permitida: " + from + " -> " + to,
+                    HttpStatus.CONFLICT, "ILLEGAL_PARCEL_TRANSITION");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ProyectoReservas.services.pos;
+
+import com.ProyectoReservas.domain.entities.PaymentMethod;
+import com.ProyectoReservas.domain.entities.Ticket;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ClerkPosService {
+
+    // Abre la taquilla del taquillero en la terminal y devuelve las salidas de las próximas horas
+    List<PosDeparture> openSession(Long clerkId, String terminal);
+
+    // Precio desde la terminal hasta la parada (null = hasta el final de la ruta)
+    BigDecimal quote(String terminal, Long tripId, Long toStopId);
+
+    // Vende el asiento desde la terminal hasta la parada (null = hasta el final de la ruta)
+    Ticket sell(String terminal, Long tripId, Integer seatNumber, Long toStopId,
+                Long passengerId, PaymentMethod paymentMethod);
+}
@@ -0,0 +1,136 @@
+package com.ProyectoReservas.services.pos;
+
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.entities.PaymentMethod;
+import com.ProyectoReservas.domain.entities.Role;
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.entities.Ticket;
+import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.domain.entities.UserStatus;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import com.ProyectoReservas.exceptions.SeatNotAvailableException;
+import com.ProyectoReservas.services.fare.DynamicPricingEngine;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import com.ProyectoReservas.services.seat.SeatConflicts;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// Venta en taquilla sobre la foto precalentada de la terminal (PosSnapshotCache): viaje, paradas,
+// precio y asiento se resuelven en memoria y la transacción solo inserta el ticket, ajusta los
+// contadores del viaje y escribe el evento TICKET_SOLD en el outbox. El asiento se reserva en memoria igual que los holds; al confirmar, el listener
+// del ticket lo marca vendido. La restricción de exclusión de tickets queda como respaldo.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClerkPosServiceImpl implements ClerkPosService {
+
+    private final PosSnapshotCache snapshotCache;
+    private final DynamicPricingEngine pricingEngine;
+    private final SeatAvailabilityEngine availabilityEngine;
+    private final TicketRepository ticketRepository;
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+    private final TripOccupancyCounters occupancyCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxWriter outboxWriter;
+
+    @Override
+    public List<PosDeparture> openSession(Long clerkId, String terminal) {
+        User clerk = userRepository.findById(clerkId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario", clerkId));
+        if (clerk.getRole() != Role.CLERK || clerk.getStatus() != UserStatus.ACTIVE) {
+            throw new BusinessException("El usuario " + clerkId + " no es un taquillero activo",
+                    HttpStatus.FORBIDDEN, "POS_CLERK_REQUIRED");
+        }
+        return snapshotCache.departures(terminal);
+    }
+
+    @Override
+    public BigDecimal quote(String terminal, Long tripId, Long toStopId) {
+        PosDeparture departure = departure(terminal, tripId);
+        return price(departure, alightingStop(departure, toStopId));
+    }
+
+    @Override
+    public Ticket sell(String terminal, Long tripId, Integer seatNumber, Long toStopId,
+                       Long passengerId, PaymentMethod paymentMethod) {
+        PosDeparture departure = departure(terminal, tripId);
+        Stop toStop = alightingStop(departure, toStopId);
+        StopSegment segment = StopSegment.of(departure.boarding(), toStop);
+        BigDecimal price = price(departure, toStop);
+
+        if (!availabilityEngine.tryHold(tripId, seatNumber, segment)) {
+            throw new SeatNotAvailableException(seatNumber, tripId);
+        }
+
+        Ticket ticket = Ticket.builder()
+                .trip(tripRepository.getReferenceById(tripId))
+                .passenger(userRepository.getReferenceById(passengerId))
+                .seatNumber(seatNumber)
+                .fromStop(departure.boarding())
+                .toStop(toStop)
+                .price(price)
+                .paymentMethod(paymentMethod)
+                .status(TicketStatus.SOLD)
+                .purchasedAt(OffsetDateTime.now())
+                .build();
+
+        try {
+            return transactionTemplate.execute(status -> {
+                Ticket saved = ticketRepository.saveAndFlush(ticket);
+                occupancyCounters.adjust(tripId, seatNumber, 1, 0);
+                outboxWriter.ticket(OutboxEventType.TICKET_SOLD, saved);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            if (e instanceof DataIntegrityViolationException && SeatConflicts.isSeatTaken(e)) {
+                // La base de datos ya tenía el asiento vendido: el mapa en memoria estaba desactualizado
+                log.warn("Conflicto de venta en taquilla para el viaje {} asiento {}", tripId, seatNumber);
+                availabilityEngine.evict(tripId);
+                throw new SeatNotAvailableException(seatNumber, tripId, e);
+            }
+            availabilityEngine.onHoldReleased(tripId, seatNumber, segment);
+            throw e;
+        }
+    }
+
+    private PosDeparture departure(String terminal, Long tripId) {
+        PosDeparture departure = snapshotCache.departure(terminal, tripId);
+        if (departure == null) {
+            throw new BusinessException("El viaje " + tripId + " no sale de " + terminal + " en las próximas horas",
+                    HttpStatus.NOT_FOUND, "POS_TRIP_NOT_AVAILABLE");
+        }
+        return departure;
+    }
+
+    private static Stop alightingStop(PosDeparture departure, Long toStopId) {
+        Stop stop = departure.alightingStop(toStopId);
+        if (stop == null) {
+            throw new BusinessException("La parada " + toStopId + " no está después de la terminal en el viaje "
+                    + departure.tripId(), HttpStatus.BAD_REQUEST, "POS_INVALID_DESTINATION");
+        }
+        return stop;
+    }
+
+    private BigDecimal price(PosDeparture departure, Stop toStop) {
+        long cents = pricingEngine.quoteCents(departure.tripId(), departure.routeId(), departure.departureAt(),
+                departure.boarding().getPosition(), toStop.getPosition());
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
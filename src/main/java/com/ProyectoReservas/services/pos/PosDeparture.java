@@ -0,0 +1,26 @@
+package com.ProyectoReservas.services.pos;
+
+import com.ProyectoReservas.domain.entities.Stop;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// Una salida vendible desde la terminal: el viaje, la parada donde se sube en la terminal, la hora
+// estimada de paso por ella y las paradas posteriores donde el pasajero puede bajarse.
+// Las paradas son entidades desprendidas: sirven como referencia para el ticket sin volver a leerlas.
+public record PosDeparture(Long tripId, Long routeId, String destination, OffsetDateTime departureAt,
+                           OffsetDateTime passesAt, Stop boarding, List<Stop> alighting) {
+
+    // null si la parada no está después de la terminal en la ruta del viaje
+    public Stop alightingStop(Long stopId) {
+        if (stopId == null) {
+            return alighting.get(alighting.size() - 1);
+        }
+        for (Stop stop : alighting) {
+            if (stop.getId().equals(stopId)) {
+                return stop;
+            }
+        }
+        return null;
+    }
+}
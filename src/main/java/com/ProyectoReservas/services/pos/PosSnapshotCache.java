@@ -0,0 +1,291 @@
+package com.ProyectoReservas.services.pos;
+
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.projections.StopPoint;
+import com.ProyectoReservas.domain.projections.TripSchedule;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.services.common.StationNames;
+import com.ProyectoReservas.services.fare.FareMatrixCache;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Salidas de cada terminal con taquilla abierta para las próximas HORIZON horas, ya resueltas:
+// viaje, paradas, matriz de tarifas (FareMatrixCache) y mapa de asientos (SeatAvailabilityEngine) se
+// cargan al abrir la sesión, así que cotizar y vender no leen nada de la base de datos.
+// Los viajes y paradas modificados (PosSnapshotListener) marcan su ruta y las terminales que la cubren
+// se rehacen cada segundo; un viaje cancelado sale de inmediato. Las paradas de todas las rutas se leen
+// una vez y al cambiar una ruta solo se releen las suyas. Cada minuto se corre la ventana y se
+// descartan las terminales sin uso.
+@Slf4j
+@Component
+public class PosSnapshotCache {
+
+    static final Duration HORIZON = Duration.ofHours(6);
+    // Un bus retrasado se sigue vendiendo un rato después de su hora de paso estimada
+    static final Duration GRACE = Duration.ofMinutes(15);
+    // Los viajes que pasan por una parada intermedia salieron del origen hasta LOOKBACK antes
+    static final Duration LOOKBACK = Duration.ofHours(24);
+    static final Duration IDLE = Duration.ofMinutes(30);
+    static final long APPLY_MILLIS = 1000;
+    static final long REFRESH_MILLIS = 60 * 1000;
+    static final Set<TripStatus> SELLABLE = EnumSet.of(TripStatus.SCHEDULED, TripStatus.BOARDING, TripStatus.DEPARTED);
+
+    private final TripRepository tripRepository;
+    private final StopRepository stopRepository;
+    private final FareMatrixCache fareMatrixCache;
+    private final SeatAvailabilityEngine availabilityEngine;
+    private final Clock clock;
+
+    private final Map<String, Terminal> terminals = new ConcurrentHashMap<>();
+    private final Set<Long> changedRoutes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> changedStops = ConcurrentHashMap.newKeySet();
+    // Paradas por ruta, ordenadas por posición; se carga en la primera reconstrucción y solo bajo buildLock
+    private Map<Long, List<StopPoint>> stopPoints;
+    // Serializa las reconstrucciones
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    @Autowired
+    public PosSnapshotCache(TripRepository tripRepository, StopRepository stopRepository,
+                            FareMatrixCache fareMatrixCache, SeatAvailabilityEngine availabilityEngine) {
+        this(tripRepository, stopRepository, fareMatrixCache, availabilityEngine, Clock.systemUTC());
+    }
+
+    PosSnapshotCache(TripRepository tripRepository, StopRepository stopRepository,
+                     FareMatrixCache fareMatrixCache, SeatAvailabilityEngine availabilityEngine, Clock clock) {
+        this.tripRepository = tripRepository;
+        this.stopRepository = stopRepository;
+        this.fareMatrixCache = fareMatrixCache;
+        this.availabilityEngine = availabilityEngine;
+        this.clock = clock;
+    }
+
+    // Salidas vigentes de la terminal; la primera llamada arma y precalienta la terminal
+    public List<PosDeparture> departures(String terminal) {
+        return snapshot(terminal).departures;
+    }
+
+    // null si el viaje no sale de la terminal en la ventana de venta
+    public PosDeparture departure(String terminal, Long tripId) {
+        return snapshot(terminal).departure(tripId);
+    }
+
+    public void onTripChanged(Long tripId, Long routeId, boolean sellable) {
+        if (!sellable) {
+            terminals.values().forEach(t -> t.snapshot.updateAndGet(s -> s.without(tripId)));
+        }
+        changedRoutes.add(routeId);
+    }
+
+    // Una parada nueva o movida puede sumar la ruta a terminales que antes no la cubrían
+    public void onRouteChanged(Long routeId) {
+        changedStops.add(routeId);
+    }
+
+    public int terminalCount() {
+        return terminals.size();
+    }
+
+    @Scheduled(fixedDelay = APPLY_MILLIS)
+    public void applyChanges() {
+        buildLock.lock();
+        try {
+            if (changedRoutes.isEmpty() && changedStops.isEmpty()) {
+                return;
+            }
+            Set<Long> stopRouteIds = drain(changedStops);
+            if (stopPoints != null) {
+                stopRouteIds.forEach(this::reloadStopPoints);
+            }
+            Set<Long> routeIds = drain(changedRoutes);
+            routeIds.addAll(stopRouteIds);
+            for (Terminal terminal : terminals.values()) {
+                PosTerminalSnapshot current = terminal.snapshot.get();
+                // Una ruta cuyas paradas cambiaron puede empezar a pasar por la terminal
+                if (routeIds.stream().anyMatch(id -> current.covers(id)
+                        || (stopRouteIds.contains(id) && boardingPosition(id, terminal.key) != null))) {
+                    terminal.snapshot.set(build(terminal.key));
+                }
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelay = REFRESH_MILLIS, initialDelay = REFRESH_MILLIS)
+    public void refresh() {
+        buildLock.lock();
+        try {
+            long idleSince = clock.millis() - IDLE.toMillis();
+            terminals.values().removeIf(terminal -> terminal.lastUsed.get() < idleSince);
+            for (Terminal terminal : terminals.values()) {
+                terminal.snapshot.set(build(terminal.key));
+            }
+            log.debug("{} terminales de taquilla actualizadas", terminals.size());
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private PosTerminalSnapshot snapshot(String terminal) {
+        String key = StationNames.key(terminal);
+        Terminal holder = terminals.get(key);
+        if (holder == null) {
+            holder = open(key);
+        }
+        holder.lastUsed.set(clock.millis());
+        return holder.snapshot.get();
+    }
+
+    private Terminal open(String key) {
+        buildLock.lock();
+        try {
+            Terminal holder = terminals.get(key);
+            if (holder == null) {
+                holder = new Terminal(key, build(key), clock.millis());
+                terminals.put(key, holder);
+            }
+            return holder;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private static Set<Long> drain(Set<Long> changed) {
+        Set<Long> drained = new HashSet<>();
+        for (Long routeId : changed) {
+            if (changed.remove(routeId)) {
+                drained.add(routeId);
+            }
+        }
+        return drained;
+    }
+
+    private void loadStopPoints() {
+        stopPoints = new HashMap<>();
+        for (StopPoint stop : stopRepository.findAllStopPoints()) {
+            stopPoints.computeIfAbsent(stop.routeId(), id -> new ArrayList<>()).add(stop);
+        }
+        stopPoints.values().forEach(stops -> stops.sort(Comparator.comparing(StopPoint::position)));
+    }
+
+    private void reloadStopPoints(Long routeId) {
+        List<StopPoint> stops = new ArrayList<>(stopRepository.findStopPointsByRoute(routeId));
+        if (stops.isEmpty()) {
+            stopPoints.remove(routeId);
+        } else {
+            stops.sort(Comparator.comparing(StopPoint::position));
+            stopPoints.put(routeId, stops);
+        }
+    }
+
+    // Primera parada de la ruta en la terminal, si no es la última; null si no se vende desde allí
+    private Integer boardingPosition(Long routeId, String key) {
+        List<StopPoint> stops = stopPoints.getOrDefault(routeId, List.of());
+        for (int i = 0; i < stops.size() - 1; i++) {
+            if (StationNames.key(stops.get(i).name()).equals(key)) {
+                return stops.get(i).position();
+            }
+        }
+        return null;
+    }
+
+    private PosTerminalSnapshot build(String key) {
+        if (stopPoints == null) {
+            loadStopPoints();
+        }
+        Map<Long, Integer> boardingPosition = new HashMap<>();
+        for (Long routeId : stopPoints.keySet()) {
+            Integer position = boardingPosition(routeId, key);
+            if (position != null) {
+                boardingPosition.put(routeId, position);
+            }
+        }
+        if (boardingPosition.isEmpty()) {
+            return new PosTerminalSnapshot(key, Set.of(), List.of());
+        }
+
+        Map<Long, List<Stop>> stopsByRoute = new HashMap<>();
+        for (Stop stop : stopRepository.findStopsByRoutes(boardingPosition.keySet())) {
+            stopsByRoute.computeIfAbsent(stop.getRoute().getId(), id -> new ArrayList<>()).add(stop);
+        }
+
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        OffsetDateTime from = now.minus(GRACE);
+        OffsetDateTime to = now.plus(HORIZON);
+        List<PosDeparture> departures = new ArrayList<>();
+        for (TripSchedule schedule : tripRepository.findSchedulesByRoutes(
+                boardingPosition.keySet(), SELLABLE, from.minus(LOOKBACK), to)) {
+            List<Stop> stops = stopsByRoute.get(schedule.routeId());
+            if (stops == null) {
+                continue;
+            }
+            PosDeparture departure = departure(schedule, stops, boardingPosition.get(schedule.routeId()));
+            if (!departure.passesAt().isBefore(from) && departure.passesAt().isBefore(to)) {
+                departures.add(departure);
+            }
+        }
+        departures.sort(Comparator.comparing(PosDeparture::passesAt).thenComparing(PosDeparture::tripId));
+
+        Set<Long> routes = new LinkedHashSet<>();
+        for (PosDeparture departure : departures) {
+            if (routes.add(departure.routeId())) {
+                fareMatrixCache.preload(departure.routeId());
+            }
+            availabilityEngine.preload(departure.tripId());
+        }
+        return new PosTerminalSnapshot(key, boardingPosition.keySet(), departures);
+    }
+
+    // La hora de paso se interpola por posición, igual que en el grafo de conexiones
+    private static PosDeparture departure(TripSchedule schedule, List<Stop> stops, int boardingPosition) {
+        Stop boarding = null;
+        List<Stop> alighting = new ArrayList<>();
+        for (Stop stop : stops) {
+            if (stop.getPosition() == boardingPosition) {
+                boarding = stop;
+            } else if (stop.getPosition() > boardingPosition) {
+                alighting.add(stop);
+            }
+        }
+        int first = stops.get(0).getPosition();
+        int span = Math.max(1, stops.get(stops.size() - 1).getPosition() - first);
+        long travel = Duration.between(schedule.departureAt(), schedule.arrivalAt()).toSeconds();
+        OffsetDateTime passesAt = schedule.departureAt().plusSeconds(travel * (boardingPosition - first) / span);
+        return new PosDeparture(schedule.tripId(), schedule.routeId(), schedule.destination(),
+                schedule.departureAt(), passesAt, boarding, List.copyOf(alighting));
+    }
+
+    private static final class Terminal {
+        final String key;
+        final AtomicReference<PosTerminalSnapshot> snapshot;
+        final AtomicLong lastUsed;
+
+        Terminal(String key, PosTerminalSnapshot snapshot, long now) {
+            this.key = key;
+            this.snapshot = new AtomicReference<>(snapshot);
+            this.lastUsed = new AtomicLong(now);
+        }
+    }
+}
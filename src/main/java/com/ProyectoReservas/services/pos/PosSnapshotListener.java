@@ -0,0 +1,53 @@
+package com.ProyectoReservas.services.pos;
+
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.services.common.AfterCommit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// Avisa a PosSnapshotCache de los viajes y paradas que cambian, al confirmar la transacción.
+@Component
+@RequiredArgsConstructor
+public class PosSnapshotListener {
+
+    private final ObjectProvider<PosSnapshotCache> cache;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        PosSnapshotCache target = cache.getIfAvailable();
+        if (target == null) {
+            return;
+        }
+        if (entity instanceof Trip trip) {
+            Long tripId = trip.getId();
+            Long routeId = trip.getRoute().getId();
+            boolean sellable = PosSnapshotCache.SELLABLE.contains(trip.getStatus());
+            AfterCommit.run(() -> target.onTripChanged(tripId, routeId, sellable));
+        } else if (entity instanceof Stop stop) {
+            Long routeId = stop.getRoute().getId();
+            AfterCommit.run(() -> target.onRouteChanged(routeId));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        PosSnapshotCache target = cache.getIfAvailable();
+        if (target == null) {
+            return;
+        }
+        if (entity instanceof Trip trip) {
+            Long tripId = trip.getId();
+            Long routeId = trip.getRoute().getId();
+            AfterCommit.run(() -> target.onTripChanged(tripId, routeId, false));
+        } else if (entity instanceof Stop stop) {
+            Long routeId = stop.getRoute().getId();
+            AfterCommit.run(() -> target.onRouteChanged(routeId));
+        }
+    }
+}
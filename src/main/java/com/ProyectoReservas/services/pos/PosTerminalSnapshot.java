@@ -0,0 +1,44 @@
+package com.ProyectoReservas.services.pos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Salidas de una terminal en la ventana de venta, ordenadas por hora de paso. Inmutable: los cambios
+// publican una copia nueva y las ventas leen la vigente sin bloqueos.
+final class PosTerminalSnapshot {
+
+    final String terminal;
+    final Set<Long> routeIds;
+    final List<PosDeparture> departures;
+    private final Map<Long, PosDeparture> byTrip;
+
+    PosTerminalSnapshot(String terminal, Set<Long> routeIds, List<PosDeparture> departures) {
+        this.terminal = terminal;
+        this.routeIds = Set.copyOf(routeIds);
+        this.departures = List.copyOf(departures);
+        Map<Long, PosDeparture> index = new HashMap<>();
+        departures.forEach(departure -> index.put(departure.tripId(), departure));
+        this.byTrip = Map.copyOf(index);
+    }
+
+    // null si el viaje no sale de la terminal en la ventana
+    PosDeparture departure(Long tripId) {
+        return byTrip.get(tripId);
+    }
+
+    boolean covers(Long routeId) {
+        return routeIds.contains(routeId);
+    }
+
+    PosTerminalSnapshot without(Long tripId) {
+        if (!byTrip.containsKey(tripId)) {
+            return this;
+        }
+        List<PosDeparture> kept = new ArrayList<>(departures);
+        kept.removeIf(departure -> departure.tripId().equals(tripId));
+        return new PosTerminalSnapshot(terminal, routeIds, kept);
+    }
+}
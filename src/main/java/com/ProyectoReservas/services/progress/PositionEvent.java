@@ -0,0 +1,7 @@
+package com.ProyectoReservas.services.progress;
+
+import java.time.Instant;
+
+// Posición GPS reportada por el bus de un viaje
+public record PositionEvent(Long tripId, double lat, double lng, Instant at) {
+}
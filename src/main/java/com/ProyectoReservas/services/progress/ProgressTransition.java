@@ -0,0 +1,13 @@
+package com.ProyectoReservas.services.progress;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+
+import java.time.Instant;
+
+// Llegada a una parada o salida de ella, con el estado del viaje que resulta
+public record ProgressTransition(Long tripId, Kind kind, Long stopId, int position, TripStatus status, Instant at) {
+
+    public enum Kind {
+        ARRIVED_AT, DEPARTED_FROM
+    }
+}
@@ -0,0 +1,118 @@
+package com.ProyectoReservas.services.progress;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.projections.RouteStop;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Avance de un viaje sobre las paradas de su ruta. Lo modifica un único hilo (el del motor al que
+// pertenece el viaje), así que no necesita sincronización.
+// Se llega a una parada al entrar en su radio y se sale al abandonarlo. Si el GPS salta paradas
+// (cobertura), las intermedias se dan por visitadas para no dejar encomiendas ni asientos atrás.
+final class TripProgress {
+
+    static final double ARRIVAL_RADIUS_METERS = 150;
+    static final int LOOKAHEAD_STOPS = 3;
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    private final Long tripId;
+    private final List<RouteStop> stops;
+    private TripStatus status;
+    private int index;
+    private boolean atStop;
+    private Instant lastEventAt = Instant.MIN;
+    private long touchedNanos;
+
+    TripProgress(Long tripId, List<RouteStop> stops, TripStatus status, Integer currentPosition) {
+        this.tripId = tripId;
+        this.stops = stops;
+        this.status = status;
+        this.index = -1;
+        if (currentPosition != null) {
+            for (int i = 0; i < stops.size(); i++) {
+                if (stops.get(i).position() <= currentPosition) index = i;
+            }
+        }
+    }
+
+    TripStatus status() {
+        return status;
+    }
+
+    void touch(long nanos) {
+        touchedNanos = nanos;
+    }
+
+    long idleNanos(long now) {
+        return now - touchedNanos;
+    }
+
+    boolean isFinished() {
+        return status == TripStatus.ARRIVED || status == TripStatus.CANCELLED;
+    }
+
+    // Transiciones que produce la posición, en orden; vacío si no cambia nada o el evento es viejo
+    List<ProgressTransition> apply(PositionEvent event) {
+        if (isFinished() || event.at().isBefore(lastEventAt)) {
+            return List.of();
+        }
+        lastEventAt = event.at();
+        List<ProgressTransition> transitions = new ArrayList<>(2);
+        if (atStop && distance(stops.get(index), event) > ARRIVAL_RADIUS_METERS) {
+            depart(transitions, event.at());
+        }
+        int limit = Math.min(stops.size(), index + 1 + LOOKAHEAD_STOPS);
+        for (int k = index + 1; k < limit; k++) {
+            RouteStop stop = stops.get(k);
+            if (stop.hasCoordinates() && distance(stop, event) <= ARRIVAL_RADIUS_METERS) {
+                if (atStop) {
+                    depart(transitions, event.at());
+                }
+                for (int skipped = index + 1; skipped < k; skipped++) {
+                    arrive(transitions, skipped, event.at());
+                    depart(transitions, event.at());
+                }
+                arrive(transitions, k, event.at());
+                break;
+            }
+        }
+        return transitions;
+    }
+
+    private void arrive(List<ProgressTransition> transitions, int stopIndex, Instant at) {
+        index = stopIndex;
+        atStop = true;
+        if (stopIndex == stops.size() - 1) {
+            status = TripStatus.ARRIVED;
+        } else if (stopIndex == 0 && status == TripStatus.SCHEDULED) {
+            status = TripStatus.BOARDING;
+        }
+        transitions.add(transition(ProgressTransition.Kind.ARRIVED_AT, at));
+    }
+
+    private void depart(List<ProgressTransition> transitions, Instant at) {
+        atStop = false;
+        status = TripStatus.DEPARTED;
+        transitions.add(transition(ProgressTransition.Kind.DEPARTED_FROM, at));
+    }
+
+    private ProgressTransition transition(ProgressTransition.Kind kind, Instant at) {
+        RouteStop stop = stops.get(index);
+        return new ProgressTransition(tripId, kind, stop.stopId(), stop.position(), status, at);
+    }
+
+    // Aproximación equirrectangular: sobra precisión para radios de cientos de metros
+    static double distance(RouteStop stop, PositionEvent event) {
+        if (!stop.hasCoordinates()) {
+            return Double.MAX_VALUE;
+        }
+        double lat1 = Math.toRadians(stop.lat().doubleValue());
+        double lat2 = Math.toRadians(event.lat());
+        double dLng = Math.toRadians(event.lng() - stop.lng().doubleValue());
+        double x = dLng * Math.cos((lat1 + lat2) / 2);
+        double y = lat2 - lat1;
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+    }
+}
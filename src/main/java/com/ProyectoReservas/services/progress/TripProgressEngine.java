@@ -0,0 +1,271 @@
+package com.ProyectoReservas.services.progress;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.projections.RouteStop;
+import com.ProyectoReservas.domain.projections.TripProgressRow;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Seguimiento de viajes en curso a partir de posiciones GPS.
+// Un hilo por núcleo; cada viaje pertenece siempre al mismo hilo (por su id), que procesa sus
+// posiciones en orden y es el único que toca su TripProgress. Las llegadas liberan en memoria los
+// asientos de los tramos ya recorridos; las transiciones se acumulan y TripProgressWriter las
+// escribe por lotes cada segundo, así ninguna posición bloquea filas en la base de datos.
+// Un lote que falla se reintenta con espera creciente antes que cualquier transición posterior (se
+// mantiene el orden de cada viaje); agotados los intentos se escribe viaje por viaje y las
+// transiciones que sigan fallando se descartan con un error en el log.
+@Slf4j
+@Component
+public class TripProgressEngine {
+
+    static final int QUEUE_CAPACITY = 10_000;
+    static final int MAX_BATCH = 5_000;
+    static final long FLUSH_MILLIS = 1000;
+    static final int MAX_WRITE_ATTEMPTS = 5;
+    static final long SWEEP_NANOS = TimeUnit.MINUTES.toNanos(1);
+    static final long FINISHED_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(30);
+    // Viajes que dejan de reportar sin terminar (bus apagado, viaje abandonado)
+    static final long ABANDONED_RETENTION_NANOS = TimeUnit.HOURS.toNanos(6);
+
+    private final TripRepository tripRepository;
+    private final StopRepository stopRepository;
+    private final SeatAvailabilityEngine seatEngine;
+    private final TripProgressWriter writer;
+    private final int workerCount;
+    private final Clock clock;
+
+    private final Map<Long, List<RouteStop>> stopsByRoute = new ConcurrentHashMap<>();
+    private final Queue<ProgressTransition> pending = new ConcurrentLinkedQueue<>();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    // Estado de reintento; solo lo toca flush (fixedDelay: nunca hay dos a la vez)
+    private volatile List<ProgressTransition> failedBatch = List.of();
+    private int failedAttempts;
+    private long retryAtMillis;
+    private final List<Worker> workers = new ArrayList<>();
+    // Sin hilos (tests) las posiciones se procesan en el hilo que las publica
+    private final Map<Long, TripProgress> inlineTrips = new HashMap<>();
+
+    @Autowired
+    public TripProgressEngine(TripRepository tripRepository, StopRepository stopRepository,
+                              SeatAvailabilityEngine seatEngine, TripProgressWriter writer) {
+        this(tripRepository, stopRepository, seatEngine, writer, Runtime.getRuntime().availableProcessors(),
+                Clock.systemUTC());
+    }
+
+    TripProgressEngine(TripRepository tripRepository, StopRepository stopRepository,
+                       SeatAvailabilityEngine seatEngine, TripProgressWriter writer, int workerCount, Clock clock) {
+        this.tripRepository = tripRepository;
+        this.stopRepository = stopRepository;
+        this.seatEngine = seatEngine;
+        this.writer = writer;
+        this.workerCount = workerCount;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workerCount; i++) {
+            Worker worker = new Worker();
+            Thread thread = new Thread(worker, "trip-progress-" + i);
+            thread.setDaemon(true);
+            worker.thread = thread;
+            workers.add(worker);
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.forEach(worker -> worker.thread.interrupt());
+    }
+
+    // No bloquea: si la cola del hilo está llena la posición se descarta (llegará otra enseguida)
+    public boolean publish(PositionEvent event) {
+        if (workers.isEmpty()) {
+            process(inlineTrips, event);
+            return true;
+        }
+        int h = event.tripId().hashCode();
+        Worker worker = workers.get(Math.floorMod(h ^ (h >>> 16), workers.size()));
+        if (!worker.queue.offer(event)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public long processedEvents() {
+        return processed.sum();
+    }
+
+    public long droppedEvents() {
+        return dropped.sum();
+    }
+
+    public int pendingTransitions() {
+        return pending.size() + failedBatch.size();
+    }
+
+    public long deadLetteredTransitions() {
+        return deadLettered.sum();
+    }
+
+    // Paradas de la ruta modificadas: los viajes que empiecen a seguirse las leerán de nuevo
+    public void onRouteChanged(Long routeId) {
+        stopsByRoute.remove(routeId);
+    }
+
+    @Scheduled(fixedDelay = FLUSH_MILLIS)
+    public void flush() {
+        if (!failedBatch.isEmpty()) {
+            if (clock.millis() < retryAtMillis || !write(failedBatch)) {
+                return;
+            }
+        }
+        while (!pending.isEmpty()) {
+            List<ProgressTransition> batch = new ArrayList<>();
+            ProgressTransition transition;
+            while (batch.size() < MAX_BATCH && (transition = pending.poll()) != null) {
+                batch.add(transition);
+            }
+            if (!write(batch)) {
+                return;
+            }
+        }
+    }
+
+    // false si el lote queda pendiente de reintento
+    private boolean write(List<ProgressTransition> batch) {
+        try {
+            writer.write(batch);
+        } catch (RuntimeException e) {
+            failedAttempts++;
+            if (failedAttempts < MAX_WRITE_ATTEMPTS) {
+                failedBatch = batch;
+                retryAtMillis = clock.millis() + (FLUSH_MILLIS << failedAttempts);
+                log.warn("No se pudieron guardar {} transiciones de viajes (intento {}); se reintentará",
+                        batch.size(), failedAttempts, e);
+                return false;
+            }
+            log.error("No se pudieron guardar {} transiciones de viajes tras {} intentos; se escriben por viaje",
+                    batch.size(), failedAttempts, e);
+            writeByTrip(batch);
+        }
+        failedBatch = List.of();
+        failedAttempts = 0;
+        return true;
+    }
+
+    // Aísla el viaje que hace fallar el lote para no perder las transiciones de los demás
+    private void writeByTrip(List<ProgressTransition> batch) {
+        Map<Long, List<ProgressTransition>> byTrip = new LinkedHashMap<>();
+        for (ProgressTransition transition : batch) {
+            byTrip.computeIfAbsent(transition.tripId(), id -> new ArrayList<>()).add(transition);
+        }
+        for (List<ProgressTransition> transitions : byTrip.values()) {
+            try {
+                writer.write(transitions);
+            } catch (RuntimeException e) {
+                deadLettered.add(transitions.size());
+                log.error("Se descartan las transiciones del viaje {}: {}", transitions.get(0).tripId(), transitions, e);
+            }
+        }
+    }
+
+    // Terminados: se sueltan cuando el bus deja de reportar. Sin terminar: cuando llevan horas sin
+    // posiciones; si vuelven a reportar se recargan desde la base de datos.
+    static int sweep(Map<Long, TripProgress> trips, long now) {
+        int before = trips.size();
+        trips.values().removeIf(progress -> progress.idleNanos(now)
+                > (progress.isFinished() ? FINISHED_RETENTION_NANOS : ABANDONED_RETENTION_NANOS));
+        return before - trips.size();
+    }
+
+    private void process(Map<Long, TripProgress> trips, PositionEvent event) {
+        processed.increment();
+        TripProgress progress = trips.computeIfAbsent(event.tripId(), this::track);
+        List<ProgressTransition> transitions = progress.apply(event);
+        for (ProgressTransition transition : transitions) {
+            if (transition.kind() == ProgressTransition.Kind.ARRIVED_AT) {
+                seatEngine.releasePassed(transition.tripId(), transition.position());
+            }
+            pending.add(transition);
+        }
+        progress.touch(System.nanoTime());
+        // El viaje terminado se queda (ignorando posiciones) hasta que el bus deje de reportar:
+        // si se soltara, la siguiente posición lo recargaría con el estado aún sin guardar
+        if (!transitions.isEmpty() && progress.isFinished()) {
+            seatEngine.forget(event.tripId());
+        }
+    }
+
+    // Viaje desconocido, terminado o sin paradas: queda como CANCELLED para ignorar sus posiciones
+    private TripProgress track(Long tripId) {
+        TripProgressRow row = tripRepository.findProgressRow(tripId).orElse(null);
+        if (row == null) {
+            log.warn("Posición de un viaje inexistente: {}", tripId);
+            return new TripProgress(tripId, List.of(), TripStatus.CANCELLED, null);
+        }
+        List<RouteStop> stops = stopsByRoute.computeIfAbsent(row.routeId(), stopRepository::findRouteStops);
+        if (stops.isEmpty()) {
+            log.warn("El viaje {} no tiene paradas para seguir su avance", tripId);
+            return new TripProgress(tripId, stops, TripStatus.CANCELLED, null);
+        }
+        return new TripProgress(tripId, stops, row.status(), row.currentPosition());
+    }
+
+    private final class Worker implements Runnable {
+
+        private final BlockingQueue<PositionEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final Map<Long, TripProgress> trips = new HashMap<>();
+        private Thread thread;
+
+        @Override
+        public void run() {
+            long nextSweep = System.nanoTime() + SWEEP_NANOS;
+            while (!Thread.currentThread().isInterrupted()) {
+                PositionEvent event;
+                try {
+                    event = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (event != null) {
+                    try {
+                        process(trips, event);
+                    } catch (RuntimeException e) {
+                        log.error("Error procesando la posición del viaje {}", event.tripId(), e);
+                    }
+                }
+                long now = System.nanoTime();
+                if (now - nextSweep >= 0) {
+                    sweep(trips, now);
+                    nextSweep = now + SWEEP_NANOS;
+                }
+            }
+        }
+    }
+}
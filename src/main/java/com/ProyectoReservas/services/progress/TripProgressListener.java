@@ -0,0 +1,29 @@
+package com.ProyectoReservas.services.progress;
+
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.services.common.AfterCommit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// Avisa a TripProgressEngine de las paradas que cambian, al confirmar la transacción.
+@Component
+@RequiredArgsConstructor
+public class TripProgressListener {
+
+    private final ObjectProvider<TripProgressEngine> engine;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Stop stop) {
+        TripProgressEngine target = engine.getIfAvailable();
+        if (target != null) {
+            Long routeId = stop.getRoute().getId();
+            AfterCommit.run(() -> target.onRouteChanged(routeId));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ProyectoReservas.services.progress;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.services.parcel.ParcelTransitionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Persiste un lote de transiciones en una transacción: el estado y la posición de todos los viajes
+// del lote van en una sola sentencia (se queda la última transición de cada viaje) y las
+// encomiendas se mueven viaje por viaje, con una sola lectura de paradas por viaje.
+@Component
+@RequiredArgsConstructor
+public class TripProgressWriter {
+
+    private final TripRepository tripRepository;
+    private final ParcelTransitionService parcelTransitionService;
+
+    @Transactional
+    public void write(List<ProgressTransition> transitions) {
+        Map<Long, List<ProgressTransition>> byTrip = new LinkedHashMap<>();
+        for (ProgressTransition transition : transitions) {
+            byTrip.computeIfAbsent(transition.tripId(), id -> new ArrayList<>()).add(transition);
+        }
+
+        Long[] tripIds = new Long[byTrip.size()];
+        String[] statuses = new String[byTrip.size()];
+        Integer[] positions = new Integer[byTrip.size()];
+        int i = 0;
+        for (List<ProgressTransition> trip : byTrip.values()) {
+            ProgressTransition latest = trip.get(trip.size() - 1);
+            tripIds[i] = latest.tripId();
+            statuses[i] = latest.status().name();
+            positions[i] = latest.position();
+            i++;
+        }
+        tripRepository.updateProgress(tripIds, statuses, positions);
+
+        for (Map.Entry<Long, List<ProgressTransition>> trip : byTrip.entrySet()) {
+            List<Long> departedFrom = new ArrayList<>();
+            List<Long> arrivedAt = new ArrayList<>();
+            boolean finished = false;
+            for (ProgressTransition transition : trip.getValue()) {
+                if (transition.kind() == ProgressTransition.Kind.DEPARTED_FROM) {
+                    departedFrom.add(transition.stopId());
+                } else if (transition.status() == TripStatus.ARRIVED) {
+                    finished = true;
+                } else {
+                    arrivedAt.add(transition.stopId());
+                }
+            }
+            parcelTransitionService.advance(trip.getKey(), departedFrom, arrivedAt, finished);
+        }
+    }
+}
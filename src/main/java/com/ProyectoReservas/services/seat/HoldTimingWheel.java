@@ -0,0 +1,138 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.StopSegment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Rueda de tiempo jerárquica para los vencimientos de SeatHold.
+// Cuatro niveles de 64 ranuras: con ticks de 1 s el nivel 0 cubre ~1 min, el 1 ~1 h, el 2 ~3 días
+// y el 3 ~6 meses; lo que queda más lejos espera en una lista de desborde. Programar y cancelar son
+// O(1) y cada tick solo toca la ranura actual más las cascadas de los niveles superiores.
+final class HoldTimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+
+    record ExpiringHold(Long holdId, Long tripId, int seatNumber, StopSegment segment) {
+    }
+
+    private static final class Entry {
+        final ExpiringHold hold;
+        final long deadlineTick;
+        boolean cancelled;
+
+        Entry(ExpiringHold hold, long deadlineTick) {
+            this.hold = hold;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<Entry>[][] wheels;
+    private final List<Entry> overflow = new ArrayList<>();
+    private final List<Entry> due = new ArrayList<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    HoldTimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.wheels = new List[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new ArrayList<>();
+            }
+        }
+    }
+
+    // Reprograma el hold si ya existía (por ejemplo, al extender su expiración)
+    synchronized void schedule(ExpiringHold hold, long expiresAtMillis) {
+        cancel(hold.holdId());
+        // Se redondea hacia arriba: un hold nunca vence antes de su expiresAt
+        Entry entry = new Entry(hold, Math.floorDiv(expiresAtMillis + tickMillis - 1, tickMillis));
+        entries.put(hold.holdId(), entry);
+        place(entry);
+    }
+
+    synchronized void cancel(Long holdId) {
+        Entry entry = entries.remove(holdId);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // Avanza hasta nowMillis y devuelve los holds vencidos en el camino
+    synchronized List<ExpiringHold> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<ExpiringHold> expired = new ArrayList<>();
+        drain(due, expired);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            drain(wheels[0][(int) (currentTick & (SLOTS - 1))], expired);
+            drain(due, expired);
+        }
+        return expired;
+    }
+
+    private void place(Entry entry) {
+        long deadline = entry.deadlineTick;
+        if (deadline <= currentTick) {
+            due.add(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int upperShift = SLOT_BITS * (level + 1);
+            if ((deadline >>> upperShift) == (currentTick >>> upperShift)) {
+                wheels[level][(int) ((deadline >>> (SLOT_BITS * level)) & (SLOTS - 1))].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    // Al empezar un bloque de un nivel superior, su ranura baja a los niveles inferiores (de arriba a abajo)
+    private void cascade() {
+        if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            replace(overflow);
+        }
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) == 0) {
+                replace(wheels[level][(int) ((currentTick >>> shift) & (SLOTS - 1))]);
+            }
+        }
+    }
+
+    private void replace(List<Entry> slot) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Entry> pending = new ArrayList<>(slot);
+        slot.clear();
+        for (Entry entry : pending) {
+            if (!entry.cancelled) {
+                place(entry);
+            }
+        }
+    }
+
+    private void drain(List<Entry> slot, List<ExpiringHold> expired) {
+        for (Entry entry : slot) {
+            if (!entry.cancelled) {
+                entries.remove(entry.hold.holdId());
+                expired.add(entry.hold);
+            }
+        }
+        slot.clear();
+    }
+}
@@ -0,0 +1,260 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.projections.SeatOccupancy;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Disponibilidad de asientos en memoria por viaje y por tramo.
+// Cada viaje se carga una sola vez desde tickets y seat_holds; después se mantiene con cada
+// hold, venta, cancelación y expiración, y el mapa completo se lee sin SQL. Los cambios que llegan
+// mientras un viaje se está leyendo se guardan y se reaplican sobre el mapa antes de publicarlo
+// (las máscaras son idempotentes, así que reaplicar lo que la lectura ya vio no cambia nada).
+// Los mapas sin uso durante un barrido completo se descartan.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeatAvailabilityEngine {
+
+    private final TripRepository tripRepository;
+    private final TicketRepository ticketRepository;
+    private final SeatHoldRepository seatHoldRepository;
+
+    static final long IDLE_SWEEP_MILLIS = 15 * 60 * 1000;
+
+    private final Map<Long, TripSeatMap> trips = new ConcurrentHashMap<>();
+    private final Map<Long, Loading> loading = new ConcurrentHashMap<>();
+    // Última posición alcanzada por los viajes en curso, para reaplicarla si el mapa se recarga
+    private final Map<Long, Integer> passedPositions = new ConcurrentHashMap<>();
+
+    // Mapa completo de asientos del viaje
+    public SeatMap seatMap(Long tripId) {
+        return load(tripId).snapshot(tripId);
+    }
+
+    public SeatState state(Long tripId, int seatNumber) {
+        return state(tripId, seatNumber, StopSegment.fullRoute());
+    }
+
+    public SeatState state(Long tripId, int seatNumber, StopSegment segment) {
+        TripSeatMap map = load(tripId);
+        if (!map.contains(seatNumber)) {
+            throw new IllegalArgumentException("Asiento fuera de rango: " + seatNumber);
+        }
+        return map.state(seatNumber, segment.mask());
+    }
+
+    // Asientos con alguna venta o hold vigente, leídos de contadores sin recorrer el mapa
+    public int occupiedSeats(Long tripId) {
+        return load(tripId).occupiedSeats();
+    }
+
+    // Fracción del bus ocupada en el tramo entre paradas más lleno del tramo, entre 0 y 1.
+    // Se lee de contadores por tramo; un viaje que no está en memoria se carga una vez
+    public double loadFactor(Long tripId, StopSegment segment) {
+        TripSeatMap map = load(tripId);
+        return map.capacity() == 0 ? 1.0 : (double) map.peakOccupiedSeats(segment.mask()) / map.capacity();
+    }
+
+    public boolean isFree(Long tripId, int seatNumber) {
+        return state(tripId, seatNumber) == SeatState.FREE;
+    }
+
+    // Libre entre las posiciones del tramo, aunque esté ocupado en otros tramos del viaje
+    public boolean isFree(Long tripId, int seatNumber, StopSegment segment) {
+        return state(tripId, seatNumber, segment) == SeatState.FREE;
+    }
+
+    // Reserva en memoria el asiento para el tramo; devuelve false si otro hold o venta se solapa.
+    // Quien gana debe persistir el hold o liberarlo con onHoldReleased si la escritura falla.
+    public boolean tryHold(Long tripId, int seatNumber, StopSegment segment) {
+        TripSeatMap map = load(tripId);
+        if (!map.contains(seatNumber)) {
+            throw new IllegalArgumentException("Asiento fuera de rango: " + seatNumber);
+        }
+        return map.tryHold(seatNumber, segment.mask());
+    }
+
+    public void onHoldCreated(Long tripId, int seatNumber, StopSegment segment) {
+        apply(tripId, seatNumber, map -> map.markHeld(seatNumber, segment.mask()));
+    }
+
+    // Hold expirado, liberado o eliminado
+    public void onHoldReleased(Long tripId, int seatNumber, StopSegment segment) {
+        apply(tripId, seatNumber, map -> map.clearHeld(seatNumber, segment.mask()));
+    }
+
+    public void onTicketSold(Long tripId, int seatNumber, StopSegment segment) {
+        apply(tripId, seatNumber, map -> map.markSold(seatNumber, segment.mask()));
+    }
+
+    // Ticket cancelado o eliminado
+    public void onTicketReleased(Long tripId, int seatNumber, StopSegment segment) {
+        apply(tripId, seatNumber, map -> map.clearSold(seatNumber, segment.mask()));
+    }
+
+    // El viaje llegó a la parada en esa posición: los tickets y holds cuyo tramo termina antes o
+    // en ella ya se bajaron, y el asiento queda libre para el resto del recorrido
+    public void releasePassed(Long tripId, int position) {
+        passedPositions.merge(tripId, position, Math::max);
+        TripSeatMap map = trips.get(tripId);
+        if (map != null) {
+            map.releaseBefore(position);
+        }
+    }
+
+    // Carga el mapa del viaje si aún no está en memoria, para que el primer hold no espere la lectura
+    public void preload(Long tripId) {
+        load(tripId);
+    }
+
+    // Descarta el estado del viaje; se recarga desde la base de datos en el próximo acceso
+    public void evict(Long tripId) {
+        trips.remove(tripId);
+    }
+
+    // Viaje terminado: no se vuelve a consultar su disponibilidad
+    public void forget(Long tripId) {
+        trips.remove(tripId);
+        passedPositions.remove(tripId);
+    }
+
+    // Descarta los mapas que nadie usó desde el barrido anterior (viajes que ya salieron, cancelados,
+    // sin ventas). Un viaje en curso recargado recupera sus tramos pasados en la próxima parada.
+    @Scheduled(fixedDelay = IDLE_SWEEP_MILLIS, initialDelay = IDLE_SWEEP_MILLIS)
+    public int evictIdle() {
+        int evicted = 0;
+        for (Map.Entry<Long, TripSeatMap> entry : trips.entrySet()) {
+            if (!entry.getValue().clearTouched() && trips.remove(entry.getKey(), entry.getValue())) {
+                passedPositions.remove(entry.getKey());
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    boolean isLoaded(Long tripId) {
+        return trips.containsKey(tripId);
+    }
+
+    int loadedCount() {
+        return trips.size();
+    }
+
+    // Sin mapa ni carga en curso el cambio se ignora: la próxima carga leerá el estado ya confirmado
+    private void apply(Long tripId, int seatNumber, Consumer<TripSeatMap> change) {
+        TripSeatMap map = trips.get(tripId);
+        if (map == null) {
+            Loading pending = loading.get(tripId);
+            if (pending != null) {
+                synchronized (pending) {
+                    if (!pending.published) {
+                        pending.changes.add(new PendingChange(seatNumber, change));
+                        return;
+                    }
+                }
+            }
+            // La carga pudo publicarse entre las dos lecturas
+            map = trips.get(tripId);
+            if (map == null) {
+                return;
+            }
+        }
+        if (!map.contains(seatNumber)) {
+            log.warn("Asiento {} fuera de la capacidad del viaje {}; se recarga el mapa", seatNumber, tripId);
+            trips.remove(tripId);
+            return;
+        }
+        change.accept(map);
+    }
+
+    // La lectura se hace fuera de cualquier bloqueo. Las cargas simultáneas del mismo viaje comparten
+    // el registro de cambios pendientes y se publica la primera que termina.
+    private TripSeatMap load(Long tripId) {
+        TripSeatMap map = trips.get(tripId);
+        if (map != null) {
+            map.touch();
+            return map;
+        }
+        Loading created = new Loading();
+        Loading existing = loading.putIfAbsent(tripId, created);
+        Loading pending = existing != null ? existing : created;
+        synchronized (pending) {
+            pending.readers++;
+        }
+
+        TripSeatMap loaded;
+        try {
+            loaded = read(tripId);
+        } catch (RuntimeException e) {
+            synchronized (pending) {
+                if (--pending.readers == 0 && !pending.published) {
+                    loading.remove(tripId, pending);
+                }
+            }
+            throw e;
+        }
+
+        synchronized (pending) {
+            pending.readers--;
+            if (!pending.published) {
+                pending.published = true;
+                loading.remove(tripId, pending);
+                for (PendingChange change : pending.changes) {
+                    if (!loaded.contains(change.seatNumber())) {
+                        // Mismo caso que en apply: el mapa no se publica y se vuelve a leer en el próximo acceso
+                        log.warn("Asiento {} fuera de la capacidad del viaje {}; no se publica el mapa",
+                                change.seatNumber(), tripId);
+                        return loaded;
+                    }
+                    change.change().accept(loaded);
+                }
+                TripSeatMap previous = trips.putIfAbsent(tripId, loaded);
+                return previous != null ? previous : loaded;
+            }
+        }
+        TripSeatMap published = trips.get(tripId);
+        return published != null ? published : loaded;
+    }
+
+    private TripSeatMap read(Long tripId) {
+        int capacity = tripRepository.findBusCapacity(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("Viaje", tripId));
+        List<SeatOccupancy> sold = ticketRepository.findSoldSeatSegmentsByTrip(tripId);
+        List<SeatOccupancy> held = seatHoldRepository.findActiveHeldSeatSegments(tripId);
+
+        for (SeatOccupancy seat : sold) capacity = Math.max(capacity, seat.seatNumber());
+        for (SeatOccupancy seat : held) capacity = Math.max(capacity, seat.seatNumber());
+
+        TripSeatMap map = new TripSeatMap(capacity);
+        held.forEach(seat -> map.markHeld(seat.seatNumber(), seat.segment().mask()));
+        sold.forEach(seat -> map.markSold(seat.seatNumber(), seat.segment().mask()));
+        Integer passed = passedPositions.get(tripId);
+        if (passed != null) {
+            map.releaseBefore(passed);
+        }
+        return map;
+    }
+
+    private record PendingChange(int seatNumber, Consumer<TripSeatMap> change) {
+    }
+
+    // Carga en curso de un viaje; se modifica con su monitor tomado
+    private static final class Loading {
+        final List<PendingChange> changes = new ArrayList<>();
+        int readers;
+        boolean published;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.HoldStatus;
+import com.ProyectoReservas.domain.entities.SeatHold;
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.entities.Ticket;
+import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.services.common.AfterCommit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+// Mantiene el SeatAvailabilityEngine y la rueda de expiración de holds al día con los cambios de
+// Ticket y SeatHold. Los cambios se aplican al confirmar la transacción para no publicar estados que
+// luego se revierten. Si un cambio mueve un ticket o hold activo de asiento o de tramo, primero se
+// libera lo que ocupaba antes (el estado guardado por la entidad al cargarse) y luego se marca lo nuevo.
+@Component
+@RequiredArgsConstructor
+public class SeatAvailabilityListener {
+
+    private final ObjectProvider<SeatAvailabilityEngine> engine;
+    private final ObjectProvider<SeatHoldExpiryScheduler> expiryScheduler;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Ticket ticket) {
+            Long tripId = ticket.getTrip().getId();
+            int seat = ticket.getSeatNumber();
+            StopSegment segment = ticket.getSegment();
+            boolean sold = ticket.getStatus() == TicketStatus.SOLD;
+            if (ticket.getPersistedStatus() == TicketStatus.SOLD
+                    && (!sold || moved(seat, segment, ticket.getPersistedSeatNumber(), ticket.getPersistedSegment()))) {
+                int previousSeat = ticket.getPersistedSeatNumber();
+                StopSegment previousSegment = ticket.getPersistedSegment();
+                afterCommit(engine, e -> e.onTicketReleased(tripId, previousSeat, previousSegment));
+            }
+            if (sold) {
+                afterCommit(engine, e -> e.onTicketSold(tripId, seat, segment));
+            }
+        } else if (entity instanceof SeatHold hold) {
+            Long tripId = hold.getTrip().getId();
+            int seat = hold.getSeatNumber();
+            StopSegment segment = hold.getSegment();
+            boolean active = hold.getStatus() == HoldStatus.HOLD;
+            if (hold.getPersistedStatus() == HoldStatus.HOLD
+                    && (!active || moved(seat, segment, hold.getPersistedSeatNumber(), hold.getPersistedSegment()))) {
+                int previousSeat = hold.getPersistedSeatNumber();
+                StopSegment previousSegment = hold.getPersistedSegment();
+                afterCommit(engine, e -> e.onHoldReleased(tripId, previousSeat, previousSegment));
+            }
+            if (active) {
+                afterCommit(engine, e -> e.onHoldCreated(tripId, seat, segment));
+                afterCommit(expiryScheduler, s -> s.track(hold));
+            } else {
+                afterCommit(expiryScheduler, s -> s.untrack(hold.getId()));
+            }
+        }
+    }
+
+    // Se libera lo que la fila ocupaba en la base, aunque la entidad se modificara antes de borrarla
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Ticket ticket) {
+            if (ticket.getPersistedStatus() == TicketStatus.SOLD) {
+                Long tripId = ticket.getTrip().getId();
+                int seat = ticket.getPersistedSeatNumber();
+                StopSegment segment = ticket.getPersistedSegment();
+                afterCommit(engine, e -> e.onTicketReleased(tripId, seat, segment));
+            }
+        } else if (entity instanceof SeatHold hold) {
+            if (hold.getPersistedStatus() == HoldStatus.HOLD) {
+                Long tripId = hold.getTrip().getId();
+                int seat = hold.getPersistedSeatNumber();
+                StopSegment segment = hold.getPersistedSegment();
+                afterCommit(engine, e -> e.onHoldReleased(tripId, seat, segment));
+            }
+            afterCommit(expiryScheduler, s -> s.untrack(hold.getId()));
+        }
+    }
+
+    private static boolean moved(int seat, StopSegment segment, Integer previousSeat, StopSegment previousSegment) {
+        return !previousSeat.equals(seat) || !previousSegment.equals(segment);
+    }
+
+    private static <T> void afterCommit(ObjectProvider<T> provider, Consumer<T> change) {
+        T target = provider.getIfAvailable();
+        if (target != null) {
+            AfterCommit.run(() -> change.accept(target));
+        }
+    }
+}
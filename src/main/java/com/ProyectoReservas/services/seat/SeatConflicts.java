@@ -0,0 +1,35 @@
+package com.ProyectoReservas.services.seat;
+
+import org.hibernate.JDBCException;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.sql.SQLException;
+import java.util.Set;
+
+// Distingue, entre los errores de integridad al insertar un ticket o un hold, el asiento ya ocupado en
+// la base (restricciones de exclusión de schema.sql) de cualquier otro (clave foránea, NOT NULL...).
+// Se mira el nombre de la restricción si el driver lo da y si no el SQLState: 23P01 (exclusión) o
+// 23505 (unicidad).
+public final class SeatConflicts {
+
+    private static final Set<String> SEAT_CONSTRAINTS = Set.of("ex_tickets_seat_segment", "ex_seat_holds_seat_segment");
+    private static final Set<String> SEAT_STATES = Set.of("23P01", "23505");
+
+    private SeatConflicts() {
+    }
+
+    public static boolean isSeatTaken(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return SEAT_CONSTRAINTS.contains(violation.getConstraintName());
+            }
+            if (cause instanceof JDBCException jdbc) {
+                return SEAT_STATES.contains(jdbc.getSQLState());
+            }
+            if (cause instanceof SQLException sql) {
+                return SEAT_STATES.contains(sql.getSQLState());
+            }
+        }
+        return false;
+    }
+}
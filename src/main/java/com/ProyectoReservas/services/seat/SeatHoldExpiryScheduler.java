@@ -0,0 +1,152 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.HoldStatus;
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.entities.SeatHold;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.seat.HoldTimingWheel.ExpiringHold;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters.SeatRows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Expira los holds vencidos en bloque.
+// Cada hold vivo se registra en una rueda de tiempo; en cada tick los vencidos pasan a EXPIRED con
+// un UPDATE por viaje (con su evento HOLD_EXPIRED en el outbox) y se liberan sus asientos en el
+// SeatAvailabilityEngine. Al arrancar la rueda se
+// reconstruye desde seat_holds, así que no quedan filas HOLD caducadas tras un reinicio.
+@Slf4j
+@Component
+public class SeatHoldExpiryScheduler {
+
+    static final long TICK_MILLIS = 1000;
+
+    // Límite de parámetros por sentencia; un tick normal expira muchos menos holds
+    static final int MAX_IDS_PER_UPDATE = 10_000;
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final SeatAvailabilityEngine availabilityEngine;
+    private final TripOccupancyCounters occupancyCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxWriter outboxWriter;
+    private final Clock clock;
+    private final HoldTimingWheel wheel;
+
+    @Autowired
+    public SeatHoldExpiryScheduler(SeatHoldRepository seatHoldRepository,
+                                   SeatAvailabilityEngine availabilityEngine,
+                                   TripOccupancyCounters occupancyCounters,
+                                   TransactionTemplate transactionTemplate,
+                                   OutboxWriter outboxWriter) {
+        this(seatHoldRepository, availabilityEngine, occupancyCounters, transactionTemplate, outboxWriter,
+                Clock.systemUTC());
+    }
+
+    SeatHoldExpiryScheduler(SeatHoldRepository seatHoldRepository,
+                            SeatAvailabilityEngine availabilityEngine,
+                            TripOccupancyCounters occupancyCounters,
+                            TransactionTemplate transactionTemplate,
+                            OutboxWriter outboxWriter,
+                            Clock clock) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.availabilityEngine = availabilityEngine;
+        this.occupancyCounters = occupancyCounters;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxWriter = outboxWriter;
+        this.clock = clock;
+        this.wheel = new HoldTimingWheel(TICK_MILLIS, clock.millis());
+    }
+
+    // Reconstruye la rueda con los holds vivos de todos los viajes
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int tracked = 0;
+        for (Long tripId : seatHoldRepository.findTripIdsByStatus(HoldStatus.HOLD)) {
+            for (SeatHold hold : seatHoldRepository.findByTripIdAndStatus(tripId, HoldStatus.HOLD)) {
+                track(hold);
+                tracked++;
+            }
+        }
+        log.info("Rueda de expiración reconstruida con {} holds", tracked);
+    }
+
+    public void track(SeatHold hold) {
+        ExpiringHold expiring = new ExpiringHold(hold.getId(), hold.getTrip().getId(),
+                hold.getSeatNumber(), hold.getSegment());
+        wheel.schedule(expiring, hold.getExpiresAt().toInstant().toEpochMilli());
+    }
+
+    public void untrack(Long holdId) {
+        wheel.cancel(holdId);
+    }
+
+    int trackedCount() {
+        return wheel.size();
+    }
+
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void expireDue() {
+        List<ExpiringHold> expired = wheel.advance(clock.millis());
+        if (expired.isEmpty()) {
+            return;
+        }
+        for (int from = 0; from < expired.size(); from += MAX_IDS_PER_UPDATE) {
+            List<ExpiringHold> batch = expired.subList(from, Math.min(expired.size(), from + MAX_IDS_PER_UPDATE));
+            Set<Long> updated;
+            try {
+                updated = transactionTemplate.execute(status -> expire(batch));
+                log.debug("{} holds expirados ({} programados)", updated.size(), batch.size());
+            } catch (RuntimeException e) {
+                // Se reintenta en el próximo tick
+                log.error("No se pudieron expirar {} holds", batch.size(), e);
+                long retryAt = clock.millis() + TICK_MILLIS;
+                batch.forEach(hold -> wheel.schedule(hold, retryAt));
+                continue;
+            }
+            // Un hold que ya se consumió sigue ocupando el asiento como venta: solo se liberan los expirados
+            for (ExpiringHold hold : batch) {
+                if (updated.contains(hold.holdId())) {
+                    availabilityEngine.onHoldReleased(hold.tripId(), hold.seatNumber(), hold.segment());
+                }
+            }
+        }
+    }
+
+    // Un UPDATE por viaje (en orden de id, como cualquier ajuste de contadores de varios viajes): los
+    // contadores y los eventos siguen exactamente las filas que cambiaron de estado (las consumidas por
+    // una compra en curso no cuentan)
+    private Set<Long> expire(List<ExpiringHold> batch) {
+        Map<Long, List<ExpiringHold>> holdsByTrip = new TreeMap<>();
+        batch.forEach(hold -> holdsByTrip.computeIfAbsent(hold.tripId(), id -> new ArrayList<>()).add(hold));
+        Set<Long> expired = new HashSet<>();
+        for (Map.Entry<Long, List<ExpiringHold>> trip : holdsByTrip.entrySet()) {
+            Set<Long> updated = new HashSet<>(seatHoldRepository.expireHolds(
+                    trip.getValue().stream().map(ExpiringHold::holdId).toList()));
+            occupancyCounters.adjust(trip.getKey(), trip.getValue().stream()
+                    .filter(hold -> updated.contains(hold.holdId()))
+                    .map(hold -> new SeatRows(hold.seatNumber(), 0, -1))
+                    .toList());
+            expired.addAll(updated);
+        }
+        for (ExpiringHold hold : batch) {
+            if (expired.contains(hold.holdId())) {
+                outboxWriter.hold(OutboxEventType.HOLD_EXPIRED, hold.holdId(), hold.tripId(), hold.seatNumber());
+            }
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.SeatHold;
+
+public interface SeatHoldService {
+
+    SeatHold hold(Long tripId, Integer seatNumber, Long userId, Long fromStopId, Long toStopId);
+
+    void release(Long holdId);
+}
@@ -0,0 +1,144 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.HoldStatus;
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.entities.SeatHold;
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import com.ProyectoReservas.exceptions.SeatNotAvailableException;
+import com.ProyectoReservas.services.common.AfterCommit;
+import com.ProyectoReservas.services.config.ConfigCache;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+
+// Holds de asiento decididos en memoria: el conflicto entre taquilleros se resuelve por asiento en el
+// SeatAvailabilityEngine y solo el ganador escribe en seat_holds. La restricción de exclusión de la
+// base de datos queda como respaldo (otra instancia de la aplicación o un mapa desactualizado).
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+    private final SeatAvailabilityEngine availabilityEngine;
+    private final SeatHoldRepository seatHoldRepository;
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+    private final StopRepository stopRepository;
+    private final TripOccupancyCounters occupancyCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigCache configCache;
+    private final OutboxWriter outboxWriter;
+    private final ObjectProvider<SeatHoldExpiryScheduler> expiryScheduler;
+
+    // Crea un hold temporal del asiento en el tramo [fromStop, toStop) del viaje
+    @Override
+    public SeatHold hold(Long tripId, Integer seatNumber, Long userId, Long fromStopId, Long toStopId) {
+        Stop fromStop = findStop(fromStopId);
+        Stop toStop = findStop(toStopId);
+        StopSegment segment = segment(tripId, fromStop, toStop);
+
+        if (!availabilityEngine.tryHold(tripId, seatNumber, segment)) {
+            throw new SeatNotAvailableException(seatNumber, tripId);
+        }
+
+        SeatHold hold = SeatHold.builder()
+                .trip(tripRepository.getReferenceById(tripId))
+                .user(userRepository.getReferenceById(userId))
+                .seatNumber(seatNumber)
+                .fromStop(fromStop)
+                .toStop(toStop)
+                .expiresAt(OffsetDateTime.now().plus(configCache.holdDuration()))
+                .status(HoldStatus.HOLD)
+                .build();
+
+        try {
+            return transactionTemplate.execute(status -> {
+                SeatHold saved = seatHoldRepository.saveAndFlush(hold);
+                occupancyCounters.adjust(tripId, seatNumber, 0, 1);
+                outboxWriter.hold(OutboxEventType.HOLD_CREATED, saved.getId(), tripId, seatNumber);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            if (e instanceof DataIntegrityViolationException && SeatConflicts.isSeatTaken(e)) {
+                // La base de datos ya tenía el asiento retenido: el mapa en memoria estaba desactualizado
+                log.warn("Conflicto de hold en base de datos para el viaje {} asiento {}", tripId, seatNumber);
+                availabilityEngine.evict(tripId);
+                throw new SeatNotAvailableException(seatNumber, tripId, e);
+            }
+            availabilityEngine.onHoldReleased(tripId, seatNumber, segment);
+            throw e;
+        }
+    }
+
+    // Libera un hold vigente antes de su expiración. El borrado es condicional: si una compra o la
+    // expiración lo cambiaron a la vez no se borra nada. Es un DELETE en bloque (sin listener de la
+    // entidad), así que el asiento en memoria y la rueda de expiración se actualizan aquí al confirmar.
+    @Override
+    public void release(Long holdId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            SeatHold hold = seatHoldRepository.findById(holdId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Hold", holdId));
+            if (hold.getStatus() != HoldStatus.HOLD || seatHoldRepository.deleteActiveHold(holdId) == 0) {
+                throw new BusinessException("El hold " + holdId + " ya no está vigente",
+                        HttpStatus.CONFLICT, "HOLD_NOT_ACTIVE");
+            }
+            Long tripId = hold.getTrip().getId();
+            int seatNumber = hold.getSeatNumber();
+            StopSegment segment = hold.getSegment();
+            occupancyCounters.adjust(tripId, seatNumber, 0, -1);
+            outboxWriter.hold(OutboxEventType.HOLD_RELEASED, holdId, tripId, seatNumber);
+            SeatHoldExpiryScheduler scheduler = expiryScheduler.getIfAvailable();
+            AfterCommit.run(() -> {
+                availabilityEngine.onHoldReleased(tripId, seatNumber, segment);
+                if (scheduler != null) {
+                    scheduler.untrack(holdId);
+                }
+            });
+        });
+    }
+
+    // Las paradas deben ser de la ruta del viaje y el origen ir antes que el destino; si no, la máscara
+    // del tramo cubriría asientos de otro recorrido
+    private StopSegment segment(Long tripId, Stop fromStop, Stop toStop) {
+        if (fromStop != null || toStop != null) {
+            Long routeId = tripRepository.findRouteIdById(tripId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Viaje", tripId));
+            for (Stop stop : new Stop[]{fromStop, toStop}) {
+                if (stop != null && !routeId.equals(stop.getRoute().getId())) {
+                    throw new BusinessException("La parada " + stop.getId() + " no pertenece a la ruta del viaje " + tripId,
+                            HttpStatus.BAD_REQUEST, "HOLD_INVALID_STOP");
+                }
+            }
+        }
+        int from = fromStop != null ? fromStop.getPosition() : StopSegment.ROUTE_START;
+        int to = toStop != null ? toStop.getPosition() : StopSegment.ROUTE_END;
+        if (from >= to) {
+            throw new BusinessException("La parada de origen debe ir antes que la de destino en el viaje " + tripId,
+                    HttpStatus.BAD_REQUEST, "HOLD_INVALID_SEGMENT");
+        }
+        return StopSegment.of(from, to);
+    }
+
+    private Stop findStop(Long stopId) {
+        if (stopId == null) {
+            return null;
+        }
+        return stopRepository.findById(stopId)
+                .orElseThrow(() -> new ResourceNotFoundException("Parada", stopId));
+    }
+}
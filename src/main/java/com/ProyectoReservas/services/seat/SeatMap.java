@@ -0,0 +1,54 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.StopSegment;
+
+// Foto inmutable del mapa de asientos de un viaje, lista para pintar sin consultar la base de datos.
+// Sin tramo, los estados se refieren a la ruta completa: un asiento vendido en cualquier tramo figura como SOLD.
+public record SeatMap(long tripId, int capacity, long[] soldSegments, long[] heldSegments) {
+
+    private static final long FULL_ROUTE = -1L;
+
+    public SeatState state(int seatNumber) {
+        return state(seatNumber, FULL_ROUTE);
+    }
+
+    public SeatState state(int seatNumber, StopSegment segment) {
+        return state(seatNumber, segment.mask());
+    }
+
+    public int soldCount() {
+        int count = 0;
+        for (long seat : soldSegments) if (seat != 0) count++;
+        return count;
+    }
+
+    public int heldCount() {
+        int count = 0;
+        for (int i = 0; i < capacity; i++) if (soldSegments[i] == 0 && heldSegments[i] != 0) count++;
+        return count;
+    }
+
+    public int freeCount() {
+        return freeCount(FULL_ROUTE);
+    }
+
+    public int freeCount(StopSegment segment) {
+        return freeCount(segment.mask());
+    }
+
+    private int freeCount(long mask) {
+        int count = 0;
+        for (int i = 0; i < capacity; i++) if (((soldSegments[i] | heldSegments[i]) & mask) == 0) count++;
+        return count;
+    }
+
+    private SeatState state(int seatNumber, long mask) {
+        if (seatNumber < 1 || seatNumber > capacity) {
+            throw new IllegalArgumentException("Asiento fuera de rango: " + seatNumber);
+        }
+        int index = seatNumber - 1;
+        if ((soldSegments[index] & mask) != 0) return SeatState.SOLD;
+        if ((heldSegments[index] & mask) != 0) return SeatState.HELD;
+        return SeatState.FREE;
+    }
+}
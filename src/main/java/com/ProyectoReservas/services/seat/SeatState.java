@@ -0,0 +1,5 @@
+package com.ProyectoReservas.services.seat;
+
+public enum SeatState {
+    FREE, HELD, SOLD
+}
@@ -0,0 +1,155 @@
+package com.ProyectoReservas.services.seat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Ocupación de los asientos de un viaje por tramos.
+// Cada asiento guarda dos máscaras de 64 bits (vendido y en hold) donde el bit i es el tramo
+// entre las posiciones i e i+1 de la ruta; saber si el asiento N está libre entre a y b es un AND.
+// Las escrituras de un asiento se hacen con el monitor de ese asiento (dos taquilleros solo compiten
+// si piden el mismo asiento); las lecturas no bloquean. El contador de asientos ocupados cambia
+// cuando la máscara combinada (vendido | hold) del asiento pasa de cero a distinto de cero o al revés,
+// así leer la ocupación no recorre los asientos. Lo mismo por tramo entre paradas consecutivas: cada
+// bit que cambia en la máscara combinada ajusta el contador de ese tramo.
+final class TripSeatMap {
+
+    private final int capacity;
+    private final AtomicLongArray sold;
+    private final AtomicLongArray held;
+    private final Object[] seatLocks;
+    private final AtomicInteger occupiedSeats = new AtomicInteger();
+    private final AtomicIntegerArray legSeats = new AtomicIntegerArray(Long.SIZE);
+    // Usado desde el último barrido de SeatAvailabilityEngine.evictIdle
+    private volatile boolean touched = true;
+
+    TripSeatMap(int capacity) {
+        this.capacity = capacity;
+        this.sold = new AtomicLongArray(capacity);
+        this.held = new AtomicLongArray(capacity);
+        this.seatLocks = new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            seatLocks[i] = new Object();
+        }
+    }
+
+    void touch() {
+        if (!touched) {
+            touched = true;
+        }
+    }
+
+    // Devuelve si se usó desde la llamada anterior
+    boolean clearTouched() {
+        boolean was = touched;
+        touched = false;
+        return was;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    boolean contains(int seatNumber) {
+        return seatNumber >= 1 && seatNumber <= capacity;
+    }
+
+    // Asientos con alguna venta o hold; un asiento vendido en un tramo y retenido en otro cuenta una vez
+    int occupiedSeats() {
+        return occupiedSeats.get();
+    }
+
+    // Asientos ocupados en el tramo entre paradas más lleno de los que cubre la máscara
+    int peakOccupiedSeats(long segmentMask) {
+        int peak = 0;
+        for (long bits = segmentMask; bits != 0; bits &= bits - 1) {
+            peak = Math.max(peak, legSeats.get(Long.numberOfTrailingZeros(bits)));
+        }
+        return peak;
+    }
+
+    SeatState state(int seatNumber, long segmentMask) {
+        int index = seatNumber - 1;
+        if ((sold.get(index) & segmentMask) != 0) return SeatState.SOLD;
+        if ((held.get(index) & segmentMask) != 0) return SeatState.HELD;
+        return SeatState.FREE;
+    }
+
+    // Retiene el asiento solo si el tramo está libre; con varios taquilleros pidiendo el mismo
+    // asiento a la vez, el monitor del asiento deja pasar a uno solo.
+    boolean tryHold(int seatNumber, long segmentMask) {
+        int index = seatNumber - 1;
+        synchronized (seatLocks[index]) {
+            long current = held.get(index);
+            if (((current | sold.get(index)) & segmentMask) != 0) {
+                return false;
+            }
+            update(index, sold.get(index), current | segmentMask);
+            return true;
+        }
+    }
+
+    void markHeld(int seatNumber, long segmentMask) {
+        int index = seatNumber - 1;
+        synchronized (seatLocks[index]) {
+            update(index, sold.get(index), held.get(index) | segmentMask);
+        }
+    }
+
+    void clearHeld(int seatNumber, long segmentMask) {
+        int index = seatNumber - 1;
+        synchronized (seatLocks[index]) {
+            update(index, sold.get(index), held.get(index) & ~segmentMask);
+        }
+    }
+
+    // Una venta consume el hold del mismo asiento y tramo, si lo había.
+    void markSold(int seatNumber, long segmentMask) {
+        int index = seatNumber - 1;
+        synchronized (seatLocks[index]) {
+            update(index, sold.get(index) | segmentMask, held.get(index) & ~segmentMask);
+        }
+    }
+
+    void clearSold(int seatNumber, long segmentMask) {
+        int index = seatNumber - 1;
+        synchronized (seatLocks[index]) {
+            update(index, sold.get(index) & ~segmentMask, held.get(index));
+        }
+    }
+
+    // El bus ya pasó por la posición: los tramos anteriores dejan de ocupar asiento
+    void releaseBefore(int position) {
+        long kept = position >= Long.SIZE ? 0 : -(1L << position);
+        for (int i = 0; i < capacity; i++) {
+            synchronized (seatLocks[i]) {
+                update(i, sold.get(i) & kept, held.get(i) & kept);
+            }
+        }
+    }
+
+    SeatMap snapshot(long tripId) {
+        long[] soldSegments = new long[capacity];
+        long[] heldSegments = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            soldSegments[i] = sold.get(i);
+            heldSegments[i] = held.get(i);
+        }
+        return new SeatMap(tripId, capacity, soldSegments, heldSegments);
+    }
+
+    // Con el monitor del asiento tomado
+    private void update(int index, long newSold, long newHeld) {
+        long before = sold.get(index) | held.get(index);
+        long after = newSold | newHeld;
+        sold.set(index, newSold);
+        held.set(index, newHeld);
+        if ((before == 0) != (after == 0)) {
+            occupiedSeats.addAndGet(after != 0 ? 1 : -1);
+        }
+        for (long changed = before ^ after; changed != 0; changed &= changed - 1) {
+            int leg = Long.numberOfTrailingZeros(changed);
+            legSeats.addAndGet(leg, (after & (1L << leg)) != 0 ? 1 : -1);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ProyectoReservas.services.ticket;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+public interface ManifestExportService {
+
+    long exportTrip(Long tripId, ManifestFormat format, OutputStream out);
+
+    long exportDay(LocalDate day, ZoneId zone, ManifestFormat format, OutputStream out);
+}
@@ -0,0 +1,42 @@
+package com.ProyectoReservas.services.ticket;
+
+import com.ProyectoReservas.domain.projections.ManifestRow;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.stream.Stream;
+
+// Exporta manifiestos directamente al OutputStream desde un cursor de la base de datos.
+// La transacción de solo lectura mantiene abierto el cursor (PostgreSQL solo respeta el fetch size
+// sin autocommit) y el Stream se cierra siempre para liberarlo. Devuelve las filas escritas.
+@Service
+@RequiredArgsConstructor
+public class ManifestExportServiceImpl implements ManifestExportService {
+
+    private final TicketRepository ticketRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTrip(Long tripId, ManifestFormat format, OutputStream out) {
+        try (Stream<ManifestRow> rows = ticketRepository.streamManifestByTrip(tripId)) {
+            return ManifestWriter.write(rows, format, out);
+        }
+    }
+
+    // Día en la zona indicada, como rango semiabierto [00:00, 00:00 del día siguiente)
+    @Override
+    @Transactional(readOnly = true)
+    public long exportDay(LocalDate day, ZoneId zone, ManifestFormat format, OutputStream out) {
+        OffsetDateTime from = day.atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime to = day.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+        try (Stream<ManifestRow> rows = ticketRepository.streamManifestByDepartureRange(from, to)) {
+            return ManifestWriter.write(rows, format, out);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.ProyectoReservas.services.ticket;
+
+public enum ManifestFormat {
+    CSV, JSON
+}
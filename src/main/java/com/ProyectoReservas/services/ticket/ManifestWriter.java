@@ -0,0 +1,120 @@
+package com.ProyectoReservas.services.ticket;
+
+import com.ProyectoReservas.domain.projections.ManifestRow;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Escribe filas de manifiesto a medida que llegan: no guarda ninguna fila después de escribirla,
+// así que la memoria no depende del tamaño de la exportación. No cierra el OutputStream.
+final class ManifestWriter {
+
+    static final String[] CSV_HEADER = {"ticket_id", "trip_id", "route_code", "departure_at", "seat_number",
+            "passenger_name", "passenger_phone", "from_stop", "to_stop", "status", "qr_code"};
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ManifestWriter() {
+    }
+
+    // Devuelve el número de filas escritas
+    static long write(Stream<ManifestRow> rows, ManifestFormat format, OutputStream out) {
+        try {
+            return format == ManifestFormat.JSON ? writeJson(rows.iterator(), out) : writeCsv(rows.iterator(), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el manifiesto", e);
+        }
+    }
+
+    private static long writeCsv(Iterator<ManifestRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write('\n');
+        long count = 0;
+        while (rows.hasNext()) {
+            ManifestRow row = rows.next();
+            writer.write(String.valueOf(row.ticketId()));
+            writer.write(',');
+            writer.write(String.valueOf(row.tripId()));
+            writer.write(',');
+            csvField(writer, row.routeCode());
+            writer.write(',');
+            writer.write(row.departureAt() != null ? row.departureAt().toString() : "");
+            writer.write(',');
+            writer.write(String.valueOf(row.seatNumber()));
+            writer.write(',');
+            csvField(writer, row.passengerName());
+            writer.write(',');
+            csvField(writer, row.passengerPhone());
+            writer.write(',');
+            csvField(writer, row.fromStop());
+            writer.write(',');
+            csvField(writer, row.toStop());
+            writer.write(',');
+            writer.write(row.status() != null ? row.status().name() : "");
+            writer.write(',');
+            csvField(writer, row.qrCode());
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // RFC 4180: entre comillas solo si hace falta, duplicando las comillas internas
+    private static void csvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static long writeJson(Iterator<ManifestRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+            while (rows.hasNext()) {
+                ManifestRow row = rows.next();
+                json.writeStartObject();
+                json.writeNumberField("ticketId", row.ticketId());
+                json.writeNumberField("tripId", row.tripId());
+                json.writeStringField("routeCode", row.routeCode());
+                json.writeStringField("departureAt", row.departureAt() != null ? row.departureAt().toString() : null);
+                json.writeNumberField("seatNumber", row.seatNumber());
+                json.writeStringField("passengerName", row.passengerName());
+                json.writeStringField("passengerPhone", row.passengerPhone());
+                json.writeStringField("fromStop", row.fromStop());
+                json.writeStringField("toStop", row.toStop());
+                json.writeStringField("status", row.status() != null ? row.status().name() : null);
+                json.writeStringField("qrCode", row.qrCode());
+                json.writeEndObject();
+                count++;
+            }
+            json.writeEndArray();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ProyectoReservas.services.ticket;
+
+import com.ProyectoReservas.domain.entities.Ticket;
+
+public interface TicketCancellationService {
+
+    Ticket cancel(Long ticketId);
+}
@@ -0,0 +1,40 @@
+package com.ProyectoReservas.services.ticket;
+
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.entities.Ticket;
+import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Cancela un ticket vendido. El asiento se libera en memoria con el listener de Ticket; los contadores
+// de ocupación del viaje y el evento TICKET_CANCELLED se escriben en la misma transacción.
+@Service
+@RequiredArgsConstructor
+public class TicketCancellationServiceImpl implements TicketCancellationService {
+
+    private final TicketRepository ticketRepository;
+    private final TripOccupancyCounters occupancyCounters;
+    private final OutboxWriter outboxWriter;
+
+    @Override
+    @Transactional
+    public Ticket cancel(Long ticketId) {
+        Ticket ticket = ticketRepository.findById(ticketId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket", ticketId));
+        if (ticket.getStatus() != TicketStatus.SOLD) {
+            throw new BusinessException("El ticket " + ticketId + " no se puede cancelar: estado " + ticket.getStatus(),
+                    HttpStatus.CONFLICT, "TICKET_NOT_CANCELLABLE");
+        }
+        ticket.setStatus(TicketStatus.CANCELLED);
+        occupancyCounters.adjust(ticket.getTrip().getId(), ticket.getSeatNumber(), -1, 0);
+        outboxWriter.ticket(OutboxEventType.TICKET_CANCELLED, ticket);
+        return ticket;
+    }
+}
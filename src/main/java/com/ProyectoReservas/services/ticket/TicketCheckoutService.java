@@ -0,0 +1,12 @@
+package com.ProyectoReservas.services.ticket;
+
+import com.ProyectoReservas.domain.entities.PaymentMethod;
+import com.ProyectoReservas.domain.entities.Ticket;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TicketCheckoutService {
+
+    List<Ticket> checkout(Collection<Long> holdIds, PaymentMethod paymentMethod);
+}
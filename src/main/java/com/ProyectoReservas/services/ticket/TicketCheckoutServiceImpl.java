@@ -0,0 +1,121 @@
+package com.ProyectoReservas.services.ticket;
+
+import com.ProyectoReservas.domain.entities.HoldStatus;
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.entities.PaymentMethod;
+import com.ProyectoReservas.domain.entities.SeatHold;
+import com.ProyectoReservas.domain.entities.Ticket;
+import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.ProyectoReservas.exceptions.InvalidHoldException;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import com.ProyectoReservas.services.common.AfterCommit;
+import com.ProyectoReservas.services.fare.DynamicPricingEngine;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.seat.SeatHoldExpiryScheduler;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters.SeatRows;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Compra en grupo: convierte un conjunto de holds en tickets dentro de una sola transacción.
+// Los holds se leen con una consulta, los precios salen del DynamicPricingEngine, los tickets se insertan en lotes
+// JDBC (ids por secuencia) y los holds se marcan CONSUMED con un único UPDATE. Los contadores de cada viaje
+// se ajustan con un UPDATE por viaje en la misma transacción, igual que los eventos del outbox (un INSERT al confirmar).
+@Service
+@RequiredArgsConstructor
+public class TicketCheckoutServiceImpl implements TicketCheckoutService {
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final TicketRepository ticketRepository;
+    private final DynamicPricingEngine pricingEngine;
+    private final TripOccupancyCounters occupancyCounters;
+    private final ObjectProvider<SeatHoldExpiryScheduler> expiryScheduler;
+    private final OutboxWriter outboxWriter;
+
+    @Override
+    @Transactional
+    public List<Ticket> checkout(Collection<Long> holdIds, PaymentMethod paymentMethod) {
+        Set<Long> ids = new LinkedHashSet<>(holdIds);
+        if (ids.isEmpty()) {
+            throw new InvalidHoldException("La compra no incluye ningún hold");
+        }
+
+        List<SeatHold> holds = seatHoldRepository.findAllForCheckout(ids);
+        validate(ids, holds);
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Ticket> tickets = new ArrayList<>(holds.size());
+        // Por id de viaje: los contadores se bloquean siempre en el mismo orden
+        Map<Long, List<SeatRows>> seatsByTrip = new TreeMap<>();
+        for (SeatHold hold : holds) {
+            // El hold pasa a ticket en el mismo asiento
+            seatsByTrip.computeIfAbsent(hold.getTrip().getId(), id -> new ArrayList<>())
+                    .add(new SeatRows(hold.getSeatNumber(), 1, -1));
+            tickets.add(Ticket.builder()
+                    .trip(hold.getTrip())
+                    .passenger(hold.getUser())
+                    .seatNumber(hold.getSeatNumber())
+                    .fromStop(hold.getFromStop())
+                    .toStop(hold.getToStop())
+                    .price(pricingEngine.quote(hold.getTrip(), hold.getFromStop(), hold.getToStop()))
+                    .paymentMethod(paymentMethod)
+                    .status(TicketStatus.SOLD)
+                    .purchasedAt(now)
+                    .build());
+        }
+
+        List<Ticket> saved = ticketRepository.saveAll(tickets);
+
+        // Si otro proceso expiró algún hold entre la lectura y ahora, se revierte toda la compra
+        int consumed = seatHoldRepository.consumeHolds(ids);
+        if (consumed != ids.size()) {
+            throw new InvalidHoldException("Algunos holds expiraron durante la compra");
+        }
+        seatsByTrip.forEach(occupancyCounters::adjust);
+        holds.forEach(hold -> outboxWriter.hold(OutboxEventType.HOLD_CONSUMED, hold.getId(),
+                hold.getTrip().getId(), hold.getSeatNumber()));
+        saved.forEach(ticket -> outboxWriter.ticket(OutboxEventType.TICKET_SOLD, ticket));
+        untrackAfterCommit(ids);
+        return saved;
+    }
+
+    private void validate(Set<Long> ids, List<SeatHold> holds) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<Long, SeatHold> byId = new HashMap<>();
+        holds.forEach(hold -> byId.put(hold.getId(), hold));
+        for (Long id : ids) {
+            SeatHold hold = byId.get(id);
+            if (hold == null) {
+                throw new ResourceNotFoundException("Hold", id);
+            }
+            if (hold.getStatus() != HoldStatus.HOLD) {
+                throw new InvalidHoldException(id, "estado " + hold.getStatus());
+            }
+            if (!hold.getExpiresAt().isAfter(now)) {
+                throw new InvalidHoldException(id, "expiró en " + hold.getExpiresAt());
+            }
+        }
+    }
+
+    // Los holds consumidos ya no deben vencer en la rueda de expiración
+    private void untrackAfterCommit(Set<Long> ids) {
+        SeatHoldExpiryScheduler scheduler = expiryScheduler.getIfAvailable();
+        if (scheduler != null) {
+            AfterCommit.run(() -> ids.forEach(scheduler::untrack));
+        }
+    }
+}
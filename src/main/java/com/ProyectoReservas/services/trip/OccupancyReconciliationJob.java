@@ -0,0 +1,58 @@
+package com.ProyectoReservas.services.trip;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.projections.OccupancyDrift;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+// Compara trips.sold_count/held_count con el conteo real de los viajes que aún venden y corrige
+// las diferencias (escrituras fuera de TripOccupancyCounters). Los contadores en memoria que no
+// coincidan con trips se descartan, y los de viajes que ya no venden se sueltan.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OccupancyReconciliationJob {
+
+    static final long INTERVAL_MILLIS = 5 * 60 * 1000;
+
+    private static final Set<TripStatus> OPEN_STATUSES = EnumSet.of(TripStatus.SCHEDULED, TripStatus.BOARDING);
+
+    private final TripRepository tripRepository;
+    private final TripOccupancyCounters counters;
+    private final TransactionTemplate transactionTemplate;
+
+    // Devuelve cuántos viajes se corrigieron
+    @Scheduled(fixedDelay = INTERVAL_MILLIS, initialDelay = INTERVAL_MILLIS)
+    public int reconcile() {
+        int fixed = 0;
+        Set<Long> open = new HashSet<>();
+        for (OccupancyDrift drift : tripRepository.findOccupancyDrift(OPEN_STATUSES)) {
+            open.add(drift.tripId());
+            if (!drift.hasDrift()) {
+                // Un ajuste confirmado después de la lectura también descarta: la recarga es segura
+                counters.evictIfDiffers(drift.tripId(), drift.storedSold(), drift.storedHeld());
+                continue;
+            }
+            log.warn("Contadores del viaje {} desfasados: vendidos {} (real {}), holds {} (real {})",
+                    drift.tripId(), drift.storedSold(), drift.actualSold(), drift.storedHeld(), drift.actualHeld());
+            // Si una venta movió el contador después de la lectura no se toca: se revisa en la próxima pasada
+            Integer updated = transactionTemplate.execute(status -> tripRepository.resetOccupancy(drift.tripId(),
+                    drift.actualSold().intValue(), drift.actualHeld().intValue(),
+                    drift.storedSold(), drift.storedHeld()));
+            if (updated != null && updated > 0) {
+                counters.evict(drift.tripId());
+                fixed++;
+            }
+        }
+        counters.evictAllExcept(open);
+        return fixed;
+    }
+}
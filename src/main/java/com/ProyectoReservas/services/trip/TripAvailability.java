@@ -0,0 +1,8 @@
+package com.ProyectoReservas.services.trip;
+
+import java.time.OffsetDateTime;
+
+// Un viaje del listado de búsqueda con los asientos que le quedan libres (capacidad menos ocupados).
+public record TripAvailability(Long tripId, OffsetDateTime departureAt, OffsetDateTime arrivalAt,
+                               int capacity, long seatsLeft) {
+}
@@ -0,0 +1,254 @@
+package com.ProyectoReservas.services.trip;
+
+import com.ProyectoReservas.domain.projections.SeatRowCount;
+import com.ProyectoReservas.domain.projections.TripOccupancy;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import com.ProyectoReservas.services.common.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Asientos ocupados por viaje sin COUNT sobre tickets.
+// Cuentan asientos, no filas: un asiento vendido en varios tramos es un asiento vendido. sold_count son
+// los asientos con algún ticket SOLD y held_count los que solo tienen holds vigentes, así que
+// ocupados = sold_count + held_count. La fuente de verdad son esas columnas de trips, que se ajustan en
+// la misma transacción que vende, cancela o retiene: con la fila del viaje bloqueada se leen las filas
+// que quedan en los asientos tocados y se calcula si cada uno cambió de categoría. En memoria cada
+// viaje tiene dos LongAdder que reciben el mismo delta al terminar la transacción. Un ajuste en curso
+// marca su viaje: la carga que lo cruce no se publica (no se sabe si la lectura ya incluye el delta) y
+// el próximo acceso vuelve a leer.
+// OccupancyReconciliationJob corrige la deriva de la base y descarta los contadores que no coinciden.
+@Component
+@RequiredArgsConstructor
+public class TripOccupancyCounters {
+
+    private final TripRepository tripRepository;
+    private final TicketRepository ticketRepository;
+    private final SeatHoldRepository seatHoldRepository;
+
+    private final Map<Long, Slot> trips = new ConcurrentHashMap<>();
+
+    // Filas que una transacción sumó (positivo) o quitó (negativo) en un asiento: tickets SOLD y holds vigentes
+    public record SeatRows(int seatNumber, int sold, int held) {
+    }
+
+    // Estado de un viaje. Se modifica con el monitor del slot tomado; nunca se consulta la base dentro
+    static final class Slot {
+        final LongAdder sold = new LongAdder();
+        final LongAdder held = new LongAdder();
+        volatile boolean loaded;
+        boolean removed;
+        int inFlight;
+        long completed;
+    }
+
+    // Asientos con alguna venta o hold vigente
+    public long occupiedSeats(Long tripId) {
+        Long occupied = occupiedSeats(List.of(tripId)).get(tripId);
+        if (occupied == null) {
+            throw new ResourceNotFoundException("Viaje", tripId);
+        }
+        return occupied;
+    }
+
+    // Varios viajes (listados): los que no están en memoria se leen de trips en una sola consulta.
+    // Los viajes inexistentes no aparecen en el resultado
+    public Map<Long, Long> occupiedSeats(Collection<Long> tripIds) {
+        Map<Long, Long> occupied = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long tripId : tripIds) {
+            Slot slot = trips.get(tripId);
+            if (slot != null && slot.loaded) {
+                occupied.put(tripId, slot.sold.sum() + slot.held.sum());
+            } else {
+                missing.add(tripId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            load(missing).forEach(trip -> occupied.put(trip.tripId(), (long) trip.soldCount() + trip.heldCount()));
+        }
+        return occupied;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Long tripId, int seatNumber, int soldRows, int heldRows) {
+        adjust(tripId, List.of(new SeatRows(seatNumber, soldRows, heldRows)));
+    }
+
+    // Debe llamarse dentro de la transacción del cambio, después de escribir las filas: si se revierte,
+    // el contador no se mueve
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Long tripId, Collection<SeatRows> changes) {
+        Map<Integer, int[]> rowsBySeat = new HashMap<>();
+        for (SeatRows change : changes) {
+            int[] rows = rowsBySeat.computeIfAbsent(change.seatNumber(), seat -> new int[2]);
+            rows[0] += change.sold();
+            rows[1] += change.held();
+        }
+        rowsBySeat.values().removeIf(rows -> rows[0] == 0 && rows[1] == 0);
+        if (rowsBySeat.isEmpty()) {
+            return;
+        }
+        Slot slot = begin(tripId);
+        int soldDelta = 0;
+        int heldDelta = 0;
+        try {
+            tripRepository.flush();
+            // Las transacciones que tocan el mismo viaje se ordenan aquí; la lectura siguiente ya ve
+            // confirmadas las filas de la anterior
+            tripRepository.lockOccupancy(tripId);
+            Map<Integer, Long> sold = bySeat(ticketRepository.countSoldBySeat(tripId, rowsBySeat.keySet()));
+            Map<Integer, Long> held = bySeat(seatHoldRepository.countActiveBySeat(tripId, rowsBySeat.keySet()));
+            for (Map.Entry<Integer, int[]> seat : rowsBySeat.entrySet()) {
+                long soldAfter = sold.getOrDefault(seat.getKey(), 0L);
+                long heldAfter = held.getOrDefault(seat.getKey(), 0L);
+                long soldBefore = soldAfter - seat.getValue()[0];
+                long heldBefore = heldAfter - seat.getValue()[1];
+                soldDelta += soldSeat(soldAfter) - soldSeat(soldBefore);
+                heldDelta += heldSeat(soldAfter, heldAfter) - heldSeat(soldBefore, heldBefore);
+            }
+            if (soldDelta != 0 || heldDelta != 0) {
+                tripRepository.adjustOccupancy(tripId, soldDelta, heldDelta);
+            }
+        } catch (RuntimeException e) {
+            complete(slot, false, 0, 0);
+            throw e;
+        }
+        int sold = soldDelta;
+        int held = heldDelta;
+        AfterCommit.onCompletion(committed -> complete(slot, committed, sold, held));
+    }
+
+    // Descarta el viaje; se recarga desde trips en el próximo acceso
+    public void evict(Long tripId) {
+        Slot slot = trips.get(tripId);
+        if (slot != null) {
+            discard(tripId, slot);
+        }
+    }
+
+    // Descarta los contadores en memoria si no coinciden con los guardados en trips
+    public boolean evictIfDiffers(Long tripId, long storedSold, long storedHeld) {
+        Slot slot = trips.get(tripId);
+        if (slot == null) {
+            return false;
+        }
+        synchronized (slot) {
+            if (!slot.loaded || (slot.sold.sum() == storedSold && slot.held.sum() == storedHeld)) {
+                return false;
+            }
+        }
+        discard(tripId, slot);
+        return true;
+    }
+
+    // Descarta los viajes que ya no están en openTripIds (salieron, llegaron o se cancelaron)
+    public int evictAllExcept(Set<Long> openTripIds) {
+        int evicted = 0;
+        for (Map.Entry<Long, Slot> entry : trips.entrySet()) {
+            if (!openTripIds.contains(entry.getKey())) {
+                discard(entry.getKey(), entry.getValue());
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    boolean isLoaded(Long tripId) {
+        Slot slot = trips.get(tripId);
+        return slot != null && slot.loaded;
+    }
+
+    int size() {
+        return trips.size();
+    }
+
+    private static int soldSeat(long soldRows) {
+        return soldRows > 0 ? 1 : 0;
+    }
+
+    private static int heldSeat(long soldRows, long heldRows) {
+        return soldRows == 0 && heldRows > 0 ? 1 : 0;
+    }
+
+    private static Map<Integer, Long> bySeat(List<SeatRowCount> counts) {
+        Map<Integer, Long> rows = new HashMap<>();
+        counts.forEach(count -> rows.put(count.seatNumber(), count.rows()));
+        return rows;
+    }
+
+    private void complete(Slot slot, boolean committed, int soldDelta, int heldDelta) {
+        synchronized (slot) {
+            slot.inFlight--;
+            slot.completed++;
+            if (committed && slot.loaded) {
+                slot.sold.add(soldDelta);
+                slot.held.add(heldDelta);
+            }
+        }
+    }
+
+    // Con un ajuste en curso el slot se vacía pero se conserva, para que su cierre no se pierda
+    private void discard(Long tripId, Slot slot) {
+        synchronized (slot) {
+            slot.loaded = false;
+            slot.sold.reset();
+            slot.held.reset();
+            if (slot.inFlight == 0) {
+                slot.removed = true;
+                trips.remove(tripId, slot);
+            }
+        }
+    }
+
+    private Slot begin(Long tripId) {
+        while (true) {
+            Slot slot = trips.computeIfAbsent(tripId, id -> new Slot());
+            synchronized (slot) {
+                if (!slot.removed) {
+                    slot.inFlight++;
+                    return slot;
+                }
+            }
+        }
+    }
+
+    private List<TripOccupancy> load(List<Long> tripIds) {
+        Map<Long, Slot> slots = new HashMap<>();
+        Map<Long, Long> marks = new HashMap<>();
+        for (Long tripId : tripIds) {
+            Slot slot = trips.computeIfAbsent(tripId, id -> new Slot());
+            slots.put(tripId, slot);
+            synchronized (slot) {
+                marks.put(tripId, slot.inFlight == 0 ? slot.completed : -1);
+            }
+        }
+        List<TripOccupancy> found = tripRepository.findOccupancyByIds(tripIds);
+        for (TripOccupancy occupancy : found) {
+            Slot slot = slots.remove(occupancy.tripId());
+            synchronized (slot) {
+                // Solo se publica si ningún ajuste empezó ni terminó mientras se leía
+                if (!slot.loaded && !slot.removed && slot.inFlight == 0 && slot.completed == marks.get(occupancy.tripId())) {
+                    slot.sold.add(occupancy.soldCount());
+                    slot.held.add(occupancy.heldCount());
+                    slot.loaded = true;
+                }
+            }
+        }
+        slots.forEach(this::discard);
+        return found;
+    }
+}
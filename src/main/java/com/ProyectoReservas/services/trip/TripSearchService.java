@@ -0,0 +1,13 @@
+package com.ProyectoReservas.services.trip;
+
+import com.ProyectoReservas.domain.entities.Trip;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TripSearchService {
+
+    List<Trip> findAvailableTrips(Long routeId, LocalDate date);
+
+    List<TripAvailability> searchTrips(Long routeId, LocalDate date);
+}
@@ -0,0 +1,61 @@
+package com.ProyectoReservas.services.trip;
+
+import com.ProyectoReservas.domain.entities.Route;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.projections.TripCapacity;
+import com.ProyectoReservas.domain.repositories.RouteRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+// Búsqueda de viajes por día. El día se interpreta en la zona horaria de la ruta y se traduce a un
+// rango semiabierto [medianoche, medianoche siguiente) sobre departure_at, de modo que la consulta
+// recorre idx_trips_route_status_departure en vez de aplicar DATE() a cada fila.
+// Los asientos libres del listado salen de TripOccupancyCounters, no de un COUNT por viaje.
+@Service
+@RequiredArgsConstructor
+public class TripSearchServiceImpl implements TripSearchService {
+
+    private final RouteRepository routeRepository;
+    private final TripRepository tripRepository;
+    private final TripOccupancyCounters occupancyCounters;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Trip> findAvailableTrips(Long routeId, LocalDate date) {
+        ZoneId zone = routeZone(routeId);
+        return tripRepository.findAvailableTrips(routeId, startOfDay(date, zone), startOfDay(date.plusDays(1), zone));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TripAvailability> searchTrips(Long routeId, LocalDate date) {
+        ZoneId zone = routeZone(routeId);
+        List<TripCapacity> trips = tripRepository.findAvailableTripCapacities(routeId,
+                startOfDay(date, zone), startOfDay(date.plusDays(1), zone));
+        Map<Long, Long> occupied = occupancyCounters.occupiedSeats(trips.stream().map(TripCapacity::tripId).toList());
+        return trips.stream()
+                .map(trip -> new TripAvailability(trip.tripId(), trip.departureAt(), trip.arrivalAt(), trip.capacity(),
+                        Math.max(0, trip.capacity() - occupied.getOrDefault(trip.tripId(), 0L))))
+                .toList();
+    }
+
+    private ZoneId routeZone(Long routeId) {
+        Route route = routeRepository.findById(routeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ruta", routeId));
+        return route.zoneId();
+    }
+
+    // atStartOfDay con zona respeta los días de 23 o 25 horas por cambio de horario
+    private static OffsetDateTime startOfDay(LocalDate date, ZoneId zone) {
+        return date.atStartOfDay(zone).toOffsetDateTime();
+    }
+}
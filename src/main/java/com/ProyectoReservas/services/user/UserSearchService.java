@@ -0,0 +1,10 @@
+package com.ProyectoReservas.services.user;
+
+import com.ProyectoReservas.domain.entities.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface UserSearchService {
+
+    Slice<User> search(String query, Pageable pageable);
+}
@@ -0,0 +1,52 @@
+package com.ProyectoReservas.services.user;
+
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Búsqueda de usuarios para administración y taquilla, ordenada por parecido. Devuelve Slice y no Page:
+// contar todas las coincidencias de un texto corto costaría más que la propia página, así que se pide
+// una fila de más para saber si hay página siguiente. El texto necesita MIN_TEXT_LENGTH caracteres
+// (con menos, los trigramas no filtran y la consulta recorrería la tabla). Un teléfono necesita
+// MIN_PHONE_DIGITS: los celulares empiezan por 3 y el código del operador, así que un prefijo de tres
+// dígitos devuelve a casi todos los clientes de un operador.
+@Service
+@RequiredArgsConstructor
+public class UserSearchServiceImpl implements UserSearchService {
+
+    static final int MIN_TEXT_LENGTH = 3;
+    static final int MIN_PHONE_DIGITS = 4;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<User> search(String query, Pageable pageable) {
+        String trimmed = query == null ? "" : query.trim();
+        String phone = trimmed.replaceAll("[\\s()-]", "");
+        int minLength = UserRepository.PHONE_QUERY.matcher(phone).matches() ? MIN_PHONE_DIGITS : MIN_TEXT_LENGTH;
+        if (phone.replace("+", "").length() < minLength) {
+            throw new BusinessException("La búsqueda necesita al menos " + minLength + " caracteres",
+                    HttpStatus.BAD_REQUEST, "SEARCH_QUERY_TOO_SHORT");
+        }
+        if (pageable.getPageSize() > MAX_PAGE_SIZE) {
+            throw new BusinessException("El tamaño de página máximo es " + MAX_PAGE_SIZE,
+                    HttpStatus.BAD_REQUEST, "PAGE_SIZE_TOO_LARGE");
+        }
+
+        int size = pageable.getPageSize();
+        List<User> rows = userRepository.searchUsers(trimmed, size + 1, Math.toIntExact(pageable.getOffset()));
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+}
@@ -0,0 +1,26 @@
+-- Objetos de PostgreSQL que Hibernate no genera. Spring lo ejecuta al arrancar en todos los perfiles
+-- (spring.sql.init.mode=always), después de que Hibernate cree o valide las tablas
+-- (spring.jpa.defer-datasource-initialization); cada sentencia debe poder repetirse sin error.
+-- Los bloques DO van entre comillas simples y no entre $$: Spring parte el script por ';' fuera de comillas.
+
+-- Un asiento no puede venderse ni retenerse dos veces en tramos que se solapan (reemplaza el UNIQUE (trip_id, seat_number)).
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+DO 'BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_tickets_seat_segment'') THEN
+        ALTER TABLE tickets ADD CONSTRAINT ex_tickets_seat_segment EXCLUDE USING gist (trip_id WITH =, seat_number WITH =, int4range(from_position, to_position) WITH &&) WHERE (status = ''SOLD'');
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_seat_holds_seat_segment'') THEN
+        ALTER TABLE seat_holds ADD CONSTRAINT ex_seat_holds_seat_segment EXCLUDE USING gist (trip_id WITH =, seat_number WITH =, int4range(from_position, to_position) WITH &&) WHERE (status = ''HOLD'');
+    END IF;
+END';
+
+-- Búsqueda de usuarios por trigramas (UserRepository.searchByText y searchByPhone): LIKE '%texto%' y parecido con errores de tipeo sin recorrer la tabla.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_phone_trgm ON users USING gin (phone gin_trgm_ops);
+-- Prefijo de teléfono (UserRepository.searchByPhonePrefix): phone LIKE '310%' como rango del btree, con cualquier collation.
+CREATE INDEX IF NOT EXISTS idx_users_phone_prefix ON users (phone text_pattern_ops);
+
+-- Cola del outbox (OutboxRelay): se inserta y se borra sin parar; autovacuum por número de filas muertas y no por proporción, para que el relay no recorra filas ya publicadas.
+ALTER TABLE outbox_events SET (autovacuum_vacuum_scale_factor = 0, autovacuum_vacuum_threshold = 10000, autovacuum_vacuum_cost_delay = 0);
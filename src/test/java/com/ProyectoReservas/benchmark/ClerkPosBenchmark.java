@@ -0,0 +1,181 @@
+package com.ProyectoReservas.benchmark;
+
+import com.ProyectoReservas.config.JdbcConcurrencyLimiter;
+import com.ProyectoReservas.config.JdbcLimiterConfig;
+import com.ProyectoReservas.domain.entities.*;
+import com.ProyectoReservas.domain.repositories.*;
+import com.ProyectoReservas.exceptions.SeatNotAvailableException;
+import com.ProyectoReservas.services.fare.DynamicPricingEngine;
+import com.ProyectoReservas.services.fare.FareMatrixCache;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.pos.ClerkPosServiceImpl;
+import com.ProyectoReservas.services.pos.PosDeparture;
+import com.ProyectoReservas.services.pos.PosSnapshotCache;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Venta en taquilla: 200 taquilleros venden a la vez sobre las salidas precalentadas de una terminal.
+// Cotización, tramo y asiento se resuelven en memoria; la transacción de la venta (INSERT del ticket,
+// contadores del viaje y outbox) corre contra PostgreSQL detrás de JdbcConcurrencyLimiter, igual que en
+// producción. Fuera de la medición el ticket se borra para devolver el asiento y mantener la contención.
+// Entre ventas cada taquillero espera THINK_MILLIS (cobro y entrega, muy comprimidos): sin esa pausa se
+// mide la cola del pool y no la latencia de una venta. Objetivo: p99 < 5 ms.
+// Necesita Docker (Testcontainers). Ejecutar con: mvn test -Pbenchmark -Dtest=ClerkPosBenchmark
+@Tag("benchmark")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({JdbcLimiterConfig.class, ClerkPosServiceImpl.class, PosSnapshotCache.class, DynamicPricingEngine.class,
+        FareMatrixCache.class, SeatAvailabilityEngine.class, TripOccupancyCounters.class, OutboxWriter.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "spring.datasource.hikari.minimum-idle=32",
+        "reservas.jdbc.max-concurrency=32"})
+class ClerkPosBenchmark extends BaseRepositoryTest {
+
+    private static final int CLERKS = 200;
+    private static final int WARMUP_SALES_PER_CLERK = 10;
+    private static final int SALES_PER_CLERK = 100;
+    private static final long THINK_MILLIS = 100;
+    private static final int TRIPS = 40;
+    private static final int SEATS = 40;
+    private static final String TERMINAL = "Ibagué";
+    private static final Duration TARGET_P99 = Duration.ofMillis(5);
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ClerkPosServiceImpl service;
+    @Autowired
+    private PosSnapshotCache snapshotCache;
+    @Autowired
+    private TicketRepository ticketRepository;
+    @Autowired
+    private RouteRepository routeRepository;
+    @Autowired
+    private StopRepository stopRepository;
+    @Autowired
+    private FareRuleRepository fareRuleRepository;
+    @Autowired
+    private BusRepository busRepository;
+    @Autowired
+    private TripRepository tripRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Benchmark de venta en taquilla con 200 taquilleros concurrentes: p99 < 5 ms")
+    void clerkSales() throws Exception {
+        assertInstanceOf(JdbcConcurrencyLimiter.class, dataSource);
+        Long passengerId = seed();
+        List<PosDeparture> departures = snapshotCache.departures(TERMINAL);
+        assertTrue(departures.size() > 0);
+
+        long[][] latencies = new long[CLERKS][SALES_PER_CLERK];
+        AtomicLong sold = new AtomicLong();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLERKS; c++) {
+                long[] clerkLatencies = latencies[c];
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    // Las primeras ventas calientan el JIT, el pool y los planes y no cuentan
+                    for (int i = -WARMUP_SALES_PER_CLERK; i < SALES_PER_CLERK; i++) {
+                        PosDeparture departure = departures.get(random.nextInt(departures.size()));
+                        Stop toStop = departure.alighting().get(random.nextInt(departure.alighting().size()));
+                        int seat = 1 + random.nextInt(SEATS);
+                        Ticket ticket = null;
+                        long t0 = System.nanoTime();
+                        try {
+                            service.quote(TERMINAL, departure.tripId(), toStop.getId());
+                            ticket = service.sell(TERMINAL, departure.tripId(), seat, toStop.getId(), passengerId,
+                                    PaymentMethod.CASH);
+                        } catch (SeatNotAvailableException lost) {
+                            // otro taquillero vendió el asiento
+                        }
+                        long elapsed = System.nanoTime() - t0;
+                        if (i >= 0) {
+                            clerkLatencies[i] = elapsed;
+                        }
+                        if (ticket != null) {
+                            if (i >= 0) {
+                                sold.incrementAndGet();
+                            }
+                            // El listener del ticket libera el asiento al confirmar el borrado
+                            ticketRepository.deleteById(ticket.getId());
+                        }
+                        Thread.sleep(random.nextLong(THINK_MILLIS / 2, THINK_MILLIS * 3 / 2));
+                    }
+                    return null;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Latencies all = Latencies.of(latencies);
+        double seconds = elapsed / 1e9;
+        System.out.printf("pos: clerks=%d attempts=%d sold=%d departures=%d elapsed=%.2fs throughput=%.0f ops/s %s%n",
+                CLERKS, all.count(), sold.get(), departures.size(), seconds, all.count() / seconds, all.summary());
+
+        assertTrue(sold.get() > 0);
+        assertTrue(all.percentile(0.99) < TARGET_P99.toNanos(),
+                () -> "p99 de venta en taquilla por encima de " + TARGET_P99.toMillis() + " ms: " + all.summary());
+    }
+
+    // Ruta Bogotá -> Ibagué -> Armenia -> Cali con salidas cada 5 minutos que pasan por Ibagué en las
+    // próximas horas; devuelve el pasajero al que se venden los tickets
+    private Long seed() {
+        Route route = routeRepository.save(Route.builder().code("RT-POS").name("Bogotá - Cali").origin("Bogotá")
+                .destination("Cali").distanceKm(BigDecimal.valueOf(460)).durationMin(540).build());
+        List<Stop> stops = new ArrayList<>();
+        String[] names = {"Bogotá", "Ibagué", "Armenia", "Cali"};
+        for (int position = 0; position < names.length; position++) {
+            stops.add(stopRepository.save(Stop.builder().route(route).name(names[position]).position(position).build()));
+        }
+        fareRuleRepository.save(FareRule.builder().route(route).fromStop(stops.get(0)).toStop(stops.get(1))
+                .basePrice(new BigDecimal("30000.00")).dynamicPricing(false).build());
+        fareRuleRepository.save(FareRule.builder().route(route).fromStop(stops.get(1)).toStop(stops.get(2))
+                .basePrice(new BigDecimal("20000.00")).dynamicPricing(true).build());
+        fareRuleRepository.save(FareRule.builder().route(route).fromStop(stops.get(2)).toStop(stops.get(3))
+                .basePrice(new BigDecimal("25000.00")).dynamicPricing(true).build());
+        Bus bus = busRepository.save(Bus.builder().plate("POS-1").capacity(SEATS).status(BusStatus.ACTIVE).build());
+
+        // El bus pasa por Ibagué a un tercio del recorrido de 9 horas: entre 1 y 4 horas desde ahora
+        OffsetDateTime firstDeparture = OffsetDateTime.now().minusHours(2);
+        List<Trip> trips = new ArrayList<>();
+        for (int i = 0; i < TRIPS; i++) {
+            OffsetDateTime departure = firstDeparture.plusMinutes(5L * i);
+            trips.add(Trip.builder().route(route).bus(bus).departureAt(departure).arrivalAt(departure.plusHours(9))
+                    .status(TripStatus.SCHEDULED).build());
+        }
+        tripRepository.saveAll(trips);
+
+        return userRepository.save(User.builder().name("Pasajero").email("pos@bench.com").role(Role.PASSENGER)
+                .status(UserStatus.ACTIVE).passwordHash("hash").build()).getId();
+    }
+}
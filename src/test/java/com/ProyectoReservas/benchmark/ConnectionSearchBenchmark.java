@@ -0,0 +1,118 @@
+package com.ProyectoReservas.benchmark;
+
+import com.ProyectoReservas.domain.projections.StopPoint;
+import com.ProyectoReservas.domain.projections.TripSchedule;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.services.connection.ConnectionSearchEngine;
+import com.ProyectoReservas.services.connection.Itinerary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+// Red nacional sintética: 150 ciudades, 500 rutas de 3 a 7 paradas y 10 salidas diarias por ruta
+// durante la ventana de carga (7 días). Mide la reconstrucción completa, la latencia de búsqueda
+// (frente de Pareto hasta 3 transbordos) y la aplicación incremental de cambios.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=ConnectionSearchBenchmark
+@Tag("benchmark")
+class ConnectionSearchBenchmark {
+
+    private static final int CITIES = 150;
+    private static final int ROUTES = 500;
+    private static final int DEPARTURES_PER_DAY = 10;
+    private static final int DAYS = 7;
+    private static final int QUERIES = 2_000;
+    private static final int CHANGED_TRIPS = 200;
+
+    @Test
+    @DisplayName("Benchmark de búsqueda de conexiones sobre una red nacional sintética")
+    void connectionSearch() {
+        Random random = new Random(42);
+        ZoneOffset zone = ZoneOffset.ofHours(-5);
+        OffsetDateTime start = OffsetDateTime.now(zone).truncatedTo(ChronoUnit.DAYS).plusDays(1);
+
+        List<StopPoint> stops = new ArrayList<>();
+        List<TripSchedule> trips = new ArrayList<>();
+        long tripId = 1;
+        for (long routeId = 1; routeId <= ROUTES; routeId++) {
+            Set<Integer> cities = new LinkedHashSet<>();
+            int length = 3 + random.nextInt(5);
+            while (cities.size() < length) cities.add(random.nextInt(CITIES));
+            int position = 0;
+            for (int city : cities) stops.add(new StopPoint(routeId, position++, "Ciudad " + city));
+            int minutes = 60 * (length - 1) + random.nextInt(120);
+            for (int day = 0; day < DAYS; day++) {
+                for (int d = 0; d < DEPARTURES_PER_DAY; d++) {
+                    OffsetDateTime departure = start.plusDays(day).plusMinutes(5 * 60 + d * 90L + random.nextInt(60));
+                    trips.add(new TripSchedule(tripId++, routeId, "", "", "America/Bogota",
+                            departure, departure.plusMinutes(minutes)));
+                }
+            }
+        }
+
+        TripRepository tripRepository = mock(TripRepository.class, withSettings().stubOnly());
+        StopRepository stopRepository = mock(StopRepository.class, withSettings().stubOnly());
+        when(stopRepository.findAllStopPoints()).thenReturn(stops);
+        when(tripRepository.findSchedulesBetween(any(), any())).thenReturn(trips);
+        ConnectionSearchEngine engine = new ConnectionSearchEngine(tripRepository, stopRepository);
+
+        long t0 = System.nanoTime();
+        engine.rebuild();
+        long rebuildNanos = System.nanoTime() - t0;
+
+        // Calentamiento y medición con pares de ciudades aleatorios
+        for (int i = 0; i < 200; i++) query(engine, random, start);
+        long[] latencies = new long[QUERIES];
+        int found = 0;
+        int withTransfer = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long q0 = System.nanoTime();
+            List<Itinerary> result = query(engine, random, start);
+            latencies[i] = System.nanoTime() - q0;
+            if (!result.isEmpty()) found++;
+            if (result.stream().anyMatch(itinerary -> itinerary.transfers() > 0)) withTransfer++;
+        }
+
+        // Cambios incrementales: la mitad cancelados, la mitad reprogramados 30 minutos
+        List<TripSchedule> changed = new ArrayList<>();
+        for (int i = 0; i < CHANGED_TRIPS; i++) {
+            TripSchedule trip = trips.get(random.nextInt(trips.size()));
+            engine.onTripChanged(trip.tripId());
+            if (i % 2 == 0) {
+                changed.add(new TripSchedule(trip.tripId(), trip.routeId(), "", "", trip.timeZone(),
+                        trip.departureAt().plusMinutes(30), trip.arrivalAt().plusMinutes(30)));
+            }
+        }
+        when(tripRepository.findSchedulesByIds(anyCollection())).thenReturn(changed);
+        long a0 = System.nanoTime();
+        engine.applyChanges();
+        long applyNanos = System.nanoTime() - a0;
+
+        System.out.printf("connections: routes=%d trips=%d connections=%d rebuild=%.1fms queries=%d found=%d "
+                        + "withTransfer=%d %s incremental(%d trips)=%.1fms%n",
+                ROUTES, trips.size(), engine.connectionCount(), rebuildNanos / 1e6, QUERIES, found, withTransfer,
+                Latencies.of(latencies).summary(), CHANGED_TRIPS, applyNanos / 1e6);
+
+        assertTrue(found > 0);
+    }
+
+    private static List<Itinerary> query(ConnectionSearchEngine engine, Random random, OffsetDateTime start) {
+        String origin = "Ciudad " + random.nextInt(CITIES);
+        String destination = "Ciudad " + random.nextInt(CITIES);
+        return engine.search(origin, destination, start.plusDays(random.nextInt(DAYS - 2)).plusHours(4));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ProyectoReservas.benchmark;
+
+import com.ProyectoReservas.datagen.DatasetGenerator;
+import com.ProyectoReservas.datagen.DatasetSpec;
+import com.ProyectoReservas.datagen.DatasetSummary;
+import com.ProyectoReservas.datagen.TableSink;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Dataset de producción completo (DatasetSpec.production) escrito en un destino que formatea cada
+// fila como la línea CSV que recibiría COPY y la descarta: mide el costo del lado Java de la carga.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=DatasetGeneratorBenchmark
+@Tag("benchmark")
+class DatasetGeneratorBenchmark {
+
+    // Formatea como CopySink (mismo orden de campos y separadores) sin escribir a ningún lado
+    static class DiscardingSink implements TableSink {
+        private final StringBuilder line = new StringBuilder(256);
+        private long rows;
+        long chars;
+
+        @Override
+        public void begin(String table, List<String> columns) {
+            rows = 0;
+        }
+
+        @Override
+        public void row(Object[] values) {
+            line.setLength(0);
+            for (Object value : values) {
+                line.append(value).append(',');
+            }
+            chars += line.length();
+            rows++;
+        }
+
+        @Override
+        public long end() {
+            return rows;
+        }
+    }
+
+    @Test
+    @DisplayName("Benchmark del generador de datos a volumen de producción")
+    void productionDataset() {
+        DatasetSpec spec = DatasetSpec.production(42, LocalDate.of(2026, 4, 1));
+        DiscardingSink sink = new DiscardingSink();
+        DatasetSummary summary = new DatasetGenerator(spec).generate(sink);
+
+        summary.rows().forEach((table, rows) -> System.out.printf("  %-20s %,12d%n", table, rows));
+        System.out.printf("Generador: %,d filas en %.1f s (%,.0f filas/s, %,d MB de texto)%n",
+                summary.totalRows(), summary.elapsed().toMillis() / 1000.0,
+                summary.totalRows() / (summary.elapsed().toMillis() / 1000.0), sink.chars >> 20);
+        assertTrue(summary.totalRows() > 0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ProyectoReservas.benchmark;
+
+import com.ProyectoReservas.domain.entities.Role;
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.domain.projections.DriverDuty;
+import com.ProyectoReservas.domain.projections.TripSchedule;
+import com.ProyectoReservas.domain.repositories.AssignmentRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.services.assignment.AssignmentPlan;
+import com.ProyectoReservas.services.assignment.DriverAssignmentServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Día sintético: 4000 viajes sin asignar entre 80 ciudades, 1200 conductores activos y la jornada
+// anterior ya asignada (ubicación de cada conductor al empezar). Mide el plan completo en memoria.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=DriverAssignmentBenchmark
+@Tag("benchmark")
+class DriverAssignmentBenchmark {
+
+    private static final int CITIES = 80;
+    private static final int TRIPS = 4_000;
+    private static final int DRIVERS = 1_200;
+    private static final int RUNS = 20;
+
+    @Test
+    @DisplayName("Benchmark del optimizador de asignación de conductores")
+    void driverAssignment() {
+        Random random = new Random(42);
+        ZoneOffset zone = ZoneOffset.ofHours(-5);
+        LocalDate day = LocalDate.of(2026, 3, 10);
+        OffsetDateTime midnight = day.atStartOfDay().atOffset(zone);
+
+        List<TripSchedule> trips = new ArrayList<>();
+        for (long id = 1; id <= TRIPS; id++) {
+            OffsetDateTime departure = midnight.plusMinutes(random.nextInt(24 * 60));
+            trips.add(new TripSchedule(id, id % 300, "Ciudad " + random.nextInt(CITIES),
+                    "Ciudad " + random.nextInt(CITIES), "America/Bogota",
+                    departure, departure.plusMinutes(45 + random.nextInt(8 * 60))));
+        }
+        List<User> drivers = new ArrayList<>();
+        List<DriverDuty> duties = new ArrayList<>();
+        for (long id = 1; id <= DRIVERS; id++) {
+            drivers.add(User.builder().id(id).name("Conductor " + id).email(id + "@test.com")
+                    .role(Role.DRIVER).passwordHash("hash").build());
+            OffsetDateTime departure = midnight.minusHours(4 + random.nextInt(12));
+            duties.add(new DriverDuty(id, 100_000 + id, "Ciudad " + random.nextInt(CITIES),
+                    "Ciudad " + random.nextInt(CITIES), departure, departure.plusHours(3)));
+        }
+
+        TripRepository tripRepository = mock(TripRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        AssignmentRepository assignmentRepository = mock(AssignmentRepository.class);
+        when(tripRepository.findUnassignedSchedulesBetween(any(), any())).thenReturn(trips);
+        when(userRepository.findActiveDrivers()).thenReturn(drivers);
+        when(assignmentRepository.findDutiesBetween(any(), any())).thenReturn(duties);
+        DriverAssignmentServiceImpl service = new DriverAssignmentServiceImpl(tripRepository, userRepository,
+                assignmentRepository);
+
+        for (int i = 0; i < 5; i++) service.plan(day, zone);
+
+        long[] nanos = new long[RUNS];
+        AssignmentPlan plan = null;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            plan = service.plan(day, zone);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        assertEquals(TRIPS, plan.assignments().size() + plan.unassignedTripIds().size());
+
+        System.out.printf("assignment: trips=%d drivers=%d cities=%d assigned=%d atCity=%d unassigned=%d "
+                        + "p50=%.1fms p95=%.1fms max=%.1fms%n",
+                TRIPS, DRIVERS, CITIES, plan.assignments().size(), plan.atDepartureCity(),
+                plan.unassignedTripIds().size(), nanos[RUNS / 2] / 1e6, nanos[RUNS * 95 / 100] / 1e6,
+                nanos[RUNS - 1] / 1e6);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ProyectoReservas.benchmark;
+
+import com.ProyectoReservas.domain.entities.*;
+import com.ProyectoReservas.domain.repositories.*;
+import com.ProyectoReservas.services.fare.DynamicPricingEngine;
+import com.ProyectoReservas.services.fare.FareMatrixCache;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import com.ProyectoReservas.services.ticket.TicketCheckoutServiceImpl;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compra de grupo (45 asientos): camino asiento por asiento frente al checkout en lote.
+// Necesita Docker (Testcontainers). Ejecutar con: mvn test -Pbenchmark -Dtest=GroupCheckoutBenchmark
+@Tag("benchmark")
+@Import({TicketCheckoutServiceImpl.class, DynamicPricingEngine.class, FareMatrixCache.class, SeatAvailabilityEngine.class,
+        TripOccupancyCounters.class})
+class GroupCheckoutBenchmark extends BaseRepositoryTest {
+
+    private static final int SEATS = 45;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private TicketCheckoutServiceImpl checkoutService;
+    @Autowired
+    private TicketRepository ticketRepository;
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+    @Autowired
+    private FareRuleRepository fareRuleRepository;
+    @Autowired
+    private RouteRepository routeRepository;
+    @Autowired
+    private StopRepository stopRepository;
+    @Autowired
+    private BusRepository busRepository;
+    @Autowired
+    private TripRepository tripRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Benchmark de compra de grupo: por asiento vs en lote")
+    void groupCheckout() {
+        Route route = routeRepository.save(Route.builder().code("RT-BENCH").name("Bench").origin("A").destination("B")
+                .distanceKm(BigDecimal.valueOf(300)).durationMin(240).build());
+        Stop from = stopRepository.save(Stop.builder().route(route).name("A").position(0).build());
+        Stop to = stopRepository.save(Stop.builder().route(route).name("B").position(1).build());
+        fareRuleRepository.save(FareRule.builder().route(route).fromStop(from).toStop(to)
+                .basePrice(BigDecimal.valueOf(80000)).dynamicPricing(false).build());
+        Bus bus = busRepository.save(Bus.builder().plate("BENCH-1").capacity(SEATS).status(BusStatus.ACTIVE).build());
+        User user = userRepository.save(User.builder().name("Operador").email("tour@bench.com").role(Role.PASSENGER)
+                .status(UserStatus.ACTIVE).passwordHash("hash").build());
+
+        long perSeatNanos = 0;
+        long batchNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            List<SeatHold> holds = seedHolds(route, bus, user, from, to);
+            long t0 = System.nanoTime();
+            for (SeatHold hold : holds) {
+                FareRule fare = fareRuleRepository.findFareBetweenStops(route.getId(), from.getId(), to.getId());
+                ticketRepository.save(Ticket.builder().trip(hold.getTrip()).passenger(user)
+                        .seatNumber(hold.getSeatNumber()).fromStop(from).toStop(to).price(fare.getBasePrice())
+                        .paymentMethod(PaymentMethod.CASH).status(TicketStatus.SOLD)
+                        .purchasedAt(OffsetDateTime.now()).build());
+                hold.setStatus(HoldStatus.CONSUMED);
+                seatHoldRepository.save(hold);
+            }
+            entityManager.flush();
+            perSeatNanos += System.nanoTime() - t0;
+            entityManager.clear();
+
+            List<Long> ids = seedHolds(route, bus, user, from, to).stream().map(SeatHold::getId).toList();
+            long t1 = System.nanoTime();
+            List<Ticket> tickets = checkoutService.checkout(ids, PaymentMethod.CASH);
+            entityManager.flush();
+            batchNanos += System.nanoTime() - t1;
+            entityManager.clear();
+            assertEquals(SEATS, tickets.size());
+        }
+
+        System.out.printf("checkout de %d asientos: por asiento=%.2fms lote=%.2fms (media de %d rondas)%n",
+                SEATS, perSeatNanos / 1e6 / ROUNDS, batchNanos / 1e6 / ROUNDS, ROUNDS);
+    }
+
+    private List<SeatHold> seedHolds(Route route, Bus bus, User user, Stop from, Stop to) {
+        Trip trip = tripRepository.save(Trip.builder().route(route).bus(bus)
+                .departureAt(OffsetDateTime.now().plusDays(1)).arrivalAt(OffsetDateTime.now().plusDays(1).plusHours(4))
+                .status(TripStatus.SCHEDULED).build());
+        List<SeatHold> holds = new ArrayList<>();
+        for (int seat = 1; seat <= SEATS; seat++) {
+            holds.add(SeatHold.builder().trip(trip).user(user).seatNumber(seat).fromStop(from).toStop(to)
+                    .expiresAt(OffsetDateTime.now().plusMinutes(10)).status(HoldStatus.HOLD).build());
+        }
+        List<SeatHold> saved = seatHoldRepository.saveAll(holds);
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+}
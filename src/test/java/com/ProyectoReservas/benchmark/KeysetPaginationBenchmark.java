@@ -0,0 +1,128 @@
+package com.ProyectoReservas.benchmark;
+
+import com.ProyectoReservas.domain.entities.Parcel;
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.repositories.BaseRepositoryTest;
+import com.ProyectoReservas.domain.repositories.ParcelRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Paginación por cursor vs. OFFSET sobre un millón de encomiendas: la página 10.000 por cursor debe
+// costar lo mismo que la primera (búsqueda en idx_parcels_status_created), mientras que con OFFSET
+// crece con la profundidad. Necesita Docker (Testcontainers).
+// Ejecutar con: mvn test -Pbenchmark -Dtest=KeysetPaginationBenchmark
+@Tag("benchmark")
+class KeysetPaginationBenchmark extends BaseRepositoryTest {
+
+    private static final int PARCELS = 1_000_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int[] PAGES = {1, 10, 100, 1_000, 10_000};
+    private static final int RUNS = 30;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ParcelRepository parcelRepository;
+
+    @Test
+    @DisplayName("La latencia por cursor es plana de la página 1 a la 10.000")
+    void keysetLatencyIsFlat() {
+        seed();
+
+        long[] keysetP50 = new long[PAGES.length];
+        for (int i = 0; i < PAGES.length; i++) {
+            KeysetScrollPosition position = positionBefore(PAGES[i]);
+            long[] keyset = new long[RUNS];
+            long[] offset = new long[RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                entityManager.clear();
+                long t0 = System.nanoTime();
+                Window<Parcel> window = parcelRepository.scrollByStatus(ParcelStatus.IN_TRANSIT, position, PAGE_SIZE);
+                keyset[run] = System.nanoTime() - t0;
+                assertEquals(PAGE_SIZE, window.size());
+
+                t0 = System.nanoTime();
+                entityManager.createNativeQuery("""
+                        SELECT * FROM parcels WHERE status = 'IN_TRANSIT'
+                        ORDER BY created_at DESC, id DESC OFFSET ?1 LIMIT ?2
+                        """).setParameter(1, (PAGES[i] - 1) * PAGE_SIZE).setParameter(2, PAGE_SIZE).getResultList();
+                offset[run] = System.nanoTime() - t0;
+            }
+            Latencies keysetLatencies = Latencies.of(keyset);
+            keysetP50[i] = keysetLatencies.percentile(0.50);
+            System.out.printf("page=%d keyset %s | offset %s%n", PAGES[i],
+                    keysetLatencies.percentiles(0.50, 0.99), Latencies.of(offset).percentiles(0.50, 0.99));
+        }
+
+        String plan = explain("""
+                EXPLAIN SELECT * FROM parcels
+                WHERE status = 'IN_TRANSIT' AND (created_at, id) < (now(), 500000)
+                ORDER BY created_at DESC, id DESC LIMIT 51
+                """);
+        System.out.println(plan);
+        assertTrue(plan.contains("idx_parcels_status_created"), plan);
+        // Holgura amplia para ruido del contenedor: lo que no debe pasar es crecer con la profundidad
+        assertTrue(keysetP50[PAGES.length - 1] < 5 * Math.max(keysetP50[0], 1_000_000),
+                "La página 10.000 no debe costar mucho más que la primera");
+    }
+
+    // Posición del último elemento de la página anterior (la inicial para la página 1)
+    private KeysetScrollPosition positionBefore(int page) {
+        if (page == 1) {
+            return ScrollPosition.keyset();
+        }
+        Object[] key = (Object[]) entityManager.createNativeQuery("""
+                SELECT created_at, id FROM parcels WHERE status = 'IN_TRANSIT'
+                ORDER BY created_at DESC, id DESC OFFSET ?1 LIMIT 1
+                """).setParameter(1, (page - 1) * PAGE_SIZE - 1).getSingleResult();
+        OffsetDateTime createdAt = entityManager.createQuery(
+                "SELECT p.createdAt FROM Parcel p WHERE p.id = :id", OffsetDateTime.class)
+                .setParameter("id", ((Number) key[1]).longValue()).getSingleResult();
+        return ScrollPosition.forward(Map.of("createdAt", createdAt, "id", ((Number) key[1]).longValue()));
+    }
+
+    private void seed() {
+        entityManager.createNativeQuery("""
+                INSERT INTO routes (code, name, origin, destination, distance_km, duration_min, time_zone)
+                VALUES ('KS-1', 'Ruta cursor', 'Tunja', 'Bogotá', 150, 180, 'America/Bogota')
+                """).executeUpdate();
+        entityManager.createNativeQuery("""
+                INSERT INTO buses (plate, capacity, status) VALUES ('KS-001', 40, 'ACTIVE')
+                """).executeUpdate();
+        entityManager.createNativeQuery("""
+                INSERT INTO trips (route_id, bus_id, departure_at, arrival_at, status, sold_count, held_count)
+                SELECT r.id, b.id, timestamptz '2026-01-01 06:00:00-05', timestamptz '2026-01-01 09:00:00-05',
+                       'SCHEDULED', 0, 0
+                FROM routes r, buses b
+                """).executeUpdate();
+        // Varias encomiendas por segundo para que haya empates en created_at
+        entityManager.createNativeQuery("""
+                INSERT INTO parcels (code, trip_id, sender_name, receiver_name, price, status, created_at)
+                SELECT 'KS' || g, t.id, 'Remitente', 'Destinatario', 15000,
+                       (ARRAY['CREATED', 'IN_TRANSIT', 'DELIVERED'])[1 + g % 3],
+                       timestamptz '2026-01-01 00:00:00-05' + (g / 4) * interval '1 second'
+                FROM generate_series(1, ?1) g, (SELECT min(id) AS id FROM trips) t
+                """).setParameter(1, PARCELS * 3).executeUpdate();
+        entityManager.createNativeQuery("ANALYZE parcels").executeUpdate();
+    }
+
+    private String explain(String sql) {
+        @SuppressWarnings("unchecked")
+        List<Object> rows = entityManager.createNativeQuery(sql).getResultList();
+        return rows.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.ProyectoReservas.benchmark;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Latencias de un benchmark en nanosegundos, ordenadas: percentiles (nearest-rank) y el resumen en
+// milisegundos que imprimen los benchmarks ("p50=0.412ms p99=1.870ms max=3.020ms").
+final class Latencies {
+
+    private final long[] sorted;
+
+    private Latencies(long[] sorted) {
+        if (sorted.length == 0) {
+            throw new IllegalArgumentException("Sin latencias");
+        }
+        this.sorted = sorted;
+    }
+
+    static Latencies of(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return new Latencies(sorted);
+    }
+
+    // Una fila por trabajador (taquillero, hilo...)
+    static Latencies of(long[][] nanos) {
+        return new Latencies(Arrays.stream(nanos).flatMapToLong(Arrays::stream).sorted().toArray());
+    }
+
+    int count() {
+        return sorted.length;
+    }
+
+    long percentile(double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(p * sorted.length) - 1))];
+    }
+
+    long max() {
+        return sorted[sorted.length - 1];
+    }
+
+    // "p50=…ms p99=…ms" para los percentiles pedidos
+    String percentiles(double... ps) {
+        return Arrays.stream(ps)
+                .mapToObj(p -> String.format(Locale.ROOT, "p%s=%.3fms", label(p), percentile(p) / 1e6))
+                .collect(Collectors.joining(" "));
+    }
+
+    // p50, p99 y máximo
+    String summary() {
+        return summary(0.50, 0.99);
+    }
+
+    // Los percentiles pedidos y el máximo
+    String summary(double... ps) {
+        return percentiles(ps) + String.format(Locale.ROOT, " max=%.3fms", max() / 1e6);
+    }
+
+    private static String label(double p) {
+        String percent = String.format(Locale.ROOT, "%.1f", p * 100);
+        return percent.endsWith(".0") ? percent.substring(0, percent.length() - 2) : percent;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ProyectoReservas.benchmark;
+
+import com.ProyectoReservas.domain.entities.SeatHold;
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.domain.repositories.ConfigRepository;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.exceptions.SeatNotAvailableException;
+import com.ProyectoReservas.services.config.ConfigCache;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import com.ProyectoReservas.services.seat.SeatHoldServiceImpl;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+// Contención de holds: cientos de hilos virtuales pelean por los 40 asientos de un mismo viaje.
+// Solo los ganadores "escriben" en seat_holds (escritura simulada de 1 ms); al terminar liberan el
+// asiento para mantener la contención. Ejecutar con: mvn test -Pbenchmark
+@Tag("benchmark")
+class SeatHoldContentionBenchmark {
+
+    private static final int CLERKS = 400;
+    private static final int ATTEMPTS_PER_CLERK = 250;
+    private static final int SEATS = 40;
+    private static final long TRIP_ID = 1L;
+
+    @Test
+    @DisplayName("Benchmark de contención de holds sobre un viaje con hilos virtuales")
+    void holdContention() throws Exception {
+        TripRepository tripRepository = mock(TripRepository.class, withSettings().stubOnly());
+        TicketRepository ticketRepository = mock(TicketRepository.class, withSettings().stubOnly());
+        SeatHoldRepository seatHoldRepository = mock(SeatHoldRepository.class, withSettings().stubOnly());
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class, withSettings().stubOnly());
+
+        when(tripRepository.findBusCapacity(TRIP_ID)).thenReturn(Optional.of(SEATS));
+        when(tripRepository.getReferenceById(TRIP_ID)).thenReturn(Trip.builder().id(TRIP_ID).build());
+        when(userRepository.getReferenceById(anyLong())).thenReturn(User.builder().id(1L).build());
+        when(ticketRepository.findSoldSeatSegmentsByTrip(TRIP_ID)).thenReturn(List.of());
+        when(seatHoldRepository.findActiveHeldSeatSegments(TRIP_ID)).thenReturn(List.of());
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(seatHoldRepository.saveAndFlush(any(SeatHold.class))).thenAnswer(inv -> {
+            Thread.sleep(1);
+            return inv.getArgument(0);
+        });
+
+        SeatAvailabilityEngine engine = new SeatAvailabilityEngine(tripRepository, ticketRepository, seatHoldRepository);
+        SeatHoldServiceImpl service = new SeatHoldServiceImpl(engine, seatHoldRepository, tripRepository,
+                userRepository, mock(StopRepository.class, withSettings().stubOnly()),
+                mock(TripOccupancyCounters.class, withSettings().stubOnly()), transactionTemplate,
+                new ConfigCache(mock(ConfigRepository.class, withSettings().stubOnly())),
+                mock(OutboxWriter.class, withSettings().stubOnly()),
+                mock(ObjectProvider.class, withSettings().stubOnly()));
+        engine.seatMap(TRIP_ID);
+
+        long[][] latencies = new long[CLERKS][ATTEMPTS_PER_CLERK];
+        AtomicLong wins = new AtomicLong();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLERKS; c++) {
+                long[] clerkLatencies = latencies[c];
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < ATTEMPTS_PER_CLERK; i++) {
+                        int seat = 1 + random.nextInt(SEATS);
+                        long t0 = System.nanoTime();
+                        try {
+                            service.hold(TRIP_ID, seat, 1L, null, null);
+                            wins.incrementAndGet();
+                            engine.onHoldReleased(TRIP_ID, seat, StopSegment.fullRoute());
+                        } catch (SeatNotAvailableException lost) {
+                            // otro taquillero ganó el asiento
+                        }
+                        clerkLatencies[i] = System.nanoTime() - t0;
+                    }
+                    return null;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Latencies all = Latencies.of(latencies);
+        double seconds = elapsed / 1e9;
+        System.out.printf("holds: clerks=%d attempts=%d wins=%d elapsed=%.2fs throughput=%.0f ops/s %s%n",
+                CLERKS, all.count(), wins.get(), seconds, all.count() / seconds, all.summary());
+
+        assertTrue(wins.get() > 0);
+    }
+}
@@ -0,0 +1,217 @@
+package com.ProyectoReservas.benchmark;
+
+import com.ProyectoReservas.config.JdbcConcurrencyLimiter;
+import com.ProyectoReservas.config.JdbcLimiterConfig;
+import com.ProyectoReservas.domain.entities.*;
+import com.ProyectoReservas.domain.repositories.*;
+import com.ProyectoReservas.exceptions.SeatNotAvailableException;
+import com.ProyectoReservas.services.config.ConfigCache;
+import com.ProyectoReservas.services.fare.DynamicPricingEngine;
+import com.ProyectoReservas.services.fare.FareMatrixCache;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import com.ProyectoReservas.services.seat.SeatHoldServiceImpl;
+import com.ProyectoReservas.services.ticket.TicketCheckoutServiceImpl;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// Hilos del sistema frente a hilos virtuales en los flujos de hold y de compra (hold + checkout).
+// Carga abierta: las peticiones llegan a ritmo fijo y la latencia se mide desde la llegada programada,
+// así la espera en la cola del pool cuenta (sin omisión coordinada). Las transacciones corren contra
+// PostgreSQL (Testcontainers) a través del DataSource configurado, con JdbcConcurrencyLimiter delante
+// del pool de POOL_SIZE conexiones. CLIENT_MILLIS simula la E/S con el cliente fuera de la base (leer la
+// petición, escribir la respuesta): con 200 hilos del sistema (máximo de Tomcat) esa espera es la que
+// satura el pool de hilos. Hay TRIPS viajes para que los choques por asiento sean raros; entre corridas
+// se borran holds y tickets y se recargan mapas y contadores.
+// Necesita Docker (Testcontainers). Ejecutar con: mvn test -Pbenchmark -Dtest=ThreadModelBenchmark
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({JdbcLimiterConfig.class, SeatHoldServiceImpl.class, TicketCheckoutServiceImpl.class,
+        SeatAvailabilityEngine.class, DynamicPricingEngine.class, FareMatrixCache.class, TripOccupancyCounters.class,
+        ConfigCache.class, OutboxWriter.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "spring.datasource.hikari.maximum-pool-size=" + ThreadModelBenchmark.POOL_SIZE,
+        "spring.datasource.hikari.minimum-idle=" + ThreadModelBenchmark.POOL_SIZE,
+        "reservas.jdbc.max-concurrency=" + ThreadModelBenchmark.POOL_SIZE})
+class ThreadModelBenchmark extends BaseRepositoryTest {
+
+    static final int POOL_SIZE = 20;
+    private static final int PLATFORM_THREADS = 200;
+    private static final long CLIENT_MILLIS = 100;
+    private static final int[] RATES = {800, 2000};
+    private static final int SECONDS = 4;
+    private static final int TRIPS = 2000;
+    private static final int SEATS = 40;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private SeatAvailabilityEngine engine;
+    @Autowired
+    private TripOccupancyCounters occupancyCounters;
+    @Autowired
+    private SeatHoldServiceImpl holdService;
+    @Autowired
+    private TicketCheckoutServiceImpl checkoutService;
+    @Autowired
+    private RouteRepository routeRepository;
+    @Autowired
+    private StopRepository stopRepository;
+    @Autowired
+    private FareRuleRepository fareRuleRepository;
+    @Autowired
+    private BusRepository busRepository;
+    @Autowired
+    private TripRepository tripRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private JdbcTemplate jdbc;
+    private List<Long> tripIds;
+    private Long userId;
+
+    // Los datos se confirman, así que se siembran una vez para los dos flujos
+    @BeforeAll
+    void seed() {
+        assertInstanceOf(JdbcConcurrencyLimiter.class, dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        Route route = routeRepository.save(Route.builder().code("RT-THREADS").name("Bench").origin("A")
+                .destination("B").distanceKm(BigDecimal.valueOf(300)).durationMin(240).build());
+        Stop from = stopRepository.save(Stop.builder().route(route).name("A").position(0).build());
+        Stop to = stopRepository.save(Stop.builder().route(route).name("B").position(1).build());
+        fareRuleRepository.save(FareRule.builder().route(route).fromStop(from).toStop(to)
+                .basePrice(new BigDecimal("45000.00")).dynamicPricing(false).build());
+        Bus bus = busRepository.save(Bus.builder().plate("THREADS-1").capacity(SEATS).status(BusStatus.ACTIVE).build());
+        userId = userRepository.save(User.builder().name("Cliente").email("threads@bench.com").role(Role.PASSENGER)
+                .status(UserStatus.ACTIVE).passwordHash("hash").build()).getId();
+
+        OffsetDateTime departure = OffsetDateTime.now().plusDays(1);
+        List<Trip> trips = new ArrayList<>(TRIPS);
+        for (int i = 0; i < TRIPS; i++) {
+            trips.add(Trip.builder().route(route).bus(bus).departureAt(departure.plusMinutes(i))
+                    .arrivalAt(departure.plusMinutes(i).plusHours(4)).status(TripStatus.SCHEDULED).build());
+        }
+        tripIds = tripRepository.saveAll(trips).stream().map(Trip::getId).toList();
+        tripIds.forEach(engine::seatMap);
+    }
+
+    @Test
+    @DisplayName("Benchmark de holds: hilos del sistema frente a hilos virtuales")
+    void holdFlow() throws Exception {
+        compare("hold", this::hold);
+    }
+
+    @Test
+    @DisplayName("Benchmark de compra: hilos del sistema frente a hilos virtuales")
+    void purchaseFlow() throws Exception {
+        compare("compra", () -> {
+            SeatHold hold = hold();
+            if (hold != null) {
+                checkoutService.checkout(List.of(hold.getId()), PaymentMethod.CARD);
+            }
+        });
+    }
+
+    // null si otro cliente tenía el asiento (la petición termina igual, con un 409)
+    private SeatHold hold() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LockSupport.parkNanos(Duration.ofMillis(CLIENT_MILLIS).toNanos());
+        try {
+            return holdService.hold(tripIds.get(random.nextInt(TRIPS)), 1 + random.nextInt(SEATS), userId, null, null);
+        } catch (SeatNotAvailableException taken) {
+            return null;
+        }
+    }
+
+    private void compare(String flow, Runnable request) throws Exception {
+        for (int rate : RATES) {
+            try (ExecutorService platform = Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+                run(flow, "sistema", rate, platform, request);
+            }
+            reset();
+            try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+                run(flow, "virtual", rate, virtual, request);
+            }
+            reset();
+        }
+    }
+
+    // Cada corrida empieza con los viajes vacíos, en la base y en memoria
+    private void reset() {
+        jdbc.batchUpdate("DELETE FROM tickets", "DELETE FROM seat_holds", "DELETE FROM outbox_events",
+                "UPDATE trips SET sold_count = 0, held_count = 0");
+        occupancyCounters.evictAllExcept(Set.of());
+        for (Long tripId : tripIds) {
+            engine.evict(tripId);
+            engine.seatMap(tripId);
+        }
+    }
+
+    private void run(String flow, String threads, int rate, ExecutorService executor, Runnable request)
+            throws InterruptedException {
+        int total = rate * SECONDS;
+        long interval = 1_000_000_000L / rate;
+        long[] latencies = new long[total];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(total);
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long arrival = start + i * interval;
+            long wait;
+            while ((wait = arrival - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int index = i;
+            executor.execute(() -> {
+                try {
+                    request.run();
+                } catch (RuntimeException e) {
+                    errors.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - arrival;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%s/%s: ritmo=%d/s peticiones=%d errores=%d elapsed=%.2fs throughput=%.0f/s %s%n",
+                flow, threads, rate, total, errors.get(), seconds, total / seconds,
+                Latencies.of(latencies).summary(0.50, 0.99, 0.999));
+        assertEquals(0, errors.get());
+    }
+}
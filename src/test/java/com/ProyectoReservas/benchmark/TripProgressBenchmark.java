@@ -0,0 +1,92 @@
+package com.ProyectoReservas.benchmark;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.projections.RouteStop;
+import com.ProyectoReservas.domain.projections.TripProgressRow;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.services.progress.PositionEvent;
+import com.ProyectoReservas.services.progress.TripProgressEngine;
+import com.ProyectoReservas.services.progress.TripProgressWriter;
+import com.ProyectoReservas.services.progress.TripSimulator;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+// Miles de viajes activos reportando posiciones a la vez, con un hilo de procesamiento por núcleo.
+// La base de datos se simula; el lote de escritura solo cuenta transiciones.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=TripProgressBenchmark
+@Tag("benchmark")
+class TripProgressBenchmark {
+
+    private static final int TRIPS = 5_000;
+    private static final int STOPS = 20;
+    private static final int POINTS_PER_LEG = 8;
+
+    @Test
+    @DisplayName("Benchmark de seguimiento de viajes con miles de buses activos")
+    void progressThroughput() throws Exception {
+        TripRepository tripRepository = mock(TripRepository.class, withSettings().stubOnly());
+        StopRepository stopRepository = mock(StopRepository.class, withSettings().stubOnly());
+        SeatAvailabilityEngine seatEngine = mock(SeatAvailabilityEngine.class, withSettings().stubOnly());
+        TripProgressWriter writer = mock(TripProgressWriter.class, withSettings().stubOnly());
+        List<RouteStop> route = TripSimulator.route(1L, STOPS);
+        when(stopRepository.findRouteStops(1L)).thenReturn(route);
+        when(tripRepository.findProgressRow(anyLong())).thenAnswer(inv ->
+                Optional.of(new TripProgressRow(inv.getArgument(0), 1L, TripStatus.SCHEDULED, null)));
+        LongAdder written = new LongAdder();
+        doAnswer(inv -> {
+            written.add(inv.getArgument(0, List.class).size());
+            return null;
+        }).when(writer).write(anyList());
+
+        int workers = Runtime.getRuntime().availableProcessors();
+        TripProgressEngine engine = new TripProgressEngine(tripRepository, stopRepository, seatEngine, writer);
+        List<List<PositionEvent>> drives = new ArrayList<>();
+        for (long id = 1; id <= TRIPS; id++) {
+            drives.add(TripSimulator.drive(id, route, POINTS_PER_LEG, Instant.parse("2026-03-01T11:00:00Z")));
+        }
+        int steps = drives.get(0).size();
+        long total = (long) TRIPS * steps;
+
+        engine.start();
+        long start = System.nanoTime();
+        try {
+            for (int step = 0; step < steps; step++) {
+                for (List<PositionEvent> drive : drives) {
+                    while (!engine.publish(drive.get(step))) {
+                        Thread.onSpinWait();
+                    }
+                }
+                if (step % 20 == 0) {
+                    engine.flush();
+                }
+            }
+            while (engine.processedEvents() < total) {
+                Thread.sleep(1);
+            }
+            engine.flush();
+        } finally {
+            engine.stop();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("progress: trips=%d stops=%d workers=%d events=%d elapsed=%.2fs throughput=%.0f events/s "
+                        + "transitions=%d%n",
+                TRIPS, STOPS, workers, total, seconds, total / seconds, written.sum());
+
+        assertEquals((long) TRIPS * (2 * STOPS - 1), written.sum());
+    }
+}
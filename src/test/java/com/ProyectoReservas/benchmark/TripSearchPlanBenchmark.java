@@ -0,0 +1,134 @@
+package com.ProyectoReservas.benchmark;
+
+import com.ProyectoReservas.domain.repositories.BaseRepositoryTest;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Regresión de plan: la búsqueda de viajes del día debe recorrer idx_trips_route_status_departure
+// sobre una tabla de varios millones de viajes, no hacer un Seq Scan. Se explica el SQL que Hibernate
+// genera para TripRepository.findAvailableTrips (capturado con un StatementInspector), no una copia a mano.
+// Necesita Docker (Testcontainers). Ejecutar con: mvn test -Pbenchmark -Dtest=TripSearchPlanBenchmark
+@Tag("benchmark")
+@Import(TripSearchPlanBenchmark.CaptureConfig.class)
+class TripSearchPlanBenchmark extends BaseRepositoryTest {
+
+    private static final int ROUTES = 200;
+    private static final int TRIPS = 3_000_000;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TripRepository tripRepository;
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    static final class SqlCapture implements StatementInspector {
+        final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+
+    @Test
+    @DisplayName("findAvailableTrips debe usar el índice compuesto con millones de viajes")
+    void availableTripsUsesIndex() {
+        seed();
+        Long routeId = ((Number) entityManager.createNativeQuery("SELECT min(id) + 17 FROM routes")
+                .getSingleResult()).longValue();
+        OffsetDateTime from = OffsetDateTime.of(2026, 6, 15, 0, 0, 0, 0, ZoneOffset.ofHours(-5));
+        OffsetDateTime to = from.plusDays(1);
+
+        sqlCapture.statements.clear();
+        assertFalse(tripRepository.findAvailableTrips(routeId, from, to).isEmpty());
+        List<String> selects = sqlCapture.statements.stream().filter(sql -> sql.contains("trips")).toList();
+        assertEquals(1, selects.size(), String.join("\n", sqlCapture.statements));
+        String sql = selects.get(0);
+        // Los parámetros de la JPQL van en orden: ruta, desde, hasta; el estado es un literal
+        assertEquals(3, sql.chars().filter(c -> c == '?').count(), sql);
+
+        String plan = explain(sql, routeId, from, to);
+        assertTrue(plan.contains("idx_trips_route_status_departure"), plan);
+        assertFalse(plan.contains("Seq Scan on trips"), plan);
+    }
+
+    private void seed() {
+        entityManager.createNativeQuery("""
+                INSERT INTO routes (code, name, origin, destination, distance_km, duration_min, time_zone)
+                SELECT 'R' || g, 'Ruta ' || g, 'Origen ' || g, 'Destino ' || g, 300, 240, 'America/Bogota'
+                FROM generate_series(1, ?1) g
+                """).setParameter(1, ROUTES).executeUpdate();
+        entityManager.createNativeQuery("""
+                INSERT INTO buses (plate, capacity, status) VALUES ('PLAN-1', 40, 'ACTIVE')
+                """).executeUpdate();
+        // Un año de salidas cada pocos minutos repartidas entre rutas; el estado va por vuelta (g / rutas)
+        // para que cada ruta tenga viajes en los cuatro estados
+        entityManager.createNativeQuery("""
+                INSERT INTO trips (route_id, bus_id, departure_at, arrival_at, status, sold_count, held_count)
+                SELECT r.first_id + g % ?2,
+                       b.id,
+                       timestamptz '2026-01-01 00:00:00-05' + (g % 525600) * interval '1 minute',
+                       timestamptz '2026-01-01 04:00:00-05' + (g % 525600) * interval '1 minute',
+                       (ARRAY['SCHEDULED', 'DEPARTED', 'ARRIVED', 'CANCELLED'])[1 + (g / ?2) % 4],
+                       0, 0
+                FROM generate_series(1, ?1) g,
+                     (SELECT min(id) AS first_id FROM routes) r,
+                     (SELECT min(id) AS id FROM buses) b
+                """).setParameter(1, TRIPS).setParameter(2, ROUTES).executeUpdate();
+        entityManager.createNativeQuery("ANALYZE trips").executeUpdate();
+    }
+
+    // EXPLAIN por JDBC sobre la conexión de la transacción, con los parámetros enlazados como los enlaza Hibernate
+    private String explain(String sql, Object... params) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                StringJoiner plan = new StringJoiner("\n");
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.add(rows.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package com.ProyectoReservas.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcConcurrencyLimiterTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+
+    private JdbcConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+        limiter = new JdbcConcurrencyLimiter(dataSource, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Cerrar la conexión debe devolver el permiso una sola vez")
+    void testCloseReleasesPermitOnce() throws SQLException {
+        Connection first = limiter.getConnection();
+        assertEquals(1, limiter.inUse());
+
+        first.close();
+        first.close();
+
+        assertEquals(0, limiter.inUse());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Las llamadas a la conexión deben llegar a la conexión del pool")
+    void testDelegatesCalls() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        try (Connection wrapped = limiter.getConnection()) {
+            assertFalse(wrapped.getAutoCommit());
+        }
+    }
+
+    @Test
+    @DisplayName("Sin permisos libres debe fallar tras la espera máxima como lo haría Hikari")
+    void testTimeoutWhenSaturated() throws SQLException {
+        limiter.getConnection();
+        limiter.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> limiter.getConnection());
+        assertEquals(1, limiter.timeouts());
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Un error del pool no debe quedarse con el permiso")
+    void testTargetFailureReleasesPermit() throws SQLException {
+        when(dataSource.getConnection()).thenThrow(new SQLTransientConnectionException("pool agotado"));
+
+        assertThrows(SQLException.class, () -> limiter.getConnection());
+        assertEquals(0, limiter.inUse());
+    }
+
+    @Test
+    @DisplayName("Un hilo virtual en espera debe recibir el permiso que se libera")
+    void testWaiterGetsReleasedPermit() throws Exception {
+        JdbcConcurrencyLimiter single = new JdbcConcurrencyLimiter(dataSource, 1, Duration.ofSeconds(5));
+        Connection held = single.getConnection();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return single.getConnection();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+            while (single.waiting() == 0) {
+                Thread.onSpinWait();
+            }
+            assertFalse(waiter.isDone());
+
+            held.close();
+            assertNotNull(waiter.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, single.inUse());
+    }
+}
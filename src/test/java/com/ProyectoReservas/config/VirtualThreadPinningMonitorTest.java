@@ -0,0 +1,42 @@
+package com.ProyectoReservas.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor();
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    @DisplayName("Un hilo virtual que duerme dentro de synchronized debe contarse como fijado")
+    void testReportsPinnedThread() throws Exception {
+        monitor.start();
+
+        Thread pinned = Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(VirtualThreadPinningMonitor.THRESHOLD.toMillis() * 3);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        pinned.join();
+
+        // JFR entrega los eventos por lotes, alrededor de una vez por segundo
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (monitor.pinnedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(monitor.pinnedCount() > 0);
+    }
+}
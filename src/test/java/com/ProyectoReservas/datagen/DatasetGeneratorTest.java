@@ -0,0 +1,311 @@
+package com.ProyectoReservas.datagen;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 4, 1);
+
+    private static MemorySink dataset;
+
+    @BeforeAll
+    static void generate() {
+        dataset = new MemorySink();
+        new DatasetGenerator(DatasetSpec.small(7, TODAY)).generate(dataset);
+    }
+
+    // Guarda una copia de cada fila por tabla
+    static class MemorySink implements TableSink {
+        final Map<String, List<String>> columns = new LinkedHashMap<>();
+        final Map<String, List<Object[]>> rows = new LinkedHashMap<>();
+        private String table;
+
+        @Override
+        public void begin(String table, List<String> columns) {
+            this.table = table;
+            this.columns.put(table, columns);
+            rows.put(table, new ArrayList<>());
+        }
+
+        @Override
+        public void row(Object[] values) {
+            rows.get(table).add(values.clone());
+        }
+
+        @Override
+        public long end() {
+            return rows.get(table).size();
+        }
+
+        List<Object[]> rows(String table) {
+            return rows.get(table);
+        }
+
+        int column(String table, String name) {
+            int index = columns.get(table).indexOf(name);
+            assertTrue(index >= 0, table + "." + name);
+            return index;
+        }
+
+        Set<Object> ids(String table) {
+            Set<Object> ids = new HashSet<>();
+            rows(table).forEach(row -> ids.add(row[0]));
+            return ids;
+        }
+    }
+
+    // TEST 1: determinismo
+    @Test
+    @DisplayName("La misma semilla produce las mismas filas y otra semilla produce otras")
+    void sameSeedSameRows() {
+        MemorySink again = new MemorySink();
+        new DatasetGenerator(DatasetSpec.small(7, TODAY)).generate(again);
+        MemorySink other = new MemorySink();
+        new DatasetGenerator(DatasetSpec.small(8, TODAY)).generate(other);
+
+        for (String table : DatasetGenerator.TABLES) {
+            List<Object[]> expected = dataset.rows(table);
+            List<Object[]> actual = again.rows(table);
+            assertEquals(expected.size(), actual.size(), table);
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i), actual.get(i), table + " fila " + i);
+            }
+        }
+        assertFalse(Arrays.deepEquals(dataset.rows("tickets").toArray(), other.rows("tickets").toArray()));
+    }
+
+    // TEST 2: todas las tablas con filas, en orden de carga
+    @Test
+    @DisplayName("Llena las 15 tablas en orden de claves foráneas")
+    void fillsEveryTable() {
+        assertEquals(DatasetGenerator.TABLES, List.copyOf(dataset.rows.keySet()));
+        for (String table : DatasetGenerator.TABLES) {
+            assertFalse(dataset.rows(table).isEmpty(), table);
+        }
+        assertEquals(6, dataset.rows("routes").size());
+        assertEquals(30, dataset.rows("stops").size());
+        assertEquals(6 * 10, dataset.rows("fare_rules").size());
+    }
+
+    // TEST 3: claves foráneas
+    @Test
+    @DisplayName("Toda clave foránea apunta a una fila ya generada")
+    void foreignKeysResolve() {
+        assertReferences("stops", "route_id", "routes");
+        assertReferences("fare_rules", "from_stop_id", "stops");
+        assertReferences("seats", "bus_id", "buses");
+        assertReferences("trips", "route_id", "routes");
+        assertReferences("trips", "bus_id", "buses");
+        assertReferences("assignments", "trip_id", "trips");
+        assertReferences("assignments", "driver_id", "users");
+        assertReferences("assignments", "dispatcher_id", "users");
+        assertReferences("seat_holds", "user_id", "users");
+        assertReferences("tickets", "trip_id", "trips");
+        assertReferences("tickets", "passenger_id", "users");
+        assertReferences("tickets", "to_stop_id", "stops");
+        assertReferences("baggages", "ticket_id", "tickets");
+        assertReferences("parcels", "trip_id", "trips");
+        assertReferences("parcel_status_audit", "parcel_id", "parcels");
+
+        // Las paradas del ticket son de la ruta del viaje y coinciden con sus posiciones
+        Map<Object, Object[]> stops = byId("stops");
+        Map<Object, Object[]> trips = byId("trips");
+        int routeOfStop = dataset.column("stops", "route_id");
+        int positionOfStop = dataset.column("stops", "position");
+        for (Object[] ticket : dataset.rows("tickets")) {
+            Object route = trips.get(ticket[dataset.column("tickets", "trip_id")])[dataset.column("trips", "route_id")];
+            Object[] from = stops.get(ticket[dataset.column("tickets", "from_stop_id")]);
+            Object[] to = stops.get(ticket[dataset.column("tickets", "to_stop_id")]);
+            assertEquals(route, from[routeOfStop]);
+            assertEquals(route, to[routeOfStop]);
+            assertEquals(ticket[dataset.column("tickets", "from_position")], from[positionOfStop]);
+            assertEquals(ticket[dataset.column("tickets", "to_position")], to[positionOfStop]);
+        }
+    }
+
+    // TEST 4: restricciones de exclusión de schema.sql
+    @Test
+    @DisplayName("Ningún asiento tiene dos tickets vendidos ni dos holds activos en tramos que se cruzan")
+    void noOverlappingSegments() {
+        assertNoOverlap("tickets", "SOLD");
+        assertNoOverlap("seat_holds", "HOLD");
+    }
+
+    // TEST 5: contadores desnormalizados
+    @Test
+    @DisplayName("sold_count y held_count cuentan los asientos vendidos y los que solo tienen holds")
+    void countersMatchRows() {
+        Map<Object, Set<Object>> sold = seatsByTrip("tickets", "SOLD");
+        Map<Object, Set<Object>> held = seatsByTrip("seat_holds", "HOLD");
+        held.forEach((trip, seats) -> seats.removeAll(sold.getOrDefault(trip, Set.of())));
+        for (Object[] trip : dataset.rows("trips")) {
+            assertEquals(sold.getOrDefault(trip[0], Set.of()).size(), trip[dataset.column("trips", "sold_count")], "viaje " + trip[0]);
+            assertEquals(held.getOrDefault(trip[0], Set.of()).size(), trip[dataset.column("trips", "held_count")], "viaje " + trip[0]);
+        }
+    }
+
+    // TEST 6: calendario de buses y conductores
+    @Test
+    @DisplayName("Ningún bus ni conductor queda en dos viajes que se cruzan")
+    void busesAndDriversAreNeverDoubleBooked() {
+        Map<Object, Object[]> trips = byId("trips");
+        int departure = dataset.column("trips", "departure_at");
+        int arrival = dataset.column("trips", "arrival_at");
+
+        Map<Object, List<Object[]>> byBus = new HashMap<>();
+        for (Object[] trip : dataset.rows("trips")) {
+            byBus.computeIfAbsent(trip[dataset.column("trips", "bus_id")], k -> new ArrayList<>()).add(trip);
+        }
+        byBus.values().forEach(list -> assertNoOverlap(list, departure, arrival, FleetPlan.BUS_TURNAROUND.toSeconds()));
+
+        Map<Object, List<Object[]>> byDriver = new HashMap<>();
+        for (Object[] assignment : dataset.rows("assignments")) {
+            Object[] trip = trips.get(assignment[dataset.column("assignments", "trip_id")]);
+            assertNotEquals("CANCELLED", trip[dataset.column("trips", "status")].toString());
+            byDriver.computeIfAbsent(assignment[dataset.column("assignments", "driver_id")], k -> new ArrayList<>()).add(trip);
+        }
+        byDriver.values().forEach(list -> assertNoOverlap(list, departure, arrival, FleetPlan.DRIVER_REST.toSeconds()));
+    }
+
+    // TEST 7: distribución por hora
+    @Test
+    @DisplayName("Hay más salidas en horas pico que de madrugada")
+    void peakHoursHaveMoreDepartures() {
+        MemorySink sink = new MemorySink();
+        new DatasetGenerator(DatasetSpec.small(7, TODAY).scaled(20)).generate(sink);
+        int[] perHour = new int[24];
+        ZoneId zone = ZoneId.of("America/Bogota");
+        for (Object[] trip : sink.rows("trips")) {
+            perHour[((Instant) trip[sink.column("trips", "departure_at")]).atZone(zone).getHour()]++;
+        }
+        int peak = perHour[6] + perHour[17];
+        int night = perHour[1] + perHour[2];
+        assertTrue(peak > 5 * night, Arrays.toString(perHour));
+    }
+
+    // TEST 8: estados de encomiendas y su auditoría
+    @Test
+    @DisplayName("Cada encomienda entregada o en tránsito tiene su salida auditada")
+    void parcelAuditFollowsStatus() {
+        Map<Object, List<Object[]>> audit = new HashMap<>();
+        for (Object[] row : dataset.rows("parcel_status_audit")) {
+            audit.computeIfAbsent(row[dataset.column("parcel_status_audit", "parcel_id")], k -> new ArrayList<>()).add(row);
+        }
+        int toStatus = dataset.column("parcel_status_audit", "to_status");
+        for (Object[] parcel : dataset.rows("parcels")) {
+            String status = parcel[dataset.column("parcels", "status")].toString();
+            List<Object[]> changes = audit.getOrDefault(parcel[0], List.of());
+            switch (status) {
+                case "CREATED" -> assertTrue(changes.isEmpty());
+                case "IN_TRANSIT" -> assertEquals(1, changes.size());
+                case "DELIVERED" -> assertEquals("DELIVERED", changes.get(changes.size() - 1)[toStatus].toString());
+                case "FAILED" -> assertEquals("FAILED", changes.get(changes.size() - 1)[toStatus].toString());
+                default -> fail(status);
+            }
+        }
+    }
+
+    // TEST 9: formato CSV de COPY
+    @Test
+    @DisplayName("CopySink escribe NULL, comillas, fechas en UTC y decimales sin notación científica")
+    void csvFormatting() {
+        assertEquals("", csv(null));
+        assertEquals("\"\"", csv(""));
+        assertEquals("Bogotá", csv("Bogotá"));
+        assertEquals("\"Bogotá - Cali, vía \"\"Buga\"\"\"", csv("Bogotá - Cali, vía \"Buga\""));
+        assertEquals("2026-04-01 17:05:09+00", csv(Instant.parse("2026-04-01T17:05:09Z")));
+        assertEquals("12500.00", csv(BigDecimal.valueOf(1_250_000, 2)));
+        assertEquals("true", csv(true));
+        assertEquals("SOLD", csv(com.ProyectoReservas.domain.entities.TicketStatus.SOLD));
+    }
+
+    // TEST 10: placas
+    @Test
+    @DisplayName("Las placas son únicas y con formato AAA000")
+    void platesAreUnique() {
+        Set<String> plates = new HashSet<>();
+        for (int bus = 1; bus <= 30_000; bus++) {
+            String plate = DatasetGenerator.plate(bus);
+            assertTrue(plate.matches("[A-Z]{3}[0-9]{3}"), plate);
+            assertTrue(plates.add(plate), plate);
+        }
+    }
+
+    private static String csv(Object value) {
+        StringBuilder out = new StringBuilder();
+        CopySink.appendCsv(out, value);
+        return out.toString();
+    }
+
+    private static Map<Object, Object[]> byId(String table) {
+        Map<Object, Object[]> rows = new HashMap<>();
+        dataset.rows(table).forEach(row -> rows.put(row[0], row));
+        return rows;
+    }
+
+    private static void assertReferences(String table, String column, String target) {
+        Set<Object> ids = dataset.ids(target);
+        int index = dataset.column(table, column);
+        for (Object[] row : dataset.rows(table)) {
+            if (row[index] != null) {
+                assertTrue(ids.contains(row[index]), table + "." + column + " = " + row[index]);
+            }
+        }
+    }
+
+    private static Map<Object, Set<Object>> seatsByTrip(String table, String status) {
+        Map<Object, Set<Object>> seats = new HashMap<>();
+        for (Object[] row : dataset.rows(table)) {
+            if (row[dataset.column(table, "status")].toString().equals(status)) {
+                seats.computeIfAbsent(row[dataset.column(table, "trip_id")], k -> new HashSet<>())
+                        .add(row[dataset.column(table, "seat_number")]);
+            }
+        }
+        return seats;
+    }
+
+    private static void assertNoOverlap(String table, String status) {
+        int trip = dataset.column(table, "trip_id");
+        int seat = dataset.column(table, "seat_number");
+        int from = dataset.column(table, "from_position");
+        int to = dataset.column(table, "to_position");
+        Map<String, List<int[]>> bySeat = new HashMap<>();
+        for (Object[] row : dataset.rows(table)) {
+            if (!row[dataset.column(table, "status")].toString().equals(status)) continue;
+            int[] segment = {(Integer) row[from], (Integer) row[to]};
+            assertTrue(segment[0] < segment[1]);
+            List<int[]> taken = bySeat.computeIfAbsent(row[trip] + "/" + row[seat], k -> new ArrayList<>());
+            for (int[] other : taken) {
+                assertTrue(segment[1] <= other[0] || other[1] <= segment[0], table + " " + row[trip] + "/" + row[seat]);
+            }
+            taken.add(segment);
+        }
+        assertFalse(bySeat.isEmpty());
+    }
+
+    private static void assertNoOverlap(List<Object[]> trips, int departure, int arrival, long gapSeconds) {
+        List<Object[]> sorted = new ArrayList<>(trips);
+        sorted.sort((a, b) -> ((Instant) a[departure]).compareTo((Instant) b[departure]));
+        for (int i = 1; i < sorted.size(); i++) {
+            Instant free = ((Instant) sorted.get(i - 1)[arrival]).plusSeconds(gapSeconds);
+            assertFalse(((Instant) sorted.get(i)[departure]).isBefore(free));
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.ProyectoReservas.domain.repositories;
 import com.ProyectoReservas.domain.entities.*;
 import com.ProyectoReservas.domain.entities.Role;
 import com.ProyectoReservas.domain.entities.UserStatus;
+import com.ProyectoReservas.domain.projections.DriverDuty;
+import com.ProyectoReservas.domain.projections.TripSchedule;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -182,4 +184,38 @@ public class AssignmentRepositoryTest extends BaseRepositoryTest {
         // solo validamos que se pudieron crear sin errores
         assertTrue(all.size() >= 0);
     }
+
+    // ---------------------------------------------------------
+    // TEST 4: insertAll y findDutiesBetween (optimizador de asignaciones)
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("insertAll guarda el lote en una sentencia y omite viajes con conductor o que chocan con otro viaje suyo")
+    void testInsertAllAndDuties() {
+
+        User driver = buildDriver("batch@test.com");
+        User dispatcher = buildDispatcher("batch-dispatch@test.com");
+        OffsetDateTime dep = OffsetDateTime.now().plusDays(2);
+
+        Trip assigned = buildTrip(dep);
+        Trip clash = buildTrip(dep.plusHours(2));
+        Trip free = buildTrip(dep.plusHours(5));
+        buildAssignment(assigned, driver, dispatcher);
+
+        assertEquals(1, assignmentRepository.lockDrivers(7_310_002, new Long[]{driver.getId(), driver.getId()}));
+        int inserted = assignmentRepository.insertAll(
+                new Long[]{assigned.getId(), clash.getId(), free.getId()},
+                new Long[]{dispatcher.getId(), driver.getId(), driver.getId()},
+                dispatcher.getId(), OffsetDateTime.now(), 3600);
+
+        assertEquals(1, inserted);
+        assertEquals(1, assignmentRepository.findByTripId(free.getId()).size());
+        assertEquals(driver.getId(), assignmentRepository.findByTripId(assigned.getId()).get(0).getDriver().getId());
+        assertEquals(List.of(clash.getId()),
+                tripRepository.findUnassignedSchedulesBetween(dep.minusHours(1), dep.plusHours(6)).stream()
+                        .map(TripSchedule::tripId).toList());
+
+        List<DriverDuty> duties = assignmentRepository.findDutiesBetween(dep.plusHours(1), dep.plusHours(6));
+        assertEquals(2, duties.size());
+        assertEquals("City B", duties.get(0).destination());
+    }
 }
@@ -101,4 +101,26 @@ public class BusRepositoryTest extends BaseRepositoryTest {
                 "Todos los buses retornados deben ser ACTIVE"
         );
     }
+
+    @Test
+    @DisplayName("findIdsByStatus debe devolver solo los ids de los buses con el estado indicado")
+    void findIdsByStatus() {
+        // Arrange
+        Bus active = busRepository.save(Bus.builder()
+                .plate("IDX001")
+                .capacity(30)
+                .status(BusStatus.ACTIVE)
+                .build());
+        busRepository.save(Bus.builder()
+                .plate("IDX002")
+                .capacity(30)
+                .status(BusStatus.MAINTENANCE)
+                .build());
+
+        // Act
+        List<Long> ids = busRepository.findIdsByStatus(BusStatus.ACTIVE);
+
+        // Assert
+        assertEquals(List.of(active.getId()), ids);
+    }
 }
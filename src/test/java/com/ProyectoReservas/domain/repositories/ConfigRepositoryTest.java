@@ -75,4 +75,25 @@ public class ConfigRepositoryTest extends BaseRepositoryTest {
                 configRepository.save(cfg)
         );
     }
+
+    @Test
+    @DisplayName("La huella del contenido cambia con cada alta, modificación o baja")
+    void testContentVersion() {
+        String empty = configRepository.findContentVersion();
+        assertEquals("", empty);
+
+        Config cfg = configRepository.saveAndFlush(Config.builder().key("seat.hold.minutes").value("10").build());
+        String created = configRepository.findContentVersion();
+        assertNotEquals(empty, created);
+        assertEquals(created, configRepository.findContentVersion());
+
+        cfg.setValue("15");
+        configRepository.saveAndFlush(cfg);
+        String updated = configRepository.findContentVersion();
+        assertNotEquals(created, updated);
+
+        configRepository.deleteById("seat.hold.minutes");
+        configRepository.flush();
+        assertEquals(empty, configRepository.findContentVersion());
+    }
 }
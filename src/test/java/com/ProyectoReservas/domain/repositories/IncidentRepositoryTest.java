@@ -6,6 +6,9 @@ import com.ProyectoReservas.domain.entities.IncidentEntityType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -114,4 +117,25 @@ public class IncidentRepositoryTest extends BaseRepositoryTest {
 
         assertThrows(Exception.class, () -> incidentRepository.save(incident));
     }
+
+    @Test
+    @DisplayName("scrollByTypeAndDateRange debe paginar por cursor dentro del rango, más reciente primero")
+    void testScrollByTypeAndDateRange() {
+        OffsetDateTime now = OffsetDateTime.now();
+        for (int h = 1; h <= 5; h++) {
+            buildIncident(IncidentType.VEHICLE, IncidentEntityType.TRIP, (long) h, now.minusHours(h));
+        }
+        buildIncident(IncidentType.VEHICLE, IncidentEntityType.TRIP, 99L, now.minusDays(3));
+        buildIncident(IncidentType.SECURITY, IncidentEntityType.TRIP, 98L, now.minusHours(1));
+
+        Window<Incident> first = incidentRepository.scrollByTypeAndDateRange(
+                IncidentType.VEHICLE, now.minusDays(1), now, ScrollPosition.keyset(), 3);
+        Window<Incident> second = incidentRepository.scrollByTypeAndDateRange(
+                IncidentType.VEHICLE, now.minusDays(1), now, (KeysetScrollPosition) first.positionAt(2), 3);
+
+        assertEquals(List.of(1L, 2L, 3L), first.stream().map(Incident::getEntityId).toList());
+        assertTrue(first.hasNext());
+        assertEquals(List.of(4L, 5L), second.stream().map(Incident::getEntityId).toList());
+        assertFalse(second.hasNext());
+    }
 }
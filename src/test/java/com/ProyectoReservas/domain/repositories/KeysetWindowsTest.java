@@ -0,0 +1,52 @@
+package com.ProyectoReservas.domain.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetWindowsTest {
+
+    // ---------------------------------------------------------
+    // TEST 1: fila extra = hay página siguiente
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Con size + 1 filas la ventana recorta la extra y marca hasNext")
+    void extraRowMeansNextPage() {
+        Window<Integer> window = KeysetWindows.of(List.of(10, 20, 30), 2, v -> Map.of("id", (long) v));
+
+        assertEquals(List.of(10, 20), window.getContent());
+        assertTrue(window.hasNext());
+        KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(1);
+        assertEquals(20L, KeysetWindows.key(last, "id", Long.class));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: última página
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Con size filas o menos es la última página")
+    void lastPage() {
+        Window<Integer> window = KeysetWindows.of(List.of(10, 20), 2, v -> Map.of("id", (long) v));
+
+        assertEquals(2, window.size());
+        assertFalse(window.hasNext());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 3: posición sin la clave del orden
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Una posición sin la clave del orden es un argumento inválido")
+    void missingKey() {
+        KeysetScrollPosition position = ScrollPosition.forward(Map.of("seatNumber", 3));
+
+        assertThrows(IllegalArgumentException.class, () -> KeysetWindows.key(position, "id", Long.class));
+    }
+}
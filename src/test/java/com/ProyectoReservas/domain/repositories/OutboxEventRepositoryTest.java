@@ -0,0 +1,82 @@
+package com.ProyectoReservas.domain.repositories;
+
+import com.ProyectoReservas.domain.entities.OutboxAggregate;
+import com.ProyectoReservas.domain.entities.OutboxEvent;
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboxEventRepositoryTest extends BaseRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private void insert(Integer[] partitions, String[] aggregateIds, String[] eventTypes) {
+        String[] aggregateTypes = new String[partitions.length];
+        String[] payloads = new String[partitions.length];
+        for (int i = 0; i < partitions.length; i++) {
+            aggregateTypes[i] = OutboxAggregate.SEAT_HOLD.name();
+            payloads[i] = "{\"holdId\":" + aggregateIds[i] + "}";
+        }
+        outboxEventRepository.insertBatch(partitions, aggregateTypes, aggregateIds, eventTypes, payloads,
+                OffsetDateTime.now());
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 1: inserción en bloque
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("insertBatch debe asignar los ids en el orden de los arreglos")
+    void testInsertBatchKeepsOrder() {
+        insert(new Integer[]{2, 2, 5},
+                new String[]{"1", "1", "8"},
+                new String[]{"HOLD_CREATED", "HOLD_RELEASED", "HOLD_CREATED"});
+
+        List<OutboxEvent> partition = outboxEventRepository.lockBatch(2, 10);
+
+        assertEquals(2, partition.size());
+        assertTrue(partition.get(0).getId() < partition.get(1).getId());
+        assertEquals(OutboxEventType.HOLD_CREATED, partition.get(0).getEventType());
+        assertEquals(OutboxEventType.HOLD_RELEASED, partition.get(1).getEventType());
+        assertEquals(OutboxAggregate.SEAT_HOLD, partition.get(1).getAggregateType());
+        assertTrue(partition.get(0).getPayload().contains("holdId"));
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 2: lote limitado y borrado
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("lockBatch debe respetar el límite y deleteByIds borrar solo lo publicado")
+    void testLockBatchAndDelete() {
+        insert(new Integer[]{4, 4, 4},
+                new String[]{"1", "2", "3"},
+                new String[]{"HOLD_CREATED", "HOLD_CREATED", "HOLD_CREATED"});
+
+        List<OutboxEvent> first = outboxEventRepository.lockBatch(4, 2);
+        assertEquals(2, first.size());
+
+        int deleted = outboxEventRepository.deleteByIds(first.stream().map(OutboxEvent::getId).toArray(Long[]::new));
+
+        assertEquals(2, deleted);
+        List<OutboxEvent> rest = outboxEventRepository.lockBatch(4, 10);
+        assertEquals(1, rest.size());
+        assertEquals("3", rest.get(0).getAggregateId());
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 3: candado de partición
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("tryLockPartition debe tomar el candado consultivo de la partición")
+    void testTryLockPartition() {
+        assertTrue(outboxEventRepository.tryLockPartition(7_310_001, 0));
+        // El candado es reentrante dentro de la misma transacción
+        assertTrue(outboxEventRepository.tryLockPartition(7_310_001, 0));
+    }
+}
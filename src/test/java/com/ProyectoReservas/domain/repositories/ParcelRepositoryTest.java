@@ -4,6 +4,9 @@ import com.ProyectoReservas.domain.entities.*;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -25,6 +28,12 @@ public class ParcelRepositoryTest extends BaseRepositoryTest {
     @Autowired
     private BusRepository busRepository;
 
+    @Autowired
+    private StopRepository stopRepository;
+
+    @Autowired
+    private ParcelStatusAuditRepository auditRepository;
+
     // -------------------------------------------------------------
     // HELPERS
     // -------------------------------------------------------------
@@ -146,4 +155,131 @@ public class ParcelRepositoryTest extends BaseRepositoryTest {
             parcelRepository.flush();
         });
     }
+
+    // -------------------------------------------------------------
+    // TEST 5: scrollByStatus (cursor created_at, id)
+    // -------------------------------------------------------------
+    @Test
+    @DisplayName("scrollByStatus debe recorrer todas las encomiendas sin repetir, aun con fechas empatadas")
+    void testScrollByStatus() {
+        Trip trip = buildTrip(buildRoute(), buildBus());
+        OffsetDateTime sameInstant = OffsetDateTime.now().minusHours(3);
+        for (int i = 1; i <= 5; i++) {
+            buildParcel(trip, "KS00" + i, ParcelStatus.IN_TRANSIT, i <= 3 ? sameInstant : sameInstant.plusHours(i));
+        }
+        buildParcel(trip, "KS-OTHER", ParcelStatus.DELIVERED, OffsetDateTime.now());
+
+        Window<Parcel> first = parcelRepository.scrollByStatus(ParcelStatus.IN_TRANSIT, ScrollPosition.keyset(), 2);
+        assertEquals(List.of("KS005", "KS004"), first.stream().map(Parcel::getCode).toList());
+        assertTrue(first.hasNext());
+
+        Window<Parcel> second = parcelRepository.scrollByStatus(ParcelStatus.IN_TRANSIT,
+                (KeysetScrollPosition) first.positionAt(1), 2);
+        Window<Parcel> third = parcelRepository.scrollByStatus(ParcelStatus.IN_TRANSIT,
+                (KeysetScrollPosition) second.positionAt(1), 2);
+
+        assertEquals(2, second.size());
+        assertEquals(1, third.size());
+        assertFalse(third.hasNext());
+        // Empatadas en created_at: desempata el id descendente
+        assertTrue(second.getContent().get(0).getId() > second.getContent().get(1).getId());
+        assertTrue(second.getContent().get(1).getId() > third.getContent().get(0).getId());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 6: transición por lotes con registro de auditoría
+    // -------------------------------------------------------------
+    @Test
+    @DisplayName("transitionByDestination debe mover solo las del destino alcanzado y auditar cada una")
+    void testTransitionByDestination() {
+        Route route = buildRoute();
+        Trip trip = buildTrip(route, buildBus());
+        Stop middle = stopRepository.save(Stop.builder().route(route).name("Intermedia").position(1).build());
+        Stop last = stopRepository.save(Stop.builder().route(route).name("Final").position(2).build());
+
+        Parcel toMiddle = buildParcel(trip, "TR001", ParcelStatus.IN_TRANSIT, OffsetDateTime.now());
+        toMiddle.setToStop(middle);
+        Parcel toLast = buildParcel(trip, "TR002", ParcelStatus.IN_TRANSIT, OffsetDateTime.now());
+        toLast.setToStop(last);
+        Parcel notBoarded = buildParcel(trip, "TR003", ParcelStatus.CREATED, OffsetDateTime.now());
+        notBoarded.setToStop(middle);
+        parcelRepository.flush();
+
+        OffsetDateTime at = OffsetDateTime.now();
+        List<String> codes = parcelRepository.transitionByDestination(trip.getId(), middle.getId(), false,
+                "IN_TRANSIT", "DELIVERED", at);
+
+        assertEquals(List.of("TR001"), codes);
+        assertEquals(ParcelStatus.DELIVERED, parcelRepository.findTrackingByCode("TR001").orElseThrow().status());
+        assertEquals(ParcelStatus.IN_TRANSIT, parcelRepository.findTrackingByCode("TR002").orElseThrow().status());
+        List<ParcelStatusAudit> audit = auditRepository.findByParcelIdOrderByChangedAtAscIdAsc(toMiddle.getId());
+        assertEquals(1, audit.size());
+        assertEquals(ParcelStatus.IN_TRANSIT, audit.get(0).getFromStatus());
+        assertEquals(ParcelStatus.DELIVERED, audit.get(0).getToStatus());
+        assertEquals(middle.getId(), audit.get(0).getStopId());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 7: transitionByOrigin (parada de salida y extremo abierto)
+    // -------------------------------------------------------------
+    @Test
+    @DisplayName("transitionByOrigin debe subir las de la parada de salida y, en la primera, las sin origen")
+    void testTransitionByOrigin() {
+        Route route = buildRoute();
+        Trip trip = buildTrip(route, buildBus());
+        Stop first = stopRepository.save(Stop.builder().route(route).name("Inicial").position(0).build());
+        Stop middle = stopRepository.save(Stop.builder().route(route).name("Intermedia").position(1).build());
+
+        buildParcel(trip, "OR001", ParcelStatus.CREATED, OffsetDateTime.now()).setFromStop(first);
+        buildParcel(trip, "OR002", ParcelStatus.CREATED, OffsetDateTime.now());
+        buildParcel(trip, "OR003", ParcelStatus.CREATED, OffsetDateTime.now()).setFromStop(middle);
+        parcelRepository.flush();
+
+        List<String> codes = parcelRepository.transitionByOrigin(trip.getId(), first.getId(), true,
+                "CREATED", "IN_TRANSIT", OffsetDateTime.now());
+
+        assertEquals(List.of("OR001", "OR002"), codes.stream().sorted().toList());
+        assertEquals(ParcelStatus.CREATED, parcelRepository.findTrackingByCode("OR003").orElseThrow().status());
+        assertEquals(2, auditRepository.findByTripIdOrderByChangedAtAscIdAsc(trip.getId()).size());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 8: transitionAll (sin parada)
+    // -------------------------------------------------------------
+    @Test
+    @DisplayName("transitionAll debe mover todas las del viaje en el estado indicado y auditar sin parada")
+    void testTransitionAll() {
+        Route route = buildRoute();
+        Trip trip = buildTrip(route, buildBus());
+        Trip other = buildTrip(route, buildBus());
+        buildParcel(trip, "AL001", ParcelStatus.IN_TRANSIT, OffsetDateTime.now());
+        buildParcel(trip, "AL002", ParcelStatus.DELIVERED, OffsetDateTime.now());
+        buildParcel(other, "AL003", ParcelStatus.IN_TRANSIT, OffsetDateTime.now());
+        parcelRepository.flush();
+
+        List<String> codes = parcelRepository.transitionAll(trip.getId(), "IN_TRANSIT", "FAILED", OffsetDateTime.now());
+
+        assertEquals(List.of("AL001"), codes);
+        assertEquals(ParcelStatus.IN_TRANSIT, parcelRepository.findTrackingByCode("AL003").orElseThrow().status());
+        List<ParcelStatusAudit> audit = auditRepository.findByTripIdOrderByChangedAtAscIdAsc(trip.getId());
+        assertEquals(1, audit.size());
+        assertNull(audit.get(0).getStopId());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 9: flush antes y contexto vacío después
+    // -------------------------------------------------------------
+    @Test
+    @DisplayName("Una transición debe ver los cambios sin escribir y no dejar entidades con el estado anterior")
+    void testTransitionFlushesAndClears() {
+        Trip trip = buildTrip(buildRoute(), buildBus());
+        Parcel parcel = buildParcel(trip, "FC001", ParcelStatus.CREATED, OffsetDateTime.now());
+        // Sin flush: la transición tiene que escribir antes este cambio para encontrar la encomienda
+        parcel.setStatus(ParcelStatus.IN_TRANSIT);
+
+        List<String> codes = parcelRepository.transitionAll(trip.getId(), "IN_TRANSIT", "DELIVERED", OffsetDateTime.now());
+
+        assertEquals(List.of("FC001"), codes);
+        assertEquals(ParcelStatus.DELIVERED, parcelRepository.findById(parcel.getId()).orElseThrow().getStatus());
+    }
 }
@@ -0,0 +1,181 @@
+package com.ProyectoReservas.domain.repositories;
+
+import com.ProyectoReservas.domain.entities.*;
+import com.ProyectoReservas.domain.projections.ManifestRow;
+import com.ProyectoReservas.domain.projections.ParcelListItem;
+import com.ProyectoReservas.domain.projections.TicketListItem;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Presupuesto de sentencias de las vistas de lectura: con asociaciones LAZY y proyecciones, el costo
+// no debe crecer con el número de filas (un viaje con 40 pasajeros y 30 encomiendas).
+public class ReadModelStatementBudgetTest extends BaseRepositoryTest {
+
+    private static final int PASSENGERS = 40;
+    private static final int PARCELS = 30;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ParcelRepository parcelRepository;
+
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private BusRepository busRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StopRepository stopRepository;
+
+    private StatementBudget budget;
+    private Trip trip;
+    private User passenger;
+    private Stop from;
+    private Stop to;
+
+    @BeforeEach
+    void setUp() {
+        budget = new StatementBudget(entityManager);
+        Route route = routeRepository.save(Route.builder()
+                .code("RT-BUD").name("Ruta Presupuesto").origin("Tunja").destination("Bogotá")
+                .distanceKm(BigDecimal.valueOf(150)).durationMin(180).build());
+        Bus bus = busRepository.save(Bus.builder()
+                .plate("BUD-001").capacity(PASSENGERS).status(BusStatus.ACTIVE).build());
+        trip = tripRepository.save(Trip.builder()
+                .route(route).bus(bus)
+                .departureAt(OffsetDateTime.now().plusDays(1))
+                .arrivalAt(OffsetDateTime.now().plusDays(1).plusHours(3))
+                .status(TripStatus.SCHEDULED).build());
+        from = stopRepository.save(Stop.builder().route(route).name("Tunja").position(1)
+                .lat(BigDecimal.ONE).lng(BigDecimal.ONE).build());
+        to = stopRepository.save(Stop.builder().route(route).name("Bogotá").position(2)
+                .lat(BigDecimal.ONE).lng(BigDecimal.ONE).build());
+
+        for (int seat = 1; seat <= PASSENGERS; seat++) {
+            User user = userRepository.save(User.builder()
+                    .name("Pasajero " + seat).email("pasajero" + seat + "@test.com").phone("300" + seat)
+                    .role(Role.PASSENGER).status(UserStatus.ACTIVE).passwordHash("1234").build());
+            passenger = user;
+            ticketRepository.save(Ticket.builder()
+                    .trip(trip).passenger(user).seatNumber(seat).fromStop(from).toStop(to)
+                    .price(BigDecimal.valueOf(50000)).paymentMethod(PaymentMethod.CASH)
+                    .status(TicketStatus.SOLD).qrCode("QR-" + seat).build());
+        }
+        for (int i = 1; i <= PARCELS; i++) {
+            parcelRepository.save(Parcel.builder()
+                    .code("BUD-" + i).trip(trip).fromStop(from).toStop(to)
+                    .senderName("Remitente " + i).senderPhone("301" + i)
+                    .receiverName("Destinatario " + i).receiverPhone("310" + i)
+                    .price(BigDecimal.valueOf(15000)).status(ParcelStatus.IN_TRANSIT).build());
+        }
+    }
+
+    // ---------------------------------------------------------
+    // TEST 1: manifiesto en una sentencia
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("El manifiesto de un viaje se arma con una sola sentencia")
+    void manifestIsOneStatement() {
+        List<ManifestRow> manifest = budget.assertAtMost(1, "findManifestByTrip",
+                () -> ticketRepository.findManifestByTrip(trip.getId()));
+
+        assertEquals(PASSENGERS, manifest.size());
+        assertEquals(1, manifest.get(0).seatNumber());
+        assertEquals("Pasajero 1", manifest.get(0).passengerName());
+        assertEquals("Tunja", manifest.get(0).fromStop());
+        assertEquals("Bogotá", manifest.get(0).toStop());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: listado paginado de tickets = página + conteo
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Una página de tickets cuesta la consulta de la página y la del total")
+    void ticketPageIsTwoStatements() {
+        Page<TicketListItem> page = budget.assertAtMost(2, "findTicketListByTrip",
+                () -> ticketRepository.findTicketListByTrip(trip.getId(), PageRequest.of(0, 10)));
+
+        assertEquals(10, page.getContent().size());
+        assertEquals(PASSENGERS, page.getTotalElements());
+        assertEquals("RT-BUD", page.getContent().get(0).routeCode());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 3: tickets de un pasajero
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Los tickets de un pasajero salen en una sentencia")
+    void passengerTicketsAreOneStatement() {
+        List<TicketListItem> tickets = budget.assertAtMost(1, "findTicketListByPassenger",
+                () -> ticketRepository.findTicketListByPassenger(passenger.getId()));
+
+        assertEquals(1, tickets.size());
+        assertEquals(trip.getId(), tickets.get(0).tripId());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 4: listados de encomiendas
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Los listados de encomiendas por estado y por viaje son una sentencia cada uno")
+    void parcelListsAreOneStatement() {
+        List<ParcelListItem> byStatus = budget.assertAtMost(1, "findParcelListByStatus",
+                () -> parcelRepository.findParcelListByStatus(ParcelStatus.IN_TRANSIT));
+        List<ParcelListItem> byTrip = budget.assertAtMost(1, "findParcelListByTrip",
+                () -> parcelRepository.findParcelListByTrip(trip.getId()));
+
+        assertEquals(PARCELS, byStatus.size());
+        assertEquals(PARCELS, byTrip.size());
+        assertEquals("Tunja", byTrip.get(0).fromStop());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 5: holds de una compra con todo lo que lee el checkout
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Los holds de una compra traen viaje, ruta y paradas sin consultas extra")
+    void checkoutHoldsAreOneStatement() {
+        List<Long> ids = new ArrayList<>();
+        for (int seat = 1; seat <= 4; seat++) {
+            ids.add(seatHoldRepository.save(SeatHold.builder()
+                    .trip(trip).seatNumber(seat).user(passenger).fromStop(from).toStop(to)
+                    .expiresAt(OffsetDateTime.now().plusMinutes(10)).status(HoldStatus.HOLD).build()).getId());
+        }
+
+        budget.assertAtMost(1, "findAllForCheckout + lectura de asociaciones", () -> {
+            List<SeatHold> holds = seatHoldRepository.findAllForCheckout(ids);
+            holds.forEach(hold -> {
+                hold.getTrip().getRoute().getCode();
+                hold.getFromStop().getPosition();
+                hold.getToStop().getPosition();
+            });
+            return holds;
+        });
+    }
+}
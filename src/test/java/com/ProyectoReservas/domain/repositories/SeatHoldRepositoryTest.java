@@ -3,6 +3,7 @@ package com.ProyectoReservas.domain.repositories;
 import com.ProyectoReservas.domain.entities.*;
 import com.ProyectoReservas.domain.entities.Role;
 import com.ProyectoReservas.domain.entities.UserStatus;
+import com.ProyectoReservas.domain.projections.SeatOccupancy;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -160,4 +162,53 @@ public class SeatHoldRepositoryTest extends BaseRepositoryTest {
             seatHoldRepository.flush();
         });
     }
+
+    // ------------------------------------------------------------------------
+    // TEST 4: findActiveHeldSeatSegments (JPQL)
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("findActiveHeldSeatSegments debe ignorar los holds expirados")
+    void testFindActiveHeldSeatSegments() {
+
+        User user = buildUser();
+        Route route = buildRoute();
+        Bus bus = buildBus();
+        Trip trip = buildTrip(route, bus);
+
+        seatHoldRepository.save(buildHold(trip, user, 3, OffsetDateTime.now().plusMinutes(10)));
+        seatHoldRepository.save(buildHold(trip, user, 4, OffsetDateTime.now().minusMinutes(1)));
+
+        List<SeatOccupancy> seats = seatHoldRepository.findActiveHeldSeatSegments(trip.getId());
+
+        assertEquals(1, seats.size());
+        assertEquals(3, seats.get(0).seatNumber());
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 5: expireHolds (UPDATE en bloque)
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("expireHolds debe pasar a EXPIRED solo los holds indicados y devolver sus ids")
+    void testExpireHolds() {
+
+        User user = buildUser();
+        Route route = buildRoute();
+        Bus bus = buildBus();
+        Trip trip = buildTrip(route, bus);
+
+        SeatHold h1 = seatHoldRepository.save(buildHold(trip, user, 1, OffsetDateTime.now().minusMinutes(1)));
+        SeatHold h2 = seatHoldRepository.save(buildHold(trip, user, 2, OffsetDateTime.now().minusMinutes(1)));
+        seatHoldRepository.save(buildHold(trip, user, 3, OffsetDateTime.now().plusMinutes(10)));
+        seatHoldRepository.flush();
+
+        List<Long> updated = seatHoldRepository.expireHolds(List.of(h1.getId(), h2.getId()));
+
+        assertEquals(Set.of(h1.getId(), h2.getId()), Set.copyOf(updated));
+        // Los que ya no están en HOLD no se vuelven a expirar
+        assertTrue(seatHoldRepository.expireHolds(List.of(h1.getId())).isEmpty());
+        assertEquals(List.of(trip.getId()), seatHoldRepository.findTripIdsByStatus(HoldStatus.EXPIRED));
+        assertEquals(1, seatHoldRepository.findByTripIdAndStatus(trip.getId(), HoldStatus.HOLD).size());
+        // El contexto de persistencia se vacía: el hold ya no sale de la caché de primer nivel en HOLD
+        assertEquals(HoldStatus.EXPIRED, seatHoldRepository.findById(h2.getId()).orElseThrow().getStatus());
+    }
 }
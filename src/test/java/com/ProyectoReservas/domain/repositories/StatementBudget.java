@@ -0,0 +1,34 @@
+package com.ProyectoReservas.domain.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cuenta las sentencias SQL que prepara Hibernate durante una llamada (hibernate.generate_statistics
+// en el perfil de test). Antes de medir se vacía el contexto de persistencia para que nada salga
+// de la caché de primer nivel y un N+1 se vea como N+1.
+final class StatementBudget {
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    StatementBudget(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    <T> T assertAtMost(long budget, String operation, Supplier<T> call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        T result = call.get();
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget,
+                operation + " ejecutó " + statements + " sentencias, presupuesto " + budget);
+        return result;
+    }
+}
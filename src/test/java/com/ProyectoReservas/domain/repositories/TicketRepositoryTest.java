@@ -3,15 +3,22 @@ package com.ProyectoReservas.domain.repositories;
 import com.ProyectoReservas.domain.entities.*;
 import com.ProyectoReservas.domain.entities.Role;
 import com.ProyectoReservas.domain.entities.UserStatus;
+import com.ProyectoReservas.domain.projections.ManifestRow;
+import com.ProyectoReservas.domain.projections.SeatOccupancy;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -32,6 +39,12 @@ public class TicketRepositoryTest extends BaseRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StopRepository stopRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     // ---------------------------------------------------------
     // HELPERS
     // ---------------------------------------------------------
@@ -242,4 +255,168 @@ public class TicketRepositoryTest extends BaseRepositoryTest {
             ticketRepository.flush();  // fuerza escritura
         });
     }
+
+    // ---------------------------------------------------------
+    // TEST 7: findSoldSeatSegmentsByTrip (JPQL)
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("findSoldSeatSegmentsByTrip debe devolver solo los asientos vendidos del trip")
+    void testFindSoldSeatSegmentsByTrip() {
+        Route route = buildRoute();
+        Bus bus = buildBus();
+        Trip trip = buildTrip(route, bus, OffsetDateTime.now().plusHours(1));
+        User user = buildUser("seats@test.com");
+
+        buildTicket(trip, user, 4);
+        buildTicket(trip, user, 7);
+        ticketRepository.save(
+                Ticket.builder()
+                        .trip(trip)
+                        .passenger(user)
+                        .seatNumber(9)
+                        .price(BigDecimal.valueOf(50000))
+                        .paymentMethod(PaymentMethod.CASH)
+                        .status(TicketStatus.CANCELLED)
+                        .purchasedAt(OffsetDateTime.now())
+                        .build()
+        );
+
+        List<SeatOccupancy> seats = ticketRepository.findSoldSeatSegmentsByTrip(trip.getId());
+
+        assertEquals(2, seats.size());
+        assertTrue(seats.stream().map(SeatOccupancy::seatNumber).toList().containsAll(List.of(4, 7)));
+        assertEquals(StopSegment.fullRoute(), seats.get(0).segment());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 8: venta por tramos (exclusión por solapamiento)
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un asiento debe poder venderse en tramos que no se solapan, pero no en tramos solapados")
+    void testSegmentTickets() {
+        Route route = buildRoute();
+        Bus bus = buildBus();
+        Trip trip = buildTrip(route, bus, OffsetDateTime.now().plusHours(1));
+        User user = buildUser("segments@test.com");
+        Stop s0 = stopRepository.save(Stop.builder().route(route).name("A").position(0).build());
+        Stop s2 = stopRepository.save(Stop.builder().route(route).name("B").position(2).build());
+        Stop s4 = stopRepository.save(Stop.builder().route(route).name("C").position(4).build());
+
+        ticketRepository.save(buildSegmentTicket(trip, user, 5, s0, s2));
+        ticketRepository.save(buildSegmentTicket(trip, user, 5, s2, s4));
+        ticketRepository.flush();
+
+        assertTrue(ticketRepository.existsOverlappingSoldTicket(trip.getId(), 5, 1, 3));
+        assertFalse(ticketRepository.existsOverlappingSoldTicket(trip.getId(), 5, 4, StopSegment.ROUTE_END));
+
+        assertThrows(Exception.class, () -> {
+            ticketRepository.save(buildSegmentTicket(trip, user, 5, s0, s4));
+            ticketRepository.flush();
+        });
+    }
+
+    // ---------------------------------------------------------
+    // TEST 9: manifiesto como Stream (cursor)
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("streamManifestByDepartureRange debe recorrer solo los SOLD del rango, por viaje y asiento")
+    void testStreamManifestByDepartureRange() {
+        Route route = buildRoute();
+        Bus bus = buildBus();
+        OffsetDateTime morning = OffsetDateTime.parse("2026-03-10T06:00:00-05:00");
+        Trip first = buildTrip(route, bus, morning);
+        Trip second = buildTrip(route, bus, morning.plusHours(4));
+        Trip nextDay = buildTrip(route, bus, morning.plusDays(1));
+        User user = buildUser("stream@test.com");
+
+        buildTicket(second, user, 1);
+        buildTicket(first, user, 2);
+        buildTicket(first, user, 1);
+        buildTicket(nextDay, user, 1);
+
+        List<ManifestRow> rows;
+        try (Stream<ManifestRow> stream = ticketRepository.streamManifestByDepartureRange(
+                morning.withHour(0), morning.withHour(0).plusDays(1))) {
+            rows = stream.toList();
+        }
+
+        assertEquals(3, rows.size());
+        assertEquals(first.getId(), rows.get(0).tripId());
+        assertEquals(1, rows.get(0).seatNumber());
+        assertEquals(2, rows.get(1).seatNumber());
+        assertEquals(second.getId(), rows.get(2).tripId());
+        assertEquals("RT-TK", rows.get(2).routeCode());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 10: scrollByTripId (cursor seat_number, id)
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("scrollByTripId debe paginar por asiento sin offset y marcar la última página")
+    void testScrollByTripId() {
+        Route route = buildRoute();
+        Bus bus = buildBus();
+        Trip trip = buildTrip(route, bus, OffsetDateTime.now().plusHours(1));
+        User user = buildUser("scroll@test.com");
+        for (int seat = 5; seat >= 1; seat--) {
+            buildTicket(trip, user, seat);
+        }
+
+        Window<Ticket> first = ticketRepository.scrollByTripId(trip.getId(), ScrollPosition.keyset(), 2);
+        Window<Ticket> second = ticketRepository.scrollByTripId(trip.getId(),
+                (KeysetScrollPosition) first.positionAt(first.size() - 1), 2);
+        Window<Ticket> last = ticketRepository.scrollByTripId(trip.getId(),
+                (KeysetScrollPosition) second.positionAt(second.size() - 1), 2);
+
+        assertEquals(List.of(1, 2), first.stream().map(Ticket::getSeatNumber).toList());
+        assertEquals(List.of(3, 4), second.stream().map(Ticket::getSeatNumber).toList());
+        assertEquals(List.of(5), last.stream().map(Ticket::getSeatNumber).toList());
+        assertTrue(second.hasNext());
+        assertFalse(last.hasNext());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 11: tramo recalculado con paradas LAZY sin cargar
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Cambiar la parada por un proxy sin cargar debe recalcular el tramo; un cambio de estado lo conserva")
+    void testSegmentRecomputedFromStopProxy() {
+        Route route = buildRoute();
+        Bus bus = buildBus();
+        Trip trip = buildTrip(route, bus, OffsetDateTime.now().plusHours(1));
+        User user = buildUser("proxy@test.com");
+        Stop s0 = stopRepository.save(Stop.builder().route(route).name("A").position(0).build());
+        stopRepository.save(Stop.builder().route(route).name("B").position(2).build());
+        Stop s4 = stopRepository.save(Stop.builder().route(route).name("C").position(4).build());
+        Ticket ticket = ticketRepository.saveAndFlush(buildSegmentTicket(trip, user, 5, s0, null));
+        entityManager.clear();
+
+        Ticket loaded = ticketRepository.findById(ticket.getId()).orElseThrow();
+        loaded.setToStop(stopRepository.getReferenceById(s4.getId()));
+        ticketRepository.flush();
+        entityManager.clear();
+
+        Ticket moved = ticketRepository.findById(ticket.getId()).orElseThrow();
+        assertEquals(StopSegment.of(0, 4), moved.getSegment());
+
+        moved.setStatus(TicketStatus.CANCELLED);
+        ticketRepository.flush();
+        entityManager.clear();
+
+        assertEquals(StopSegment.of(0, 4), ticketRepository.findById(ticket.getId()).orElseThrow().getSegment());
+    }
+
+    private Ticket buildSegmentTicket(Trip trip, User user, int seatNumber, Stop from, Stop to) {
+        return Ticket.builder()
+                .trip(trip)
+                .passenger(user)
+                .seatNumber(seatNumber)
+                .fromStop(from)
+                .toStop(to)
+                .price(BigDecimal.valueOf(20000))
+                .paymentMethod(PaymentMethod.CASH)
+                .status(TicketStatus.SOLD)
+                .purchasedAt(OffsetDateTime.now())
+                .build();
+    }
 }
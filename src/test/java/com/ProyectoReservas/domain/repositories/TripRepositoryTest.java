@@ -3,6 +3,7 @@ package com.ProyectoReservas.domain.repositories;
 import com.ProyectoReservas.domain.entities.*;
 import com.ProyectoReservas.domain.entities.Role;
 import com.ProyectoReservas.domain.entities.UserStatus;
+import com.ProyectoReservas.domain.projections.TripCapacity;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -158,23 +159,70 @@ public class TripRepositoryTest extends BaseRepositoryTest {
     }
 
     // ---------------------------------------------------------
-    // TEST 4: countOccupiedSeats (JPQL COUNT)
+    // TEST 4: findAvailableTripCapacities (listado con capacidad)
     // ---------------------------------------------------------
     @Test
-    @DisplayName("countOccupiedSeats debe contar correctamente las sillas vendidas")
-    void testCountOccupiedSeats() {
+    @DisplayName("findAvailableTripCapacities debe devolver los viajes programados con la capacidad de su bus")
+    void testFindAvailableTripCapacities() {
+        Route route = buildRoute();
+        Bus bus = buildBus();
+
+        OffsetDateTime from = OffsetDateTime.parse("2026-05-10T00:00:00-05:00");
+        Trip late = buildTrip(route, bus, from.plusHours(18), TripStatus.SCHEDULED);
+        Trip early = buildTrip(route, bus, from.plusHours(6), TripStatus.SCHEDULED);
+        buildTrip(route, bus, from.plusHours(12), TripStatus.CANCELLED);
+
+        var result = tripRepository.findAvailableTripCapacities(route.getId(), from, from.plusDays(1));
+
+        assertEquals(List.of(early.getId(), late.getId()), result.stream().map(TripCapacity::tripId).toList());
+        assertEquals(40, result.get(0).capacity());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 5: contadores desnormalizados y deriva
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("adjustOccupancy y findOccupancyDrift deben reflejar la deriva frente al conteo real")
+    void testOccupancyCounters() {
         Route route = buildRoute();
         Bus bus = buildBus();
         User user = buildUser();
 
         Trip trip = buildTrip(route, bus, OffsetDateTime.now().plusHours(2), TripStatus.SCHEDULED);
-
         buildTicket(trip, user, 1);
         buildTicket(trip, user, 2);
-        buildTicket(trip, user, 3);
 
-        long count = tripRepository.countOccupiedSeats(trip.getId());
+        tripRepository.adjustOccupancy(trip.getId(), 3, 0);
+
+        var occupancy = tripRepository.findOccupancyByIds(List.of(trip.getId()));
+        assertEquals(3, occupancy.get(0).soldCount());
+
+        var drift = tripRepository.findOccupancyDrift(List.of(TripStatus.SCHEDULED));
+        assertEquals(1, drift.size());
+        assertTrue(drift.get(0).hasDrift());
+        assertEquals(2L, drift.get(0).actualSold());
+
+        assertEquals(1, tripRepository.resetOccupancy(trip.getId(), 2, 0, 3, 0));
+        assertFalse(tripRepository.findOccupancyDrift(List.of(TripStatus.SCHEDULED)).get(0).hasDrift());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 6: findAvailableTrips por rango semiabierto
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("findAvailableTrips debe incluir el inicio del rango y excluir el final")
+    void testFindAvailableTripsHalfOpenRange() {
+        Route route = buildRoute();
+        Bus bus = buildBus();
+
+        OffsetDateTime from = OffsetDateTime.parse("2026-05-10T00:00:00-05:00");
+        Trip atStart = buildTrip(route, bus, from, TripStatus.SCHEDULED);
+        Trip lastMinute = buildTrip(route, bus, from.plusHours(23).plusMinutes(59), TripStatus.SCHEDULED);
+        buildTrip(route, bus, from.plusDays(1), TripStatus.SCHEDULED);
+        buildTrip(route, bus, from.plusHours(12), TripStatus.CANCELLED);
+
+        List<Trip> result = tripRepository.findAvailableTrips(route.getId(), from, from.plusDays(1));
 
-        assertEquals(3, count);
+        assertEquals(List.of(atStart.getId(), lastMinute.getId()), result.stream().map(Trip::getId).toList());
     }
 }
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -159,12 +160,78 @@ public class UserRepositoryTest extends BaseRepositoryTest {
 
         userRepository.saveAll(List.of(u1, u2, u3));
 
-        List<User> result1 = userRepository.searchUsers("ana");
-        List<User> result2 = userRepository.searchUsers("3101");
-        List<User> result3 = userRepository.searchUsers("carlos");
+        List<User> result1 = userRepository.searchUsers("ana", 10, 0);
+        List<User> result2 = userRepository.searchUsers("3101", 10, 0);
+        List<User> result3 = userRepository.searchUsers("carlos", 10, 0);
 
         assertEquals(1, result1.size());
         assertEquals(1, result2.size());
         assertEquals(1, result3.size());
     }
+
+    @Test
+    @DisplayName("searchUsers tolera errores de tipeo y ordena por parecido")
+    void searchUsersTypoTolerant() {
+        User exact = buildUser("Valentina Rodriguez", "vale@ex.com", "3200000001", Role.PASSENGER, UserStatus.ACTIVE);
+        User other = buildUser("Valentín Torres", "vtorres@ex.com", "3200000002", Role.PASSENGER, UserStatus.ACTIVE);
+        User unrelated = buildUser("Pedro Gómez", "pedro@ex.com", "3200000003", Role.PASSENGER, UserStatus.ACTIVE);
+        userRepository.saveAll(List.of(exact, other, unrelated));
+
+        List<User> typo = userRepository.searchUsers("rodrigez", 10, 0);
+        List<User> ranked = userRepository.searchUsers("valentina", 10, 0);
+
+        assertEquals(List.of(exact.getId()), typo.stream().map(User::getId).toList());
+        assertEquals(exact.getId(), ranked.get(0).getId());
+        assertFalse(ranked.stream().anyMatch(u -> u.getId().equals(unrelated.getId())));
+    }
+
+    @Test
+    @DisplayName("searchUsers pagina por prefijo de teléfono en orden de teléfono")
+    void searchUsersPhonePrefixPages() {
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(buildUser("Cliente " + i, "cliente" + i + "@ex.com", "315555000" + i,
+                    Role.PASSENGER, UserStatus.ACTIVE));
+        }
+        userRepository.save(buildUser("Otro", "otro@ex.com", "3165550000", Role.PASSENGER, UserStatus.ACTIVE));
+
+        List<User> first = userRepository.searchUsers("315 555", 3, 0);
+        List<User> second = userRepository.searchUsers("315 555", 3, 3);
+
+        assertEquals(List.of("3155550000", "3155550001", "3155550002"), first.stream().map(User::getPhone).toList());
+        assertEquals(List.of("3155550003", "3155550004"), second.stream().map(User::getPhone).toList());
+    }
+
+    @Test
+    @DisplayName("searchUsers con dígitos también encuentra el número en medio del teléfono, el nombre o el email")
+    void searchUsersDigitsAnywhere() {
+        User prefix = buildUser("Cliente", "cliente@ex.com", "3177770000", Role.PASSENGER, UserStatus.ACTIVE);
+        User middle = buildUser("Medio", "medio@ex.com", "3001777000", Role.PASSENGER, UserStatus.ACTIVE);
+        User email = buildUser("Correo", "ventas3177@ex.com", "3000000000", Role.PASSENGER, UserStatus.ACTIVE);
+        User other = buildUser("Otro", "otro@ex.com", "3190000000", Role.PASSENGER, UserStatus.ACTIVE);
+        userRepository.saveAll(List.of(prefix, middle, email, other));
+
+        List<User> result = userRepository.searchUsers("3177", 10, 0);
+
+        // Primero los que empiezan por el número, luego el resto en orden de teléfono
+        assertEquals(List.of(prefix.getId(), email.getId(), middle.getId()), result.stream().map(User::getId).toList());
+    }
+
+    @Test
+    @DisplayName("searchUsers completa con la búsqueda por contenido la página donde se acaban los prefijos")
+    void searchUsersPrefixThenContainmentPages() {
+        for (int i = 0; i < 4; i++) {
+            userRepository.save(buildUser("Prefijo " + i, "prefijo" + i + "@ex.com", "318888000" + i,
+                    Role.PASSENGER, UserStatus.ACTIVE));
+            userRepository.save(buildUser("Medio " + i, "medio" + i + "@ex.com", "300318888" + i,
+                    Role.PASSENGER, UserStatus.ACTIVE));
+        }
+
+        List<String> pages = new ArrayList<>();
+        for (int offset = 0; offset < 9; offset += 3) {
+            userRepository.searchUsers("318888", 3, offset).forEach(user -> pages.add(user.getPhone()));
+        }
+
+        assertEquals(List.of("3188880000", "3188880001", "3188880002", "3188880003",
+                "3003188880", "3003188881", "3003188882", "3003188883"), pages);
+    }
 }
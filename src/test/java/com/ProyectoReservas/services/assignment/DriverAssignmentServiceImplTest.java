@@ -0,0 +1,228 @@
+package com.ProyectoReservas.services.assignment;
+
+import com.ProyectoReservas.domain.entities.Role;
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.domain.projections.DriverDuty;
+import com.ProyectoReservas.domain.projections.TripSchedule;
+import com.ProyectoReservas.domain.repositories.AssignmentRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DriverAssignmentServiceImplTest {
+
+    private static final ZoneOffset ZONE = ZoneOffset.ofHours(-5);
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+    private static final OffsetDateTime MIDNIGHT = DAY.atStartOfDay().atOffset(ZONE);
+    private static final Instant NOW = Instant.parse("2026-03-09T12:00:00Z");
+
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AssignmentRepository assignmentRepository;
+
+    private DriverAssignmentServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DriverAssignmentServiceImpl(tripRepository, userRepository, assignmentRepository,
+                Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static TripSchedule trip(long id, String origin, String destination, int departHour, int hours) {
+        OffsetDateTime departure = MIDNIGHT.plusHours(departHour);
+        return new TripSchedule(id, 1L, origin, destination, "America/Bogota", departure, departure.plusHours(hours));
+    }
+
+    private static DriverDuty duty(long driverId, String origin, String destination, OffsetDateTime departure, int hours) {
+        return new DriverDuty(driverId, 900L + driverId, origin, destination, departure, departure.plusHours(hours));
+    }
+
+    private static User driver(long id) {
+        return User.builder().id(id).name("Conductor " + id).email(id + "@test.com")
+                .role(Role.DRIVER).passwordHash("hash").build();
+    }
+
+    private void given(List<TripSchedule> trips, List<Long> driverIds, List<DriverDuty> duties) {
+        when(tripRepository.findUnassignedSchedulesBetween(MIDNIGHT, MIDNIGHT.plusDays(1))).thenReturn(trips);
+        when(userRepository.findActiveDrivers()).thenReturn(driverIds.stream().map(DriverAssignmentServiceImplTest::driver).toList());
+        when(assignmentRepository.findDutiesBetween(any(), any())).thenReturn(duties);
+    }
+
+    private static Map<Long, Long> driverByTrip(AssignmentPlan plan) {
+        Map<Long, Long> drivers = new HashMap<>();
+        plan.assignments().forEach(a -> drivers.put(a.tripId(), a.driverId()));
+        return drivers;
+    }
+
+    // ---------------------------------------------------------
+    // TEST 1: descanso mínimo
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un conductor solo encadena viajes si entre llegada y salida hay descanso mínimo")
+    void respectsRestTime() {
+        given(List.of(
+                trip(1, "Bogotá", "Tunja", 6, 3),       // llega 09:00
+                trip(2, "Tunja", "Bogotá", 9, 3),       // sale sin descanso
+                trip(3, "Tunja", "Bogotá", 10, 3)),     // sale con una hora de descanso
+                List.of(10L), List.of());
+
+        AssignmentPlan plan = service.plan(DAY, ZONE);
+
+        Map<Long, Long> drivers = driverByTrip(plan);
+        assertEquals(10L, drivers.get(1L));
+        assertEquals(10L, drivers.get(3L));
+        assertEquals(List.of(2L), plan.unassignedTripIds());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: preferencia por la ciudad de salida
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Se prefiere al conductor que ya está en la ciudad de salida, aunque tenga id mayor")
+    void prefersDriverAtDepartureCity() {
+        // El 20 terminó ayer en Medellín; el 30 en Cali. El 10 no tiene viajes previos.
+        given(List.of(trip(1, "Medellín", "Bogotá", 8, 8), trip(2, "cali ", "Pasto", 9, 8)),
+                List.of(10L, 20L, 30L),
+                List.of(duty(20L, "Bogotá", "Medellin", MIDNIGHT.minusHours(10), 8),
+                        duty(30L, "Pasto", "Cali", MIDNIGHT.minusHours(12), 8)));
+
+        AssignmentPlan plan = service.plan(DAY, ZONE);
+
+        Map<Long, Long> drivers = driverByTrip(plan);
+        assertEquals(20L, drivers.get(1L));
+        assertEquals(30L, drivers.get(2L));
+        assertEquals(2, plan.atDepartureCity());
+    }
+
+    @Test
+    @DisplayName("Sin nadie en la ciudad, va primero un conductor sin viajes antes que uno de otra ciudad")
+    void prefersUnplacedDriverOverDriverElsewhere() {
+        given(List.of(trip(1, "Bogotá", "Tunja", 8, 3)),
+                List.of(10L, 20L),
+                List.of(duty(10L, "Bogotá", "Neiva", MIDNIGHT.minusHours(10), 5)));
+
+        AssignmentPlan plan = service.plan(DAY, ZONE);
+
+        assertEquals(20L, driverByTrip(plan).get(1L));
+        assertEquals(0, plan.atDepartureCity());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 3: viajes ya asignados
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Los viajes ya asignados bloquean al conductor, también los de mañana temprano")
+    void existingDutiesBlockDriver() {
+        given(List.of(trip(1, "Bogotá", "Tunja", 12, 3), trip(2, "Bogotá", "Tunja", 22, 3)),
+                List.of(10L),
+                List.of(duty(10L, "Bogotá", "Ibagué", MIDNIGHT.plusHours(11), 4),
+                        duty(10L, "Tunja", "Bogotá", MIDNIGHT.plusHours(25).plusMinutes(30), 3)));
+
+        AssignmentPlan plan = service.plan(DAY, ZONE);
+
+        assertTrue(plan.assignments().isEmpty());
+        assertEquals(List.of(1L, 2L), plan.unassignedTripIds());
+        verify(assignmentRepository).findDutiesBetween(MIDNIGHT.minusHours(24), MIDNIGHT.plusHours(26));
+    }
+
+    @Test
+    @DisplayName("Sin viajes pendientes no se consultan conductores")
+    void noTripsNoWork() {
+        when(tripRepository.findUnassignedSchedulesBetween(any(), any())).thenReturn(List.of());
+
+        assertSame(AssignmentPlan.EMPTY, service.plan(DAY, ZONE));
+        verifyNoInteractions(userRepository, assignmentRepository);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 4: guardado en un solo INSERT
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("assignDay guarda todo el plan con un único insertAll")
+    void assignDayInsertsOnce() {
+        given(List.of(trip(1, "Bogotá", "Tunja", 6, 3), trip(2, "Tunja", "Bogotá", 10, 3)),
+                List.of(10L), List.of());
+        when(assignmentRepository.insertAll(any(), any(), any(), any(), anyLong())).thenReturn(2);
+
+        AssignmentPlan plan = service.assignDay(DAY, ZONE, 5L);
+
+        assertEquals(2, plan.assignments().size());
+        InOrder order = inOrder(assignmentRepository);
+        order.verify(assignmentRepository).lockDrivers(DriverAssignmentServiceImpl.DRIVER_LOCK_KEY, new Long[]{10L, 10L});
+        order.verify(assignmentRepository).insertAll(new Long[]{1L, 2L}, new Long[]{10L, 10L}, 5L,
+                OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC), 3600L);
+        verify(assignmentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Si otro despachador asignó un viaje mientras tanto, el plan se rechaza")
+    void assignDayRejectsStalePlan() {
+        given(List.of(trip(1, "Bogotá", "Tunja", 6, 3), trip(2, "Tunja", "Bogotá", 10, 3)),
+                List.of(10L), List.of());
+        when(assignmentRepository.insertAll(any(), any(), any(), any(), anyLong())).thenReturn(1);
+
+        BusinessException error = assertThrows(BusinessException.class, () -> service.assignDay(DAY, ZONE, 5L));
+        assertEquals("ASSIGNMENT_PLAN_STALE", error.getCode());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 5: muchos viajes, ningún choque
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Con miles de viajes ningún conductor queda con viajes sin descanso entre ellos")
+    void largePlanIsConflictFree() {
+        Random random = new Random(7);
+        List<TripSchedule> trips = new ArrayList<>();
+        for (long id = 1; id <= 3_000; id++) {
+            OffsetDateTime departure = MIDNIGHT.plusMinutes(random.nextInt(24 * 60));
+            trips.add(new TripSchedule(id, 1L, "Ciudad " + random.nextInt(40), "Ciudad " + random.nextInt(40),
+                    "America/Bogota", departure, departure.plusMinutes(60 + random.nextInt(600))));
+        }
+        given(trips, LongStream.rangeClosed(1, 700).boxed().toList(), List.of());
+
+        AssignmentPlan plan = service.plan(DAY, ZONE);
+
+        assertEquals(trips.size(), plan.assignments().size() + plan.unassignedTripIds().size());
+        Map<Long, TripSchedule> byId = new HashMap<>();
+        trips.forEach(t -> byId.put(t.tripId(), t));
+        Map<Long, List<TripSchedule>> byDriver = new HashMap<>();
+        for (DriverAssignment assignment : plan.assignments()) {
+            byDriver.computeIfAbsent(assignment.driverId(), d -> new ArrayList<>()).add(byId.get(assignment.tripId()));
+        }
+        for (List<TripSchedule> duties : byDriver.values()) {
+            duties.sort((a, b) -> a.departureAt().compareTo(b.departureAt()));
+            for (int i = 1; i < duties.size(); i++) {
+                assertFalse(duties.get(i).departureAt().isBefore(duties.get(i - 1).arrivalAt().plusHours(1)));
+            }
+        }
+        assertTrue(plan.atDepartureCity() > 0);
+    }
+}
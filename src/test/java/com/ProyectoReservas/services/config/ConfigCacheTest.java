@@ -0,0 +1,120 @@
+package com.ProyectoReservas.services.config;
+
+import com.ProyectoReservas.domain.entities.Config;
+import com.ProyectoReservas.domain.repositories.ConfigRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConfigCacheTest {
+
+    @Mock
+    private ConfigRepository configRepository;
+
+    private ConfigCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ConfigCache(configRepository);
+    }
+
+    private static Config config(String key, String value) {
+        return Config.builder().key(key).value(value).build();
+    }
+
+    // TEST 1: valores por defecto
+    @Test
+    @DisplayName("Antes de cargar la tabla usa los valores por defecto sin consultar")
+    void defaultsBeforeLoad() {
+        assertEquals(Duration.ofMinutes(10), cache.holdDuration());
+        assertEquals(BigDecimal.valueOf(20), cache.baggageFreeKg());
+        assertEquals(0, cache.overbookingPercent());
+        verifyNoInteractions(configRepository);
+    }
+
+    // TEST 2: valores tipados
+    @Test
+    @DisplayName("Convierte los valores de la tabla a su tipo una sola vez")
+    void parsesTypedValues() {
+        when(configRepository.findContentVersion()).thenReturn("v1");
+        when(configRepository.findAll()).thenReturn(List.of(
+                config(ConfigSnapshot.HOLD_MINUTES, "15"),
+                config(ConfigSnapshot.BAGGAGE_FREE_KG, "23.5"),
+                config(ConfigSnapshot.BAGGAGE_FEE_PER_KG, "3000"),
+                config(ConfigSnapshot.OVERBOOKING_PERCENT, " 5 "),
+                config("app.name", "Reservas")));
+
+        cache.reload();
+
+        assertEquals(Duration.ofMinutes(15), cache.holdDuration());
+        assertEquals(new BigDecimal("23.5"), cache.baggageFreeKg());
+        assertEquals(new BigDecimal("3000"), cache.baggageFeePerKg());
+        assertEquals(5, cache.overbookingPercent());
+        assertEquals("Reservas", cache.snapshot().value("app.name").orElseThrow());
+        assertSame(cache.holdDuration(), cache.holdDuration());
+    }
+
+    // TEST 3: valores inválidos
+    @Test
+    @DisplayName("Un valor inválido o fuera de rango toma el valor por defecto")
+    void invalidValuesFallBack() {
+        when(configRepository.findContentVersion()).thenReturn("v1");
+        when(configRepository.findAll()).thenReturn(List.of(
+                config(ConfigSnapshot.HOLD_MINUTES, "diez"),
+                config(ConfigSnapshot.BAGGAGE_FEE_PER_KG, "-1"),
+                config(ConfigSnapshot.OVERBOOKING_PERCENT, "250")));
+
+        cache.reload();
+
+        assertEquals(Duration.ofMinutes(10), cache.holdDuration());
+        assertEquals(BigDecimal.valueOf(2500), cache.baggageFeePerKg());
+        assertEquals(0, cache.overbookingPercent());
+    }
+
+    // TEST 4: consulta periódica
+    @Test
+    @DisplayName("Solo recarga las filas cuando cambia la huella del contenido")
+    void pollReloadsOnlyOnNewVersion() {
+        when(configRepository.findContentVersion()).thenReturn("v1", "v1", "v1", "v2", "v2");
+        when(configRepository.findAll())
+                .thenReturn(List.of(config(ConfigSnapshot.HOLD_MINUTES, "10")))
+                .thenReturn(List.of(config(ConfigSnapshot.HOLD_MINUTES, "20")));
+
+        cache.reload();
+        ConfigSnapshot first = cache.snapshot();
+        cache.poll();
+        cache.poll();
+        assertSame(first, cache.snapshot());
+
+        cache.poll();
+        assertEquals(Duration.ofMinutes(20), cache.holdDuration());
+        assertEquals("v2", cache.snapshot().version());
+        verify(configRepository, times(2)).findAll();
+    }
+
+    // TEST 5: base de datos caída
+    @Test
+    @DisplayName("Si la base no responde se sigue con la copia vigente")
+    void pollKeepsSnapshotOnFailure() {
+        when(configRepository.findContentVersion()).thenReturn("v1")
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"));
+        when(configRepository.findAll()).thenReturn(List.of(config(ConfigSnapshot.HOLD_MINUTES, "12")));
+
+        cache.reload();
+        assertDoesNotThrow(() -> cache.poll());
+
+        assertEquals(Duration.ofMinutes(12), cache.holdDuration());
+    }
+}
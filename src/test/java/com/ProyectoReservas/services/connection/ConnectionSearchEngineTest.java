@@ -0,0 +1,117 @@
+package com.ProyectoReservas.services.connection;
+
+import com.ProyectoReservas.domain.projections.StopPoint;
+import com.ProyectoReservas.domain.projections.TripSchedule;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionSearchEngineTest {
+
+    private static final ZoneOffset BOGOTA = ZoneOffset.ofHours(-5);
+    private static final OffsetDateTime DAY = OffsetDateTime.of(2026, 4, 10, 0, 0, 0, 0, BOGOTA);
+
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private StopRepository stopRepository;
+
+    private ConnectionSearchEngine engine;
+
+    private static TripSchedule trip(long tripId, long routeId, String origin, String destination,
+                                     int departureHour, int departureMinute, int arrivalHour) {
+        return new TripSchedule(tripId, routeId, origin, destination, "America/Bogota",
+                DAY.withHour(departureHour).withMinute(departureMinute), DAY.withHour(arrivalHour));
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Ruta 1 con parada intermedia; ruta 2 sin paradas registradas (va directa de origen a destino)
+        when(stopRepository.findAllStopPoints()).thenReturn(List.of(
+                new StopPoint(1L, 0, "Bogotá"), new StopPoint(1L, 1, "Ibagué"), new StopPoint(1L, 2, "Armenia"),
+                new StopPoint(3L, 0, "bogota "), new StopPoint(3L, 1, "Cali")));
+        when(tripRepository.findSchedulesBetween(any(), any())).thenReturn(List.of(
+                trip(10L, 1L, "Bogotá", "Armenia", 8, 0, 14),
+                trip(20L, 2L, "Armenia", "Cali", 14, 10, 17),
+                trip(21L, 2L, "Armenia", "Cali", 14, 30, 18),
+                trip(30L, 3L, "Bogotá", "Cali", 9, 0, 21)));
+        engine = new ConnectionSearchEngine(tripRepository, stopRepository,
+                Clock.fixed(Instant.parse("2026-04-09T12:00:00Z"), ZoneOffset.UTC));
+        engine.rebuild();
+    }
+
+    @Test
+    @DisplayName("search debe devolver el directo y el itinerario con transbordo que llega antes")
+    void testParetoItineraries() {
+        List<Itinerary> result = engine.search("Bogota", "CALI", DAY.withHour(7));
+
+        assertEquals(2, result.size());
+        Itinerary direct = result.get(0);
+        assertEquals(0, direct.transfers());
+        assertEquals(30L, direct.legs().get(0).tripId());
+
+        Itinerary withTransfer = result.get(1);
+        assertEquals(1, withTransfer.transfers());
+        // El de las 14:10 no alcanza: el transbordo mínimo es de 15 minutos
+        assertEquals(List.of(10L, 21L), withTransfer.legs().stream().map(Leg::tripId).toList());
+        assertEquals(DAY.withHour(18), withTransfer.arrivalAt());
+        assertEquals("Armenia", withTransfer.legs().get(0).toStation());
+
+        assertEquals(withTransfer, engine.earliestArrival("Bogota", "Cali", DAY.withHour(7)).orElseThrow());
+        assertEquals(direct, engine.fewestTransfers("Bogota", "Cali", DAY.withHour(7)).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Un tramo intermedio debe conservar las posiciones de las paradas para retener el asiento")
+    void testIntermediateStop() {
+        Itinerary itinerary = engine.earliestArrival("Ibagué", "Armenia", DAY.withHour(7)).orElseThrow();
+
+        Leg leg = itinerary.legs().get(0);
+        assertEquals(1, leg.fromPosition());
+        assertEquals(2, leg.toPosition());
+        assertEquals(DAY.withHour(11), leg.departureAt());
+    }
+
+    @Test
+    @DisplayName("Los viajes cancelados y los nuevos deben aplicarse sin reconstruir el horario")
+    void testIncrementalChanges() {
+        int before = engine.connectionCount();
+        when(tripRepository.findSchedulesByIds(anyCollection()))
+                .thenReturn(List.of(trip(22L, 2L, "Armenia", "Cali", 14, 20, 16)));
+
+        engine.onTripChanged(30L);
+        engine.onTripChanged(22L);
+        engine.applyChanges();
+
+        List<Itinerary> result = engine.search("Bogotá", "Cali", DAY.withHour(7));
+        assertEquals(1, result.size());
+        assertEquals(List.of(10L, 22L), result.get(0).legs().stream().map(Leg::tripId).toList());
+        assertEquals(before, engine.connectionCount());
+        verify(tripRepository, times(1)).findSchedulesBetween(any(), any());
+    }
+
+    @Test
+    @DisplayName("Una estación desconocida o sin conexión debe devolver una lista vacía")
+    void testNoItinerary() {
+        assertTrue(engine.search("Bogotá", "Pasto", DAY.withHour(7)).isEmpty());
+        assertTrue(engine.search("Cali", "Bogotá", DAY.withHour(7)).isEmpty());
+        assertTrue(engine.search("Bogotá", "Cali", DAY.withHour(22)).isEmpty());
+    }
+}
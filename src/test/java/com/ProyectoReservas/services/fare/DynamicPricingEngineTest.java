@@ -0,0 +1,94 @@
+package com.ProyectoReservas.services.fare;
+
+import com.ProyectoReservas.domain.entities.Route;
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.projections.FareCell;
+import com.ProyectoReservas.domain.repositories.FareRuleRepository;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DynamicPricingEngineTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Mock
+    private FareRuleRepository fareRuleRepository;
+    @Mock
+    private StopRepository stopRepository;
+    @Mock
+    private SeatAvailabilityEngine availabilityEngine;
+
+    private DynamicPricingEngine pricingEngine;
+
+    private final Route route = Route.builder().id(1L).build();
+    private final Stop first = Stop.builder().id(10L).route(route).position(0).build();
+    private final Stop middle = Stop.builder().id(11L).route(route).position(1).build();
+    private final Stop last = Stop.builder().id(12L).route(route).position(2).build();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stopRepository.findByRouteIdOrderByPositionAsc(1L)).thenReturn(List.of(first, middle, last));
+        lenient().when(fareRuleRepository.findFareCellsByRoute(1L)).thenReturn(List.of(
+                new FareCell(0, 1, new BigDecimal("10000.00"), false),
+                new FareCell(1, 2, new BigDecimal("20000.00"), true)));
+        FareMatrixCache cache = new FareMatrixCache(fareRuleRepository, stopRepository);
+        pricingEngine = new DynamicPricingEngine(cache, availabilityEngine, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private Trip tripDepartingIn(Duration untilDeparture) {
+        return Trip.builder().id(7L).route(route)
+                .departureAt(OffsetDateTime.ofInstant(NOW.plus(untilDeparture), ZoneOffset.UTC)).build();
+    }
+
+    @Test
+    @DisplayName("Las tarifas sin dynamicPricing deben cotizarse a basePrice sin leer la ocupación")
+    void testStaticFare() {
+        assertEquals(new BigDecimal("10000.00"), pricingEngine.quote(tripDepartingIn(Duration.ofHours(2)), first, middle));
+        verifyNoInteractions(availabilityEngine);
+    }
+
+    @Test
+    @DisplayName("La ocupación y la cercanía de la salida deben subir el precio dinámico")
+    void testDynamicFare() {
+        when(availabilityEngine.loadFactor(eq(7L), any())).thenReturn(0.75);
+
+        // 75 % de ocupación: +20 %; salida en 3 días: sin ajuste por tiempo
+        assertEquals(new BigDecimal("24000.00"), pricingEngine.quote(tripDepartingIn(Duration.ofDays(3)), middle, last));
+        // Mismo viaje en las últimas 6 h: +20 % adicional
+        assertEquals(new BigDecimal("28000.00"), pricingEngine.quote(tripDepartingIn(Duration.ofHours(5)), middle, last));
+        // El tramo completo hereda el precio dinámico del tramo 1 -> 2
+        assertEquals(new BigDecimal("42000.00"), pricingEngine.quote(tripDepartingIn(Duration.ofHours(5)), null, null));
+        verify(availabilityEngine, times(2)).loadFactor(7L, StopSegment.of(1, 2));
+    }
+
+    @Test
+    @DisplayName("El factor debe quedar entre el mínimo y el máximo configurados")
+    void testFactorBounds() {
+        assertEquals(9_000, DynamicPricingEngine.factorBps(100, Duration.ofDays(30).toSeconds()));
+        assertEquals(10_000, DynamicPricingEngine.factorBps(500, Duration.ofDays(5).toSeconds()));
+        assertEquals(16_000, DynamicPricingEngine.factorBps(1000, Duration.ofHours(1).toSeconds()));
+        assertEquals(10_000, DynamicPricingEngine.factorBps(0, -60));
+        assertEquals(12_346, DynamicPricingEngine.apply(12_345, 10_001));
+    }
+}
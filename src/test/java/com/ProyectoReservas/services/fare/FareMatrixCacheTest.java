@@ -0,0 +1,97 @@
+package com.ProyectoReservas.services.fare;
+
+import com.ProyectoReservas.domain.entities.Route;
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.projections.FareCell;
+import com.ProyectoReservas.domain.repositories.FareRuleRepository;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FareMatrixCacheTest {
+
+    @Mock
+    private FareRuleRepository fareRuleRepository;
+    @Mock
+    private StopRepository stopRepository;
+
+    @InjectMocks
+    private FareMatrixCache cache;
+
+    private final Route route = Route.builder().id(1L).build();
+    private final List<Stop> stops = List.of(
+            Stop.builder().id(10L).route(route).position(0).build(),
+            Stop.builder().id(11L).route(route).position(1).build(),
+            Stop.builder().id(12L).route(route).position(2).build(),
+            Stop.builder().id(13L).route(route).position(3).build());
+
+    @BeforeEach
+    void setUp() {
+        when(stopRepository.findByRouteIdOrderByPositionAsc(1L)).thenReturn(stops);
+        when(fareRuleRepository.findFareCellsByRoute(1L)).thenReturn(List.of(
+                new FareCell(0, 1, new BigDecimal("10000.00"), false),
+                new FareCell(1, 2, new BigDecimal("12000.50"), true),
+                new FareCell(2, 3, new BigDecimal("8000.00"), false),
+                new FareCell(0, 3, new BigDecimal("25000.00"), false)));
+    }
+
+    @Test
+    @DisplayName("Las tarifas configuradas deben salir de la matriz sin volver a consultar")
+    void testConfiguredFares() {
+        assertEquals(1_000_000, cache.priceCents(1L, 0, 1));
+        assertEquals(new BigDecimal("25000.00"), cache.price(1L, (Stop) null, null));
+        assertEquals(new BigDecimal("12000.50"), cache.price(1L, 11L, 12L));
+
+        verify(fareRuleRepository, times(1)).findFareCellsByRoute(1L);
+        verify(stopRepository, times(1)).findByRouteIdOrderByPositionAsc(1L);
+    }
+
+    @Test
+    @DisplayName("Los pares sin tarifa deben completarse con los tramos contiguos")
+    void testFilledFares() {
+        assertEquals(2_200_050, cache.priceCents(1L, 0, 2));
+        assertEquals(2_000_050, cache.priceCents(1L, 1, 3));
+        assertThrows(ResourceNotFoundException.class, () -> cache.priceCents(1L, 3, 0));
+    }
+
+    @Test
+    @DisplayName("invalidate debe forzar la recarga de la ruta")
+    void testInvalidate() {
+        cache.priceCents(1L, 0, 1);
+        cache.invalidate(1L);
+        cache.priceCents(1L, 0, 1);
+
+        verify(fareRuleRepository, times(2)).findFareCellsByRoute(1L);
+    }
+
+    @Test
+    @DisplayName("Una invalidación durante la carga no deja en cache la matriz leída antes del cambio")
+    void testInvalidateDuringLoad() {
+        // La tarifa cambia (y se invalida) después de leerse y antes de publicar la matriz
+        when(fareRuleRepository.findFareCellsByRoute(1L))
+                .thenAnswer(inv -> {
+                    cache.invalidate(1L);
+                    return List.of(new FareCell(0, 1, new BigDecimal("10000.00"), false));
+                })
+                .thenReturn(List.of(new FareCell(0, 1, new BigDecimal("11000.00"), false)));
+
+        assertEquals(1_000_000, cache.priceCents(1L, 0, 1));
+        assertEquals(1_100_000, cache.priceCents(1L, 0, 1));
+        assertEquals(1_100_000, cache.priceCents(1L, 0, 1));
+
+        verify(fareRuleRepository, times(2)).findFareCellsByRoute(1L);
+    }
+}
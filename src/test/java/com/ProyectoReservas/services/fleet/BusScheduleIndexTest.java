@@ -0,0 +1,172 @@
+package com.ProyectoReservas.services.fleet;
+
+import com.ProyectoReservas.domain.entities.BusStatus;
+import com.ProyectoReservas.domain.projections.BusSlot;
+import com.ProyectoReservas.domain.repositories.BusRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BusScheduleIndexTest {
+
+    private static final Instant NOW = Instant.parse("2026-04-01T12:00:00Z");
+    private static final OffsetDateTime BASE = OffsetDateTime.ofInstant(NOW, ZoneOffset.ofHours(-5));
+
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private BusRepository busRepository;
+
+    private BusScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BusScheduleIndex(tripRepository, busRepository, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static BusSlot slot(long tripId, long busId, int fromHour, int toHour) {
+        return new BusSlot(tripId, busId, BASE.plusHours(fromHour), BASE.plusHours(toHour));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 1: árbol de intervalos
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("El árbol de intervalos responde igual que comparar contra todos los intervalos")
+    void timelineMatchesBruteForce() {
+        Random random = new Random(11);
+        BusTimeline timeline = new BusTimeline();
+        Map<Long, long[]> live = new HashMap<>();
+        for (long tripId = 1; tripId <= 4_000; tripId++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(2_000);
+            timeline.add(tripId, start, end);
+            live.put(tripId, new long[]{start, end});
+            if (random.nextInt(3) == 0) {
+                long removed = 1 + random.nextInt((int) tripId);
+                long[] interval = live.remove(removed);
+                assertEquals(interval != null, timeline.remove(removed, interval != null ? interval[0] : -1));
+            }
+        }
+        assertEquals(live.size(), timeline.size());
+
+        for (int q = 0; q < 2_000; q++) {
+            long start = random.nextInt(102_000);
+            long end = start + 1 + random.nextInt(500);
+            List<Long> expected = new ArrayList<>();
+            live.forEach((tripId, interval) -> {
+                if (interval[0] < end && interval[1] > start) expected.add(tripId);
+            });
+            List<Long> found = new ArrayList<>();
+            timeline.overlaps(start, end, found);
+            assertEquals(expected.stream().sorted().toList(), found.stream().sorted().toList());
+            long first = timeline.firstOverlap(start, end, BusTimeline.NONE);
+            assertEquals(expected.isEmpty(), first == BusTimeline.NONE);
+            if (expected.size() == 1) {
+                assertEquals(BusTimeline.NONE, timeline.firstOverlap(start, end, expected.get(0)));
+            }
+        }
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: doble reserva
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un bus no puede tomar dos viajes que se cruzan; uno que empieza al llegar el otro sí")
+    void rejectsOverlapAllowsBackToBack() {
+        index.reserve(slot(1, 7, 0, 4));
+        index.reserve(slot(2, 7, 4, 6));
+        index.reserve(slot(3, 8, 1, 3));
+
+        BusinessException error = assertThrows(BusinessException.class, () -> index.reserve(slot(4, 7, 3, 5)));
+
+        assertEquals("BUS_DOUBLE_BOOKED", error.getCode());
+        assertEquals(List.of(1L, 2L), index.conflicts(7L, BASE.plusHours(3), BASE.plusHours(5)));
+        assertEquals(3, index.tripCount());
+    }
+
+    @Test
+    @DisplayName("Reprogramar un viaje reemplaza su propia franja y cambiar de bus libera el anterior")
+    void rescheduleReplacesOwnSlot() {
+        index.reserve(slot(1, 7, 0, 4));
+        index.reserve(slot(1, 7, 2, 6));
+        assertTrue(index.isFree(7L, BASE, BASE.plusHours(2)));
+        assertFalse(index.isFree(7L, BASE.plusHours(5), BASE.plusHours(7)));
+
+        index.reserve(slot(1, 8, 2, 6));
+        assertTrue(index.isFree(7L, BASE, BASE.plusHours(8)));
+        assertFalse(index.isFree(8L, BASE.plusHours(3), BASE.plusHours(4)));
+    }
+
+    @Test
+    @DisplayName("restore deja el índice como antes si la transacción se revierte")
+    void restoreUndoesReserveAndRelease() {
+        index.reserve(slot(1, 7, 0, 4));
+        BusSlot previous = index.reserve(slot(1, 8, 0, 4));
+        index.restore(1L, previous);
+        assertFalse(index.isFree(7L, BASE, BASE.plusHours(1)));
+        assertTrue(index.isFree(8L, BASE, BASE.plusHours(1)));
+
+        BusSlot released = index.release(1L);
+        index.restore(1L, released);
+        assertFalse(index.isFree(7L, BASE, BASE.plusHours(1)));
+
+        index.restore(2L, index.reserve(slot(2, 9, 0, 4)));
+        assertTrue(index.isFree(9L, BASE, BASE.plusHours(4)));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 3: arranque y buses libres
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Al arrancar se carga la flota y los buses libres salen sin consultar la base")
+    void rebuildAndFreeBuses() {
+        when(tripRepository.findBusSlotsArrivingAfter(BASE.minusDays(1).withOffsetSameInstant(ZoneOffset.UTC)))
+                .thenReturn(List.of(slot(1, 7, 0, 4), slot(2, 8, 6, 9), slot(3, 8, 8, 10)));
+        when(busRepository.findIdsByStatus(BusStatus.ACTIVE)).thenReturn(List.of(7L, 8L, 9L));
+
+        index.rebuild();
+
+        assertEquals(List.of(8L, 9L), index.freeBuses(BASE.plusHours(3), BASE.plusHours(6)));
+        assertEquals(List.of(9L), index.freeBuses(BASE.plusHours(2), BASE.plusHours(7)));
+        index.onBusStatusChanged(9L, BusStatus.MAINTENANCE);
+        assertEquals(List.of(), index.freeBuses(BASE.plusHours(2), BASE.plusHours(7)));
+        // La doble reserva heredada se ve, pero no se puede ampliar
+        assertEquals(List.of(2L, 3L), index.conflicts(8L, BASE.plusHours(8), BASE.plusHours(9)));
+        assertThrows(BusinessException.class, () -> index.reserve(slot(2, 8, 6, 10)));
+        verify(tripRepository, times(1)).findBusSlotsArrivingAfter(any());
+    }
+
+    @Test
+    @DisplayName("Los viajes que terminaron hace más de un día salen del índice")
+    void pruneDropsOldTrips() {
+        index.reserve(slot(1, 7, -30, -26));
+        index.reserve(slot(2, 7, -5, -1));
+
+        index.prune();
+
+        assertEquals(1, index.tripCount());
+        assertTrue(index.isFree(7L, BASE.minusHours(30), BASE.minusHours(26)));
+        assertFalse(index.isFree(7L, BASE.minusHours(2), BASE));
+    }
+}
@@ -0,0 +1,142 @@
+package com.ProyectoReservas.services.fleet;
+
+import com.ProyectoReservas.domain.entities.Bus;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.repositories.BusRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BusScheduleListenerTest {
+
+    private static final Instant NOW = Instant.parse("2026-04-01T12:00:00Z");
+    private static final OffsetDateTime BASE = OffsetDateTime.ofInstant(NOW, ZoneOffset.ofHours(-5));
+
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private BusRepository busRepository;
+    @Mock
+    private ObjectProvider<BusScheduleIndex> indexProvider;
+
+    private BusScheduleIndex index;
+    private BusScheduleListener listener;
+
+    @BeforeEach
+    void setUp() {
+        index = new BusScheduleIndex(tripRepository, busRepository, Clock.fixed(NOW, ZoneOffset.UTC));
+        when(indexProvider.getIfAvailable()).thenReturn(index);
+        listener = new BusScheduleListener(indexProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clear();
+        synchronizations.forEach(s -> s.afterCompletion(status));
+    }
+
+    private static Trip trip(long tripId, long busId, int fromHour, int toHour, TripStatus status) {
+        return Trip.builder().id(tripId).bus(Bus.builder().id(busId).build())
+                .departureAt(BASE.plusHours(fromHour)).arrivalAt(BASE.plusHours(toHour)).status(status).build();
+    }
+
+    private void save(Trip trip) {
+        beginTransaction();
+        listener.onChange(trip);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 1: transacción revertida
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Si se revierte la creación del viaje, el bus vuelve a quedar libre")
+    void rolledBackInsertFreesBus() {
+        beginTransaction();
+        listener.onChange(trip(1, 7, 0, 4, TripStatus.SCHEDULED));
+        assertFalse(index.isFree(7L, BASE, BASE.plusHours(4)));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(index.isFree(7L, BASE, BASE.plusHours(4)));
+        assertEquals(0, index.tripCount());
+        save(trip(2, 7, 1, 3, TripStatus.SCHEDULED));
+        assertEquals(List.of(2L), index.conflicts(7L, BASE, BASE.plusHours(4)));
+    }
+
+    @Test
+    @DisplayName("Si se revierte una reprogramación, el viaje recupera su franja y libera la nueva")
+    void rolledBackUpdateRestoresSlot() {
+        save(trip(1, 7, 0, 4, TripStatus.SCHEDULED));
+
+        beginTransaction();
+        listener.onChange(trip(1, 8, 6, 9, TripStatus.SCHEDULED));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(index.isFree(7L, BASE, BASE.plusHours(4)));
+        assertTrue(index.isFree(8L, BASE.plusHours(6), BASE.plusHours(9)));
+    }
+
+    @Test
+    @DisplayName("Si se revierte una cancelación, el viaje vuelve a ocupar el bus")
+    void rolledBackCancellationRestoresSlot() {
+        save(trip(1, 7, 0, 4, TripStatus.SCHEDULED));
+
+        beginTransaction();
+        listener.onChange(trip(1, 7, 0, 4, TripStatus.CANCELLED));
+        assertTrue(index.isFree(7L, BASE, BASE.plusHours(4)));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(List.of(1L), index.conflicts(7L, BASE, BASE.plusHours(4)));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: reserva en conflicto
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un viaje que choca con otro del mismo bus aborta la transacción y no toca el índice")
+    void conflictingReservationRejected() {
+        save(trip(1, 7, 0, 4, TripStatus.SCHEDULED));
+
+        beginTransaction();
+        BusinessException error = assertThrows(BusinessException.class,
+                () -> listener.onChange(trip(2, 7, 3, 5, TripStatus.SCHEDULED)));
+        assertEquals("BUS_DOUBLE_BOOKED", error.getCode());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(List.of(1L), index.conflicts(7L, BASE, BASE.plusHours(6)));
+        assertEquals(1, index.tripCount());
+    }
+}
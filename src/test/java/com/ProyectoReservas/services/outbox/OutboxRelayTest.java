@@ -0,0 +1,160 @@
+package com.ProyectoReservas.services.outbox;
+
+import com.ProyectoReservas.domain.entities.OutboxAggregate;
+import com.ProyectoReservas.domain.entities.OutboxEvent;
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.repositories.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private OutboxEventBus eventBus;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        relay = new OutboxRelay(outboxEventRepository, eventBus, transactionTemplate);
+    }
+
+    private static OutboxEvent event(long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .partitionKey(3)
+                .aggregateType(OutboxAggregate.SEAT_HOLD)
+                .aggregateId("7")
+                .eventType(OutboxEventType.HOLD_CREATED)
+                .payload("{\"holdId\":7}")
+                .createdAt(OffsetDateTime.parse("2026-03-01T10:00:00Z"))
+                .build();
+    }
+
+    private static List<OutboxEvent> events(long from, int count) {
+        return LongStream.range(from, from + count).mapToObj(OutboxRelayTest::event).toList();
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 1: publicar y borrar
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("El lote debe publicarse en orden de id y borrarse solo lo publicado")
+    void testPublishAndDelete() {
+        when(outboxEventRepository.tryLockPartition(OutboxRelay.LOCK_KEY, 3)).thenReturn(true);
+        when(outboxEventRepository.lockBatch(3, OutboxRelay.BATCH_SIZE)).thenReturn(List.of(event(10L), event(11L)));
+
+        assertEquals(2, relay.drainPartition(3));
+
+        ArgumentCaptor<List<OutboxMessage>> published = ArgumentCaptor.captor();
+        verify(eventBus).publish(published.capture());
+        assertEquals(List.of(10L, 11L), published.getValue().stream().map(OutboxMessage::id).toList());
+        verify(outboxEventRepository).deleteByIds(new Long[]{10L, 11L});
+        assertEquals(2, relay.publishedCount());
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 2: partición tomada por otro relay
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("Una partición con candado de otro relay debe saltarse sin leer eventos")
+    void testSkipLockedPartition() {
+        when(outboxEventRepository.tryLockPartition(OutboxRelay.LOCK_KEY, 3)).thenReturn(false);
+
+        assertEquals(0, relay.drainPartition(3));
+
+        verify(outboxEventRepository, never()).lockBatch(anyInt(), anyInt());
+        verifyNoInteractions(eventBus);
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 3: fallo del bus
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("Si la publicación falla el lote no debe borrarse")
+    void testFailedPublishKeepsBatch() {
+        when(outboxEventRepository.tryLockPartition(OutboxRelay.LOCK_KEY, 3)).thenReturn(true);
+        when(outboxEventRepository.lockBatch(3, OutboxRelay.BATCH_SIZE)).thenReturn(List.of(event(10L)));
+        doThrow(new IllegalStateException("suscriptor caído")).when(eventBus).publish(any());
+
+        assertEquals(0, relay.drainPartition(3));
+
+        verify(outboxEventRepository, never()).deleteByIds(any());
+        assertEquals(1, relay.failureCount());
+        assertEquals(0, relay.publishedCount());
+    }
+
+    @Test
+    @DisplayName("Un suscriptor que falla debe recibir otra vez el lote completo en la siguiente pasada")
+    void testRedeliveryThroughInProcessBus() {
+        List<Long> seen = new ArrayList<>();
+        boolean[] failOnce = {true};
+        OutboxSubscriber subscriber = message -> {
+            seen.add(message.id());
+            if (message.id() == 11L && failOnce[0]) {
+                failOnce[0] = false;
+                throw new IllegalStateException("suscriptor caído");
+            }
+        };
+        @SuppressWarnings("unchecked")
+        ObjectProvider<OutboxSubscriber> subscribers = mock(ObjectProvider.class);
+        when(subscribers.orderedStream()).thenAnswer(inv -> Stream.of(subscriber));
+        relay = new OutboxRelay(outboxEventRepository, new InProcessEventBus(subscribers), transactionTemplate);
+        when(outboxEventRepository.tryLockPartition(OutboxRelay.LOCK_KEY, 3)).thenReturn(true);
+        when(outboxEventRepository.lockBatch(3, OutboxRelay.BATCH_SIZE)).thenReturn(List.of(event(10L), event(11L)));
+
+        assertEquals(0, relay.drainPartition(3));
+        assertEquals(2, relay.drainPartition(3));
+
+        assertEquals(List.of(10L, 11L, 10L, 11L), seen);
+        verify(outboxEventRepository, times(1)).deleteByIds(new Long[]{10L, 11L});
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 4: vaciado por lotes
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("drain debe seguir con la partición mientras los lotes salgan llenos")
+    void testDrainWhileFull() {
+        when(outboxEventRepository.tryLockPartition(eq(OutboxRelay.LOCK_KEY), anyInt())).thenReturn(true);
+        when(outboxEventRepository.lockBatch(anyInt(), eq(OutboxRelay.BATCH_SIZE))).thenReturn(List.of());
+        when(outboxEventRepository.lockBatch(3, OutboxRelay.BATCH_SIZE))
+                .thenReturn(events(1, OutboxRelay.BATCH_SIZE))
+                .thenReturn(events(1 + OutboxRelay.BATCH_SIZE, OutboxRelay.BATCH_SIZE))
+                .thenReturn(events(1 + 2L * OutboxRelay.BATCH_SIZE, 5))
+                .thenReturn(List.of());
+
+        relay.drain();
+
+        verify(outboxEventRepository, times(3)).lockBatch(3, OutboxRelay.BATCH_SIZE);
+        verify(outboxEventRepository, times(1)).lockBatch(4, OutboxRelay.BATCH_SIZE);
+        verify(eventBus, times(3)).publish(any());
+        assertEquals(2L * OutboxRelay.BATCH_SIZE + 5, relay.publishedCount());
+    }
+}
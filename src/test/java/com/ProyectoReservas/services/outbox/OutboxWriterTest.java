@@ -0,0 +1,132 @@
+package com.ProyectoReservas.services.outbox;
+
+import com.ProyectoReservas.domain.entities.OutboxAggregate;
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.entities.Ticket;
+import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxWriterTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private OutboxWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new OutboxWriter(outboxEventRepository, new ObjectMapper(), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 1: sin transacción
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("Escribir un evento fuera de una transacción debe fallar")
+    void testRequiresTransaction() {
+        assertThrows(IllegalStateException.class,
+                () -> writer.hold(OutboxEventType.HOLD_CREATED, 1L, 9L, 4));
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 2: un INSERT por transacción
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("Los eventos de la transacción deben insertarse juntos, en orden y después del flush")
+    void testSingleInsertBeforeCommit() {
+        beginTransaction();
+        Ticket ticket = Ticket.builder().id(50L).trip(Trip.builder().id(9L).build()).seatNumber(4)
+                .price(new BigDecimal("45000.00")).status(TicketStatus.SOLD).build();
+
+        writer.hold(OutboxEventType.HOLD_CONSUMED, 1L, 9L, 4);
+        writer.ticket(OutboxEventType.TICKET_SOLD, ticket);
+        writer.parcel("PKG-1", 9L, null, ParcelStatus.IN_TRANSIT, ParcelStatus.DELIVERED);
+        verifyNoInteractions(outboxEventRepository);
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        commit();
+
+        ArgumentCaptor<String[]> aggregateIds = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> eventTypes = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> payloads = ArgumentCaptor.forClass(String[].class);
+        InOrder order = inOrder(outboxEventRepository);
+        order.verify(outboxEventRepository).flush();
+        order.verify(outboxEventRepository).insertBatch(any(), any(), aggregateIds.capture(), eventTypes.capture(),
+                payloads.capture(), eq(OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC)));
+        assertArrayEquals(new String[]{"1", "50", "PKG-1"}, aggregateIds.getValue());
+        assertArrayEquals(new String[]{"HOLD_CONSUMED", "TICKET_SOLD", "PARCEL_STATUS_CHANGED"}, eventTypes.getValue());
+        assertTrue(payloads.getValue()[1].contains("\"price\":45000.00"));
+        assertTrue(payloads.getValue()[2].contains("\"stopId\":null"));
+    }
+
+    @Test
+    @DisplayName("Una transacción sin eventos no debe escribir en el outbox")
+    void testNoEventsNoInsert() {
+        beginTransaction();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        });
+
+        commit();
+
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    // ------------------------------------------------------------------------
+    // TEST 3: particiones
+    // ------------------------------------------------------------------------
+    @Test
+    @DisplayName("Todos los eventos de un agregado deben caer en la misma partición")
+    void testPartitionPerAggregate() {
+        int partition = OutboxWriter.partition(OutboxAggregate.TICKET, "50");
+
+        assertEquals(partition, OutboxWriter.partition(OutboxAggregate.TICKET, "50"));
+        for (int id = 0; id < 1000; id++) {
+            int p = OutboxWriter.partition(OutboxAggregate.PARCEL, "PKG-" + id);
+            assertTrue(p >= 0 && p < OutboxWriter.PARTITIONS);
+        }
+    }
+}
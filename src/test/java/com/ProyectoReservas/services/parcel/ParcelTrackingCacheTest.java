@@ -0,0 +1,210 @@
+package com.ProyectoReservas.services.parcel;
+
+import com.ProyectoReservas.domain.entities.Parcel;
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.projections.ParcelTracking;
+import com.ProyectoReservas.domain.repositories.ParcelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParcelTrackingCacheTest {
+
+    private static final OffsetDateTime DEPARTURE = OffsetDateTime.parse("2026-02-01T06:00:00-05:00");
+
+    @Mock
+    private ParcelRepository parcelRepository;
+
+    private ParcelTrackingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ParcelTrackingCache(parcelRepository);
+    }
+
+    private static ParcelTracking tracking(String code, ParcelStatus status) {
+        return new ParcelTracking(code, 1L, 7L, DEPARTURE, "Tunja", "Bogotá", status, DEPARTURE.minusDays(1));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 1: la segunda consulta no llega al repositorio
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un código rastreado dos veces se carga una sola vez")
+    void secondPollIsHit() {
+        when(parcelRepository.findTrackingByCode("PKG-1"))
+                .thenReturn(Optional.of(tracking("PKG-1", ParcelStatus.IN_TRANSIT)));
+
+        cache.track("PKG-1");
+        Optional<ParcelTracking> second = cache.track("PKG-1");
+
+        assertEquals(ParcelStatus.IN_TRANSIT, second.orElseThrow().status());
+        verify(parcelRepository, times(1)).findTrackingByCode("PKG-1");
+        ParcelTrackingStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.loads());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: escritura directa en cambios de estado
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un cambio de estado actualiza la entrada sin volver a consultar")
+    void statusTransitionIsWrittenThrough() {
+        when(parcelRepository.findTrackingByCode("PKG-2"))
+                .thenReturn(Optional.of(tracking("PKG-2", ParcelStatus.IN_TRANSIT)));
+        cache.track("PKG-2");
+
+        cache.write("PKG-2", ParcelStatus.DELIVERED, null);
+
+        assertEquals(ParcelStatus.DELIVERED, cache.track("PKG-2").orElseThrow().status());
+        verify(parcelRepository, times(1)).findTrackingByCode("PKG-2");
+    }
+
+    @Test
+    @DisplayName("Una encomienda guardada con viaje y paradas cargados entra completa a la cache")
+    void snapshotFromLoadedEntity() {
+        Parcel parcel = Parcel.builder().id(3L).code("PKG-3").status(ParcelStatus.CREATED)
+                .trip(Trip.builder().id(7L).departureAt(DEPARTURE).build())
+                .fromStop(Stop.builder().name("Tunja").build())
+                .createdAt(DEPARTURE.minusDays(2))
+                .build();
+
+        cache.write(parcel.getCode(), parcel.getStatus(), ParcelTrackingCache.snapshotOf(parcel));
+
+        ParcelTracking cached = cache.track("PKG-3").orElseThrow();
+        assertEquals("Tunja", cached.fromStop());
+        assertNull(cached.toStop());
+        verify(parcelRepository, never()).findTrackingByCode(anyString());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 3: códigos inexistentes
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un código inexistente no se guarda y se vuelve a consultar")
+    void unknownCodeIsNotCached() {
+        when(parcelRepository.findTrackingByCode("NOPE")).thenReturn(Optional.empty());
+
+        assertTrue(cache.track("NOPE").isEmpty());
+        assertTrue(cache.track("NOPE").isEmpty());
+
+        verify(parcelRepository, times(2)).findTrackingByCode("NOPE");
+        assertEquals(0, cache.stats().entries());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 4: límite en bytes con expulsión LRU
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Al superar el límite de bytes se expulsan las entradas menos usadas")
+    void evictsLeastRecentlyUsedOverByteCap() {
+        long entry = ParcelTrackingCache.weigh(tracking("PKG-00", ParcelStatus.IN_TRANSIT));
+        // Cada segmento tiene espacio para 3 entradas
+        cache = new ParcelTrackingCache(parcelRepository, 3 * entry * ParcelTrackingCache.SEGMENTS,
+                Clock.systemUTC());
+        when(parcelRepository.findTrackingByCode(anyString()))
+                .thenAnswer(inv -> Optional.of(tracking(inv.getArgument(0), ParcelStatus.IN_TRANSIT)));
+
+        for (int i = 0; i < 200; i++) {
+            cache.track(String.format("PKG-%02d", i % 100));
+        }
+
+        ParcelTrackingStats stats = cache.stats();
+        assertTrue(stats.evictions() > 0);
+        assertTrue(stats.bytes() <= 3 * entry * ParcelTrackingCache.SEGMENTS);
+        assertTrue(stats.entries() <= 3 * ParcelTrackingCache.SEGMENTS);
+    }
+
+    @Test
+    @DisplayName("Una entrada leída hace poco sobrevive a la expulsión")
+    void recentlyReadEntrySurvives() {
+        long entry = ParcelTrackingCache.weigh(tracking("PKG-00", ParcelStatus.IN_TRANSIT));
+        cache = new ParcelTrackingCache(parcelRepository, 2 * entry * ParcelTrackingCache.SEGMENTS,
+                Clock.systemUTC());
+        when(parcelRepository.findTrackingByCode(anyString()))
+                .thenAnswer(inv -> Optional.of(tracking(inv.getArgument(0), ParcelStatus.IN_TRANSIT)));
+
+        cache.track("PKG-00");
+        for (int i = 1; i < 500; i++) {
+            cache.track("PKG-00");
+            cache.track(String.format("PKG-%03d", i));
+        }
+
+        clearInvocations(parcelRepository);
+        cache.track("PKG-00");
+        verify(parcelRepository, never()).findTrackingByCode("PKG-00");
+    }
+
+    // ---------------------------------------------------------
+    // TEST 5: carga concurrente con una escritura directa
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Una carga que termina después de una escritura directa no pisa el estado nuevo")
+    void loadDoesNotOverwriteNewerWrite() {
+        // El cambio se confirma mientras la consulta de rastreo lee el estado anterior
+        when(parcelRepository.findTrackingByCode("PKG-1")).thenAnswer(inv -> {
+            cache.write("PKG-1", ParcelStatus.DELIVERED, tracking("PKG-1", ParcelStatus.DELIVERED));
+            return Optional.of(tracking("PKG-1", ParcelStatus.IN_TRANSIT));
+        });
+
+        cache.track("PKG-1");
+
+        assertEquals(ParcelStatus.DELIVERED, cache.track("PKG-1").orElseThrow().status());
+        verify(parcelRepository, times(1)).findTrackingByCode("PKG-1");
+    }
+
+    @Test
+    @DisplayName("Una invalidación durante la carga deja el código fuera de la cache")
+    void invalidateDuringLoadIsNotUndone() {
+        when(parcelRepository.findTrackingByCode("PKG-1")).thenAnswer(inv -> {
+            cache.invalidate("PKG-1");
+            return Optional.of(tracking("PKG-1", ParcelStatus.IN_TRANSIT));
+        });
+
+        cache.track("PKG-1");
+        cache.track("PKG-1");
+
+        verify(parcelRepository, times(2)).findTrackingByCode("PKG-1");
+    }
+
+    // ---------------------------------------------------------
+    // TEST 6: caducidad
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Una entrada caduca a los TTL_MILLIS y se vuelve a cargar")
+    void entryExpiresAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(inv -> now.get());
+        cache = new ParcelTrackingCache(parcelRepository, ParcelTrackingCache.MAX_BYTES, clock);
+        when(parcelRepository.findTrackingByCode("PKG-1"))
+                .thenReturn(Optional.of(tracking("PKG-1", ParcelStatus.IN_TRANSIT)));
+
+        cache.track("PKG-1");
+        now.addAndGet(ParcelTrackingCache.TTL_MILLIS - 1);
+        cache.track("PKG-1");
+        verify(parcelRepository, times(1)).findTrackingByCode("PKG-1");
+
+        now.incrementAndGet();
+        cache.track("PKG-1");
+        verify(parcelRepository, times(2)).findTrackingByCode("PKG-1");
+    }
+}
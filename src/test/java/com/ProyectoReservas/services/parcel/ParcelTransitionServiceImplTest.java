@@ -0,0 +1,152 @@
+package com.ProyectoReservas.services.parcel;
+
+import com.ProyectoReservas.domain.entities.ParcelStatus;
+import com.ProyectoReservas.domain.repositories.ParcelRepository;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParcelTransitionServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2026-02-01T15:00:00Z");
+    private static final OffsetDateTime AT = OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+    @Mock
+    private ParcelRepository parcelRepository;
+    @Mock
+    private StopRepository stopRepository;
+    @Mock
+    private ParcelTrackingCache trackingCache;
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    private ParcelTransitionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ParcelTransitionServiceImpl(parcelRepository, stopRepository, trackingCache, outboxWriter,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 1: máquina de estados
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Solo se permiten las transiciones de la máquina de estados")
+    void stateMachine() {
+        assertTrue(ParcelTransitions.isAllowed(ParcelStatus.CREATED, ParcelStatus.IN_TRANSIT));
+        assertTrue(ParcelTransitions.isAllowed(ParcelStatus.IN_TRANSIT, ParcelStatus.DELIVERED));
+        assertTrue(ParcelTransitions.isAllowed(ParcelStatus.FAILED, ParcelStatus.IN_TRANSIT));
+        assertFalse(ParcelTransitions.isAllowed(ParcelStatus.DELIVERED, ParcelStatus.IN_TRANSIT));
+        assertFalse(ParcelTransitions.isAllowed(ParcelStatus.CREATED, ParcelStatus.DELIVERED));
+        assertFalse(ParcelTransitions.isAllowed(ParcelStatus.IN_TRANSIT, ParcelStatus.IN_TRANSIT));
+    }
+
+    @Test
+    @DisplayName("Una transición ilegal falla antes de llegar a la base de datos")
+    void illegalTransitionNeverReachesDatabase() {
+        BusinessException error = assertThrows(BusinessException.class,
+                () -> service.transitionAll(7L, ParcelStatus.DELIVERED, ParcelStatus.IN_TRANSIT));
+
+        assertEquals("ILLEGAL_PARCEL_TRANSITION", error.getCode());
+        verifyNoInteractions(parcelRepository);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: llegada a una parada intermedia
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Llegar a una parada intermedia entrega solo las que van a esa parada")
+    void arriveAtIntermediateStop() {
+        when(stopRepository.findStopIdsByTrip(7L)).thenReturn(List.of(10L, 11L, 12L));
+        when(parcelRepository.transitionByDestination(7L, 11L, false, "IN_TRANSIT", "DELIVERED", AT))
+                .thenReturn(List.of("PKG-1", "PKG-2"));
+
+        int moved = service.arriveAt(7L, 11L);
+
+        assertEquals(2, moved);
+        // Sin transacción activa la cache se actualiza de inmediato
+        verify(trackingCache).write("PKG-1", ParcelStatus.DELIVERED, null);
+        verify(trackingCache).write("PKG-2", ParcelStatus.DELIVERED, null);
+        verify(outboxWriter).parcel("PKG-1", 7L, 11L, ParcelStatus.IN_TRANSIT, ParcelStatus.DELIVERED);
+        verify(outboxWriter).parcel("PKG-2", 7L, 11L, ParcelStatus.IN_TRANSIT, ParcelStatus.DELIVERED);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 3: salida desde la primera parada
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Salir de la primera parada sube también las encomiendas sin parada de origen")
+    void departFromFirstStop() {
+        when(stopRepository.findStopIdsByTrip(7L)).thenReturn(List.of(10L, 11L, 12L));
+        when(parcelRepository.transitionByOrigin(7L, 10L, true, "CREATED", "IN_TRANSIT", AT))
+                .thenReturn(List.of("PKG-3"));
+
+        assertEquals(1, service.departFrom(7L, 10L));
+        verify(outboxWriter).parcel("PKG-3", 7L, 10L, ParcelStatus.CREATED, ParcelStatus.IN_TRANSIT);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 4: fin del viaje
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Al llegar el viaje se entregan las de la última parada y las restantes en tránsito fallan")
+    void tripArrivedDeliversAndFailsLeftovers() {
+        when(stopRepository.findStopIdsByTrip(7L)).thenReturn(List.of(10L, 11L, 12L));
+        when(parcelRepository.transitionByDestination(7L, 12L, true, "IN_TRANSIT", "DELIVERED", AT))
+                .thenReturn(List.of("PKG-4", "PKG-5"));
+        when(parcelRepository.transitionAll(7L, "IN_TRANSIT", "FAILED", AT)).thenReturn(List.of("PKG-6"));
+
+        assertEquals(3, service.tripArrived(7L));
+
+        verify(trackingCache).write("PKG-6", ParcelStatus.FAILED, null);
+        verify(outboxWriter).parcel("PKG-6", 7L, null, ParcelStatus.IN_TRANSIT, ParcelStatus.FAILED);
+        verify(parcelRepository, times(1)).transitionByDestination(anyLong(), anyLong(), anyBoolean(),
+                anyString(), anyString(), any());
+        verify(parcelRepository, times(1)).transitionAll(anyLong(), anyString(), anyString(), any());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 5: avance de un viaje en un lote
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("El avance de un lote lee las paradas una vez y sube antes de entregar")
+    void advanceReadsStopsOnce() {
+        when(stopRepository.findStopIdsByTrip(7L)).thenReturn(List.of(10L, 11L, 12L));
+        when(parcelRepository.transitionByOrigin(7L, 10L, true, "CREATED", "IN_TRANSIT", AT))
+                .thenReturn(List.of("PKG-1"));
+        when(parcelRepository.transitionByDestination(7L, 11L, false, "IN_TRANSIT", "DELIVERED", AT))
+                .thenReturn(List.of("PKG-1"));
+        when(parcelRepository.transitionByDestination(7L, 12L, true, "IN_TRANSIT", "DELIVERED", AT))
+                .thenReturn(List.of());
+        when(parcelRepository.transitionAll(7L, "IN_TRANSIT", "FAILED", AT)).thenReturn(List.of());
+
+        assertEquals(2, service.advance(7L, List.of(10L, 11L), List.of(11L), true));
+
+        verify(stopRepository, times(1)).findStopIdsByTrip(7L);
+        InOrder order = inOrder(parcelRepository);
+        order.verify(parcelRepository).transitionByOrigin(7L, 10L, true, "CREATED", "IN_TRANSIT", AT);
+        order.verify(parcelRepository).transitionByOrigin(7L, 11L, false, "CREATED", "IN_TRANSIT", AT);
+        order.verify(parcelRepository).transitionByDestination(7L, 11L, false, "IN_TRANSIT", "DELIVERED", AT);
+        order.verify(parcelRepository).transitionByDestination(7L, 12L, true, "IN_TRANSIT", "DELIVERED", AT);
+        order.verify(parcelRepository).transitionAll(7L, "IN_TRANSIT", "FAILED", AT);
+    }
+}
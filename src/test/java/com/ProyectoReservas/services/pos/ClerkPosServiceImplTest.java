@@ -0,0 +1,187 @@
+package com.ProyectoReservas.services.pos;
+
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.entities.PaymentMethod;
+import com.ProyectoReservas.domain.entities.Role;
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.entities.Ticket;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.domain.entities.UserStatus;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import com.ProyectoReservas.exceptions.SeatNotAvailableException;
+import com.ProyectoReservas.services.fare.DynamicPricingEngine;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClerkPosServiceImplTest {
+
+    @Mock
+    private PosSnapshotCache snapshotCache;
+    @Mock
+    private DynamicPricingEngine pricingEngine;
+    @Mock
+    private SeatAvailabilityEngine availabilityEngine;
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TripOccupancyCounters occupancyCounters;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @InjectMocks
+    private ClerkPosServiceImpl posService;
+
+    private final OffsetDateTime departureAt = OffsetDateTime.parse("2026-04-10T09:00:00-05:00");
+    private final Stop ibague = Stop.builder().id(12L).position(1).name("Ibagué").build();
+    private final Stop armenia = Stop.builder().id(13L).position(2).name("Armenia").build();
+    private final StopSegment segment = StopSegment.of(1, 2);
+
+    @BeforeEach
+    void setUp() {
+        PosDeparture departure = new PosDeparture(10L, 1L, "Armenia", departureAt, departureAt.plusHours(3),
+                ibague, List.of(armenia));
+        lenient().when(snapshotCache.departure("Ibagué", 10L)).thenReturn(departure);
+        lenient().when(pricingEngine.quoteCents(10L, 1L, departureAt, 1, 2)).thenReturn(4_550_000L);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        lenient().when(tripRepository.getReferenceById(10L)).thenReturn(Trip.builder().id(10L).build());
+        lenient().when(userRepository.getReferenceById(2L)).thenReturn(User.builder().id(2L).build());
+    }
+
+    // TEST 1: Apertura de sesión
+    @Test
+    @DisplayName("Solo un taquillero activo debe poder abrir la taquilla")
+    void testOpenSessionRequiresClerk() {
+        when(userRepository.findById(5L)).thenReturn(Optional.of(
+                User.builder().id(5L).role(Role.PASSENGER).status(UserStatus.ACTIVE).build()));
+        when(userRepository.findById(6L)).thenReturn(Optional.of(
+                User.builder().id(6L).role(Role.CLERK).status(UserStatus.ACTIVE).build()));
+        when(snapshotCache.departures("Ibagué")).thenReturn(List.of());
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> posService.openSession(5L, "Ibagué"));
+        assertEquals(HttpStatus.FORBIDDEN, ex.getStatus());
+        assertEquals("POS_CLERK_REQUIRED", ex.getCode());
+        assertNotNull(posService.openSession(6L, "Ibagué"));
+    }
+
+    // TEST 2: Cotización
+    @Test
+    @DisplayName("Debe cotizar desde la terminal hasta el final de la ruta sin consultar la base de datos")
+    void testQuoteToRouteEnd() {
+        assertEquals(new BigDecimal("45500.00"), posService.quote("Ibagué", 10L, null));
+        verifyNoInteractions(ticketRepository, tripRepository, userRepository);
+    }
+
+    // TEST 3: Venta
+    @Test
+    @DisplayName("La venta debe insertar el ticket con el precio y tramo resueltos en memoria")
+    void testSellPersistsTicket() {
+        when(availabilityEngine.tryHold(10L, 7, segment)).thenReturn(true);
+        when(ticketRepository.saveAndFlush(any(Ticket.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Ticket ticket = posService.sell("Ibagué", 10L, 7, 13L, 2L, PaymentMethod.CASH);
+
+        assertSame(ibague, ticket.getFromStop());
+        assertSame(armenia, ticket.getToStop());
+        assertEquals(new BigDecimal("45500.00"), ticket.getPrice());
+        verify(occupancyCounters).adjust(10L, 7, 1, 0);
+        verify(outboxWriter).ticket(OutboxEventType.TICKET_SOLD, ticket);
+        verify(availabilityEngine, never()).onHoldReleased(any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Un asiento tomado no debe llegar a la base de datos")
+    void testSellSeatTaken() {
+        when(availabilityEngine.tryHold(10L, 7, segment)).thenReturn(false);
+
+        assertThrows(SeatNotAvailableException.class,
+                () -> posService.sell("Ibagué", 10L, 7, 13L, 2L, PaymentMethod.CASH));
+        verifyNoInteractions(ticketRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Un conflicto en la base de datos debe descartar el mapa en memoria del viaje")
+    void testSellDatabaseConflict() {
+        when(availabilityEngine.tryHold(10L, 7, segment)).thenReturn(true);
+        when(ticketRepository.saveAndFlush(any(Ticket.class)))
+                .thenThrow(new DataIntegrityViolationException("ex_tickets_seat_segment",
+                        new SQLException("exclusion_violation", "23P01")));
+
+        assertThrows(SeatNotAvailableException.class,
+                () -> posService.sell("Ibagué", 10L, 7, 13L, 2L, PaymentMethod.CASH));
+        verify(availabilityEngine).evict(10L);
+    }
+
+    @Test
+    @DisplayName("Otra violación de integridad no es un asiento vendido: se propaga y libera el asiento en memoria")
+    void testSellOtherIntegrityViolation() {
+        when(availabilityEngine.tryHold(10L, 7, segment)).thenReturn(true);
+        when(ticketRepository.saveAndFlush(any(Ticket.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_tickets_passenger",
+                        new SQLException("foreign_key_violation", "23503")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> posService.sell("Ibagué", 10L, 7, 13L, 2L, PaymentMethod.CASH));
+        verify(availabilityEngine, never()).evict(any());
+        verify(availabilityEngine).onHoldReleased(10L, 7, segment);
+    }
+
+    @Test
+    @DisplayName("Un error inesperado al escribir debe liberar el asiento en memoria")
+    void testSellWriteFailureReleases() {
+        when(availabilityEngine.tryHold(10L, 7, segment)).thenReturn(true);
+        when(ticketRepository.saveAndFlush(any(Ticket.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class,
+                () -> posService.sell("Ibagué", 10L, 7, 13L, 2L, PaymentMethod.CASH));
+        verify(availabilityEngine).onHoldReleased(10L, 7, segment);
+    }
+
+    // TEST 4: Validaciones
+    @Test
+    @DisplayName("Un viaje fuera de la ventana de la terminal o un destino anterior deben rechazarse")
+    void testSellRejectsUnknownTripOrStop() {
+        BusinessException missing = assertThrows(BusinessException.class,
+                () -> posService.sell("Ibagué", 99L, 7, 13L, 2L, PaymentMethod.CASH));
+        assertEquals("POS_TRIP_NOT_AVAILABLE", missing.getCode());
+
+        BusinessException backwards = assertThrows(BusinessException.class,
+                () -> posService.sell("Ibagué", 10L, 7, 11L, 2L, PaymentMethod.CASH));
+        assertEquals("POS_INVALID_DESTINATION", backwards.getCode());
+        verifyNoInteractions(availabilityEngine);
+    }
+}
@@ -0,0 +1,162 @@
+package com.ProyectoReservas.services.pos;
+
+import com.ProyectoReservas.domain.entities.Route;
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.projections.StopPoint;
+import com.ProyectoReservas.domain.projections.TripSchedule;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.services.fare.FareMatrixCache;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PosSnapshotCacheTest {
+
+    private static final ZoneOffset BOGOTA = ZoneOffset.ofHours(-5);
+    // 12:00 en Bogotá
+    private static final Instant NOW = Instant.parse("2026-04-10T17:00:00Z");
+    private static final OffsetDateTime DAY = OffsetDateTime.of(2026, 4, 10, 0, 0, 0, 0, BOGOTA);
+
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private StopRepository stopRepository;
+    @Mock
+    private FareMatrixCache fareMatrixCache;
+    @Mock
+    private SeatAvailabilityEngine availabilityEngine;
+
+    private PosSnapshotCache cache;
+
+    private static Stop stop(long id, long routeId, int position, String name) {
+        return Stop.builder().id(id).route(Route.builder().id(routeId).build()).position(position).name(name).build();
+    }
+
+    private static TripSchedule trip(long tripId, long routeId, int departureHour, int arrivalHour) {
+        return new TripSchedule(tripId, routeId, "Bogotá", "Armenia", "America/Bogota",
+                DAY.withHour(departureHour), DAY.withHour(arrivalHour));
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Ruta 1: Bogotá -> Ibagué -> Armenia; ruta 2 termina en Ibagué (no se vende desde allí)
+        when(stopRepository.findAllStopPoints()).thenReturn(List.of(
+                new StopPoint(1L, 0, "Bogotá"), new StopPoint(1L, 1, "Ibagué"), new StopPoint(1L, 2, "Armenia"),
+                new StopPoint(2L, 0, "Bogotá"), new StopPoint(2L, 1, "Ibague ")));
+        lenient().when(stopRepository.findStopsByRoutes(anyCollection())).thenReturn(List.of(
+                stop(11L, 1L, 0, "Bogotá"), stop(12L, 1L, 1, "Ibagué"), stop(13L, 1L, 2, "Armenia")));
+        cache = new PosSnapshotCache(tripRepository, stopRepository, fareMatrixCache, availabilityEngine,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Debe listar las salidas por su hora de paso por la terminal y precalentar tarifas y asientos")
+    void testDeparturesFromIntermediateStop() {
+        // Paso por Ibagué a mitad del recorrido: 10 -> 12:00, 11 -> 13:00, 9 -> 11:00 (ya pasó)
+        when(tripRepository.findSchedulesByRoutes(anyCollection(), any(), any(), any())).thenReturn(List.of(
+                trip(9L, 1L, 8, 14), trip(11L, 1L, 10, 16), trip(10L, 1L, 9, 15)));
+
+        List<PosDeparture> departures = cache.departures("  IBAGUE ");
+
+        assertEquals(List.of(10L, 11L), departures.stream().map(PosDeparture::tripId).toList());
+        assertEquals(DAY.withHour(12), departures.get(0).passesAt());
+        assertEquals(12L, departures.get(0).boarding().getId());
+        assertEquals(List.of(13L), departures.get(0).alighting().stream().map(Stop::getId).toList());
+        verify(fareMatrixCache).preload(1L);
+        verify(availabilityEngine).preload(10L);
+        verify(availabilityEngine).preload(11L);
+        verify(availabilityEngine, never()).preload(9L);
+    }
+
+    @Test
+    @DisplayName("Las ventas siguientes no deben volver a consultar la base de datos")
+    void testSnapshotReused() {
+        when(tripRepository.findSchedulesByRoutes(anyCollection(), any(), any(), any()))
+                .thenReturn(List.of(trip(10L, 1L, 9, 15)));
+
+        cache.departures("Ibagué");
+        assertNotNull(cache.departure("ibague", 10L));
+        assertNull(cache.departure("ibague", 99L));
+
+        verify(tripRepository, times(1)).findSchedulesByRoutes(anyCollection(), any(), any(), any());
+        assertEquals(1, cache.terminalCount());
+    }
+
+    @Test
+    @DisplayName("Un viaje cancelado debe salir de la terminal sin esperar la actualización")
+    void testCancelledTripRemovedImmediately() {
+        when(tripRepository.findSchedulesByRoutes(anyCollection(), any(), any(), any()))
+                .thenReturn(List.of(trip(10L, 1L, 9, 15), trip(11L, 1L, 10, 16)));
+        cache.departures("Ibagué");
+
+        cache.onTripChanged(10L, 1L, false);
+
+        assertNull(cache.departure("Ibagué", 10L));
+        assertNotNull(cache.departure("Ibagué", 11L));
+    }
+
+    @Test
+    @DisplayName("Solo deben rehacerse las terminales que cubren la ruta modificada")
+    void testApplyChangesRebuildsCoveringTerminals() {
+        when(tripRepository.findSchedulesByRoutes(anyCollection(), any(), any(), any()))
+                .thenReturn(List.of(trip(10L, 1L, 9, 15)))
+                .thenReturn(List.of(trip(10L, 1L, 9, 15), trip(12L, 1L, 11, 17)));
+        cache.departures("Ibagué");
+
+        cache.onTripChanged(12L, 7L, true);
+        cache.applyChanges();
+        assertNull(cache.departure("Ibagué", 12L));
+
+        cache.onTripChanged(12L, 1L, true);
+        cache.applyChanges();
+        assertNotNull(cache.departure("Ibagué", 12L));
+    }
+
+    @Test
+    @DisplayName("Un cambio de paradas debe releer solo esa ruta y rehacer solo las terminales afectadas")
+    void testRouteChangeReloadsOnlyThatRoute() {
+        when(tripRepository.findSchedulesByRoutes(anyCollection(), any(), any(), any()))
+                .thenReturn(List.of(trip(10L, 1L, 9, 15)));
+        cache.departures("Ibagué");
+        cache.departures("Armenia");
+        clearInvocations(tripRepository);
+
+        // La ruta 2 ahora sigue de Ibagué a Armenia: ambas terminales la ven, pero Bogotá no se abrió
+        when(stopRepository.findStopPointsByRoute(2L)).thenReturn(List.of(
+                new StopPoint(2L, 0, "Bogotá"), new StopPoint(2L, 1, "Ibagué"), new StopPoint(2L, 2, "Armenia")));
+        cache.onRouteChanged(2L);
+        cache.applyChanges();
+
+        verify(stopRepository, times(1)).findAllStopPoints();
+        verify(stopRepository).findStopPointsByRoute(2L);
+        // Ibagué pasa a cubrir la ruta 2; Armenia sigue siendo la última parada y no se rehace
+        verify(tripRepository, times(1)).findSchedulesByRoutes(eq(Set.of(1L, 2L)), any(), any(), any());
+        verifyNoMoreInteractions(tripRepository);
+    }
+
+    @Test
+    @DisplayName("Una terminal sin rutas que sigan desde ella no debe tener salidas")
+    void testTerminalWithoutRoutes() {
+        assertTrue(cache.departures("Armenia").isEmpty());
+        verifyNoInteractions(tripRepository, fareMatrixCache, availabilityEngine);
+    }
+}
@@ -0,0 +1,251 @@
+package com.ProyectoReservas.services.progress;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.projections.RouteStop;
+import com.ProyectoReservas.domain.projections.TripProgressRow;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.services.seat.SeatAvailabilityEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TripProgressEngineTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T11:00:00Z");
+
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private StopRepository stopRepository;
+    @Mock
+    private SeatAvailabilityEngine seatEngine;
+    @Mock
+    private TripProgressWriter writer;
+
+    private final List<RouteStop> route = TripSimulator.route(1L, 5);
+
+    private void givenTrips(long from, long to) {
+        for (long id = from; id <= to; id++) {
+            when(tripRepository.findProgressRow(id))
+                    .thenReturn(Optional.of(new TripProgressRow(id, 1L, TripStatus.SCHEDULED, null)));
+        }
+        when(stopRepository.findRouteStops(1L)).thenReturn(route);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProgressTransition> flushed() {
+        ArgumentCaptor<List<ProgressTransition>> batches = ArgumentCaptor.forClass(List.class);
+        verify(writer, atLeastOnce()).write(batches.capture());
+        List<ProgressTransition> all = new ArrayList<>();
+        batches.getAllValues().forEach(all::addAll);
+        return all;
+    }
+
+    // ---------------------------------------------------------
+    // TEST 1: un viaje, procesado en el hilo que publica
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Las llegadas liberan asientos al instante y las transiciones se escriben en lote")
+    void singleTripInline() {
+        givenTrips(7L, 7L);
+        TripProgressEngine engine = new TripProgressEngine(tripRepository, stopRepository, seatEngine, writer, 0, Clock.systemUTC());
+
+        TripSimulator.drive(7L, route, 2, T0).forEach(engine::publish);
+        verifyNoInteractions(writer);
+        engine.flush();
+
+        List<ProgressTransition> transitions = flushed();
+        assertEquals(2 * route.size() - 1, transitions.size());
+        verify(seatEngine).releasePassed(7L, 2);
+        verify(seatEngine).releasePassed(7L, 4);
+        verify(seatEngine).forget(7L);
+        verify(tripRepository, times(1)).findProgressRow(7L);
+        verify(stopRepository, times(1)).findRouteStops(1L);
+        assertEquals(0, engine.pendingTransitions());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: viajes inexistentes
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Las posiciones de un viaje inexistente se ignoran sin volver a consultar")
+    void unknownTripIgnored() {
+        when(tripRepository.findProgressRow(99L)).thenReturn(Optional.empty());
+        TripProgressEngine engine = new TripProgressEngine(tripRepository, stopRepository, seatEngine, writer, 0, Clock.systemUTC());
+
+        TripSimulator.drive(99L, route, 1, T0).forEach(engine::publish);
+        engine.flush();
+
+        verify(tripRepository, times(1)).findProgressRow(99L);
+        verifyNoInteractions(writer, seatEngine);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 3: muchos viajes en paralelo, un hilo por viaje
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Con varios hilos cada viaje conserva el orden de sus paradas y todos llegan")
+    void manyTripsOnWorkers() throws Exception {
+        int trips = 300;
+        givenTrips(1L, trips);
+        TripProgressEngine engine = new TripProgressEngine(tripRepository, stopRepository, seatEngine, writer, 4, Clock.systemUTC());
+        engine.start();
+        try {
+            List<List<PositionEvent>> drives = new ArrayList<>();
+            for (long id = 1; id <= trips; id++) {
+                drives.add(TripSimulator.drive(id, route, 2, T0));
+            }
+            long total = 0;
+            // Intercala las posiciones de todos los viajes como llegarían en producción
+            for (int step = 0; step < drives.get(0).size(); step++) {
+                for (List<PositionEvent> drive : drives) {
+                    while (!engine.publish(drive.get(step))) {
+                        Thread.onSpinWait();
+                    }
+                    total++;
+                }
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (engine.processedEvents() < total && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            engine.flush();
+        } finally {
+            engine.stop();
+        }
+
+        List<ProgressTransition> transitions = flushed();
+        assertEquals(trips * (2 * route.size() - 1), transitions.size());
+        for (long id = 1; id <= trips; id++) {
+            long tripId = id;
+            List<Integer> positions = transitions.stream()
+                    .filter(t -> t.tripId() == tripId && t.kind() == ProgressTransition.Kind.ARRIVED_AT)
+                    .map(ProgressTransition::position).toList();
+            List<Integer> sorted = new ArrayList<>(positions);
+            Collections.sort(sorted);
+            assertEquals(sorted, positions, "Paradas fuera de orden en el viaje " + id);
+            assertEquals(route.size(), positions.size());
+        }
+        verify(seatEngine, times(trips)).forget(anyLong());
+        assertEquals(0, engine.droppedEvents());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 4: escrituras fallidas
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un lote que falla se reintenta con espera y sin adelantar transiciones posteriores")
+    void failedBatchIsRetried() {
+        givenTrips(7L, 7L);
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L, 1_000L, 60_000L);
+        TripProgressEngine engine = new TripProgressEngine(tripRepository, stopRepository, seatEngine, writer, 0, clock);
+        doThrow(new IllegalStateException("caída")).doNothing().when(writer).write(anyList());
+
+        List<PositionEvent> drive = TripSimulator.drive(7L, route, 2, T0);
+        int half = drive.size() / 2;
+        drive.subList(0, half).forEach(engine::publish);
+        engine.flush();
+        int failed = engine.pendingTransitions();
+        assertTrue(failed > 0);
+
+        drive.subList(half, drive.size()).forEach(engine::publish);
+        engine.flush();
+        verify(writer, times(1)).write(anyList());
+
+        engine.flush();
+        List<ProgressTransition> transitions = flushed();
+        assertEquals(2 * route.size() - 1 + failed, transitions.size());
+        assertEquals(0, engine.pendingTransitions());
+        assertEquals(0, engine.deadLetteredTransitions());
+    }
+
+    @Test
+    @DisplayName("Agotados los reintentos se escribe viaje por viaje y solo se descarta el que falla")
+    void exhaustedRetriesIsolateFailingTrip() {
+        givenTrips(1L, 2L);
+        Clock clock = mock(Clock.class);
+        // Cada lectura del reloj avanza un minuto: ninguna espera de reintento bloquea el flush
+        AtomicLong now = new AtomicLong();
+        when(clock.millis()).thenAnswer(invocation -> now.addAndGet(60_000));
+        TripProgressEngine engine = new TripProgressEngine(tripRepository, stopRepository, seatEngine, writer, 0, clock);
+        doAnswer(invocation -> {
+            List<ProgressTransition> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(transition -> transition.tripId() == 2L)) {
+                throw new IllegalStateException("fila bloqueada");
+            }
+            return null;
+        }).when(writer).write(anyList());
+
+        TripSimulator.drive(1L, route, 1, T0).forEach(engine::publish);
+        TripSimulator.drive(2L, route, 1, T0).forEach(engine::publish);
+        for (int attempt = 0; attempt < TripProgressEngine.MAX_WRITE_ATTEMPTS; attempt++) {
+            engine.flush();
+        }
+
+        assertEquals(0, engine.pendingTransitions());
+        assertEquals(2 * route.size() - 1, engine.deadLetteredTransitions());
+        verify(writer).write(argThat(batch -> !batch.isEmpty()
+                && batch.stream().allMatch(transition -> transition.tripId() == 1L)));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 5: barrido de viajes en memoria
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("El barrido suelta los terminados inactivos y los abandonados tras horas sin posiciones")
+    void sweepReleasesFinishedAndAbandonedTrips() {
+        Map<Long, TripProgress> trips = new HashMap<>();
+        trips.put(1L, progress(1L, TripStatus.ARRIVED, 0));
+        trips.put(2L, progress(2L, TripStatus.DEPARTED, 0));
+        trips.put(3L, progress(3L, TripStatus.DEPARTED, TripProgressEngine.ABANDONED_RETENTION_NANOS));
+
+        assertEquals(1, TripProgressEngine.sweep(trips, TripProgressEngine.FINISHED_RETENTION_NANOS + 1));
+        assertFalse(trips.containsKey(1L));
+
+        assertEquals(1, TripProgressEngine.sweep(trips, TripProgressEngine.ABANDONED_RETENTION_NANOS + 1));
+        assertEquals(Set.of(3L), trips.keySet());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 6: paradas de la ruta modificadas
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Tras cambiar las paradas de la ruta los viajes nuevos las leen de nuevo")
+    void routeChangeReloadsStops() {
+        givenTrips(7L, 8L);
+        TripProgressEngine engine = new TripProgressEngine(tripRepository, stopRepository, seatEngine, writer, 0, Clock.systemUTC());
+
+        engine.publish(TripSimulator.drive(7L, route, 1, T0).get(0));
+        engine.onRouteChanged(1L);
+        engine.publish(TripSimulator.drive(8L, route, 1, T0).get(0));
+
+        verify(stopRepository, times(2)).findRouteStops(1L);
+    }
+
+    private TripProgress progress(long tripId, TripStatus status, long touchedNanos) {
+        TripProgress progress = new TripProgress(tripId, route, status, null);
+        progress.touch(touchedNanos);
+        return progress;
+    }
+}
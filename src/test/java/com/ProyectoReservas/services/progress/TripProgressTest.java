@@ -0,0 +1,87 @@
+package com.ProyectoReservas.services.progress;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.projections.RouteStop;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ProyectoReservas.services.progress.ProgressTransition.Kind.ARRIVED_AT;
+import static com.ProyectoReservas.services.progress.ProgressTransition.Kind.DEPARTED_FROM;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripProgressTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T11:00:00Z");
+    private final List<RouteStop> route = TripSimulator.route(1L, 4);
+
+    private static PositionEvent at(RouteStop stop, int minute) {
+        return new PositionEvent(7L, stop.lat().doubleValue(), stop.lng().doubleValue(), T0.plusSeconds(minute * 60L));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 1: recorrido completo
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un recorrido completo pasa por BOARDING, DEPARTED y ARRIVED parada por parada")
+    void fullTrip() {
+        TripProgress progress = new TripProgress(7L, route, TripStatus.SCHEDULED, null);
+        List<ProgressTransition> all = new ArrayList<>();
+        TripSimulator.drive(7L, route, 3, T0).forEach(event -> all.addAll(progress.apply(event)));
+
+        assertEquals(2 * route.size() - 1, all.size());
+        assertEquals(ARRIVED_AT, all.get(0).kind());
+        assertEquals(TripStatus.BOARDING, all.get(0).status());
+        assertEquals(DEPARTED_FROM, all.get(1).kind());
+        assertEquals(TripStatus.DEPARTED, all.get(1).status());
+        assertEquals(2, all.get(4).position());
+        ProgressTransition last = all.get(all.size() - 1);
+        assertEquals(ARRIVED_AT, last.kind());
+        assertEquals(TripStatus.ARRIVED, last.status());
+        assertEquals(route.get(3).stopId(), last.stopId());
+        assertTrue(progress.isFinished());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: paradas saltadas por falta de señal
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Si el GPS salta una parada, se da por visitada antes de llegar a la siguiente")
+    void skippedStopIsVisited() {
+        TripProgress progress = new TripProgress(7L, route, TripStatus.SCHEDULED, null);
+        progress.apply(at(route.get(0), 0));
+        progress.apply(new PositionEvent(7L, 5.02, -74.0, T0.plusSeconds(300)));
+
+        List<ProgressTransition> jump = progress.apply(at(route.get(2), 30));
+
+        assertEquals(List.of(ARRIVED_AT, DEPARTED_FROM, ARRIVED_AT), jump.stream().map(ProgressTransition::kind).toList());
+        assertEquals(1, jump.get(0).position());
+        assertEquals(2, jump.get(2).position());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 3: eventos viejos y viajes retomados
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Una posición más vieja que la última se ignora")
+    void outOfOrderEventIgnored() {
+        TripProgress progress = new TripProgress(7L, route, TripStatus.SCHEDULED, null);
+        progress.apply(at(route.get(0), 10));
+
+        assertTrue(progress.apply(new PositionEvent(7L, 5.02, -74.0, T0)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Un viaje retomado desde la base de datos sigue desde su posición guardada")
+    void resumesFromStoredPosition() {
+        TripProgress progress = new TripProgress(7L, route, TripStatus.DEPARTED, 1);
+
+        assertTrue(progress.apply(at(route.get(1), 0)).isEmpty());
+        List<ProgressTransition> next = progress.apply(at(route.get(2), 10));
+        assertEquals(1, next.size());
+        assertEquals(2, next.get(0).position());
+    }
+}
@@ -0,0 +1,53 @@
+package com.ProyectoReservas.services.progress;
+
+import com.ProyectoReservas.domain.entities.TripStatus;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.services.parcel.ParcelTransitionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.ProyectoReservas.services.progress.ProgressTransition.Kind.ARRIVED_AT;
+import static com.ProyectoReservas.services.progress.ProgressTransition.Kind.DEPARTED_FROM;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TripProgressWriterTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T11:00:00Z");
+
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private ParcelTransitionService parcelTransitionService;
+
+    @InjectMocks
+    private TripProgressWriter writer;
+
+    // ---------------------------------------------------------
+    // TEST 1: una sentencia para todos los viajes del lote
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("El lote actualiza todos los viajes en una sentencia y mueve las encomiendas viaje por viaje")
+    void coalescesTripsIntoOneUpdate() {
+        writer.write(List.of(
+                new ProgressTransition(1L, ARRIVED_AT, 10L, 0, TripStatus.BOARDING, T0),
+                new ProgressTransition(2L, ARRIVED_AT, 21L, 1, TripStatus.DEPARTED, T0),
+                new ProgressTransition(1L, DEPARTED_FROM, 10L, 0, TripStatus.DEPARTED, T0.plusSeconds(60)),
+                new ProgressTransition(2L, ARRIVED_AT, 23L, 3, TripStatus.ARRIVED, T0.plusSeconds(90))));
+
+        verify(tripRepository, times(1)).updateProgress(
+                new Long[]{1L, 2L}, new String[]{"DEPARTED", "ARRIVED"}, new Integer[]{0, 3});
+        InOrder parcels = inOrder(parcelTransitionService);
+        parcels.verify(parcelTransitionService).advance(1L, List.of(10L), List.of(10L), false);
+        parcels.verify(parcelTransitionService).advance(2L, List.of(), List.of(21L), true);
+        verifyNoMoreInteractions(parcelTransitionService);
+    }
+}
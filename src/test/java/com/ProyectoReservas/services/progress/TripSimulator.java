@@ -0,0 +1,48 @@
+package com.ProyectoReservas.services.progress;
+
+import com.ProyectoReservas.domain.projections.RouteStop;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Simulador local de buses: genera las paradas de una ruta en línea recta (una cada ~5 km) y las
+// posiciones de un viaje que se detiene en cada parada y avanza entre ellas.
+public final class TripSimulator {
+
+    // ~0,045° de latitud son unos 5 km
+    static final double STOP_SPACING_DEGREES = 0.045;
+
+    private TripSimulator() {
+    }
+
+    public static List<RouteStop> route(long routeId, int stops) {
+        List<RouteStop> route = new ArrayList<>();
+        for (int i = 0; i < stops; i++) {
+            route.add(new RouteStop(routeId * 1000 + i, routeId, i,
+                    "Parada " + i, BigDecimal.valueOf(5.0 + i * STOP_SPACING_DEGREES), BigDecimal.valueOf(-74.0)));
+        }
+        return route;
+    }
+
+    // Por cada parada: una posición en ella y otra antes de salir; entre paradas, pointsPerLeg puntos
+    public static List<PositionEvent> drive(long tripId, List<RouteStop> route, int pointsPerLeg, Instant start) {
+        List<PositionEvent> events = new ArrayList<>();
+        Instant at = start;
+        for (int i = 0; i < route.size(); i++) {
+            double lat = route.get(i).lat().doubleValue();
+            double lng = route.get(i).lng().doubleValue();
+            events.add(new PositionEvent(tripId, lat, lng, at = at.plusSeconds(30)));
+            events.add(new PositionEvent(tripId, lat + 0.0002, lng, at = at.plusSeconds(60)));
+            if (i + 1 < route.size()) {
+                for (int p = 1; p <= pointsPerLeg; p++) {
+                    double fraction = (double) p / (pointsPerLeg + 1);
+                    events.add(new PositionEvent(tripId, lat + fraction * STOP_SPACING_DEGREES, lng,
+                            at = at.plusSeconds(30)));
+                }
+            }
+        }
+        return events;
+    }
+}
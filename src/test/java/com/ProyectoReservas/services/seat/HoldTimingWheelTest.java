@@ -0,0 +1,67 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.services.seat.HoldTimingWheel.ExpiringHold;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldTimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private static ExpiringHold hold(long id) {
+        return new ExpiringHold(id, 1L, (int) id, StopSegment.fullRoute());
+    }
+
+    @Test
+    @DisplayName("Un hold debe vencer en el primer tick posterior a su expiración, nunca antes")
+    void testExpiresOnDeadline() {
+        HoldTimingWheel wheel = new HoldTimingWheel(1000, START);
+        wheel.schedule(hold(1), START + 2_500);
+
+        assertTrue(wheel.advance(START + 2_999).isEmpty());
+        assertEquals(List.of(hold(1)), wheel.advance(START + 3_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Los holds lejanos deben bajar por los niveles y vencer a tiempo")
+    void testCascadesAcrossLevels() {
+        HoldTimingWheel wheel = new HoldTimingWheel(1000, START);
+        long[] delays = {5_000, 70_000, 3_600_000, 2L * 24 * 3_600_000, 200L * 24 * 3_600_000};
+        for (int i = 0; i < delays.length; i++) {
+            wheel.schedule(hold(i), START + delays[i]);
+        }
+
+        for (int i = 0; i < delays.length; i++) {
+            assertTrue(wheel.advance(START + delays[i] - 1_000).isEmpty(), "hold " + i + " venció antes de tiempo");
+            assertEquals(List.of(hold(i)), wheel.advance(START + delays[i]), "hold " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Un hold cancelado o reprogramado no debe vencer en su fecha original")
+    void testCancelAndReschedule() {
+        HoldTimingWheel wheel = new HoldTimingWheel(1000, START);
+        wheel.schedule(hold(1), START + 10_000);
+        wheel.schedule(hold(2), START + 10_000);
+        wheel.cancel(1L);
+        wheel.schedule(hold(2), START + 20_000);
+
+        assertTrue(wheel.advance(START + 15_000).isEmpty());
+        assertEquals(List.of(hold(2)), wheel.advance(START + 20_000));
+    }
+
+    @Test
+    @DisplayName("Un hold ya vencido al programarse debe salir en el siguiente avance")
+    void testAlreadyExpired() {
+        HoldTimingWheel wheel = new HoldTimingWheel(1000, START);
+        wheel.schedule(hold(1), START - 60_000);
+
+        assertEquals(List.of(hold(1)), wheel.advance(START));
+    }
+}
@@ -0,0 +1,318 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.entities.Ticket;
+import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.projections.SeatOccupancy;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatAvailabilityEngineTest {
+
+    @Mock
+    private TripRepository tripRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+
+    @InjectMocks
+    private SeatAvailabilityEngine engine;
+
+    private static final StopSegment FULL = StopSegment.fullRoute();
+
+    private void givenTrip(long tripId, int capacity, List<SeatOccupancy> sold, List<SeatOccupancy> held) {
+        when(tripRepository.findBusCapacity(tripId)).thenReturn(Optional.of(capacity));
+        when(ticketRepository.findSoldSeatSegmentsByTrip(tripId)).thenReturn(sold);
+        when(seatHoldRepository.findActiveHeldSeatSegments(tripId)).thenReturn(held);
+    }
+
+    private static SeatOccupancy seat(int number) {
+        return new SeatOccupancy(number, StopSegment.ROUTE_START, StopSegment.ROUTE_END);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 1: carga inicial
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("seatMap debe cargar vendidos y holds una sola vez")
+    void testSeatMapLoadsOnce() {
+        givenTrip(1L, 40, List.of(seat(1), seat(2)), List.of(seat(3)));
+
+        SeatMap map = engine.seatMap(1L);
+        engine.seatMap(1L);
+        engine.isFree(1L, 4);
+
+        assertEquals(40, map.capacity());
+        assertEquals(SeatState.SOLD, map.state(1));
+        assertEquals(SeatState.HELD, map.state(3));
+        assertEquals(SeatState.FREE, map.state(40));
+        assertEquals(2, map.soldCount());
+        assertEquals(1, map.heldCount());
+        assertEquals(37, map.freeCount());
+        verify(ticketRepository, times(1)).findSoldSeatSegmentsByTrip(1L);
+        verify(seatHoldRepository, times(1)).findActiveHeldSeatSegments(1L);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: ciclo hold -> venta -> cancelación
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Los eventos de hold, venta y cancelación deben reflejarse en el mapa")
+    void testLifecycle() {
+        givenTrip(2L, 70, List.of(), List.of());
+        engine.seatMap(2L);
+
+        engine.onHoldCreated(2L, 65, FULL);
+        assertEquals(SeatState.HELD, engine.state(2L, 65));
+
+        engine.onTicketSold(2L, 65, FULL);
+        assertEquals(SeatState.SOLD, engine.state(2L, 65));
+        assertEquals(0, engine.seatMap(2L).heldCount());
+
+        engine.onTicketReleased(2L, 65, FULL);
+        assertTrue(engine.isFree(2L, 65));
+
+        engine.onHoldCreated(2L, 10, FULL);
+        engine.onHoldReleased(2L, 10, FULL);
+        assertTrue(engine.isFree(2L, 10));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 3: viajes no cargados
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Los eventos de viajes no cargados no deben consultar la base de datos")
+    void testEventsOnUnloadedTrip() {
+        engine.onTicketSold(3L, 1, FULL);
+        engine.onHoldCreated(3L, 2, FULL);
+
+        assertFalse(engine.isLoaded(3L));
+        verifyNoInteractions(tripRepository, ticketRepository, seatHoldRepository);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 4: asiento fuera de rango
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un asiento fuera de la capacidad debe rechazarse")
+    void testSeatOutOfRange() {
+        givenTrip(4L, 40, List.of(), List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> engine.state(4L, 41));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 5: venta por tramos
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un asiento vendido en un tramo debe seguir libre en tramos que no se solapan")
+    void testSegmentAvailability() {
+        givenTrip(5L, 40, List.of(new SeatOccupancy(7, 0, 2)), List.of(new SeatOccupancy(8, 5, 9)));
+
+        assertFalse(engine.isFree(5L, 7, StopSegment.of(1, 3)));
+        assertTrue(engine.isFree(5L, 7, StopSegment.of(2, 10)));
+        assertEquals(SeatState.SOLD, engine.state(5L, 7));
+
+        engine.onTicketSold(5L, 7, StopSegment.of(2, 10));
+        assertTrue(engine.isFree(5L, 7, StopSegment.of(10, StopSegment.ROUTE_END)));
+        assertEquals(SeatState.HELD, engine.state(5L, 8, StopSegment.of(8, 12)));
+        assertTrue(engine.isFree(5L, 8, StopSegment.of(0, 5)));
+
+        SeatMap map = engine.seatMap(5L);
+        assertEquals(38, map.freeCount());
+        assertEquals(39, map.freeCount(StopSegment.of(0, 5)));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 6: máscaras de tramo
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("StopSegment debe rechazar tramos vacíos y calcular su máscara")
+    void testStopSegmentMask() {
+        assertEquals(0b0110L, StopSegment.of(1, 3).mask());
+        assertEquals(-1L, StopSegment.fullRoute().mask());
+        assertEquals(Long.MIN_VALUE, StopSegment.of(63, StopSegment.ROUTE_END).mask());
+        assertTrue(StopSegment.of(0, 3).overlaps(StopSegment.of(2, 4)));
+        assertFalse(StopSegment.of(0, 2).overlaps(StopSegment.of(2, 4)));
+        assertThrows(IllegalArgumentException.class, () -> StopSegment.of(3, 3));
+        assertThrows(IllegalArgumentException.class, () -> StopSegment.of(0, 65));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 7: tryHold
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("tryHold debe conceder el asiento a un solo solicitante por tramo")
+    void testTryHold() {
+        givenTrip(7L, 40, List.of(seat(1)), List.of());
+
+        assertFalse(engine.tryHold(7L, 1, FULL));
+        assertTrue(engine.tryHold(7L, 2, StopSegment.of(0, 3)));
+        assertFalse(engine.tryHold(7L, 2, StopSegment.of(2, 5)));
+        assertTrue(engine.tryHold(7L, 2, StopSegment.of(3, 5)));
+        assertEquals(SeatState.HELD, engine.state(7L, 2));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 8: contadores de ocupación
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Los contadores de ocupación deben seguir los cambios sin recorrer el mapa")
+    void testOccupancyCounters() {
+        givenTrip(8L, 4, List.of(seat(1)), List.of(seat(2)));
+        StopSegment firstLeg = StopSegment.of(0, 1);
+        StopSegment secondLeg = StopSegment.of(1, 2);
+
+        assertEquals(2, engine.occupiedSeats(8L));
+        assertEquals(0.5, engine.loadFactor(8L, FULL));
+
+        assertTrue(engine.tryHold(8L, 3, firstLeg));
+        assertTrue(engine.tryHold(8L, 3, secondLeg));
+        assertEquals(3, engine.occupiedSeats(8L));
+
+        engine.onTicketSold(8L, 3, firstLeg);
+        engine.onHoldReleased(8L, 2, FULL);
+        engine.onHoldReleased(8L, 3, secondLeg);
+        assertEquals(2, engine.occupiedSeats(8L));
+
+        engine.onTicketReleased(8L, 1, FULL);
+        engine.onTicketReleased(8L, 1, FULL);
+        assertEquals(0.25, engine.loadFactor(8L, FULL));
+        // El asiento 3 solo está vendido en el primer tramo
+        assertEquals(0.0, engine.loadFactor(8L, secondLeg));
+
+        // Dos asientos en tramos distintos: el tramo más lleno tiene uno
+        engine.onTicketSold(8L, 4, secondLeg);
+        assertEquals(0.25, engine.loadFactor(8L, FULL));
+        engine.onTicketSold(8L, 3, secondLeg);
+        assertEquals(0.5, engine.loadFactor(8L, secondLeg));
+        verify(tripRepository, times(1)).findBusCapacity(8L);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 9: tramos recorridos
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Al pasar una parada se liberan los tramos que terminaban en ella, también tras recargar")
+    void testReleasePassedSegments() {
+        givenTrip(9L, 4, List.of(new SeatOccupancy(1, 0, 2), new SeatOccupancy(2, 0, 4)), List.of());
+
+        engine.releasePassed(9L, 2);
+
+        assertEquals(SeatState.FREE, engine.state(9L, 1));
+        assertEquals(SeatState.SOLD, engine.state(9L, 2, StopSegment.of(2, 3)));
+        assertEquals(1, engine.occupiedSeats(9L));
+
+        engine.evict(9L);
+        assertEquals(SeatState.FREE, engine.state(9L, 1));
+        verify(ticketRepository, times(2)).findSoldSeatSegmentsByTrip(9L);
+    }
+
+    // TEST 10: cambios durante la carga
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Una venta confirmada mientras se lee el viaje se reaplica sobre el mapa cargado")
+    void testChangeDuringLoadIsReplayed() {
+        when(tripRepository.findBusCapacity(10L)).thenReturn(Optional.of(40));
+        when(ticketRepository.findSoldSeatSegmentsByTrip(10L)).thenReturn(List.of());
+        // La venta se confirma después de leer los tickets y antes de publicar el mapa
+        when(seatHoldRepository.findActiveHeldSeatSegments(10L)).thenAnswer(invocation -> {
+            engine.onTicketSold(10L, 3, FULL);
+            return List.of();
+        });
+
+        assertEquals(SeatState.SOLD, engine.state(10L, 3));
+        assertEquals(1, engine.occupiedSeats(10L));
+
+        engine.onTicketReleased(10L, 3, FULL);
+        assertEquals(SeatState.FREE, engine.state(10L, 3));
+        verify(ticketRepository, times(1)).findSoldSeatSegmentsByTrip(10L);
+    }
+
+    // TEST 11: barrido de viajes sin uso
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Los mapas sin uso durante un barrido completo se descartan")
+    void testEvictIdle() {
+        givenTrip(11L, 40, List.of(), List.of());
+        givenTrip(12L, 40, List.of(), List.of());
+        engine.preload(11L);
+        engine.preload(12L);
+
+        assertEquals(0, engine.evictIdle());
+        engine.isFree(12L, 1);
+        assertEquals(1, engine.evictIdle());
+
+        assertFalse(engine.isLoaded(11L));
+        assertTrue(engine.isLoaded(12L));
+        assertEquals(1, engine.loadedCount());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 12: asiento vendido en un tramo y retenido en otro
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Un asiento vendido en un tramo y retenido en otro cuenta una sola vez como ocupado")
+    void testSoldAndHeldSeatCountedOnce() {
+        givenTrip(13L, 2, List.of(new SeatOccupancy(1, 0, 2)), List.of(new SeatOccupancy(1, 2, 4)));
+
+        assertEquals(1, engine.occupiedSeats(13L));
+
+        engine.onTicketReleased(13L, 1, StopSegment.of(0, 2));
+        assertEquals(1, engine.occupiedSeats(13L));
+        engine.onHoldReleased(13L, 1, StopSegment.of(2, 4));
+        assertEquals(0, engine.occupiedSeats(13L));
+    }
+
+    // ---------------------------------------------------------
+    // TEST 13: listener con un ticket que cambia de tramo
+    // ---------------------------------------------------------
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Un ticket que cambia de tramo o de asiento libera en memoria lo que ocupaba antes")
+    void testListenerMovesTicket() {
+        givenTrip(14L, 10, List.of(new SeatOccupancy(3, 0, 2)), List.of());
+        engine.seatMap(14L);
+        ObjectProvider<SeatAvailabilityEngine> engines = mock(ObjectProvider.class);
+        when(engines.getIfAvailable()).thenReturn(engine);
+        SeatAvailabilityListener listener = new SeatAvailabilityListener(engines, mock(ObjectProvider.class));
+
+        // Ticket cargado de la base: la entidad recuerda su asiento y tramo
+        Ticket ticket = Ticket.builder().trip(Trip.builder().id(14L).build()).seatNumber(3)
+                .segment(StopSegment.of(0, 2)).status(TicketStatus.SOLD).build();
+        ReflectionTestUtils.invokeMethod(ticket, "rememberPersistedState");
+
+        ticket.setSegment(StopSegment.of(2, 4));
+        listener.onSave(ticket);
+        ReflectionTestUtils.invokeMethod(ticket, "rememberPersistedState");
+        assertTrue(engine.isFree(14L, 3, StopSegment.of(0, 2)));
+        assertFalse(engine.isFree(14L, 3, StopSegment.of(2, 4)));
+
+        ticket.setSeatNumber(4);
+        ticket.setStatus(TicketStatus.CANCELLED);
+        listener.onSave(ticket);
+        assertTrue(engine.isFree(14L, 3, StopSegment.of(2, 4)));
+        assertTrue(engine.isFree(14L, 4));
+        assertEquals(0, engine.occupiedSeats(14L));
+    }
+}
@@ -0,0 +1,168 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.HoldStatus;
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.entities.SeatHold;
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters.SeatRows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatHoldExpirySchedulerTest {
+
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+    @Mock
+    private SeatAvailabilityEngine availabilityEngine;
+    @Mock
+    private TripOccupancyCounters occupancyCounters;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-10T12:00:00Z"));
+    private SeatHoldExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        scheduler = new SeatHoldExpiryScheduler(seatHoldRepository, availabilityEngine, occupancyCounters,
+                transactionTemplate, outboxWriter, clock);
+    }
+
+    private SeatHold hold(long id, int seat, long expiresInSeconds) {
+        return SeatHold.builder()
+                .id(id)
+                .trip(Trip.builder().id(9L).build())
+                .seatNumber(seat)
+                .segment(StopSegment.fullRoute())
+                .status(HoldStatus.HOLD)
+                .expiresAt(OffsetDateTime.ofInstant(clock.instant().plusSeconds(expiresInSeconds), ZoneOffset.UTC))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Los holds vencidos en un tick deben expirarse con un solo UPDATE")
+    void testBulkExpiry() {
+        scheduler.track(hold(1L, 1, 30));
+        scheduler.track(hold(2L, 2, 30));
+        scheduler.track(hold(3L, 3, 600));
+        when(seatHoldRepository.expireHolds(anyCollection())).thenReturn(List.of(1L, 2L));
+
+        clock.advanceSeconds(10);
+        scheduler.expireDue();
+        verifyNoInteractions(seatHoldRepository);
+
+        clock.advanceSeconds(20);
+        scheduler.expireDue();
+
+        verify(seatHoldRepository, times(1)).expireHolds(List.of(1L, 2L));
+        verify(availabilityEngine).onHoldReleased(9L, 1, StopSegment.fullRoute());
+        verify(availabilityEngine).onHoldReleased(9L, 2, StopSegment.fullRoute());
+        verify(occupancyCounters).adjust(9L, List.of(new SeatRows(1, 0, -1), new SeatRows(2, 0, -1)));
+        verify(outboxWriter).hold(OutboxEventType.HOLD_EXPIRED, 1L, 9L, 1);
+        verify(outboxWriter).hold(OutboxEventType.HOLD_EXPIRED, 2L, 9L, 2);
+        assertEquals(1, scheduler.trackedCount());
+    }
+
+    @Test
+    @DisplayName("Un hold consumido antes del UPDATE no debe publicar HOLD_EXPIRED ni liberar su asiento")
+    void testExpiryEventsOnlyForUpdatedRows() {
+        scheduler.track(hold(1L, 1, 1));
+        scheduler.track(hold(2L, 2, 1));
+        when(seatHoldRepository.expireHolds(anyCollection())).thenReturn(List.of(2L));
+
+        clock.advanceSeconds(1);
+        scheduler.expireDue();
+
+        verify(occupancyCounters).adjust(9L, List.of(new SeatRows(2, 0, -1)));
+        verify(outboxWriter).hold(OutboxEventType.HOLD_EXPIRED, 2L, 9L, 2);
+        verifyNoMoreInteractions(outboxWriter);
+        // El hold 1 ya es un ticket: su asiento no se libera en memoria
+        verify(availabilityEngine).onHoldReleased(9L, 2, StopSegment.fullRoute());
+        verify(availabilityEngine, never()).onHoldReleased(eq(9L), eq(1), any());
+    }
+
+    @Test
+    @DisplayName("rebuild debe registrar los holds vivos de cada viaje")
+    void testRebuild() {
+        when(seatHoldRepository.findTripIdsByStatus(HoldStatus.HOLD)).thenReturn(List.of(9L));
+        when(seatHoldRepository.findByTripIdAndStatus(9L, HoldStatus.HOLD))
+                .thenReturn(List.of(hold(1L, 1, 60), hold(2L, 2, -60)));
+
+        scheduler.rebuild();
+        assertEquals(2, scheduler.trackedCount());
+
+        scheduler.expireDue();
+        verify(seatHoldRepository).expireHolds(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("Si el UPDATE falla los holds deben reintentarse en el siguiente tick")
+    void testRetryOnFailure() {
+        scheduler.track(hold(1L, 1, 1));
+        when(seatHoldRepository.expireHolds(anyCollection()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(List.of(1L));
+
+        clock.advanceSeconds(1);
+        scheduler.expireDue();
+        verifyNoInteractions(availabilityEngine);
+
+        clock.advanceSeconds(1);
+        scheduler.expireDue();
+        verify(availabilityEngine).onHoldReleased(9L, 1, StopSegment.fullRoute());
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advanceSeconds(long seconds) {
+            now = now.plusSeconds(seconds);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
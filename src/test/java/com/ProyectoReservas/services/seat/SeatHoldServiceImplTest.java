@@ -0,0 +1,232 @@
+package com.ProyectoReservas.services.seat;
+
+import com.ProyectoReservas.domain.entities.HoldStatus;
+import com.ProyectoReservas.domain.entities.OutboxEventType;
+import com.ProyectoReservas.domain.entities.Route;
+import com.ProyectoReservas.domain.entities.SeatHold;
+import com.ProyectoReservas.domain.entities.Stop;
+import com.ProyectoReservas.domain.entities.StopSegment;
+import com.ProyectoReservas.domain.entities.Trip;
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.domain.repositories.StopRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import com.ProyectoReservas.exceptions.SeatNotAvailableException;
+import com.ProyectoReservas.services.config.ConfigCache;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatHoldServiceImplTest {
+
+    @Mock
+    private SeatAvailabilityEngine availabilityEngine;
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private StopRepository stopRepository;
+    @Mock
+    private TripOccupancyCounters occupancyCounters;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ConfigCache configCache;
+    @Mock
+    private OutboxWriter outboxWriter;
+    @Mock
+    private SeatHoldExpiryScheduler expiryScheduler;
+    @Mock
+    private ObjectProvider<SeatHoldExpiryScheduler> expirySchedulerProvider;
+
+    @InjectMocks
+    private SeatHoldServiceImpl seatHoldService;
+
+    private final StopSegment full = StopSegment.fullRoute();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        lenient().doAnswer(inv -> {
+            inv.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(tripRepository.getReferenceById(1L)).thenReturn(Trip.builder().id(1L).build());
+        lenient().when(userRepository.getReferenceById(2L)).thenReturn(User.builder().id(2L).build());
+        lenient().when(configCache.holdDuration()).thenReturn(Duration.ofMinutes(10));
+        lenient().when(expirySchedulerProvider.getIfAvailable()).thenReturn(expiryScheduler);
+    }
+
+    @Test
+    @DisplayName("El ganador del CAS debe escribir el hold en la base de datos")
+    void testHoldWinnerPersists() {
+        when(availabilityEngine.tryHold(1L, 5, full)).thenReturn(true);
+        when(seatHoldRepository.saveAndFlush(any(SeatHold.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        SeatHold hold = seatHoldService.hold(1L, 5, 2L, null, null);
+
+        assertEquals(5, hold.getSeatNumber());
+        assertNotNull(hold.getExpiresAt());
+        verify(seatHoldRepository).saveAndFlush(any(SeatHold.class));
+        verify(outboxWriter).hold(eq(OutboxEventType.HOLD_CREATED), any(), eq(1L), eq(5));
+    }
+
+    @Test
+    @DisplayName("Quien pierde el CAS no debe tocar la base de datos")
+    void testHoldLoserDoesNotWrite() {
+        when(availabilityEngine.tryHold(1L, 5, full)).thenReturn(false);
+
+        assertThrows(SeatNotAvailableException.class, () -> seatHoldService.hold(1L, 5, 2L, null, null));
+        verifyNoInteractions(seatHoldRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Un conflicto en la base de datos debe descartar el mapa en memoria del viaje")
+    void testHoldDatabaseConflict() {
+        when(availabilityEngine.tryHold(1L, 5, full)).thenReturn(true);
+        when(seatHoldRepository.saveAndFlush(any(SeatHold.class)))
+                .thenThrow(violation("ex_seat_holds_seat_segment", "23P01"));
+
+        assertThrows(SeatNotAvailableException.class, () -> seatHoldService.hold(1L, 5, 2L, null, null));
+        verify(availabilityEngine).evict(1L);
+    }
+
+    @Test
+    @DisplayName("Otra violación de integridad no es un asiento ocupado: se propaga y libera el asiento en memoria")
+    void testHoldOtherIntegrityViolation() {
+        when(availabilityEngine.tryHold(1L, 5, full)).thenReturn(true);
+        DataIntegrityViolationException error = violation("fk_seat_holds_user", "23503");
+        when(seatHoldRepository.saveAndFlush(any(SeatHold.class))).thenThrow(error);
+
+        assertSame(error, assertThrows(DataIntegrityViolationException.class,
+                () -> seatHoldService.hold(1L, 5, 2L, null, null)));
+        verify(availabilityEngine, never()).evict(any());
+        verify(availabilityEngine).onHoldReleased(1L, 5, full);
+    }
+
+    private static DataIntegrityViolationException violation(String constraint, String sqlState) {
+        return new DataIntegrityViolationException(constraint, new ConstraintViolationException(
+                constraint, new SQLException(constraint, sqlState), constraint));
+    }
+
+    @Test
+    @DisplayName("Un error inesperado al escribir debe liberar el asiento en memoria")
+    void testHoldWriteFailureReleases() {
+        when(availabilityEngine.tryHold(1L, 5, full)).thenReturn(true);
+        when(seatHoldRepository.saveAndFlush(any(SeatHold.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> seatHoldService.hold(1L, 5, 2L, null, null));
+        verify(availabilityEngine).onHoldReleased(1L, 5, full);
+    }
+
+    private static Stop stop(long id, long routeId, int position) {
+        return Stop.builder().id(id).route(Route.builder().id(routeId).build()).position(position).build();
+    }
+
+    @Test
+    @DisplayName("Un hold por tramo debe usar las posiciones de las paradas de la ruta del viaje")
+    void testHoldSegmentOfTripRoute() {
+        when(stopRepository.findById(11L)).thenReturn(Optional.of(stop(11L, 3L, 1)));
+        when(stopRepository.findById(12L)).thenReturn(Optional.of(stop(12L, 3L, 3)));
+        when(tripRepository.findRouteIdById(1L)).thenReturn(Optional.of(3L));
+        when(availabilityEngine.tryHold(1L, 5, StopSegment.of(1, 3))).thenReturn(true);
+        when(seatHoldRepository.saveAndFlush(any(SeatHold.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertEquals(5, seatHoldService.hold(1L, 5, 2L, 11L, 12L).getSeatNumber());
+    }
+
+    @Test
+    @DisplayName("Una parada de otra ruta no debe retener el asiento")
+    void testHoldRejectsStopOfOtherRoute() {
+        when(stopRepository.findById(11L)).thenReturn(Optional.of(stop(11L, 3L, 1)));
+        when(stopRepository.findById(12L)).thenReturn(Optional.of(stop(12L, 4L, 3)));
+        when(tripRepository.findRouteIdById(1L)).thenReturn(Optional.of(3L));
+
+        BusinessException error = assertThrows(BusinessException.class, () -> seatHoldService.hold(1L, 5, 2L, 11L, 12L));
+        assertEquals("HOLD_INVALID_STOP", error.getCode());
+        verifyNoInteractions(availabilityEngine, seatHoldRepository);
+    }
+
+    @Test
+    @DisplayName("Un destino anterior o igual al origen no debe retener el asiento")
+    void testHoldRejectsReversedSegment() {
+        when(stopRepository.findById(11L)).thenReturn(Optional.of(stop(11L, 3L, 3)));
+        when(stopRepository.findById(12L)).thenReturn(Optional.of(stop(12L, 3L, 1)));
+        when(tripRepository.findRouteIdById(1L)).thenReturn(Optional.of(3L));
+
+        BusinessException error = assertThrows(BusinessException.class, () -> seatHoldService.hold(1L, 5, 2L, 11L, 12L));
+        assertEquals("HOLD_INVALID_SEGMENT", error.getCode());
+        verifyNoInteractions(availabilityEngine, seatHoldRepository);
+    }
+
+    private SeatHold storedHold(HoldStatus status) {
+        SeatHold hold = SeatHold.builder().id(9L).trip(Trip.builder().id(1L).build()).seatNumber(5).status(status).build();
+        hold.setSegment(full);
+        return hold;
+    }
+
+    @Test
+    @DisplayName("Liberar un hold vigente lo borra, baja el contador y publica un solo evento")
+    void testReleaseActiveHold() {
+        when(seatHoldRepository.findById(9L)).thenReturn(Optional.of(storedHold(HoldStatus.HOLD)));
+        when(seatHoldRepository.deleteActiveHold(9L)).thenReturn(1);
+
+        seatHoldService.release(9L);
+
+        verify(occupancyCounters).adjust(1L, 5, 0, -1);
+        verify(outboxWriter).hold(OutboxEventType.HOLD_RELEASED, 9L, 1L, 5);
+        verify(availabilityEngine).onHoldReleased(1L, 5, full);
+        verify(expiryScheduler).untrack(9L);
+    }
+
+    @Test
+    @DisplayName("Un hold consumido o expirado no se libera ni publica eventos")
+    void testReleaseInactiveHoldIsRejected() {
+        when(seatHoldRepository.findById(9L)).thenReturn(Optional.of(storedHold(HoldStatus.CONSUMED)));
+
+        BusinessException error = assertThrows(BusinessException.class, () -> seatHoldService.release(9L));
+
+        assertEquals("HOLD_NOT_ACTIVE", error.getCode());
+        verify(seatHoldRepository, never()).deleteActiveHold(any());
+        verifyNoInteractions(occupancyCounters, outboxWriter, expiryScheduler);
+    }
+
+    @Test
+    @DisplayName("Si una compra consume el hold mientras se libera, no se borra nada")
+    void testReleaseLosesRaceWithPurchase() {
+        when(seatHoldRepository.findById(9L)).thenReturn(Optional.of(storedHold(HoldStatus.HOLD)));
+        when(seatHoldRepository.deleteActiveHold(9L)).thenReturn(0);
+
+        assertThrows(BusinessException.class, () -> seatHoldService.release(9L));
+        verifyNoInteractions(occupancyCounters, outboxWriter, expiryScheduler);
+        verify(availabilityEngine, never()).onHoldReleased(any(), anyInt(), any());
+    }
+}
@@ -0,0 +1,42 @@
+package com.ProyectoReservas.services.ticket;
+
+import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.domain.projections.ManifestRow;
+
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+// Proceso hijo de ManifestExportServiceImplTest: exporta N filas generadas al vuelo hacia un
+// OutputStream que solo cuenta bytes. Se lanza con un heap pequeño (-Xmx) para que retener filas
+// termine en OutOfMemoryError. Argumentos: filas, formato. Imprime "filas bytes".
+public final class ManifestExportHeapCheck {
+
+    public static void main(String[] args) {
+        long rows = Long.parseLong(args[0]);
+        ManifestFormat format = ManifestFormat.valueOf(args[1]);
+        OffsetDateTime departure = OffsetDateTime.parse("2026-01-15T06:00:00-05:00");
+        Stream<ManifestRow> stream = LongStream.rangeClosed(1, rows).mapToObj(id -> new ManifestRow(
+                id, 1 + id / 40, "RT-" + (id % 50), departure.plusMinutes(id / 40), (int) (1 + id % 40),
+                "Pasajero " + id, "300" + id, "Tunja", "Bogotá", TicketStatus.SOLD, "QR-" + id));
+
+        CountingOutputStream out = new CountingOutputStream();
+        long written = ManifestWriter.write(stream, format, out);
+        System.out.println(written + " " + out.bytes);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.ProyectoReservas.services.ticket;
+
+import com.ProyectoReservas.domain.entities.TicketStatus;
+import com.ProyectoReservas.domain.projections.ManifestRow;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ManifestExportServiceImplTest {
+
+    private static final OffsetDateTime DEPARTURE = OffsetDateTime.parse("2026-01-15T06:00:00-05:00");
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @InjectMocks
+    private ManifestExportServiceImpl service;
+
+    private static ManifestRow row(long id, int seat, String name) {
+        return new ManifestRow(id, 7L, "RT-01", DEPARTURE, seat, name, "3001234567",
+                "Tunja", "Bogotá", TicketStatus.SOLD, "QR-" + id);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 1: CSV con encabezado y escape
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("exportTrip en CSV escribe encabezado, una línea por ticket y cierra el cursor")
+    void exportTripCsv() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(ticketRepository.streamManifestByTrip(7L)).thenReturn(
+                Stream.of(row(1, 1, "Ana"), row(2, 2, "Pérez, \"Lucho\"")).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = service.exportTrip(7L, ManifestFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(3, lines.length);
+        assertEquals(String.join(",", ManifestWriter.CSV_HEADER), lines[0]);
+        assertEquals("1,7,RT-01,2026-01-15T06:00-05:00,1,Ana,3001234567,Tunja,Bogotá,SOLD,QR-1", lines[1]);
+        assertTrue(lines[2].contains(",\"Pérez, \"\"Lucho\"\"\","));
+        assertTrue(closed.get(), "El Stream del repositorio debe cerrarse");
+    }
+
+    // ---------------------------------------------------------
+    // TEST 2: JSON
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("exportTrip en JSON escribe un arreglo con un objeto por ticket")
+    void exportTripJson() throws Exception {
+        when(ticketRepository.streamManifestByTrip(7L)).thenReturn(Stream.of(row(1, 1, "Ana"), row(2, 2, "Luis")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportTrip(7L, ManifestFormat.JSON, out);
+
+        JsonNode json = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(2, json.size());
+        assertEquals("Luis", json.get(1).get("passengerName").asText());
+        assertEquals(2, json.get(1).get("seatNumber").asInt());
+        assertEquals("SOLD", json.get(0).get("status").asText());
+    }
+
+    // ---------------------------------------------------------
+    // TEST 3: exportación del día en la zona pedida
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("exportDay consulta el rango semiabierto del día en la zona indicada")
+    void exportDayUsesHalfOpenRange() {
+        ZoneId bogota = ZoneId.of("America/Bogota");
+        OffsetDateTime from = OffsetDateTime.parse("2026-01-15T00:00:00-05:00");
+        OffsetDateTime to = OffsetDateTime.parse("2026-01-16T00:00:00-05:00");
+        when(ticketRepository.streamManifestByDepartureRange(from, to)).thenReturn(Stream.of(row(1, 1, "Ana")));
+
+        long written = service.exportDay(LocalDate.of(2026, 1, 15), bogota, ManifestFormat.CSV,
+                new ByteArrayOutputStream());
+
+        assertEquals(1, written);
+    }
+
+    // ---------------------------------------------------------
+    // TEST 4: un millón de tickets con heap pequeño
+    // ---------------------------------------------------------
+    @Test
+    @DisplayName("Exportar un millón de tickets cabe en un heap de 32 MB en CSV y en JSON")
+    void exportMillionRowsUnderSmallHeap() throws Exception {
+        for (ManifestFormat format : List.of(ManifestFormat.CSV, ManifestFormat.JSON)) {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            Process process = new ProcessBuilder(java, "-Xmx32m", "-XX:+UseSerialGC",
+                    "-cp", System.getProperty("java.class.path"),
+                    ManifestExportHeapCheck.class.getName(), "1000000", format.name())
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            assertTrue(process.waitFor(2, TimeUnit.MINUTES), "La exportación no terminó");
+
+            assertEquals(0, process.exitValue(), format + ": " + output);
+            String[] result = output.split(" ");
+            assertEquals(1_000_000L, Long.parseLong(result[0]));
+            assertTrue(Long.parseLong(result[1]) > 32L * 1024 * 1024, "La salida debe superar el heap disponible");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.ProyectoReservas.services.ticket;
+
+import com.ProyectoReservas.domain.entities.*;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.ProyectoReservas.exceptions.InvalidHoldException;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import com.ProyectoReservas.services.fare.DynamicPricingEngine;
+import com.ProyectoReservas.services.outbox.OutboxWriter;
+import com.ProyectoReservas.services.seat.SeatHoldExpiryScheduler;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters.SeatRows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketCheckoutServiceImplTest {
+
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private DynamicPricingEngine pricingEngine;
+    @Mock
+    private TripOccupancyCounters occupancyCounters;
+    @Mock
+    private ObjectProvider<SeatHoldExpiryScheduler> expiryScheduler;
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @InjectMocks
+    private TicketCheckoutServiceImpl checkoutService;
+
+    private Route route;
+    private Trip trip;
+    private User user;
+    private Stop first;
+    private Stop middle;
+    private Stop last;
+
+    @BeforeEach
+    void setUp() {
+        route = Route.builder().id(1L).build();
+        trip = Trip.builder().id(10L).route(route).build();
+        user = User.builder().id(5L).build();
+        first = Stop.builder().id(100L).route(route).position(0).build();
+        middle = Stop.builder().id(101L).route(route).position(1).build();
+        last = Stop.builder().id(102L).route(route).position(2).build();
+    }
+
+    private SeatHold hold(long id, int seat, Stop from, Stop to) {
+        return SeatHold.builder()
+                .id(id)
+                .trip(trip)
+                .user(user)
+                .seatNumber(seat)
+                .fromStop(from)
+                .toStop(to)
+                .status(HoldStatus.HOLD)
+                .expiresAt(OffsetDateTime.now().plusMinutes(5))
+                .build();
+    }
+
+    @Test
+    @DisplayName("checkout debe convertir todos los holds en tickets insertados en un solo lote")
+    void testCheckout() {
+        List<SeatHold> holds = List.of(hold(1L, 1, null, null), hold(2L, 2, first, middle), hold(3L, 3, null, null));
+        when(seatHoldRepository.findAllForCheckout(Set.of(1L, 2L, 3L))).thenReturn(holds);
+        when(pricingEngine.quote(trip, null, null)).thenReturn(BigDecimal.valueOf(50000));
+        when(pricingEngine.quote(trip, first, middle)).thenReturn(BigDecimal.valueOf(20000));
+        when(ticketRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(seatHoldRepository.consumeHolds(anySet())).thenReturn(3);
+
+        List<Ticket> tickets = checkoutService.checkout(List.of(1L, 2L, 3L), PaymentMethod.CARD);
+
+        assertEquals(3, tickets.size());
+        assertEquals(BigDecimal.valueOf(50000), tickets.get(0).getPrice());
+        assertEquals(BigDecimal.valueOf(20000), tickets.get(1).getPrice());
+        assertEquals(TicketStatus.SOLD, tickets.get(2).getStatus());
+        verify(ticketRepository, times(1)).saveAll(anyList());
+        verify(ticketRepository, never()).save(any());
+        verify(occupancyCounters, times(1))
+                .adjust(10L, List.of(new SeatRows(1, 1, -1), new SeatRows(2, 1, -1), new SeatRows(3, 1, -1)));
+        verify(outboxWriter).hold(OutboxEventType.HOLD_CONSUMED, 2L, 10L, 2);
+        verify(outboxWriter, times(3)).hold(eq(OutboxEventType.HOLD_CONSUMED), anyLong(), eq(10L), anyInt());
+        tickets.forEach(ticket -> verify(outboxWriter).ticket(OutboxEventType.TICKET_SOLD, ticket));
+    }
+
+    @Test
+    @DisplayName("checkout debe rechazar holds expirados o ya consumidos")
+    void testCheckoutRejectsInvalidHolds() {
+        SeatHold expired = hold(1L, 1, null, null);
+        expired.setExpiresAt(OffsetDateTime.now().minusSeconds(1));
+        when(seatHoldRepository.findAllForCheckout(Set.of(1L))).thenReturn(List.of(expired));
+
+        assertThrows(InvalidHoldException.class, () -> checkoutService.checkout(List.of(1L), PaymentMethod.CASH));
+
+        SeatHold consumed = hold(2L, 2, null, null);
+        consumed.setStatus(HoldStatus.CONSUMED);
+        when(seatHoldRepository.findAllForCheckout(Set.of(2L))).thenReturn(List.of(consumed));
+
+        assertThrows(InvalidHoldException.class, () -> checkoutService.checkout(List.of(2L), PaymentMethod.CASH));
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    @DisplayName("checkout debe fallar si falta algún hold")
+    void testCheckoutMissingHold() {
+        when(seatHoldRepository.findAllForCheckout(Set.of(1L, 2L))).thenReturn(List.of(hold(1L, 1, null, null)));
+
+        assertThrows(ResourceNotFoundException.class, () -> checkoutService.checkout(List.of(1L, 2L), PaymentMethod.CASH));
+    }
+
+    @Test
+    @DisplayName("checkout debe revertirse si algún hold expiró durante la compra")
+    void testCheckoutConcurrentExpiry() {
+        when(seatHoldRepository.findAllForCheckout(Set.of(1L, 2L)))
+                .thenReturn(List.of(hold(1L, 1, first, middle), hold(2L, 2, first, middle)));
+        when(pricingEngine.quote(trip, first, middle)).thenReturn(BigDecimal.valueOf(20000));
+        when(ticketRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(seatHoldRepository.consumeHolds(anySet())).thenReturn(1);
+
+        assertThrows(InvalidHoldException.class, () -> checkoutService.checkout(List.of(1L, 2L), PaymentMethod.CASH));
+        verifyNoInteractions(occupancyCounters);
+    }
+}
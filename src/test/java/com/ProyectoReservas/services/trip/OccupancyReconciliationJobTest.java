@@ -0,0 +1,55 @@
+package com.ProyectoReservas.services.trip;
+
+import com.ProyectoReservas.domain.projections.OccupancyDrift;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyReconciliationJobTest {
+
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private TripOccupancyCounters counters;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private OccupancyReconciliationJob job;
+
+    @Test
+    @DisplayName("reconcile debe corregir solo los viajes con contadores desfasados")
+    void testReconcile() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(tripRepository.findOccupancyDrift(anyCollection())).thenReturn(List.of(
+                new OccupancyDrift(1L, 10, 10L, 2, 2L),
+                new OccupancyDrift(2L, 12, 11L, 0, 0L),
+                new OccupancyDrift(3L, 4, 4L, 3, 1L)));
+        when(tripRepository.resetOccupancy(2L, 11, 0, 12, 0)).thenReturn(1);
+        // El viaje 3 cambió entre la lectura y la corrección: se deja para la próxima pasada
+        when(tripRepository.resetOccupancy(3L, 4, 1, 4, 3)).thenReturn(0);
+
+        assertEquals(1, job.reconcile());
+
+        verify(tripRepository, never()).resetOccupancy(eq(1L), anyInt(), anyInt(), anyInt(), anyInt());
+        verify(counters).evict(2L);
+        verify(counters, never()).evict(3L);
+        verify(counters).evictIfDiffers(1L, 10, 2);
+        verify(counters).evictAllExcept(Set.of(1L, 2L, 3L));
+    }
+}
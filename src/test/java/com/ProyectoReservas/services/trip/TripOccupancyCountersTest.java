@@ -0,0 +1,191 @@
+package com.ProyectoReservas.services.trip;
+
+import com.ProyectoReservas.domain.projections.SeatRowCount;
+import com.ProyectoReservas.domain.projections.TripOccupancy;
+import com.ProyectoReservas.domain.repositories.SeatHoldRepository;
+import com.ProyectoReservas.domain.repositories.TicketRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.services.trip.TripOccupancyCounters.SeatRows;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TripOccupancyCountersTest {
+
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+
+    @InjectMocks
+    private TripOccupancyCounters counters;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    // Filas que quedan en la base después del cambio, por asiento
+    private void rowsAfter(Map<Integer, Long> sold, Map<Integer, Long> held) {
+        when(ticketRepository.countSoldBySeat(anyLong(), anyCollection())).thenReturn(sold.entrySet().stream()
+                .map(e -> new SeatRowCount(e.getKey(), e.getValue())).toList());
+        when(seatHoldRepository.countActiveBySeat(anyLong(), anyCollection())).thenReturn(held.entrySet().stream()
+                .map(e -> new SeatRowCount(e.getKey(), e.getValue())).toList());
+    }
+
+    @Test
+    @DisplayName("Los contadores deben leerse una vez y luego servirse desde memoria")
+    void testLoadOnce() {
+        when(tripRepository.findOccupancyByIds(List.of(1L))).thenReturn(List.of(new TripOccupancy(1L, 10, 2)));
+
+        assertEquals(12, counters.occupiedSeats(1L));
+        assertEquals(12, counters.occupiedSeats(1L));
+
+        verify(tripRepository, times(1)).findOccupancyByIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Un listado debe leer en una sola consulta solo los viajes que no están en memoria")
+    void testBatchLoad() {
+        when(tripRepository.findOccupancyByIds(List.of(1L))).thenReturn(List.of(new TripOccupancy(1L, 4, 1)));
+        counters.occupiedSeats(1L);
+        when(tripRepository.findOccupancyByIds(List.of(2L, 3L))).thenReturn(List.of(new TripOccupancy(2L, 7, 0)));
+
+        assertEquals(Map.of(1L, 5L, 2L, 7L), counters.occupiedSeats(List.of(1L, 2L, 3L)));
+        assertFalse(counters.isLoaded(3L));
+        assertEquals(2, counters.size());
+    }
+
+    @Test
+    @DisplayName("adjust debe contar asientos: un hold que pasa a ticket mueve el asiento de retenido a vendido")
+    void testAdjustHoldToSold() {
+        when(tripRepository.findOccupancyByIds(List.of(1L))).thenReturn(List.of(new TripOccupancy(1L, 5, 3)));
+        counters.occupiedSeats(1L);
+        rowsAfter(Map.of(4, 1L), Map.of());
+
+        counters.adjust(1L, List.of(new SeatRows(4, 1, -1)));
+
+        assertEquals(8, counters.occupiedSeats(1L));
+        verify(tripRepository).lockOccupancy(1L);
+        verify(tripRepository).adjustOccupancy(1L, 1, -1);
+    }
+
+    @Test
+    @DisplayName("Vender otro tramo de un asiento ya vendido o retenido no debe sumar un asiento")
+    void testAdjustSameSeatOtherSegment() {
+        when(tripRepository.findOccupancyByIds(List.of(1L))).thenReturn(List.of(new TripOccupancy(1L, 5, 3)));
+        counters.occupiedSeats(1L);
+        // Asiento 7 ya vendido en otro tramo, asiento 9 retenido en otro tramo y ahora vendido
+        rowsAfter(Map.of(7, 2L, 9, 1L), Map.of(9, 1L));
+
+        counters.adjust(1L, 7, 1, 0);
+        counters.adjust(1L, 9, 1, 0);
+        counters.adjust(1L, 3, 0, 0);
+
+        // El 9 pasa de retenido a vendido; el total no cambia
+        assertEquals(8, counters.occupiedSeats(1L));
+        verify(tripRepository).adjustOccupancy(1L, 1, -1);
+        verify(tripRepository, times(1)).adjustOccupancy(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Un ajuste que falla no debe mover los contadores en memoria")
+    void testAdjustFailure() {
+        when(tripRepository.findOccupancyByIds(List.of(1L))).thenReturn(List.of(new TripOccupancy(1L, 5, 0)));
+        counters.occupiedSeats(1L);
+        rowsAfter(Map.of(2, 1L), Map.of());
+        doThrow(new IllegalStateException("boom")).when(tripRepository).adjustOccupancy(1L, 1, 0);
+
+        assertThrows(IllegalStateException.class, () -> counters.adjust(1L, 2, 1, 0));
+
+        assertEquals(5, counters.occupiedSeats(1L));
+        assertTrue(counters.isLoaded(1L));
+    }
+
+    @Test
+    @DisplayName("Un viaje inexistente debe lanzar ResourceNotFoundException")
+    void testMissingTrip() {
+        when(tripRepository.findOccupancyByIds(List.of(9L))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> counters.occupiedSeats(9L));
+        assertFalse(counters.isLoaded(9L));
+        assertEquals(0, counters.size());
+    }
+
+    @Test
+    @DisplayName("Un ajuste confirmado durante la carga no debe perderse")
+    void testAdjustDuringLoad() {
+        // La venta confirma entre la lectura de trips y la publicación en memoria
+        rowsAfter(Map.of(1, 1L), Map.of());
+        when(tripRepository.findOccupancyByIds(List.of(1L)))
+                .thenAnswer(inv -> {
+                    counters.adjust(1L, 1, 1, 0);
+                    return List.of(new TripOccupancy(1L, 5, 0));
+                })
+                .thenReturn(List.of(new TripOccupancy(1L, 6, 0)));
+
+        assertEquals(5, counters.occupiedSeats(1L));
+        assertFalse(counters.isLoaded(1L));
+
+        assertEquals(6, counters.occupiedSeats(1L));
+        assertTrue(counters.isLoaded(1L));
+        rowsAfter(Map.of(2, 1L), Map.of());
+        counters.adjust(1L, 2, 1, 0);
+        assertEquals(7, counters.occupiedSeats(1L));
+    }
+
+    @Test
+    @DisplayName("Una carga con un ajuste sin confirmar no debe publicarse")
+    void testAdjustInFlightDuringLoad() {
+        when(tripRepository.findOccupancyByIds(List.of(1L))).thenReturn(List.of(new TripOccupancy(1L, 5, 0)));
+        rowsAfter(Map.of(1, 1L), Map.of());
+        TransactionSynchronizationManager.initSynchronization();
+        counters.adjust(1L, 1, 1, 0);
+
+        counters.occupiedSeats(1L);
+        assertFalse(counters.isLoaded(1L));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clear();
+        counters.occupiedSeats(1L);
+        assertTrue(counters.isLoaded(1L));
+    }
+
+    @Test
+    @DisplayName("Los contadores que no coinciden con trips o de viajes cerrados deben descartarse")
+    void testEviction() {
+        when(tripRepository.findOccupancyByIds(anyCollection())).thenAnswer(inv -> {
+            Long id = inv.<List<Long>>getArgument(0).get(0);
+            return List.of(new TripOccupancy(id, 5, 1));
+        });
+        counters.occupiedSeats(1L);
+        counters.occupiedSeats(2L);
+
+        assertFalse(counters.evictIfDiffers(1L, 5, 1));
+        assertTrue(counters.evictIfDiffers(1L, 6, 1));
+        assertFalse(counters.isLoaded(1L));
+
+        assertEquals(1, counters.evictAllExcept(Set.of(1L)));
+        assertEquals(0, counters.size());
+    }
+}
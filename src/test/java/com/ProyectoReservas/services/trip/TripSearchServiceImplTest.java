@@ -0,0 +1,96 @@
+package com.ProyectoReservas.services.trip;
+
+import com.ProyectoReservas.domain.entities.Route;
+import com.ProyectoReservas.domain.projections.TripCapacity;
+import com.ProyectoReservas.domain.repositories.RouteRepository;
+import com.ProyectoReservas.domain.repositories.TripRepository;
+import com.ProyectoReservas.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TripSearchServiceImplTest {
+
+    @Mock
+    private RouteRepository routeRepository;
+    @Mock
+    private TripRepository tripRepository;
+    @Mock
+    private TripOccupancyCounters occupancyCounters;
+
+    @InjectMocks
+    private TripSearchServiceImpl tripSearchService;
+
+    @Test
+    @DisplayName("El día debe traducirse a un rango semiabierto en la zona horaria de la ruta")
+    void testRouteTimeZoneRange() {
+        when(routeRepository.findById(1L)).thenReturn(Optional.of(Route.builder().id(1L).build()));
+        when(tripRepository.findAvailableTrips(eq(1L), any(), any())).thenReturn(List.of());
+
+        tripSearchService.findAvailableTrips(1L, LocalDate.of(2026, 3, 1));
+
+        verify(tripRepository).findAvailableTrips(1L,
+                OffsetDateTime.of(2026, 3, 1, 0, 0, 0, 0, ZoneOffset.ofHours(-5)),
+                OffsetDateTime.of(2026, 3, 2, 0, 0, 0, 0, ZoneOffset.ofHours(-5)));
+    }
+
+    @Test
+    @DisplayName("Un día con cambio de horario debe durar 23 horas")
+    void testDaylightSavingDay() {
+        when(routeRepository.findById(2L))
+                .thenReturn(Optional.of(Route.builder().id(2L).timeZone("Europe/Madrid").build()));
+        when(tripRepository.findAvailableTrips(eq(2L), any(), any())).thenReturn(List.of());
+
+        tripSearchService.findAvailableTrips(2L, LocalDate.of(2026, 3, 29));
+
+        verify(tripRepository).findAvailableTrips(2L,
+                OffsetDateTime.of(2026, 3, 29, 0, 0, 0, 0, ZoneOffset.ofHours(1)),
+                OffsetDateTime.of(2026, 3, 30, 0, 0, 0, 0, ZoneOffset.ofHours(2)));
+    }
+
+    @Test
+    @DisplayName("Una ruta inexistente debe lanzar ResourceNotFoundException")
+    void testMissingRoute() {
+        when(routeRepository.findById(3L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> tripSearchService.findAvailableTrips(3L, LocalDate.of(2026, 3, 1)));
+        verifyNoInteractions(tripRepository);
+    }
+
+    @Test
+    @DisplayName("El listado debe calcular los asientos libres con los contadores, sin bajar de cero")
+    void testSeatsLeftFromCounters() {
+        OffsetDateTime departure = OffsetDateTime.of(2026, 3, 1, 8, 0, 0, 0, ZoneOffset.ofHours(-5));
+        when(routeRepository.findById(1L)).thenReturn(Optional.of(Route.builder().id(1L).build()));
+        when(tripRepository.findAvailableTripCapacities(eq(1L), any(), any())).thenReturn(List.of(
+                new TripCapacity(10L, departure, departure.plusHours(4), 40),
+                new TripCapacity(11L, departure.plusHours(2), departure.plusHours(6), 20)));
+        when(occupancyCounters.occupiedSeats(List.of(10L, 11L))).thenReturn(Map.of(10L, 15L, 11L, 25L));
+
+        List<TripAvailability> trips = tripSearchService.searchTrips(1L, LocalDate.of(2026, 3, 1));
+
+        assertEquals(List.of(
+                new TripAvailability(10L, departure, departure.plusHours(4), 40, 25),
+                new TripAvailability(11L, departure.plusHours(2), departure.plusHours(6), 20, 0)), trips);
+        verify(tripRepository).findAvailableTripCapacities(1L,
+                OffsetDateTime.of(2026, 3, 1, 0, 0, 0, 0, ZoneOffset.ofHours(-5)),
+                OffsetDateTime.of(2026, 3, 2, 0, 0, 0, 0, ZoneOffset.ofHours(-5)));
+    }
+}
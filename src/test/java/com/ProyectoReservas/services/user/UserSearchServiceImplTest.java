@@ -0,0 +1,138 @@
+package com.ProyectoReservas.services.user;
+
+import com.ProyectoReservas.domain.entities.User;
+import com.ProyectoReservas.domain.repositories.UserRepository;
+import com.ProyectoReservas.exceptions.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserSearchServiceImpl userSearchService;
+
+    private static List<User> users(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> User.builder().id(id).build()).toList();
+    }
+
+    // TEST 1: validación
+    @Test
+    @DisplayName("Un texto de menos de 3 caracteres se rechaza sin consultar")
+    void rejectsShortText() {
+        BusinessException error = assertThrows(BusinessException.class,
+                () -> userSearchService.search(" an ", PageRequest.of(0, 20)));
+
+        assertEquals("SEARCH_QUERY_TOO_SHORT", error.getCode());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Un teléfono necesita 4 dígitos; un texto de 3 caracteres basta")
+    void phoneNeedsMoreDigitsThanText() {
+        when(userRepository.searchUsers(anyString(), anyInt(), anyInt())).thenReturn(List.of());
+
+        BusinessException error = assertThrows(BusinessException.class,
+                () -> userSearchService.search("3-10", PageRequest.of(0, 20)));
+
+        assertEquals("SEARCH_QUERY_TOO_SHORT", error.getCode());
+        assertNotNull(userSearchService.search("ana", PageRequest.of(0, 20)));
+        assertNotNull(userSearchService.search("3101", PageRequest.of(0, 20)));
+    }
+
+    @Test
+    @DisplayName("Un tamaño de página mayor al máximo se rechaza")
+    void rejectsLargePages() {
+        BusinessException error = assertThrows(BusinessException.class,
+                () -> userSearchService.search("carlos", PageRequest.of(0, 500)));
+
+        assertEquals("PAGE_SIZE_TOO_LARGE", error.getCode());
+        verifyNoInteractions(userRepository);
+    }
+
+    // TEST 2: paginación
+    @Test
+    @DisplayName("Pide una fila de más para saber si hay página siguiente")
+    void slicesWithOneExtraRow() {
+        when(userRepository.searchUsers("carlos", 11, 20)).thenReturn(users(11));
+
+        Slice<User> page = userSearchService.search("  carlos ", PageRequest.of(2, 10));
+
+        assertEquals(10, page.getNumberOfElements());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("La última página no tiene siguiente")
+    void lastPage() {
+        when(userRepository.searchUsers(eq("310 111"), eq(21), eq(0))).thenReturn(users(4));
+
+        Slice<User> page = userSearchService.search("310 111", PageRequest.of(0, 20));
+
+        assertEquals(4, page.getNumberOfElements());
+        assertFalse(page.hasNext());
+    }
+
+    // TEST 3: elección de la consulta en el repositorio
+    @Test
+    @DisplayName("Un teléfono busca en teléfono, nombre y email; el texto por trigramas, con LIKE escapado")
+    void repositoryChoosesQuery() {
+        UserRepository repository = mock(UserRepository.class, CALLS_REAL_METHODS);
+        doReturn(List.of()).when(repository).searchByPhonePrefix(anyString(), anyInt(), anyInt());
+        doReturn(List.of()).when(repository).searchByPhone(anyString(), anyString(), anyString(), anyInt(), anyInt());
+        doReturn(List.of()).when(repository).searchByText(anyString(), anyString(), anyInt(), anyInt());
+
+        repository.searchUsers("+57 (310) 111-2", 10, 0);
+        repository.searchUsers("  Ana María ", 10, 10);
+        repository.searchUsers("50%_desc", 10, 0);
+
+        verify(repository).searchByPhonePrefix("+573101112", 10, 0);
+        verify(repository).searchByPhone("+573101112", "%+573101112%", "%+57 (310) 111-2%", 10, 0);
+        verify(repository).searchByText("ana maría", "%ana maría%", 10, 10);
+        verify(repository).searchByText("50%_desc", "%50\\%\\_desc%", 10, 0);
+    }
+
+    // TEST 4: prefijo de teléfono primero
+    @Test
+    @DisplayName("Una página llena de prefijos no consulta por contenido; una incompleta se completa desde el inicio")
+    void phonePrefixFillsPageFirst() {
+        UserRepository repository = mock(UserRepository.class, CALLS_REAL_METHODS);
+        doReturn(users(10)).when(repository).searchByPhonePrefix("3101", 10, 0);
+        doReturn(users(4)).when(repository).searchByPhonePrefix("3101", 10, 10);
+        doReturn(users(6)).when(repository).searchByPhone(eq("3101"), anyString(), anyString(), eq(6), eq(0));
+
+        assertEquals(10, repository.searchUsers("3101", 10, 0).size());
+        verify(repository, never()).searchByPhone(anyString(), anyString(), anyString(), anyInt(), anyInt());
+
+        assertEquals(10, repository.searchUsers("3101", 10, 10).size());
+        verify(repository, never()).countByPhonePrefix(anyString());
+    }
+
+    @Test
+    @DisplayName("Pasados los prefijos, la búsqueda por contenido sigue donde terminaron")
+    void phoneContainmentContinuesAfterPrefixes() {
+        UserRepository repository = mock(UserRepository.class, CALLS_REAL_METHODS);
+        doReturn(List.of()).when(repository).searchByPhonePrefix("3101", 10, 20);
+        doReturn(14L).when(repository).countByPhonePrefix("3101");
+        doReturn(users(3)).when(repository).searchByPhone(eq("3101"), anyString(), anyString(), eq(10), eq(6));
+
+        assertEquals(3, repository.searchUsers("3101", 10, 20).size());
+        verify(repository).searchByPhone("3101", "%3101%", "%3101%", 10, 6);
+    }
+}